@@ -0,0 +1,46 @@
+package org.transactions.digitalwallettraining.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Tags the request thread with its caller (header, else remote address) so a caller's writes keep
+ * its following reads on the primary for the sticky window.
+ *
+ * Writes that run on a wallet command lane or the write-ahead log writer never see that tag, so any
+ * request that is not a plain read makes its caller sticky itself, again once the response is done.
+ */
+public class CallerRoutingFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final String callerHeader;
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    public CallerRoutingFilter(String callerHeader, ReadWriteRoutingDataSource routingDataSource) {
+        this.callerHeader = callerHeader;
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(callerHeader);
+        String caller = header != null && !header.isBlank() ? header : request.getRemoteAddr();
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        DataSourceRouting.setCaller(caller);
+        if (write) routingDataSource.stick(caller);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (write) routingDataSource.stick(caller);   // the window runs from the end of the write, as for markWrite
+            DataSourceRouting.clearCaller();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.transactions.digitalwallettraining.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing hints read by {@link ReadWriteRoutingDataSource}. Harmless no-ops when replica
+ * routing is disabled, so callers can use them unconditionally.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<String> CALLER = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    // ✅ Run work with every transaction it opens on the primary, read-only or not
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) FORCE_PRIMARY.remove();
+            else FORCE_PRIMARY.set(previous);
+        }
+    }
+
+    static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(FORCE_PRIMARY.get());
+    }
+
+    // Caller whose writes make its later reads sticky to the primary (set per request by CallerRoutingFilter)
+    public static void setCaller(String caller) {
+        CALLER.set(caller);
+    }
+
+    public static void clearCaller() {
+        CALLER.remove();
+    }
+
+    static String currentCaller() {
+        return CALLER.get();
+    }
+}
@@ -0,0 +1,73 @@
+package org.transactions.digitalwallettraining.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary + replica pools behind one routing DataSource (wallet.datasource.replica.enabled=true).
+ * The primary is built from spring.datasource.* and spring.datasource.hikari.* as usual; the replica
+ * has its own URL and pool size. With the flag off none of this exists and Boot's single pool is used.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "wallet.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        dataSource.setPoolName("wallet-primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(WalletReplicaProperties properties) {
+        if (properties.getUrl() == null)
+            throw new IllegalStateException("wallet.datasource.replica.url is required when replica routing is enabled.");
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("wallet-replica");
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        if (properties.getDriverClassName() != null) dataSource.setDriverClassName(properties.getDriverClassName());
+        dataSource.setMaximumPoolSize(properties.getMaxPoolSize());
+        dataSource.setMinimumIdle(properties.getMinIdle());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                               WalletReplicaProperties properties) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, properties);
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                                        ReplicaLagMonitor replicaLagMonitor, WalletReplicaProperties properties) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor, properties);
+    }
+
+    // What JPA and everything else injects: connections are fetched lazily, once the read-only flag is known
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<CallerRoutingFilter> callerRoutingFilter(WalletReplicaProperties properties,
+                                                                           ReadWriteRoutingDataSource routingDataSource) {
+        return new FilterRegistrationBean<>(new CallerRoutingFilter(properties.getCallerHeader(), routingDataSource));
+    }
+}
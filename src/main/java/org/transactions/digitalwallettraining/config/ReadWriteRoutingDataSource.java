@@ -0,0 +1,88 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ *
+ * A read-only transaction still goes to the primary when the replica is outside the lag tolerance,
+ * when the caller wrote within the sticky window (so it reads its own writes), or when the work runs
+ * under {@link DataSourceRouting#onPrimary}. The key is looked up when a connection is actually
+ * fetched, so this must sit behind a LazyConnectionDataSourceProxy: by the first statement the
+ * transaction's read-only flag is known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    // Callers tracked beyond this are swept for expired windows before a new one is added
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final WalletReplicaProperties properties;
+    private final LongSupplier clock;
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                      WalletReplicaProperties properties) {
+        this(primary, replica, lagMonitor, properties, System::currentTimeMillis);
+    }
+
+    ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                               WalletReplicaProperties properties, LongSupplier clock) {
+        this.lagMonitor = lagMonitor;
+        this.properties = properties;
+        this.clock = clock;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String caller = DataSourceRouting.currentCaller();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (caller != null && TransactionSynchronizationManager.isActualTransactionActive()) markWrite(caller);
+            return Target.PRIMARY;
+        }
+        if (DataSourceRouting.isPrimaryForced() || !lagMonitor.isReplicaUsable() || isSticky(caller)) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    // The window runs from when the write transaction finishes, so it also covers a slow commit
+    private void markWrite(String caller) {
+        stick(caller);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stick(caller);
+            }
+        });
+    }
+
+    // Also called by CallerRoutingFilter for write requests, whose writes may run on a thread without the caller
+    void stick(String caller) {
+        long now = clock.getAsLong();
+        if (stickyUntil.size() >= SWEEP_THRESHOLD) stickyUntil.values().removeIf(until -> until <= now);
+        stickyUntil.put(caller, now + properties.getStickyPrimaryMs());
+    }
+
+    private boolean isSticky(String caller) {
+        if (caller == null) return false;
+        Long until = stickyUntil.get(caller);
+        return until != null && until > clock.getAsLong();
+    }
+}
@@ -0,0 +1,90 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Measures replica lag with a heartbeat row: each beat reads the newest heartbeat the replica has,
+ * then writes the current time on the primary. Works with any replication that carries ordinary
+ * table writes; an unreachable replica, or one that never receives the row (e.g. two independent
+ * local H2 databases), simply counts as lagging.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String TABLE = "replica_heartbeat";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final WalletReplicaProperties properties;
+    private final LongSupplier clock;
+
+    private volatile long lagMs = Long.MAX_VALUE;
+    private volatile boolean usable = false;
+    private boolean tableReady = false;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, WalletReplicaProperties properties) {
+        this(primary, replica, properties, System::currentTimeMillis);
+    }
+
+    ReplicaLagMonitor(DataSource primary, DataSource replica, WalletReplicaProperties properties, LongSupplier clock) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    // ⏱️ Read the replica's newest heartbeat, then write a new one on the primary
+    @Scheduled(fixedDelayString = "${wallet.datasource.replica.heartbeat-ms:500}")
+    public synchronized void beat() {
+        long now = clock.getAsLong();
+        updateLag(now - replicaHeartbeat());
+        try {
+            if (!tableReady) {
+                primary.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+                tableReady = true;
+            }
+            if (primary.update("UPDATE " + TABLE + " SET beat_at = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO " + TABLE + " (id, beat_at) VALUES (1, ?)", now);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("💓 Could not write replica heartbeat on the primary: {}", ex.getMessage());
+        }
+    }
+
+    // ✅ True while the replica is known to be within the configured lag tolerance
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    private long replicaHeartbeat() {
+        try {
+            List<Long> beats = replica.queryForList("SELECT beat_at FROM " + TABLE + " WHERE id = 1", Long.class);
+            return beats.isEmpty() ? Long.MIN_VALUE / 2 : beats.get(0);
+        } catch (DataAccessException ex) {
+            return Long.MIN_VALUE / 2;   // unreachable, or the table has not replicated yet
+        }
+    }
+
+    private void updateLag(long lag) {
+        boolean nowUsable = lag <= properties.getMaxLagMs();
+        if (nowUsable != usable) {
+            if (nowUsable) log.info("📖 Replica within lag tolerance again, read-only transactions go to the replica");
+            else log.warn("📖 Replica lag above {} ms, read-only transactions fall back to the primary", properties.getMaxLagMs());
+        }
+        lagMs = Math.max(0, lag);
+        usable = nowUsable;
+    }
+}
@@ -0,0 +1,97 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.archive")
+public class WalletArchiveProperties {
+
+    // Off by default: archiving moves rows out of the database onto local disk
+    private boolean enabled = false;
+
+    // Where segment files are written; must be durable storage that survives redeploys
+    private String directory = "data/archive";
+
+    // Months kept in the transactions table, the current one included; older closed months are archived
+    private int hotMonths = 3;
+
+    // Rows per segment file (bounds the archiver's memory and the size of each delete transaction)
+    private int rowsPerSegment = 100_000;
+
+    // Ids per DELETE statement when an archived segment is removed from the hot table
+    private int deleteBatchSize = 1000;
+
+    // When the archiver runs (server time)
+    private String cron = "0 30 2 * * *";
+
+    // Lease on the job_locks row that keeps a pass to one instance; every committed segment renews it
+    private int lockLeaseMinutes = 30;
+
+    // Files without a manifest row are only swept once this old, so a segment still being written is never touched
+    private int orphanGraceMinutes = 60;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getHotMonths() {
+        return hotMonths;
+    }
+
+    public void setHotMonths(int hotMonths) {
+        this.hotMonths = hotMonths;
+    }
+
+    public int getRowsPerSegment() {
+        return rowsPerSegment;
+    }
+
+    public void setRowsPerSegment(int rowsPerSegment) {
+        this.rowsPerSegment = rowsPerSegment;
+    }
+
+    public int getDeleteBatchSize() {
+        return deleteBatchSize;
+    }
+
+    public void setDeleteBatchSize(int deleteBatchSize) {
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public int getLockLeaseMinutes() {
+        return lockLeaseMinutes;
+    }
+
+    public void setLockLeaseMinutes(int lockLeaseMinutes) {
+        this.lockLeaseMinutes = lockLeaseMinutes;
+    }
+
+    public int getOrphanGraceMinutes() {
+        return orphanGraceMinutes;
+    }
+
+    public void setOrphanGraceMinutes(int orphanGraceMinutes) {
+        this.orphanGraceMinutes = orphanGraceMinutes;
+    }
+}
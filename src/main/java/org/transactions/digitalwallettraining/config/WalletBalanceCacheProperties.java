@@ -0,0 +1,52 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.balance-cache")
+public class WalletBalanceCacheProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on the age of a cached balance; bounds staleness from writes made by other instances
+    private long ttlMs = 5_000;
+
+    // Least recently read wallets are evicted beyond this many entries
+    private int maxEntries = 100_000;
+
+    // Lock stripes (rounded up to a power of two); each holds an equal share of maxEntries
+    private int stripes = 64;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+}
@@ -0,0 +1,39 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.batch")
+public class WalletBatchProperties {
+
+    /**
+     * ALL_OR_NOTHING → the first rejected item rolls back the whole batch.
+     * SKIP_FAILED    → rejected items are reported and the rest is applied.
+     */
+    public enum FailurePolicy {
+        ALL_OR_NOTHING,
+        SKIP_FAILED
+    }
+
+    private FailurePolicy failurePolicy = FailurePolicy.ALL_OR_NOTHING;
+
+    // Upper bound on items accepted by one batch request
+    private int maxItems = 1000;
+
+    public FailurePolicy getFailurePolicy() {
+        return failurePolicy;
+    }
+
+    public void setFailurePolicy(FailurePolicy failurePolicy) {
+        this.failurePolicy = failurePolicy;
+    }
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    public void setMaxItems(int maxItems) {
+        this.maxItems = maxItems;
+    }
+}
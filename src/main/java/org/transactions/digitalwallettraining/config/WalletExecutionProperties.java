@@ -0,0 +1,61 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.execution")
+public class WalletExecutionProperties {
+
+    /**
+     * DIRECT  → every request runs its own transaction and races on the wallet version (default).
+     * QUEUED  → commands for one wallet are serialized through a single-writer lane first.
+     */
+    public enum Mode {
+        DIRECT,
+        QUEUED
+    }
+
+    private Mode mode = Mode.DIRECT;
+
+    // Number of single-writer lanes; each wallet id hashes to exactly one lane
+    private int lanes = 64;
+
+    // Max commands waiting in one lane before new ones are rejected
+    private int laneCapacity = 10_000;
+
+    // Apply CREDIT/DEBIT with one guarded UPDATE instead of load → validate → save
+    private boolean atomicUpdates = false;
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    public void setLanes(int lanes) {
+        this.lanes = lanes;
+    }
+
+    public int getLaneCapacity() {
+        return laneCapacity;
+    }
+
+    public void setLaneCapacity(int laneCapacity) {
+        this.laneCapacity = laneCapacity;
+    }
+
+    public boolean isAtomicUpdates() {
+        return atomicUpdates;
+    }
+
+    public void setAtomicUpdates(boolean atomicUpdates) {
+        this.atomicUpdates = atomicUpdates;
+    }
+}
@@ -0,0 +1,43 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.export")
+public class WalletExportProperties {
+
+    // Connections of the export-only pool; each running export holds one for its whole download
+    private int maxPoolSize = 2;
+
+    // Rows per round trip while an export streams (MySQL: server-side cursor, see useCursorFetch below)
+    private int fetchSize = 1000;
+
+    // Appended to a MySQL URL for the export pool only: makes Connector/J honour fetchSize instead of
+    // buffering the whole result, at the cost of server-side prepared statements on those connections
+    private boolean useCursorFetch = true;
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public boolean isUseCursorFetch() {
+        return useCursorFetch;
+    }
+
+    public void setUseCursorFetch(boolean useCursorFetch) {
+        this.useCursorFetch = useCursorFetch;
+    }
+}
@@ -0,0 +1,42 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.freeze")
+public class WalletFreezeProperties {
+
+    // How long a wallet stays frozen after reaching its daily limit
+    private long durationSeconds = 120;
+
+    // Timing wheel resolution: expiries fire at most this late, in one bulk UPDATE per tick
+    private long tickMs = 1000;
+
+    // Wheel slots; one lap = slots * tickMs, longer freezes just stay in their slot for extra laps
+    private int wheelSlots = 512;
+
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(long durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    public void setTickMs(long tickMs) {
+        this.tickMs = tickMs;
+    }
+
+    public int getWheelSlots() {
+        return wheelSlots;
+    }
+
+    public void setWheelSlots(int wheelSlots) {
+        this.wheelSlots = wheelSlots;
+    }
+}
@@ -0,0 +1,50 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.idempotency")
+public class WalletIdempotencyProperties {
+
+    private boolean enabled = true;
+
+    // Bloom filter sizing: expected number of transaction ids and acceptable false-positive rate
+    private long expectedIds = 1_000_000;
+    private double falsePositiveRate = 0.01;
+
+    // How many recent id → response pairs to keep for instant replay answers
+    private int recentCapacity = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpectedIds() {
+        return expectedIds;
+    }
+
+    public void setExpectedIds(long expectedIds) {
+        this.expectedIds = expectedIds;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public int getRecentCapacity() {
+        return recentCapacity;
+    }
+
+    public void setRecentCapacity(int recentCapacity) {
+        this.recentCapacity = recentCapacity;
+    }
+}
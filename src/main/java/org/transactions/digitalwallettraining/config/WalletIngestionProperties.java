@@ -0,0 +1,63 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.ingestion")
+public class WalletIngestionProperties {
+
+    // Concurrent partitions; each wallet id always lands in the same partition
+    private int partitions = 16;
+
+    // Max rows handed to WalletService.processBatch for one wallet at a time
+    private int chunkSize = 500;
+
+    // Max rows buffered across all partitions before the reader blocks
+    private int maxInFlight = 20_000;
+
+    // Attempts per wallet chunk when it fails for a transient reason (conflict, busy lane or log);
+    // the wait before each retry starts at retryBackoffMs and doubles
+    private int retryAttempts = 5;
+    private long retryBackoffMs = 100;
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getRetryAttempts() {
+        return retryAttempts;
+    }
+
+    public void setRetryAttempts(int retryAttempts) {
+        this.retryAttempts = retryAttempts;
+    }
+
+    public long getRetryBackoffMs() {
+        return retryBackoffMs;
+    }
+
+    public void setRetryBackoffMs(long retryBackoffMs) {
+        this.retryBackoffMs = retryBackoffMs;
+    }
+}
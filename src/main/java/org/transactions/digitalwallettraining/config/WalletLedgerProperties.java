@@ -0,0 +1,60 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.ledger")
+public class WalletLedgerProperties {
+
+    /**
+     * MUTABLE        → wallets.balance is updated in place on every operation (default).
+     * EVENT_SOURCED  → operations only append to the transactions journal; wallets.balance is a
+     *                  snapshot that the background snapshotter advances, balance = snapshot + pending tail.
+     */
+    public enum Mode {
+        MUTABLE,
+        EVENT_SOURCED
+    }
+
+    private Mode mode = Mode.MUTABLE;
+
+    // How often the snapshotter folds pending journal rows into wallets.balance
+    private long snapshotIntervalMs = 1000;
+
+    // Work done per snapshotter pass: wallets visited and journal rows folded per wallet
+    private int snapshotWalletsPerPass = 100;
+    private int snapshotRowsPerWallet = 5000;
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public long getSnapshotIntervalMs() {
+        return snapshotIntervalMs;
+    }
+
+    public void setSnapshotIntervalMs(long snapshotIntervalMs) {
+        this.snapshotIntervalMs = snapshotIntervalMs;
+    }
+
+    public int getSnapshotWalletsPerPass() {
+        return snapshotWalletsPerPass;
+    }
+
+    public void setSnapshotWalletsPerPass(int snapshotWalletsPerPass) {
+        this.snapshotWalletsPerPass = snapshotWalletsPerPass;
+    }
+
+    public int getSnapshotRowsPerWallet() {
+        return snapshotRowsPerWallet;
+    }
+
+    public void setSnapshotRowsPerWallet(int snapshotRowsPerWallet) {
+        this.snapshotRowsPerWallet = snapshotRowsPerWallet;
+    }
+}
@@ -0,0 +1,123 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.datasource.replica")
+public class WalletReplicaProperties {
+
+    // Off → one datasource for everything (spring.datasource.*), exactly as before
+    private boolean enabled = false;
+
+    // Replica connection; the primary keeps using spring.datasource.*
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+
+    // Replica pool sizing, independent of spring.datasource.hikari.*
+    private int maxPoolSize = 10;
+    private int minIdle = 2;
+
+    // Read-only transactions go to the primary while the replica's newest heartbeat is older than this
+    // (keep it above heartbeatMs: even a fully caught-up replica is up to one heartbeat behind)
+    private long maxLagMs = 2_000;
+
+    // How often the heartbeat row is written on the primary and read back from the replica
+    private long heartbeatMs = 500;
+
+    // After a caller's write commits, its read-only transactions stay on the primary for this long
+    private long stickyPrimaryMs = 3_000;
+
+    // Request header identifying a caller for the sticky window (falls back to the remote address)
+    private String callerHeader = "X-Client-Id";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getDriverClassName() {
+        return driverClassName;
+    }
+
+    public void setDriverClassName(String driverClassName) {
+        this.driverClassName = driverClassName;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public long getMaxLagMs() {
+        return maxLagMs;
+    }
+
+    public void setMaxLagMs(long maxLagMs) {
+        this.maxLagMs = maxLagMs;
+    }
+
+    public long getHeartbeatMs() {
+        return heartbeatMs;
+    }
+
+    public void setHeartbeatMs(long heartbeatMs) {
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    public long getStickyPrimaryMs() {
+        return stickyPrimaryMs;
+    }
+
+    public void setStickyPrimaryMs(long stickyPrimaryMs) {
+        this.stickyPrimaryMs = stickyPrimaryMs;
+    }
+
+    public String getCallerHeader() {
+        return callerHeader;
+    }
+
+    public void setCallerHeader(String callerHeader) {
+        this.callerHeader = callerHeader;
+    }
+}
@@ -0,0 +1,53 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.spend-window")
+public class WalletSpendWindowProperties {
+
+    // Length of the sliding "daily" spend window checked against the daily limit
+    private long windowSeconds = 120;
+
+    // Granularity of the window: spend older than windowSeconds drops out one bucket at a time
+    private long bucketSeconds = 5;
+
+    // Upper bound on tracked wallets; idle ones are evicted first and reloaded from the journal on next use
+    private int maxWallets = 100_000;
+
+    // Lock stripes over the wallet map (rounded up to a power of two)
+    private int stripes = 64;
+
+    public long getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(long windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    public long getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    public void setBucketSeconds(long bucketSeconds) {
+        this.bucketSeconds = bucketSeconds;
+    }
+
+    public int getMaxWallets() {
+        return maxWallets;
+    }
+
+    public void setMaxWallets(int maxWallets) {
+        this.maxWallets = maxWallets;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+}
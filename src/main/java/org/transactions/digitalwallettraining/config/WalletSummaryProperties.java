@@ -0,0 +1,51 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.summary")
+public class WalletSummaryProperties {
+
+    // How often the projector folds newly committed ledger lines into wallet_summaries
+    private long projectIntervalMs = 1000;
+
+    // Work done per projector pass: wallets visited and ledger lines folded per wallet
+    private int walletsPerPass = 200;
+    private int rowsPerWallet = 5000;
+
+    // Seed wallet_summaries on startup when it is empty but wallets exist (first deploy)
+    private boolean rebuildIfEmpty = true;
+
+    public long getProjectIntervalMs() {
+        return projectIntervalMs;
+    }
+
+    public void setProjectIntervalMs(long projectIntervalMs) {
+        this.projectIntervalMs = projectIntervalMs;
+    }
+
+    public int getWalletsPerPass() {
+        return walletsPerPass;
+    }
+
+    public void setWalletsPerPass(int walletsPerPass) {
+        this.walletsPerPass = walletsPerPass;
+    }
+
+    public int getRowsPerWallet() {
+        return rowsPerWallet;
+    }
+
+    public void setRowsPerWallet(int rowsPerWallet) {
+        this.rowsPerWallet = rowsPerWallet;
+    }
+
+    public boolean isRebuildIfEmpty() {
+        return rebuildIfEmpty;
+    }
+
+    public void setRebuildIfEmpty(boolean rebuildIfEmpty) {
+        this.rebuildIfEmpty = rebuildIfEmpty;
+    }
+}
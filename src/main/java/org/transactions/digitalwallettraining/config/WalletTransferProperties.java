@@ -0,0 +1,101 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.transfer")
+public class WalletTransferProperties {
+
+    /**
+     * OPTIMISTIC  → load both wallets and rely on @Version (default).
+     * PESSIMISTIC → lock both rows in one SELECT ... FOR UPDATE ordered by wallet id,
+     *               so opposite transfers (A→B, B→A) queue instead of deadlocking.
+     */
+    public enum Locking {
+        OPTIMISTIC,
+        PESSIMISTIC
+    }
+
+    private Locking locking = Locking.OPTIMISTIC;
+
+    /**
+     * PAIRED_ROWS  → two TransactionEntity rows with "<id>-D" / "<id>-C" ids (default).
+     * DOUBLE_ENTRY → one journal entry keyed by the transfer id, with a debit and a credit posting.
+     */
+    public enum Journal {
+        PAIRED_ROWS,
+        DOUBLE_ENTRY
+    }
+
+    private Journal journal = Journal.PAIRED_ROWS;
+
+    // Queue-backed transfers submitted via POST /wallets/transfers
+    private final Async async = new Async();
+
+    public static class Async {
+
+        // Run the background workers that drain transfer_requests
+        private boolean enabled = true;
+
+        // Concurrent workers per poll; each claims its own batch with SKIP LOCKED
+        private int workers = 4;
+
+        // Max requests one worker claims per poll
+        private int batchSize = 50;
+
+        private long pollIntervalMs = 200;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+    }
+
+    public Locking getLocking() {
+        return locking;
+    }
+
+    public void setLocking(Locking locking) {
+        this.locking = locking;
+    }
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+}
@@ -0,0 +1,75 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.wal")
+public class WalletWalProperties {
+
+    // Off by default: CREDIT/DEBIT and transfers commit straight to the database
+    private boolean enabled = false;
+
+    // Memory-mapped log file; must live on local durable storage, one file per instance
+    private String path = "data/wallet.wal";
+
+    // Size of the mapped file; the log rewinds to the start once everything in it is applied
+    private int fileSizeBytes = 64 * 1024 * 1024;
+
+    // Most operations made durable by one force() and applied by one database transaction
+    private int maxBatch = 512;
+
+    // Operations waiting for the writer before new ones are rejected
+    private int queueCapacity = 50_000;
+
+    // How long a caller waits for its acknowledgement
+    private long ackTimeoutMs = 5_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public int getFileSizeBytes() {
+        return fileSizeBytes;
+    }
+
+    public void setFileSizeBytes(int fileSizeBytes) {
+        this.fileSizeBytes = fileSizeBytes;
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+
+    public void setMaxBatch(int maxBatch) {
+        this.maxBatch = maxBatch;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getAckTimeoutMs() {
+        return ackTimeoutMs;
+    }
+
+    public void setAckTimeoutMs(long ackTimeoutMs) {
+        this.ackTimeoutMs = ackTimeoutMs;
+    }
+}
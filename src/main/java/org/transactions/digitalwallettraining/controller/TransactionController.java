@@ -5,16 +5,25 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.transactions.digitalwallettraining.dto.IngestionResultDTO;
+import org.transactions.digitalwallettraining.dto.TransactionHistorySliceDTO;
 import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
 import org.transactions.digitalwallettraining.dto.WalletTransactionResponseDTO;
 import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.service.TransactionProcessor;
 import org.transactions.digitalwallettraining.service.TransactionService;
+import org.transactions.digitalwallettraining.utils.TransactionUtils;
 import org.transactions.digitalwallettraining.service.WalletService;
 
 import jakarta.validation.Valid;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -26,9 +35,11 @@ public class TransactionController {
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
 
     private final TransactionService transactionService;
+    private final TransactionProcessor transactionProcessor;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, TransactionProcessor transactionProcessor) {
         this.transactionService = transactionService;
+        this.transactionProcessor = transactionProcessor;
     }
 
     // ✅ Paginated & filtered transaction history
@@ -47,4 +58,34 @@ public class TransactionController {
 
         return ResponseEntity.ok(transactions);
     }
+
+    // ✅ Cursor-paged history: pass back nextCursor for the following page; total only on request
+    @GetMapping("/history/cursor")
+    public ResponseEntity<TransactionHistorySliceDTO> getTransactionHistoryAfter(
+            @RequestParam Long walletId,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) LocalDateTime startDate,
+            @RequestParam(required = false) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        return ResponseEntity.ok(transactionService.getTransactionHistoryAfter(
+                walletId, type, startDate, endDate, cursor, size, includeTotal));
+    }
+
+    // ✅ Bulk import: CSV body "walletId,transactionId,type,amount,description", streamed line by line
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain"})
+    public ResponseEntity<IngestionResultDTO> importTransactions(HttpServletRequest request) throws IOException {
+        logger.info("Starting bulk transaction import");
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            IngestionResultDTO result = transactionProcessor.ingest(reader.lines()
+                    .filter(line -> !line.isBlank() && !line.startsWith("walletId"))
+                    .map(TransactionUtils::fromCsvLine));
+            logger.info("Bulk import done: received={}, applied={}, rejected={}, invalid={}",
+                    result.received(), result.applied(), result.rejected(), result.invalid());
+            return ResponseEntity.ok(result);
+        }
+    }
 }
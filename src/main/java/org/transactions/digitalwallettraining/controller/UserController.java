@@ -3,6 +3,8 @@ package org.transactions.digitalwallettraining.controller;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.transactions.digitalwallettraining.dto.UserRequestDTO;
@@ -34,15 +36,24 @@ public class UserController {
 
     // Get all users
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        logger.info("Fetching all users");
+    public ResponseEntity<Page<UserResponseDTO>> getAllUsers(@RequestParam(defaultValue = "0") int page,
+                                                             @RequestParam(defaultValue = "50") int size) {
+        logger.info("Fetching users page {}", page);
 
-        List<UserResponseDTO> users = userService.getAllUsers();
+        Page<UserResponseDTO> users = userService.getAllUsers(PageRequest.of(page, size));
 
-        logger.debug("Number of users retrieved: {}", users.size());
+        logger.debug("Number of users retrieved: {}", users.getNumberOfElements());
         return ResponseEntity.ok(users);
     }
 
+    // Users with at least one wallet above minBalance (dashboard, served from wallet summaries)
+    @GetMapping("/high-balance")
+    public ResponseEntity<List<UserResponseDTO>> getUsersWithHighBalanceWallets(
+            @RequestParam(defaultValue = "5000") double minBalance) {
+        logger.info("Fetching users with wallets above {}", minBalance);
+        return ResponseEntity.ok(userService.getUsersWithHighBalanceWallets(minBalance));
+    }
+
     // Get user by ID
     @GetMapping("/{userId}")
     public ResponseEntity<UserResponseDTO> getUser(@PathVariable Long userId) {
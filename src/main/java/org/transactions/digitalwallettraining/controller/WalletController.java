@@ -3,15 +3,35 @@ package org.transactions.digitalwallettraining.controller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.transactions.digitalwallettraining.config.WalletBatchProperties;
 import org.transactions.digitalwallettraining.dto.*;
+import org.transactions.digitalwallettraining.service.ConflictRetryCoordinator;
+import org.transactions.digitalwallettraining.service.FrozenWalletRegistry;
+import org.transactions.digitalwallettraining.service.HotWalletService;
+import org.transactions.digitalwallettraining.service.TransactionExportService;
+import org.transactions.digitalwallettraining.service.TransferQueueService;
+import org.transactions.digitalwallettraining.service.WalletBalanceCache;
+import org.transactions.digitalwallettraining.service.WalletCommandQueue;
+import org.transactions.digitalwallettraining.service.WalletRollupService;
 import org.transactions.digitalwallettraining.service.WalletService;
+import org.transactions.digitalwallettraining.service.WalletSummaryProjector;
+import org.transactions.digitalwallettraining.service.WalletSummaryService;
+import org.transactions.digitalwallettraining.service.WalletTransferService;
+import org.transactions.digitalwallettraining.service.WalletWriteAheadLog;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -20,9 +40,40 @@ public class WalletController {
 
     private static final Logger log = LoggerFactory.getLogger(WalletController.class);
     private final WalletService walletService;
+    private final WalletCommandQueue walletCommandQueue;
+    private final WalletTransferService walletTransferService;
+    private final TransferQueueService transferQueueService;
+    private final ConflictRetryCoordinator retryCoordinator;
+    private final HotWalletService hotWalletService;
+    private final FrozenWalletRegistry frozenWalletRegistry;
+    private final WalletBalanceCache balanceCache;
+    private final WalletSummaryService walletSummaryService;
+    private final WalletSummaryProjector walletSummaryProjector;
+    private final TransactionExportService transactionExportService;
+    private final WalletRollupService walletRollupService;
+    private final WalletWriteAheadLog writeAheadLog;
 
-    public WalletController(WalletService walletService) {
+    public WalletController(WalletService walletService, WalletCommandQueue walletCommandQueue,
+                            WalletTransferService walletTransferService, TransferQueueService transferQueueService,
+                            ConflictRetryCoordinator retryCoordinator, HotWalletService hotWalletService,
+                            FrozenWalletRegistry frozenWalletRegistry, WalletBalanceCache balanceCache,
+                            WalletSummaryService walletSummaryService, WalletSummaryProjector walletSummaryProjector,
+                            TransactionExportService transactionExportService,
+                            WalletRollupService walletRollupService,
+                            WalletWriteAheadLog writeAheadLog) {
         this.walletService = walletService;
+        this.walletCommandQueue = walletCommandQueue;
+        this.walletTransferService = walletTransferService;
+        this.transferQueueService = transferQueueService;
+        this.retryCoordinator = retryCoordinator;
+        this.hotWalletService = hotWalletService;
+        this.frozenWalletRegistry = frozenWalletRegistry;
+        this.balanceCache = balanceCache;
+        this.walletSummaryService = walletSummaryService;
+        this.walletSummaryProjector = walletSummaryProjector;
+        this.transactionExportService = transactionExportService;
+        this.walletRollupService = walletRollupService;
+        this.writeAheadLog = writeAheadLog;
     }
 
     // 🔹 Create wallet manually (if needed)
@@ -50,11 +101,48 @@ public class WalletController {
 
         log.info("Processing {} transaction for walletId={} with amount={}",
                 request.type(), walletId, request.amount());
-        WalletTransactionResponseDTO txn = walletService.processTransaction(walletId, request);
+        frozenWalletRegistry.rejectIfFrozen(walletId);   // 🧊 no transaction, no entity load
+        // 📝 With the WAL on, the reply means "durable in the log"; the database catches up right after
+        WalletTransactionResponseDTO txn = writeAheadLog.isEnabled()
+                ? writeAheadLog.processTransaction(walletId, request)
+                : walletCommandQueue.execute(walletId, () -> walletService.processTransaction(walletId, request));
         log.info("{} transaction completed for walletId={}, txnId={}", request.type(), walletId, txn.transactionId());
         return ResponseEntity.status(201).body(txn);
     }
 
+    // 🔹 Process many CREDIT / DEBIT items for one wallet in a single transaction
+    @PostMapping("/{walletId}/transactions/batch")
+    public ResponseEntity<WalletBatchResponseDTO> processBatch(
+            @PathVariable Long walletId,
+            @RequestBody List<WalletTransactionRequestDTO> requests,
+            @RequestParam(required = false) WalletBatchProperties.FailurePolicy policy) {
+
+        log.info("Processing batch of {} transactions for walletId={} (policy={})",
+                requests.size(), walletId, policy);
+        frozenWalletRegistry.rejectIfFrozen(walletId);
+        WalletBatchResponseDTO result = walletCommandQueue.execute(walletId,
+                () -> writeAheadLog.exclusive(() -> walletService.processBatch(walletId, requests, policy)));
+        log.info("Batch completed for walletId={}: applied={}, rejected={}",
+                walletId, result.applied(), result.rejected());
+        return ResponseEntity.ok(result);
+    }
+
+    // 🔹 Debit / credit totals over whole days, summed from the daily rollups
+    @GetMapping("/{walletId}/activity")
+    public ResponseEntity<WalletStatementDTO> getActivity(
+            @PathVariable Long walletId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(walletRollupService.getActivity(walletId, from, to));
+    }
+
+    // 🔹 Monthly statement, e.g. /wallets/7/statements/2025-03
+    @GetMapping("/{walletId}/statements/{month}")
+    public ResponseEntity<WalletStatementDTO> getMonthlyStatement(@PathVariable Long walletId,
+                                                                  @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(walletRollupService.getMonthlyStatement(walletId, month));
+    }
+
     // 🔹 List all transactions for a wallet
     @GetMapping("/{walletId}/list-transactions")
     public ResponseEntity<List<WalletTransactionResponseDTO>> listTransactions(@PathVariable Long walletId) {
@@ -63,18 +151,34 @@ public class WalletController {
         return ResponseEntity.ok(list);
     }
 
+    // 🔹 Full history download (NDJSON or CSV), streamed row by row instead of built as one list
+    @GetMapping("/{walletId}/transactions/export")
+    public void exportTransactions(@PathVariable Long walletId,
+                                   @RequestParam(defaultValue = "ndjson") String format,
+                                   HttpServletResponse response) throws IOException {
+        TransactionExportService.Format exportFormat = TransactionExportService.Format.parse(format);
+        transactionExportService.requireWallet(walletId);
+        log.info("Exporting transactions for walletId={} as {}", walletId, exportFormat);
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"wallet-" + walletId + "-transactions." + exportFormat.getExtension() + "\"");
+        transactionExportService.export(walletId, exportFormat, response.getOutputStream());
+    }
+
     // 🔹 Transfer money between wallets
     @PostMapping("/transfer")
     public ResponseEntity<WalletTransactionResponseDTO> transferMoney(
             @RequestBody @Valid WalletTransferRequestDTO request) {
         log.info("Received transfer request: {} → {} | amount={}",
                 request.fromWalletId(), request.toWalletId(), request.amount());
+        frozenWalletRegistry.rejectIfFrozen(request.fromWalletId());
+        frozenWalletRegistry.rejectIfFrozen(request.toWalletId());
 
-        WalletTransactionResponseDTO response = walletService.transferMoney(
-                request.fromWalletId(),
-                request.toWalletId(),
-                request.amount()
-        );
+        WalletTransactionResponseDTO response = writeAheadLog.isEnabled()
+                ? writeAheadLog.transfer(request.fromWalletId(), request.toWalletId(), request.amount())
+                : walletTransferService.transfer(request.fromWalletId(), request.toWalletId(), request.amount());
 
         log.info("Transfer processed successfully between {} and {}",
                 request.fromWalletId(), request.toWalletId());
@@ -82,6 +186,95 @@ public class WalletController {
         return ResponseEntity.status(201).body(response);
     }
 
+    // 🔹 Queue a transfer and return immediately; poll its status with the returned id
+    @PostMapping("/transfers")
+    public ResponseEntity<TransferStatusDTO> submitTransfer(@RequestBody @Valid WalletTransferRequestDTO request) {
+        log.info("Queueing transfer request: {} → {} | amount={}",
+                request.fromWalletId(), request.toWalletId(), request.amount());
+        TransferStatusDTO status = transferQueueService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/wallets/transfers/" + status.transferId()))
+                .body(status);
+    }
+
+    // 🔹 Status of a queued transfer
+    @GetMapping("/transfers/{transferId}")
+    public ResponseEntity<TransferStatusDTO> getTransferStatus(@PathVariable String transferId) {
+        log.info("Fetching status of transfer {}", transferId);
+        return ResponseEntity.ok(transferQueueService.getStatus(transferId));
+    }
+
+    // 🔹 Journal entry (transfer) with its postings
+    @GetMapping("/journal/{entryId}")
+    public ResponseEntity<JournalEntryDTO> getJournalEntry(@PathVariable String entryId) {
+        log.info("Fetching journal entry {}", entryId);
+        return ResponseEntity.ok(walletService.getJournalEntry(entryId));
+    }
+
+    // 🔹 Reverse a journal transfer
+    @PostMapping("/journal/{entryId}/reversal")
+    public ResponseEntity<JournalEntryDTO> reverseTransfer(@PathVariable String entryId) {
+        log.info("Reversing journal entry {}", entryId);
+        JournalEntryDTO reversal = writeAheadLog.exclusive(() -> walletService.reverseTransfer(entryId));
+        log.info("Journal entry {} reversed by {}", entryId, reversal.entryId());
+        return ResponseEntity.status(201).body(reversal);
+    }
+
+    // 🔹 Spread a wallet's balance over N slot rows (0 = back to a single row)
+    @PutMapping("/{walletId}/hot-slots")
+    public ResponseEntity<WalletResponseDTO> configureHotSlots(@PathVariable Long walletId, @RequestParam int slots) {
+        log.info("Setting hot slots for walletId={} to {}", walletId, slots);
+        WalletResponseDTO wallet = walletCommandQueue.execute(walletId,
+                () -> hotWalletService.configure(walletId, slots));
+        return ResponseEntity.ok(wallet);
+    }
+
+    // 🔹 Conflict / retry counters per operation
+    @GetMapping("/metrics/retries")
+    public ResponseEntity<List<RetryStatsDTO>> getRetryStats() {
+        return ResponseEntity.ok(retryCoordinator.getStats());
+    }
+
+    // 🔹 Balance cache hit / miss / eviction counters
+    @GetMapping("/metrics/balance-cache")
+    public ResponseEntity<BalanceCacheStatsDTO> getBalanceCacheStats() {
+        return ResponseEntity.ok(balanceCache.getStats());
+    }
+
+    // 🔹 Write-ahead log: records logged / applied and how many share one force()
+    @GetMapping("/metrics/wal")
+    public ResponseEntity<WalStatsDTO> getWalStats() {
+        return ResponseEntity.ok(writeAheadLog.getStats());
+    }
+
+    // 🔹 Summary projection lag (pending ledger lines, age of the oldest one)
+    @GetMapping("/metrics/projection")
+    public ResponseEntity<ProjectionStatsDTO> getProjectionStats() {
+        return ResponseEntity.ok(walletSummaryProjector.getStats());
+    }
+
+    // 🔹 Dashboard: per-wallet balance, line count and debit/credit totals
+    @GetMapping("/summaries")
+    public ResponseEntity<List<WalletSummaryDTO>> getWalletSummaries() {
+        return ResponseEntity.ok(walletSummaryService.getSummaries());
+    }
+
+    @GetMapping("/summaries/above-average")
+    public ResponseEntity<List<WalletSummaryDTO>> getAboveAverageBalance() {
+        return ResponseEntity.ok(walletSummaryService.getAboveAverageBalance());
+    }
+
+    @GetMapping("/summaries/active")
+    public ResponseEntity<List<WalletSummaryDTO>> getActiveWallets(@RequestParam(defaultValue = "5") long minTransactions) {
+        return ResponseEntity.ok(walletSummaryService.getWithMoreThanTransactions(minTransactions));
+    }
+
+    // 🔹 Rebuild the summary table from the ledger; the projector refills it in the background
+    @PostMapping("/summaries/rebuild")
+    public ResponseEntity<Integer> rebuildSummaries() {
+        log.info("Rebuilding wallet summaries");
+        return ResponseEntity.accepted().body(walletSummaryService.rebuild());
+    }
 
     // 🔹 Get wallet details (includes user info, balance, and status)
     @GetMapping("/{walletId}")
@@ -92,10 +285,11 @@ public class WalletController {
     }
     // 🔹 Get All Wallets
     @GetMapping
-    public ResponseEntity<List<WalletResponseDTO>> getAllWallets() {
-        log.info("Fetching all wallets");
-        List<WalletResponseDTO> wallets = walletService.getAllWallets();
-        log.info("Retrieved {} wallets", wallets.size());
+    public ResponseEntity<Page<WalletResponseDTO>> getAllWallets(@RequestParam(defaultValue = "0") int page,
+                                                                 @RequestParam(defaultValue = "50") int size) {
+        log.info("Fetching wallets page {}", page);
+        Page<WalletResponseDTO> wallets = walletService.getAllWallets(PageRequest.of(page, size));
+        log.info("Retrieved {} of {} wallets", wallets.getNumberOfElements(), wallets.getTotalElements());
         return ResponseEntity.ok(wallets);
     }
 
@@ -0,0 +1,20 @@
+package org.transactions.digitalwallettraining.dto;
+
+import org.transactions.digitalwallettraining.entity.TransactionType;
+
+import java.time.LocalDateTime;
+
+// One transaction row on its way into (or back out of) an archive segment
+public record ArchivedTransactionDTO(
+        long id,
+        long walletId,
+        TransactionType type,
+        long amountMinor,
+        LocalDateTime transactionDate,
+        String transactionId,
+        String description
+) {
+    public LedgerLineDTO toLedgerLine() {
+        return new LedgerLineDTO(transactionId, amountMinor, type, transactionDate, description);
+    }
+}
@@ -0,0 +1,9 @@
+package org.transactions.digitalwallettraining.dto;
+
+public record BalanceCacheStatsDTO(
+        long hits,
+        long misses,
+        long evictions,      // entries dropped for size or age
+        long invalidations,  // committed writes that dropped an entry
+        int size
+) {}
@@ -0,0 +1,17 @@
+package org.transactions.digitalwallettraining.dto;
+
+import java.time.LocalDate;
+
+// One day of a wallet's ledger activity in minor units (JPQL constructor expression over lines or rollups)
+public record DailyActivityDTO(
+        LocalDate day,
+        long debitsMinor,
+        long creditsMinor,
+        long debitCount,
+        long creditCount
+) {
+    public DailyActivityDTO plus(DailyActivityDTO other) {
+        return new DailyActivityDTO(day, debitsMinor + other.debitsMinor, creditsMinor + other.creditsMinor,
+                debitCount + other.debitCount, creditCount + other.creditCount);
+    }
+}
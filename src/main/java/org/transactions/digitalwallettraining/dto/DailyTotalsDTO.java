@@ -0,0 +1,11 @@
+package org.transactions.digitalwallettraining.dto;
+
+import java.time.LocalDate;
+
+public record DailyTotalsDTO(
+        LocalDate day,
+        Double debits,
+        Double credits,
+        long debitCount,
+        long creditCount
+) {}
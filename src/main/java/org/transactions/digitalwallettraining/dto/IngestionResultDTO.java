@@ -0,0 +1,12 @@
+package org.transactions.digitalwallettraining.dto;
+
+public record IngestionResultDTO(
+        long received,
+        long applied,
+        long rejected,          // valid rows the wallet service refused (balance, limit, frozen, ...)
+        long invalid,           // rows that failed basic validation and were never submitted
+        double totalCredits,
+        double totalDebits,
+        long elapsedMillis,
+        double throughputPerSecond
+) {}
@@ -0,0 +1,13 @@
+package org.transactions.digitalwallettraining.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record JournalEntryDTO(
+        String entryId,
+        String kind,                // TRANSFER or REVERSAL
+        String description,
+        LocalDateTime createdAt,
+        String reversesEntryId,
+        List<JournalPostingDTO> postings
+) {}
@@ -0,0 +1,6 @@
+package org.transactions.digitalwallettraining.dto;
+
+public record JournalPostingDTO(
+        Long walletId,
+        Double amount       // negative = debit leg, positive = credit leg
+) {}
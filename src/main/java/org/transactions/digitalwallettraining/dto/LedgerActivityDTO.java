@@ -0,0 +1,11 @@
+package org.transactions.digitalwallettraining.dto;
+
+import java.time.LocalDateTime;
+
+// Aggregate of a batch of ledger lines (transaction rows or journal postings), amounts in minor units
+public record LedgerActivityDTO(
+        Long lines,
+        Long debitsMinor,
+        Long creditsMinor,
+        LocalDateTime lastActivity
+) {}
@@ -0,0 +1,25 @@
+package org.transactions.digitalwallettraining.dto;
+
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import java.time.LocalDateTime;
+
+// One line of a wallet's history as a flat row (JPQL constructor expression, never a managed entity)
+public record LedgerLineDTO(
+        String transactionId,
+        long amountMinor,
+        TransactionType type,
+        LocalDateTime timestamp,
+        String description
+) {
+    // Journal posting: the sign of the amount decides DEBIT / CREDIT
+    public LedgerLineDTO(String entryId, long signedAmountMinor, LocalDateTime createdAt, String description) {
+        this(entryId, Math.abs(signedAmountMinor),
+                signedAmountMinor < 0 ? TransactionType.DEBIT : TransactionType.CREDIT, createdAt, description);
+    }
+
+    public WalletTransactionResponseDTO toResponse() {
+        return new WalletTransactionResponseDTO(transactionId, Money.toMajor(amountMinor), type.name(), timestamp, description);
+    }
+}
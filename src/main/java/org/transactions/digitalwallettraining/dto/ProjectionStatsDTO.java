@@ -0,0 +1,10 @@
+package org.transactions.digitalwallettraining.dto;
+
+import java.time.LocalDateTime;
+
+public record ProjectionStatsDTO(
+        long pendingLines,        // committed ledger lines not yet in wallet_summaries
+        long lagMs,               // age of the oldest of them (0 = caught up)
+        long linesProjected,      // since startup
+        LocalDateTime lastPassAt
+) {}
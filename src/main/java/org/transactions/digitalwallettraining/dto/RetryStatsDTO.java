@@ -0,0 +1,9 @@
+package org.transactions.digitalwallettraining.dto;
+
+public record RetryStatsDTO(
+        String operation,
+        long calls,
+        long conflicts,     // attempts that failed with a retryable conflict
+        long retries,       // attempts re-run after a conflict
+        long exhausted      // calls that gave up with MaxRetryExceededException
+) {}
@@ -0,0 +1,11 @@
+package org.transactions.digitalwallettraining.dto;
+
+import java.util.List;
+
+// One cursor page of history: nextCursor is null on the last page, totalElements only when requested
+public record TransactionHistorySliceDTO(
+        List<WalletTransactionResponseDTO> content,
+        String nextCursor,
+        Long totalElements
+) {
+}
@@ -0,0 +1,14 @@
+package org.transactions.digitalwallettraining.dto;
+
+import java.time.LocalDateTime;
+
+public record TransferStatusDTO(
+        String transferId,
+        String status,          // PENDING, PROCESSING, COMPLETED or REJECTED
+        Long fromWalletId,
+        Long toWalletId,
+        Double amount,
+        String failureReason,
+        LocalDateTime createdAt,
+        LocalDateTime processedAt
+) {}
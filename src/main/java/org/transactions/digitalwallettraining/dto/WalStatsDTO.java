@@ -0,0 +1,11 @@
+package org.transactions.digitalwallettraining.dto;
+
+public record WalStatsDTO(
+        boolean enabled,
+        long recordsLogged,      // since startup
+        long groupsForced,       // force() calls; recordsLogged / groupsForced = average group size
+        long recordsApplied,
+        int unappliedRecords,    // acknowledged but not in the database yet (non-zero only while applies fail)
+        long lastSeq,
+        long appliedSeq
+) {}
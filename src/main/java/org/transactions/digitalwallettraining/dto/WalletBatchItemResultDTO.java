@@ -0,0 +1,16 @@
+package org.transactions.digitalwallettraining.dto;
+
+public record WalletBatchItemResultDTO(
+        int index,
+        String status,          // APPLIED or REJECTED
+        String message,         // rejection reason, null when applied
+        WalletTransactionResponseDTO transaction
+) {
+    public static WalletBatchItemResultDTO applied(int index, WalletTransactionResponseDTO transaction) {
+        return new WalletBatchItemResultDTO(index, "APPLIED", null, transaction);
+    }
+
+    public static WalletBatchItemResultDTO rejected(int index, String message) {
+        return new WalletBatchItemResultDTO(index, "REJECTED", message, null);
+    }
+}
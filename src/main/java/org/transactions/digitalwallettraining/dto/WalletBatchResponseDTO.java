@@ -0,0 +1,11 @@
+package org.transactions.digitalwallettraining.dto;
+
+import java.util.List;
+
+public record WalletBatchResponseDTO(
+        Long walletId,
+        int applied,
+        int rejected,
+        Double balance,
+        List<WalletBatchItemResultDTO> results
+) {}
@@ -0,0 +1,7 @@
+package org.transactions.digitalwallettraining.dto;
+
+// One row of a bulk transaction file: the target wallet plus the usual transaction request
+public record WalletBulkTransactionDTO(
+        Long walletId,
+        WalletTransactionRequestDTO transaction
+) {}
@@ -1,5 +1,7 @@
 package org.transactions.digitalwallettraining.dto;
 
+import org.transactions.digitalwallettraining.utils.Money;
+
 public class WalletResponseDTO {
 
     private Long walletId;
@@ -12,6 +14,11 @@ public class WalletResponseDTO {
         this.balance = balance;
     }
 
+    // JPQL constructor expressions select the stored minor units; conversion happens here, not in SQL
+    public WalletResponseDTO(Long walletId, Long userId, long balanceMinor) {
+        this(walletId, userId, Money.toMajor(balanceMinor));
+    }
+
     public Long getWalletId() { return walletId; }
     public void setWalletId(Long walletId) { this.walletId = walletId; }
 
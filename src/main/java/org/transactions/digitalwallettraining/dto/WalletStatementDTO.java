@@ -0,0 +1,16 @@
+package org.transactions.digitalwallettraining.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Debit / credit totals of a wallet over [from, to] (whole days), with the days that had activity
+public record WalletStatementDTO(
+        Long walletId,
+        LocalDate from,
+        LocalDate to,
+        Double totalDebits,
+        Double totalCredits,
+        long debitCount,
+        long creditCount,
+        List<DailyTotalsDTO> days
+) {}
@@ -0,0 +1,14 @@
+package org.transactions.digitalwallettraining.dto;
+
+import java.time.LocalDateTime;
+
+public record WalletSummaryDTO(
+        Long walletId,
+        Long userId,
+        Double balance,
+        long transactionCount,
+        Double totalDebits,
+        Double totalCredits,
+        LocalDateTime lastActivityAt,
+        LocalDateTime projectedAt     // when the projector last updated this row
+) {}
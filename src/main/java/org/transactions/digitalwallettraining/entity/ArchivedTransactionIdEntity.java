@@ -0,0 +1,26 @@
+package org.transactions.digitalwallettraining.entity;
+
+import jakarta.persistence.*;
+
+// Client transaction id of a row moved to the archive; keeps the id taken after the row left the hot table
+@Entity
+@Table(name = "archived_transaction_ids")
+public class ArchivedTransactionIdEntity {
+
+    @Id
+    @Column(name = "transaction_id")
+    private String transactionId;
+
+    @Column(name = "wallet_id", nullable = false)
+    private long walletId;
+
+    // Month of the segment holding the row, "yyyy-MM"
+    @Column(nullable = false, length = 7)
+    private String period;
+
+    public ArchivedTransactionIdEntity() {}
+
+    public String getTransactionId() { return transactionId; }
+    public long getWalletId() { return walletId; }
+    public String getPeriod() { return period; }
+}
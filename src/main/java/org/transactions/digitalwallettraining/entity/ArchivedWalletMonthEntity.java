@@ -0,0 +1,65 @@
+package org.transactions.digitalwallettraining.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// How many of one wallet's rows a month's archive segments hold; history seeks and counts from here
+@Entity
+@Table(name = "archived_wallet_months")
+@IdClass(ArchivedWalletMonthEntity.Key.class)
+public class ArchivedWalletMonthEntity {
+
+    @Id
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    // Month of the rows, "yyyy-MM" (same as the segment manifest)
+    @Id
+    @Column(length = 7)
+    private String period;
+
+    @Column(name = "debit_count", nullable = false)
+    private long debitCount;
+
+    @Column(name = "credit_count", nullable = false)
+    private long creditCount;
+
+    public ArchivedWalletMonthEntity() {}
+
+    public Long getWalletId() { return walletId; }
+    public String getPeriod() { return period; }
+    public long getDebitCount() { return debitCount; }
+    public long getCreditCount() { return creditCount; }
+
+    public long count(TransactionType type) {
+        if (type == null) return debitCount + creditCount;
+        return type == TransactionType.DEBIT ? debitCount : creditCount;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long walletId;
+        private String period;
+
+        public Key() {}
+
+        public Key(Long walletId, String period) {
+            this.walletId = walletId;
+            this.period = period;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return Objects.equals(walletId, other.walletId) && Objects.equals(period, other.period);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(walletId, period);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.transactions.digitalwallettraining.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Lease row of a scheduled job that must not run on two instances at once; free once lockedUntil has passed
+@Entity
+@Table(name = "job_locks")
+public class JobLockEntity {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    // Token of the run holding the lease
+    @Column(length = 36)
+    private String owner;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    public JobLockEntity() {}
+
+    public JobLockEntity(String name) {
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+    public String getOwner() { return owner; }
+    public LocalDateTime getLockedUntil() { return lockedUntil; }
+}
@@ -0,0 +1,61 @@
+package org.transactions.digitalwallettraining.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// One balanced journal entry (e.g. a transfer); its postings always sum to zero
+@Entity
+@Table(name = "journal_entries")
+public class JournalEntryEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_entry_seq")
+    @SequenceGenerator(name = "journal_entry_seq", sequenceName = "journal_entry_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "entry_id", nullable = false, unique = true, length = 36)
+    private String entryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JournalEntryKind kind;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Set on a REVERSAL; unique, so an entry can be reversed only once
+    @Column(name = "reverses_entry_id", unique = true, length = 36)
+    private String reversesEntryId;
+
+    @OneToMany(mappedBy = "entry", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<JournalPostingEntity> postings = new ArrayList<>();
+
+    public JournalEntryEntity() {}
+
+    public JournalEntryEntity(String entryId, JournalEntryKind kind, String description) {
+        this.entryId = entryId;
+        this.kind = kind;
+        this.description = description;
+    }
+
+    // --- Helper Methods ---
+    public void addPosting(Long walletId, long amountMinor) {
+        postings.add(new JournalPostingEntity(this, walletId, amountMinor));
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public String getEntryId() { return entryId; }
+    public JournalEntryKind getKind() { return kind; }
+    public String getDescription() { return description; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public String getReversesEntryId() { return reversesEntryId; }
+    public void setReversesEntryId(String reversesEntryId) { this.reversesEntryId = reversesEntryId; }
+    public List<JournalPostingEntity> getPostings() { return postings; }
+}
@@ -0,0 +1,6 @@
+package org.transactions.digitalwallettraining.entity;
+
+public enum JournalEntryKind {
+    TRANSFER,
+    REVERSAL
+}
@@ -0,0 +1,50 @@
+package org.transactions.digitalwallettraining.entity;
+
+import jakarta.persistence.*;
+import org.transactions.digitalwallettraining.utils.Money;
+
+// One leg of a journal entry: negative amount = debit, positive = credit
+@Entity
+@Table(name = "journal_postings", indexes = {
+        @Index(name = "idx_journal_postings_entry", columnList = "entry_id"),
+        @Index(name = "idx_journal_postings_wallet", columnList = "wallet_id, id"),
+        @Index(name = "idx_journal_postings_projected", columnList = "projected, wallet_id")
+})
+public class JournalPostingEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_posting_seq")
+    @SequenceGenerator(name = "journal_posting_seq", sequenceName = "journal_posting_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "entry_id", nullable = false)
+    private JournalEntryEntity entry;
+
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+
+    // Minor units (paise); see utils.Money
+    @Column(name = "amount_minor", nullable = false)
+    private long amount;
+
+    // false → not yet folded into wallet_summaries by WalletSummaryProjector
+    @Column(name = "projected", nullable = false)
+    private boolean projected = false;
+
+    public JournalPostingEntity() {}
+
+    public JournalPostingEntity(JournalEntryEntity entry, Long walletId, long amountMinor) {
+        this.entry = entry;
+        this.walletId = walletId;
+        this.amount = amountMinor;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public JournalEntryEntity getEntry() { return entry; }
+    public Long getWalletId() { return walletId; }
+    public long getAmountMinor() { return amount; }
+    public double getAmount() { return Money.toMajor(amount); }
+    public boolean isProjected() { return projected; }
+}
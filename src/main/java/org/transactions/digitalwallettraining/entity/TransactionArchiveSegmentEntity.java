@@ -0,0 +1,66 @@
+package org.transactions.digitalwallettraining.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Manifest row of one archived segment file; a file without a row here was never committed and is ignored
+@Entity
+@Table(name = "transaction_archive_segments", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_archive_segment", columnNames = {"period", "sequence_no"})
+})
+public class TransactionArchiveSegmentEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "archive_segment_seq")
+    @SequenceGenerator(name = "archive_segment_seq", sequenceName = "archive_segment_seq", allocationSize = 1)
+    private Long id;
+
+    // Month of the rows, "yyyy-MM"
+    @Column(nullable = false, length = 7)
+    private String period;
+
+    @Column(name = "sequence_no", nullable = false)
+    private int sequence;
+
+    @Column(name = "file_name", nullable = false, unique = true)
+    private String fileName;
+
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+
+    // Rows are sorted by wallet, so a reader skips any segment whose range misses the wallet
+    @Column(name = "min_wallet_id", nullable = false)
+    private long minWalletId;
+
+    @Column(name = "max_wallet_id", nullable = false)
+    private long maxWalletId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public TransactionArchiveSegmentEntity() {}
+
+    public TransactionArchiveSegmentEntity(String period, int sequence, String fileName, int rowCount,
+                                           long minWalletId, long maxWalletId) {
+        this.period = period;
+        this.sequence = sequence;
+        this.fileName = fileName;
+        this.rowCount = rowCount;
+        this.minWalletId = minWalletId;
+        this.maxWalletId = maxWalletId;
+    }
+
+    public Long getId() { return id; }
+    public String getPeriod() { return period; }
+    public int getSequence() { return sequence; }
+    public String getFileName() { return fileName; }
+    public int getRowCount() { return rowCount; }
+    public long getMinWalletId() { return minWalletId; }
+    public long getMaxWalletId() { return maxWalletId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public boolean mayContain(long walletId) {
+        return walletId >= minWalletId && walletId <= maxWalletId;
+    }
+}
@@ -1,16 +1,29 @@
 package org.transactions.digitalwallettraining.entity;
 
 import jakarta.persistence.*;
+import org.transactions.digitalwallettraining.utils.Money;
+
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "transactions", uniqueConstraints = {
         @UniqueConstraint(columnNames = "transaction_id")
+}, indexes = {
+        @Index(name = "idx_transactions_wallet_pending", columnList = "wallet_id, pending_snapshot"),
+        @Index(name = "idx_transactions_projected", columnList = "projected, wallet_id"),
+        // Keyset history: one index per query shape, each ending in the (date, id) sort key
+        @Index(name = "idx_transactions_wallet_date", columnList = "wallet_id, transaction_date, id"),
+        @Index(name = "idx_transactions_wallet_type_date", columnList = "wallet_id, type, transaction_date, id"),
+        // Archiver: oldest month still in the hot table
+        @Index(name = "idx_transactions_date", columnList = "transaction_date")
 })
 public class TransactionEntity {
 
+    // Pooled sequence ids keep JDBC insert batching on (IDENTITY silently disables it).
+    // MySQL has no sequences, so Hibernate backs "transaction_seq" with a one-row table there.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -21,8 +34,9 @@ public class TransactionEntity {
     @Column(nullable = false)
     private TransactionType type;
 
-    @Column(nullable = false)
-    private Double amount;
+    // Minor units (paise); see utils.Money
+    @Column(name = "amount_minor", nullable = false)
+    private long amount;
 
     @Column(nullable = false)
     private String description;
@@ -33,6 +47,14 @@ public class TransactionEntity {
     @Column(nullable = false, unique = true)
     private String transactionId;
 
+    // true → not yet folded into wallets.balance (event-sourced writes); false for in-place updates and old rows
+    @Column(name = "pending_snapshot", nullable = false)
+    private Boolean pendingSnapshot = false;
+
+    // false → not yet folded into wallet_summaries by WalletSummaryProjector
+    @Column(name = "projected", nullable = false)
+    private Boolean projected = false;
+
 
     public TransactionEntity() {}
 
@@ -45,21 +67,42 @@ public class TransactionEntity {
         this.transactionDate = LocalDateTime.now();
     }
 
+    // Hot-path constructor: amount already in minor units
+    public TransactionEntity(WalletEntity wallet, TransactionType type, long amountMinor, String description) {
+        this.wallet = wallet;
+        this.type = type;
+        setAmountMinor(amountMinor);
+        this.description = description;
+        this.transactionDate = LocalDateTime.now();
+    }
+
     // Getters and setters
     public Long getId() { return id; }
     public WalletEntity getWallet() { return wallet; }
 
 
-    public Double getAmount() {
+    public long getAmountMinor() {
         return amount;
     }
 
     // Setter with validation
+    public void setAmountMinor(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Transaction amount must be greater than zero");
+        }
+        this.amount = amount;
+    }
+
+    // Major-unit view for DTOs and tests
+    public double getAmount() {
+        return Money.toMajor(amount);
+    }
+
     public void setAmount(Double amount) {
         if (amount == null || amount <= 0) {
             throw new IllegalArgumentException("Transaction amount must be greater than zero");
         }
-        this.amount = amount;
+        setAmountMinor(Money.toMinor(amount));
     }
 
 
@@ -72,4 +115,7 @@ public class TransactionEntity {
     public void setDescription(String description) { this.description = description; }
     public LocalDateTime getTransactionDate() { return transactionDate; }
     public void setTransactionDate(LocalDateTime transactionDate) { this.transactionDate = transactionDate; }
+    public Boolean getPendingSnapshot() { return pendingSnapshot; }
+    public void setPendingSnapshot(Boolean pendingSnapshot) { this.pendingSnapshot = pendingSnapshot; }
+    public Boolean getProjected() { return projected; }
 }
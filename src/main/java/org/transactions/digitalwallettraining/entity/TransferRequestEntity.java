@@ -0,0 +1,69 @@
+package org.transactions.digitalwallettraining.entity;
+
+import jakarta.persistence.*;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import java.time.LocalDateTime;
+
+// Durable work item for an asynchronously submitted transfer
+@Entity
+@Table(name = "transfer_requests", indexes = {
+        @Index(name = "idx_transfer_requests_status", columnList = "status, id")
+})
+public class TransferRequestEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_request_seq")
+    @SequenceGenerator(name = "transfer_request_seq", sequenceName = "transfer_request_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "transfer_id", nullable = false, unique = true, length = 36)
+    private String transferId;
+
+    @Column(name = "from_wallet_id", nullable = false)
+    private Long fromWalletId;
+
+    @Column(name = "to_wallet_id", nullable = false)
+    private Long toWalletId;
+
+    // Minor units (paise); see utils.Money
+    @Column(name = "amount_minor", nullable = false)
+    private long amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TransferStatus status = TransferStatus.PENDING;
+
+    @Column(name = "failure_reason", length = 500)
+    private String failureReason;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    public TransferRequestEntity() {}
+
+    public TransferRequestEntity(String transferId, Long fromWalletId, Long toWalletId, Double amount) {
+        this.transferId = transferId;
+        this.fromWalletId = fromWalletId;
+        this.toWalletId = toWalletId;
+        this.amount = Money.toMinor(amount);
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public String getTransferId() { return transferId; }
+    public Long getFromWalletId() { return fromWalletId; }
+    public Long getToWalletId() { return toWalletId; }
+    public long getAmountMinor() { return amount; }
+    public double getAmount() { return Money.toMajor(amount); }
+    public TransferStatus getStatus() { return status; }
+    public void setStatus(TransferStatus status) { this.status = status; }
+    public String getFailureReason() { return failureReason; }
+    public void setFailureReason(String failureReason) { this.failureReason = failureReason; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+}
@@ -0,0 +1,8 @@
+package org.transactions.digitalwallettraining.entity;
+
+public enum TransferStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    REJECTED
+}
@@ -0,0 +1,41 @@
+package org.transactions.digitalwallettraining.entity;
+
+import jakarta.persistence.*;
+
+// One share of a hot wallet's balance; credits land on a random slot so they don't all queue on the wallet row
+@Entity
+@Table(name = "wallet_balance_slots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_wallet_slot", columnNames = {"wallet_id", "slot_index"})
+})
+public class WalletBalanceSlotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallet_slot_seq")
+    @SequenceGenerator(name = "wallet_slot_seq", sequenceName = "wallet_slot_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "wallet_id", nullable = false)
+    private WalletEntity wallet;
+
+    @Column(name = "slot_index", nullable = false)
+    private Integer slotIndex;
+
+    // Minor units (paise); see utils.Money
+    @Column(name = "balance_minor", nullable = false)
+    private long balance;
+
+    public WalletBalanceSlotEntity() {}
+
+    public WalletBalanceSlotEntity(WalletEntity wallet, int slotIndex) {
+        this.wallet = wallet;
+        this.slotIndex = slotIndex;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public WalletEntity getWallet() { return wallet; }
+    public Integer getSlotIndex() { return slotIndex; }
+    public long getBalanceMinor() { return balance; }
+    public void setBalanceMinor(long balance) { this.balance = balance; }
+}
@@ -0,0 +1,69 @@
+package org.transactions.digitalwallettraining.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// One wallet's ledger activity on one day; statements and range totals sum these instead of raw lines
+@Entity
+@Table(name = "wallet_daily_rollups")
+@IdClass(WalletDailyRollupEntity.Key.class)
+public class WalletDailyRollupEntity {
+
+    @Id
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    @Id
+    @Column(name = "activity_day")
+    private LocalDate day;
+
+    // Minor units (paise); see utils.Money
+    @Column(name = "debits_minor", nullable = false)
+    private long debits;
+
+    @Column(name = "credits_minor", nullable = false)
+    private long credits;
+
+    @Column(name = "debit_count", nullable = false)
+    private long debitCount;
+
+    @Column(name = "credit_count", nullable = false)
+    private long creditCount;
+
+    public WalletDailyRollupEntity() {}
+
+    public Long getWalletId() { return walletId; }
+    public LocalDate getDay() { return day; }
+    public long getDebitsMinor() { return debits; }
+    public long getCreditsMinor() { return credits; }
+    public long getDebitCount() { return debitCount; }
+    public long getCreditCount() { return creditCount; }
+
+    public static class Key implements Serializable {
+
+        private Long walletId;
+        private LocalDate day;
+
+        public Key() {}
+
+        public Key(Long walletId, LocalDate day) {
+            this.walletId = walletId;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return Objects.equals(walletId, other.walletId) && Objects.equals(day, other.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(walletId, day);
+        }
+    }
+}
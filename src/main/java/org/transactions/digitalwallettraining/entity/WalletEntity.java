@@ -1,8 +1,8 @@
 package org.transactions.digitalwallettraining.entity;
 
 import jakarta.persistence.*;
+import org.transactions.digitalwallettraining.utils.Money;
 
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -13,20 +13,18 @@ import java.util.List;
 public class WalletEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallet_seq")
+    @SequenceGenerator(name = "wallet_seq", sequenceName = "wallet_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false)
-    private Double balance = 0.0;
+    // Minor units (paise); see utils.Money
+    @Column(name = "balance_minor", nullable = false)
+    private long balance;
 
     @Version
     @Column(nullable = false)
     private Long version = 0L; // for optimistic locking
 
-    // ✅ Daily tracking fields
-    @Column(name = "daily_spent", nullable = false)
-    private Double dailySpent = 0.0;
-
     @Column(name = "last_transaction_date")
     private LocalDateTime lastTransactionDate = LocalDateTime.now();
 
@@ -37,6 +35,10 @@ public class WalletEntity {
     @Column(name = "frozen_at")
     private LocalDateTime frozenAt;
 
+    // ✅ Hot-wallet mode: number of balance slots (0 = single-row balance)
+    @Column(name = "hot_slots", nullable = false)
+    private Integer hotSlots = 0;
+
     // Wallet creation date
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -54,16 +56,14 @@ public class WalletEntity {
 
     public WalletEntity(UserEntity user) {
         this.user = user;
-        this.balance = 0.0;
-        this.dailySpent = 0.0;
+        this.balance = 0;
         this.frozen = false;
         this.lastTransactionDate = LocalDateTime.now();
     }
 
     public WalletEntity(UserEntity user, Double balance) {
         this.user = user;
-        this.balance = balance != null && balance >= 0 ? balance : 0.0;
-        this.dailySpent = 0.0;
+        this.balance = balance != null && balance >= 0 ? Money.toMinor(balance) : 0;
         this.frozen = false;
         this.lastTransactionDate = LocalDateTime.now();
     }
@@ -80,35 +80,10 @@ public class WalletEntity {
     }
 
     /**
-     * ✅ Reset daily spent and frozen status if it's a new day.
+     * ✅ In hot mode {@link #balance} is only the base share; the rest lives in wallet_balance_slots.
      */
-    public void resetDailyIfNewDay() {
-        if (lastTransactionDate == null) {
-            lastTransactionDate = LocalDateTime.now();
-            return;
-        }
-
-        Duration duration = Duration.between(lastTransactionDate, LocalDateTime.now());
-        if (duration.toMinutes() >= 2) {  // reset every 2 minutes
-            this.dailySpent = 0.0;
-            this.lastTransactionDate = LocalDateTime.now();
-        }
-    }
-
-
-
-    /**
-     * ✅ Automatically unfreeze and reset limit after 2 minutes.
-     */
-    public void checkAndUnfreeze() {
-        if (Boolean.TRUE.equals(this.frozen) && this.frozenAt != null) {
-            LocalDateTime now = LocalDateTime.now();
-            if (this.frozenAt.plusMinutes(2).isBefore(now)) {
-                this.frozen = false;
-                this.frozenAt = null;
-                this.dailySpent = 0.0; // 💥 reset spent amount
-            }
-        }
+    public boolean isHot() {
+        return hotSlots != null && hotSlots > 0;
     }
 
     // --- Getters & Setters ---
@@ -116,20 +91,21 @@ public class WalletEntity {
 
     public void setId(Long id) { this.id = id; }
 
-    public Double getBalance() { return balance; }
+    public long getBalanceMinor() { return balance; }
 
-    public void setBalance(Double balance) {
+    public void setBalanceMinor(long balance) {
         if (balance < 0) throw new IllegalArgumentException("Balance cannot be negative");
         this.balance = balance;
     }
 
-    public Long getVersion() { return version; }
+    // Major-unit view for DTOs and tests
+    public double getBalance() { return Money.toMajor(balance); }
 
-    public void setVersion(Long version) { this.version = version; }
+    public void setBalance(double balance) { setBalanceMinor(Money.toMinor(balance)); }
 
-    public Double getDailySpent() { return dailySpent; }
+    public Long getVersion() { return version; }
 
-    public void setDailySpent(Double dailySpent) { this.dailySpent = dailySpent; }
+    public void setVersion(Long version) { this.version = version; }
 
     public LocalDateTime getLastTransactionDate() { return lastTransactionDate; }
 
@@ -143,6 +119,10 @@ public class WalletEntity {
 
     public void setFrozenAt(LocalDateTime frozenAt) { this.frozenAt = frozenAt; }
 
+    public Integer getHotSlots() { return hotSlots; }
+
+    public void setHotSlots(Integer hotSlots) { this.hotSlots = hotSlots; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
 
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
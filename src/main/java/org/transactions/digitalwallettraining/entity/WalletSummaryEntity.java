@@ -0,0 +1,77 @@
+package org.transactions.digitalwallettraining.entity;
+
+import jakarta.persistence.*;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import java.time.LocalDateTime;
+
+// Denormalized per-wallet read model for dashboards, kept up to date by WalletSummaryProjector
+@Entity
+@Table(name = "wallet_summaries", indexes = {
+        @Index(name = "idx_wallet_summaries_user", columnList = "user_id"),
+        @Index(name = "idx_wallet_summaries_balance", columnList = "balance_minor"),
+        @Index(name = "idx_wallet_summaries_txn_count", columnList = "transaction_count")
+})
+public class WalletSummaryEntity {
+
+    // Same id as the wallet; not generated
+    @Id
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Minor units (paise); see utils.Money. Total spendable balance when last projected.
+    @Column(name = "balance_minor", nullable = false)
+    private long balance;
+
+    // Ledger lines: transaction rows plus journal postings
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    @Column(name = "total_debits_minor", nullable = false)
+    private long totalDebits;
+
+    @Column(name = "total_credits_minor", nullable = false)
+    private long totalCredits;
+
+    @Column(name = "last_activity_at")
+    private LocalDateTime lastActivityAt;
+
+    @Column(name = "projected_at", nullable = false)
+    private LocalDateTime projectedAt = LocalDateTime.now();
+
+    public WalletSummaryEntity() {}
+
+    public WalletSummaryEntity(Long walletId, Long userId, long balanceMinor) {
+        this.walletId = walletId;
+        this.userId = userId;
+        this.balance = balanceMinor;
+    }
+
+    // ✅ Fold a batch of newly committed ledger lines into the running totals
+    public void apply(long lines, long debitsMinor, long creditsMinor, LocalDateTime lastActivity) {
+        this.transactionCount += lines;
+        this.totalDebits += debitsMinor;
+        this.totalCredits += creditsMinor;
+        if (lastActivity != null && (lastActivityAt == null || lastActivity.isAfter(lastActivityAt))) {
+            this.lastActivityAt = lastActivity;
+        }
+        this.projectedAt = LocalDateTime.now();
+    }
+
+    // Getters and setters
+    public Long getWalletId() { return walletId; }
+    public Long getUserId() { return userId; }
+
+    public long getBalanceMinor() { return balance; }
+    public void setBalanceMinor(long balanceMinor) { this.balance = balanceMinor; }
+    public double getBalance() { return Money.toMajor(balance); }
+
+    public long getTransactionCount() { return transactionCount; }
+    public long getTotalDebitsMinor() { return totalDebits; }
+    public long getTotalCreditsMinor() { return totalCredits; }
+    public LocalDateTime getLastActivityAt() { return lastActivityAt; }
+    public LocalDateTime getProjectedAt() { return projectedAt; }
+}
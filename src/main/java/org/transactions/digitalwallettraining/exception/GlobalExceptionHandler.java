@@ -78,6 +78,23 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
+    /**
+     * 📝 Write-ahead log temporarily unavailable: 503 with the log's own message (it says whether a retry is safe)
+     */
+    @ExceptionHandler(WriteAheadLogUnavailableException.class)
+    public ResponseEntity<ErrorResponseDTO> handleWalUnavailable(WriteAheadLogUnavailableException ex) {
+        logger.warn("📝 Write-ahead log unavailable: {}", ex.getMessage());
+
+        ErrorResponseDTO response = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                null
+        );
+
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * ⚠️ SQL Integrity Constraint Violation
      */
@@ -0,0 +1,8 @@
+package org.transactions.digitalwallettraining.exception;
+
+// The wallet's command lane is full: still a 403 like any refusal, but callers that can wait may retry it
+public class WalletBusyException extends IllegalStateException {
+    public WalletBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package org.transactions.digitalwallettraining.exception;
+
+import org.springframework.dao.CannotAcquireLockException;
+
+// Transient write-ahead log failure (not running, busy, full, no ack in time): a 503, with a message fit for the client
+public class WriteAheadLogUnavailableException extends CannotAcquireLockException {
+    public WriteAheadLogUnavailableException(String message) {
+        super(message);
+    }
+
+    public WriteAheadLogUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
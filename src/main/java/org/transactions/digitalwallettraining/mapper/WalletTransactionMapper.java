@@ -12,6 +12,7 @@ public interface WalletTransactionMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "wallet", ignore = true)
+    @Mapping(target = "amountMinor", ignore = true)
     @Mapping(target = "transactionDate", expression = "java(java.time.LocalDateTime.now())")
     TransactionEntity toEntity(WalletTransactionRequestDTO dto);
 
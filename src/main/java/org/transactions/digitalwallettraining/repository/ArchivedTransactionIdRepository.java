@@ -0,0 +1,33 @@
+package org.transactions.digitalwallettraining.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.transactions.digitalwallettraining.entity.ArchivedTransactionIdEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ArchivedTransactionIdRepository extends JpaRepository<ArchivedTransactionIdEntity, String> {
+
+    // 🗄️ Copy the ids of rows about to be archived, in the archiving transaction (one statement per chunk)
+    @Modifying
+    @Query("""
+        INSERT INTO ArchivedTransactionIdEntity (transactionId, walletId, period)
+        SELECT t.transactionId, t.wallet.id, :period FROM TransactionEntity t WHERE t.id IN :ids
+    """)
+    int retain(@Param("ids") Collection<Long> ids, @Param("period") String period);
+
+    @Query("SELECT a.transactionId FROM ArchivedTransactionIdEntity a WHERE a.transactionId IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    // Warms the idempotency filter alongside the hot ids
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.transactionId FROM ArchivedTransactionIdEntity a")
+    Stream<String> streamAllIds();
+}
@@ -0,0 +1,36 @@
+package org.transactions.digitalwallettraining.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.transactions.digitalwallettraining.entity.ArchivedWalletMonthEntity;
+
+import java.util.List;
+
+public interface ArchivedWalletMonthRepository extends JpaRepository<ArchivedWalletMonthEntity, ArchivedWalletMonthEntity.Key> {
+
+    // ➕ A month archived over several passes adds up here (ON DUPLICATE KEY UPDATE on MySQL, MERGE on H2)
+    @Modifying
+    @Query("""
+        INSERT INTO ArchivedWalletMonthEntity (walletId, period, debitCount, creditCount)
+        VALUES (:walletId, :period, :debitCount, :creditCount)
+        ON CONFLICT (walletId, period) DO UPDATE SET
+            debitCount = debitCount + excluded.debitCount,
+            creditCount = creditCount + excluded.creditCount
+    """)
+    int upsert(@Param("walletId") Long walletId,
+               @Param("period") String period,
+               @Param("debitCount") long debitCount,
+               @Param("creditCount") long creditCount);
+
+    // The wallet's archived months inside [fromPeriod, toPeriod], newest first
+    @Query("""
+        SELECT m FROM ArchivedWalletMonthEntity m
+        WHERE m.walletId = :walletId AND m.period BETWEEN :fromPeriod AND :toPeriod
+        ORDER BY m.period DESC
+    """)
+    List<ArchivedWalletMonthEntity> findMonths(@Param("walletId") Long walletId,
+                                               @Param("fromPeriod") String fromPeriod,
+                                               @Param("toPeriod") String toPeriod);
+}
@@ -0,0 +1,27 @@
+package org.transactions.digitalwallettraining.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.transactions.digitalwallettraining.entity.JobLockEntity;
+
+import java.time.LocalDateTime;
+
+public interface JobLockRepository extends JpaRepository<JobLockEntity, String> {
+
+    // ✅ Takes (or extends) the lease in one guarded UPDATE: 1 = held by owner until `until`, 0 = someone else has it
+    @Modifying
+    @Query("""
+        UPDATE JobLockEntity l SET l.owner = :owner, l.lockedUntil = :until
+        WHERE l.name = :name AND (l.owner = :owner OR l.lockedUntil IS NULL OR l.lockedUntil < :now)
+    """)
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE JobLockEntity l SET l.lockedUntil = NULL WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -0,0 +1,26 @@
+package org.transactions.digitalwallettraining.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.transactions.digitalwallettraining.entity.JournalEntryEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface JournalEntryRepository extends JpaRepository<JournalEntryEntity, Long> {
+
+    // Entry and its postings in one query, by the unique entry id
+    @EntityGraph(attributePaths = "postings")
+    Optional<JournalEntryEntity> findByEntryId(String entryId);
+
+    boolean existsByEntryId(String entryId);
+
+    boolean existsByReversesEntryId(String reversesEntryId);
+
+    // Which of these entry ids are already written (WAL replay skips them)
+    @Query("SELECT e.entryId FROM JournalEntryEntity e WHERE e.entryId IN :ids")
+    List<String> findExistingEntryIds(@Param("ids") Collection<String> ids);
+}
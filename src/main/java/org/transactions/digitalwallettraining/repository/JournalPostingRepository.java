@@ -0,0 +1,85 @@
+package org.transactions.digitalwallettraining.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.transactions.digitalwallettraining.dto.DailyActivityDTO;
+import org.transactions.digitalwallettraining.dto.LedgerActivityDTO;
+import org.transactions.digitalwallettraining.entity.JournalPostingEntity;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface JournalPostingRepository extends JpaRepository<JournalPostingEntity, Long> {
+
+    // A wallet's postings with their entries (for transaction history)
+    @Query("SELECT p FROM JournalPostingEntity p JOIN FETCH p.entry WHERE p.walletId = :walletId ORDER BY p.id")
+    List<JournalPostingEntity> findByWalletIdWithEntry(@Param("walletId") Long walletId);
+
+    @Query("SELECT COALESCE(SUM(-p.amount), 0) FROM JournalPostingEntity p WHERE p.walletId = :walletId AND p.amount < 0 AND p.entry.createdAt BETWEEN :start AND :end")
+    long sumDebitsByWalletAndDate(@Param("walletId") Long walletId,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end);
+
+    // 📊 Summary projection: postings not yet folded into wallet_summaries
+    @Query("SELECT DISTINCT p.walletId FROM JournalPostingEntity p WHERE p.projected = false")
+    List<Long> findWalletIdsToProject(Pageable pageable);
+
+    @Query("SELECT p.id FROM JournalPostingEntity p WHERE p.walletId = :walletId AND p.projected = false ORDER BY p.id")
+    List<Long> findUnprojectedIds(@Param("walletId") Long walletId, Pageable pageable);
+
+    @Query("""
+        SELECT new org.transactions.digitalwallettraining.dto.LedgerActivityDTO(
+            COUNT(p),
+            COALESCE(SUM(CASE WHEN p.amount < 0 THEN -p.amount ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN p.amount > 0 THEN p.amount ELSE 0 END), 0),
+            MAX(e.createdAt))
+        FROM JournalPostingEntity p JOIN p.entry e WHERE p.id IN :ids
+    """)
+    LedgerActivityDTO summarize(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+        SELECT new org.transactions.digitalwallettraining.dto.DailyActivityDTO(
+            CAST(e.createdAt AS LocalDate),
+            SUM(CASE WHEN p.amount < 0 THEN -p.amount ELSE 0 END),
+            SUM(CASE WHEN p.amount > 0 THEN p.amount ELSE 0 END),
+            SUM(CASE WHEN p.amount < 0 THEN 1 ELSE 0 END),
+            SUM(CASE WHEN p.amount > 0 THEN 1 ELSE 0 END))
+        FROM JournalPostingEntity p JOIN p.entry e WHERE p.id IN :ids
+        GROUP BY CAST(e.createdAt AS LocalDate)
+    """)
+    List<DailyActivityDTO> summarizeByDay(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+        SELECT new org.transactions.digitalwallettraining.dto.DailyActivityDTO(
+            CAST(e.createdAt AS LocalDate),
+            SUM(CASE WHEN p.amount < 0 THEN -p.amount ELSE 0 END),
+            SUM(CASE WHEN p.amount > 0 THEN p.amount ELSE 0 END),
+            SUM(CASE WHEN p.amount < 0 THEN 1 ELSE 0 END),
+            SUM(CASE WHEN p.amount > 0 THEN 1 ELSE 0 END))
+        FROM JournalPostingEntity p JOIN p.entry e
+        WHERE p.projected = false AND p.walletId = :walletId
+        AND e.createdAt >= :start AND e.createdAt < :end
+        GROUP BY CAST(e.createdAt AS LocalDate)
+    """)
+    List<DailyActivityDTO> findUnprojectedDays(@Param("walletId") Long walletId,
+                                               @Param("start") LocalDateTime start,
+                                               @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query("UPDATE JournalPostingEntity p SET p.projected = true WHERE p.id IN :ids")
+    int markProjected(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE JournalPostingEntity p SET p.projected = false WHERE p.projected = true")
+    int resetProjected();
+
+    @Query("SELECT COUNT(p) FROM JournalPostingEntity p WHERE p.projected = false")
+    long countUnprojected();
+
+    @Query("SELECT MIN(e.createdAt) FROM JournalPostingEntity p JOIN p.entry e WHERE p.projected = false")
+    LocalDateTime findOldestUnprojectedDate();
+}
@@ -0,0 +1,38 @@
+package org.transactions.digitalwallettraining.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.transactions.digitalwallettraining.entity.TransactionArchiveSegmentEntity;
+
+import java.util.List;
+
+public interface TransactionArchiveSegmentRepository extends JpaRepository<TransactionArchiveSegmentEntity, Long> {
+
+    // Segments that may hold a wallet's rows, oldest month first
+    @Query("""
+        SELECT s FROM TransactionArchiveSegmentEntity s
+        WHERE :walletId BETWEEN s.minWalletId AND s.maxWalletId
+        ORDER BY s.period, s.sequence
+    """)
+    List<TransactionArchiveSegmentEntity> findCovering(@Param("walletId") long walletId);
+
+    @Query("""
+        SELECT s FROM TransactionArchiveSegmentEntity s
+        WHERE s.period = :period AND :walletId BETWEEN s.minWalletId AND s.maxWalletId
+        ORDER BY s.sequence
+    """)
+    List<TransactionArchiveSegmentEntity> findCoveringInPeriod(@Param("walletId") long walletId,
+                                                               @Param("period") String period);
+
+    List<TransactionArchiveSegmentEntity> findAllByOrderByPeriodAscSequenceAsc();
+
+    @Query("SELECT COALESCE(MAX(s.sequence), 0) FROM TransactionArchiveSegmentEntity s WHERE s.period = :period")
+    int findLastSequence(@Param("period") String period);
+
+    @Query("SELECT s.fileName FROM TransactionArchiveSegmentEntity s")
+    List<String> findAllFileNames();
+
+    @Query("SELECT COALESCE(SUM(s.rowCount), 0) FROM TransactionArchiveSegmentEntity s")
+    long sumRowCount();
+}
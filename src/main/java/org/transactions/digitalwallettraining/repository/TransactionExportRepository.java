@@ -0,0 +1,104 @@
+package org.transactions.digitalwallettraining.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Repository;
+import org.transactions.digitalwallettraining.config.WalletExportProperties;
+import org.transactions.digitalwallettraining.dto.LedgerLineDTO;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 📤 Export reads on a small connection pool of their own.
+ *
+ * Connector/J only streams a result in fetch-size chunks with useCursorFetch=true, and that flag
+ * switches every statement on the connection to a server-side prepared statement. It is therefore
+ * set on this pool alone: the application pool keeps client-side statements and its
+ * rewriteBatchedStatements inserts. Queries run in a Hibernate session bound to the export
+ * connection, so they map exactly like the repositories' (JPQL, flat DTO rows, same time zone).
+ */
+@Repository
+public class TransactionExportRepository {
+
+    // Oldest first, as flat rows so nothing piles up in the session
+    private static final String TRANSACTION_LINES = """
+        SELECT new org.transactions.digitalwallettraining.dto.LedgerLineDTO(
+            t.transactionId, t.amount, t.type, t.transactionDate, t.description)
+        FROM TransactionEntity t WHERE t.wallet.id = :walletId
+        ORDER BY t.transactionDate, t.id
+    """;
+
+    private static final String POSTING_LINES = """
+        SELECT new org.transactions.digitalwallettraining.dto.LedgerLineDTO(e.entryId, p.amount, e.createdAt, e.description)
+        FROM JournalPostingEntity p JOIN p.entry e WHERE p.walletId = :walletId
+        ORDER BY e.createdAt, p.id
+    """;
+
+    @FunctionalInterface
+    public interface LedgerReader<T> {
+        T read(Iterator<LedgerLineDTO> transactions, Iterator<LedgerLineDTO> postings) throws IOException;
+    }
+
+    private final SessionFactory sessionFactory;
+    private final HikariDataSource dataSource;
+    private final WalletExportProperties properties;
+
+    public TransactionExportRepository(EntityManagerFactory entityManagerFactory,
+                                       DataSourceProperties dataSourceProperties,
+                                       WalletExportProperties properties) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.properties = properties;
+        // Built like the primary pool, but lazily: no connection is opened until the first export
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.dataSource.setPoolName("wallet-export");
+        this.dataSource.setJdbcUrl(exportUrl(dataSourceProperties.determineUrl(), properties));
+        this.dataSource.setMaximumPoolSize(Math.max(1, properties.getMaxPoolSize()));
+        this.dataSource.setMinimumIdle(0);
+        this.dataSource.setReadOnly(true);
+    }
+
+    // ✅ Both of a wallet's line streams from one read-only snapshot, open side by side on one connection
+    public <T> T read(Long walletId, LedgerReader<T> reader) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Session session = sessionFactory.withOptions().connection(connection).openSession();
+                 Stream<LedgerLineDTO> transactions = lines(session, TRANSACTION_LINES, walletId);
+                 Stream<LedgerLineDTO> postings = lines(session, POSTING_LINES, walletId)) {
+                return reader.read(transactions.iterator(), postings.iterator());
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException ex) {
+            throw new DataAccessResourceFailureException("Export connection failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        dataSource.close();
+    }
+
+    private Stream<LedgerLineDTO> lines(Session session, String query, Long walletId) {
+        return session.createQuery(query, LedgerLineDTO.class)
+                .setParameter("walletId", walletId)
+                .setFetchSize(Math.max(1, properties.getFetchSize()))
+                .setReadOnly(true)
+                .getResultStream();
+    }
+
+    static String exportUrl(String url, WalletExportProperties properties) {
+        if (!properties.isUseCursorFetch() || url == null || !url.startsWith("jdbc:mysql:") || url.contains("useCursorFetch=")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "useCursorFetch=true";
+    }
+}
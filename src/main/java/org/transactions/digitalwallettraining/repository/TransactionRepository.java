@@ -2,16 +2,27 @@ package org.transactions.digitalwallettraining.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.repository.query.Param;
+import org.transactions.digitalwallettraining.dto.ArchivedTransactionDTO;
+import org.transactions.digitalwallettraining.dto.DailyActivityDTO;
+import org.transactions.digitalwallettraining.dto.LedgerActivityDTO;
+import org.transactions.digitalwallettraining.dto.LedgerLineDTO;
 import org.transactions.digitalwallettraining.entity.TransactionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.transactions.digitalwallettraining.entity.TransactionType;
 import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.utils.Money;
 
 import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<TransactionEntity, Long> {
 
@@ -20,33 +31,137 @@ public interface TransactionRepository extends JpaRepository<TransactionEntity,
 
     // Custom JPQL query example: find all transactions above a certain amount
     @Query("SELECT t FROM TransactionEntity t WHERE t.amount > :amount")
-    List<TransactionEntity> findTransactionsGreaterThan(Double amount);
+    List<TransactionEntity> findTransactionsGreaterThan(long amountMinor);
+
+    default List<TransactionEntity> findTransactionsGreaterThan(Double amount) {
+        return findTransactionsGreaterThan(Money.toMinor(amount));
+    }
 
     // Find transactions by type (CREDIT or DEBIT)
     List<TransactionEntity> findByType(TransactionType type);
 
     // Find transactions with amount between two values
-    List<TransactionEntity> findByAmountBetween(Double min, Double max);
+    List<TransactionEntity> findByAmountBetween(long minMinor, long maxMinor);
+
+    default List<TransactionEntity> findByAmountBetween(Double min, Double max) {
+        return findByAmountBetween(Money.toMinor(min), Money.toMinor(max));
+    }
 
     // Find transactions after a certain date
     List<TransactionEntity> findByTransactionDateAfter(java.time.LocalDateTime date);
 
     Optional<TransactionEntity> findByTransactionId(String transactionId);
 
+    // Every transaction id, streamed (used to warm the idempotency filter)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.transactionId FROM TransactionEntity t")
+    Stream<String> streamAllTransactionIds();
+
+    // Which of these client-supplied ids are already taken (one query for a whole batch)
+    @Query("SELECT t.transactionId FROM TransactionEntity t WHERE t.transactionId IN :ids")
+    List<String> findExistingTransactionIds(@Param("ids") Collection<String> ids);
+
     @Query("SELECT COALESCE(SUM(t.amount), 0) FROM TransactionEntity t WHERE t.wallet.id = :walletId AND t.type = 'DEBIT' AND t.transactionDate BETWEEN :start AND :end")
-    double sumDebitsByWalletAndDate(@Param("walletId") Long walletId,
-                                    @Param("start") LocalDateTime start,
-                                    @Param("end") LocalDateTime end);
+    long sumDebitsByWalletAndDate(@Param("walletId") Long walletId,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end);
+
+    // 📒 Net effect of journal rows not yet folded into the wallet's balance snapshot
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE -t.amount END), 0) FROM TransactionEntity t WHERE t.wallet.id = :walletId AND t.pendingSnapshot = true")
+    long sumPendingDelta(@Param("walletId") Long walletId);
+
+    @Query("SELECT DISTINCT t.wallet.id FROM TransactionEntity t WHERE t.pendingSnapshot = true")
+    List<Long> findWalletIdsWithPending(Pageable pageable);
+
+    @Query("SELECT t.id FROM TransactionEntity t WHERE t.wallet.id = :walletId AND t.pendingSnapshot = true ORDER BY t.id")
+    List<Long> findPendingIds(@Param("walletId") Long walletId, Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE -t.amount END), 0) FROM TransactionEntity t WHERE t.id IN :ids")
+    long sumSignedAmounts(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE TransactionEntity t SET t.pendingSnapshot = false WHERE t.id IN :ids")
+    int markSnapshotted(@Param("ids") Collection<Long> ids);
+
+    // 📊 Summary projection: rows not yet folded into wallet_summaries
+    @Query("SELECT DISTINCT t.wallet.id FROM TransactionEntity t WHERE t.projected = false")
+    List<Long> findWalletIdsToProject(Pageable pageable);
+
+    @Query("SELECT t.id FROM TransactionEntity t WHERE t.wallet.id = :walletId AND t.projected = false ORDER BY t.id")
+    List<Long> findUnprojectedIds(@Param("walletId") Long walletId, Pageable pageable);
 
     @Query("""
-        SELECT t FROM TransactionEntity t 
+        SELECT new org.transactions.digitalwallettraining.dto.LedgerActivityDTO(
+            COUNT(t),
+            COALESCE(SUM(CASE WHEN t.type = 'DEBIT' THEN t.amount ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE 0 END), 0),
+            MAX(t.transactionDate))
+        FROM TransactionEntity t WHERE t.id IN :ids
+    """)
+    LedgerActivityDTO summarize(@Param("ids") Collection<Long> ids);
+
+    // 📅 The same lines per calendar day, for the daily rollups
+    @Query("""
+        SELECT new org.transactions.digitalwallettraining.dto.DailyActivityDTO(
+            CAST(t.transactionDate AS LocalDate),
+            SUM(CASE WHEN t.type = 'DEBIT' THEN t.amount ELSE 0 END),
+            SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE 0 END),
+            SUM(CASE WHEN t.type = 'DEBIT' THEN 1 ELSE 0 END),
+            SUM(CASE WHEN t.type = 'CREDIT' THEN 1 ELSE 0 END))
+        FROM TransactionEntity t WHERE t.id IN :ids AND t.transactionDate IS NOT NULL
+        GROUP BY CAST(t.transactionDate AS LocalDate)
+    """)
+    List<DailyActivityDTO> summarizeByDay(@Param("ids") Collection<Long> ids);
+
+    // 📅 Lines the projector has not rolled up yet, per day (the tail a range query adds to the buckets)
+    @Query("""
+        SELECT new org.transactions.digitalwallettraining.dto.DailyActivityDTO(
+            CAST(t.transactionDate AS LocalDate),
+            SUM(CASE WHEN t.type = 'DEBIT' THEN t.amount ELSE 0 END),
+            SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE 0 END),
+            SUM(CASE WHEN t.type = 'DEBIT' THEN 1 ELSE 0 END),
+            SUM(CASE WHEN t.type = 'CREDIT' THEN 1 ELSE 0 END))
+        FROM TransactionEntity t
+        WHERE t.projected = false AND t.wallet.id = :walletId
+        AND t.transactionDate >= :start AND t.transactionDate < :end
+        GROUP BY CAST(t.transactionDate AS LocalDate)
+    """)
+    List<DailyActivityDTO> findUnprojectedDays(@Param("walletId") Long walletId,
+                                               @Param("start") LocalDateTime start,
+                                               @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query("UPDATE TransactionEntity t SET t.projected = true WHERE t.id IN :ids")
+    int markProjected(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE TransactionEntity t SET t.projected = false WHERE t.projected = true")
+    int resetProjected();
+
+    @Query("SELECT COUNT(t) FROM TransactionEntity t WHERE t.projected = false")
+    long countUnprojected();
+
+    @Query("SELECT MIN(t.transactionDate) FROM TransactionEntity t WHERE t.projected = false")
+    LocalDateTime findOldestUnprojectedDate();
+
+    // Offset history as flat rows: only the five response columns, no TransactionEntity per row
+    @Query(value = """
+        SELECT new org.transactions.digitalwallettraining.dto.LedgerLineDTO(
+            t.transactionId, t.amount, t.type, t.transactionDate, t.description)
+        FROM TransactionEntity t
         WHERE t.wallet.id = :walletId
         AND (:type IS NULL OR t.type = :type)
         AND (:startDate IS NULL OR t.transactionDate >= :startDate)
         AND (:endDate IS NULL OR t.transactionDate <= :endDate)
         ORDER BY t.transactionDate DESC
+    """, countQuery = """
+        SELECT COUNT(t) FROM TransactionEntity t
+        WHERE t.wallet.id = :walletId
+        AND (:type IS NULL OR t.type = :type)
+        AND (:startDate IS NULL OR t.transactionDate >= :startDate)
+        AND (:endDate IS NULL OR t.transactionDate <= :endDate)
     """)
-    Page<TransactionEntity> findFilteredTransactions(
+    Page<LedgerLineDTO> findFilteredLines(
             Long walletId,
             org.transactions.digitalwallettraining.entity.TransactionType type,
             LocalDateTime startDate,
@@ -54,5 +169,78 @@ public interface TransactionRepository extends JpaRepository<TransactionEntity,
             Pageable pageable
     );
 
+    // 🔎 Keyset history: one query shape per filter, so each is a single range scan on its composite
+    // index with no OFFSET. Bounds are never null; (beforeDate, beforeId) is the cursor or the upper edge.
+    @Query("""
+        SELECT t FROM TransactionEntity t
+        WHERE t.wallet.id = :walletId
+        AND t.transactionDate >= :from
+        AND t.transactionDate <= :beforeDate
+        AND (t.transactionDate < :beforeDate OR t.id < :beforeId)
+        ORDER BY t.transactionDate DESC, t.id DESC
+    """)
+    List<TransactionEntity> findHistoryPage(@Param("walletId") Long walletId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("beforeDate") LocalDateTime beforeDate,
+                                            @Param("beforeId") long beforeId,
+                                            Pageable pageable);
+
+    @Query("""
+        SELECT t FROM TransactionEntity t
+        WHERE t.wallet.id = :walletId
+        AND t.type = :type
+        AND t.transactionDate >= :from
+        AND t.transactionDate <= :beforeDate
+        AND (t.transactionDate < :beforeDate OR t.id < :beforeId)
+        ORDER BY t.transactionDate DESC, t.id DESC
+    """)
+    List<TransactionEntity> findHistoryPageByType(@Param("walletId") Long walletId,
+                                                  @Param("type") TransactionType type,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("beforeDate") LocalDateTime beforeDate,
+                                                  @Param("beforeId") long beforeId,
+                                                  Pageable pageable);
+
+    @Query("SELECT COUNT(t) FROM TransactionEntity t WHERE t.wallet.id = :walletId AND t.transactionDate BETWEEN :from AND :to")
+    long countHistory(@Param("walletId") Long walletId,
+                      @Param("from") LocalDateTime from,
+                      @Param("to") LocalDateTime to);
+
+    @Query("SELECT COUNT(t) FROM TransactionEntity t WHERE t.wallet.id = :walletId AND t.type = :type AND t.transactionDate BETWEEN :from AND :to")
+    long countHistoryByType(@Param("walletId") Long walletId,
+                            @Param("type") TransactionType type,
+                            @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to);
+
+    // 🗄️ Archival: only rows already folded into the balance, the summaries and the daily rollups may leave
+    @Query("""
+        SELECT MIN(t.transactionDate) FROM TransactionEntity t
+        WHERE t.transactionDate < :before AND t.projected = true AND t.pendingSnapshot = false
+    """)
+    LocalDateTime findOldestArchivableDate(@Param("before") LocalDateTime before);
+
+    @Query("""
+        SELECT DISTINCT t.wallet.id FROM TransactionEntity t
+        WHERE t.transactionDate >= :start AND t.transactionDate < :end
+        AND t.projected = true AND t.pendingSnapshot = false
+        ORDER BY t.wallet.id
+    """)
+    List<Long> findArchivableWalletIds(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("""
+        SELECT new org.transactions.digitalwallettraining.dto.ArchivedTransactionDTO(
+            t.id, t.wallet.id, t.type, t.amount, t.transactionDate, t.transactionId, t.description)
+        FROM TransactionEntity t
+        WHERE t.wallet.id = :walletId AND t.transactionDate >= :start AND t.transactionDate < :end
+        AND t.projected = true AND t.pendingSnapshot = false
+        ORDER BY t.transactionDate, t.id
+    """)
+    List<ArchivedTransactionDTO> findArchivableRows(@Param("walletId") Long walletId,
+                                                    @Param("start") LocalDateTime start,
+                                                    @Param("end") LocalDateTime end);
 
+    // Same eligibility re-checked at delete time, so the caller can tell whether a row changed under it
+    @Modifying
+    @Query("DELETE FROM TransactionEntity t WHERE t.id IN :ids AND t.projected = true AND t.pendingSnapshot = false")
+    int deleteArchived(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,25 @@
+package org.transactions.digitalwallettraining.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.transactions.digitalwallettraining.entity.TransferRequestEntity;
+import org.transactions.digitalwallettraining.entity.TransferStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TransferRequestRepository extends JpaRepository<TransferRequestEntity, Long> {
+
+    Optional<TransferRequestEntity> findByTransferId(String transferId);
+
+    // Oldest work items in a status; rows locked by another worker are skipped (lock.timeout -2 = SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<TransferRequestEntity> findByStatusOrderByIdAsc(TransferStatus status, Pageable pageable);
+
+    List<TransferRequestEntity> findByStatus(TransferStatus status);
+}
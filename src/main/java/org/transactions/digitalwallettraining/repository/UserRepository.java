@@ -1,9 +1,14 @@
 package org.transactions.digitalwallettraining.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.transactions.digitalwallettraining.dto.UserResponseDTO;
 import org.transactions.digitalwallettraining.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +23,19 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     // Find users created after a certain date
     List<UserEntity> findByCreatedAtAfter(java.time.LocalDateTime date);
 
+    // 📋 List rows with exactly the DTO columns (no UserEntity, so no wallets collection to drag along)
+    @Query(value = """
+        SELECT new org.transactions.digitalwallettraining.dto.UserResponseDTO(u.id, u.name, u.email, u.createdAt)
+        FROM UserEntity u ORDER BY u.id
+    """, countQuery = "SELECT COUNT(u) FROM UserEntity u")
+    Page<UserResponseDTO> findUserViews(Pageable pageable);
+
+    @Query("""
+        SELECT new org.transactions.digitalwallettraining.dto.UserResponseDTO(u.id, u.name, u.email, u.createdAt)
+        FROM UserEntity u WHERE u.id IN :ids ORDER BY u.id
+    """)
+    List<UserResponseDTO> findUserViewsByIdIn(@Param("ids") Collection<Long> ids);
+
     // Find users who have at least one wallet with balance > 5000
     @Query("SELECT u FROM UserEntity u JOIN u.wallets w WHERE w.balance > 5000")
     List<UserEntity> findUsersWithHighBalanceWallets();
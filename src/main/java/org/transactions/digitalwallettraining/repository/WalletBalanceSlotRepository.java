@@ -0,0 +1,39 @@
+package org.transactions.digitalwallettraining.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.transactions.digitalwallettraining.entity.WalletBalanceSlotEntity;
+
+import java.util.List;
+
+public interface WalletBalanceSlotRepository extends JpaRepository<WalletBalanceSlotEntity, Long> {
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM WalletBalanceSlotEntity s WHERE s.wallet.id = :walletId")
+    long sumBalance(@Param("walletId") Long walletId);
+
+    // ⚡ Credits only ever add, so concurrent ones never conflict — they just queue on one of N rows
+    @Modifying
+    @Query("UPDATE WalletBalanceSlotEntity s SET s.balance = s.balance + :amount WHERE s.wallet.id = :walletId AND s.slotIndex = :slot")
+    int credit(@Param("walletId") Long walletId, @Param("slot") int slot, @Param("amount") long amountMinor);
+
+    // ⚡ Guarded draw: 0 rows means this slot alone cannot cover the amount
+    @Modifying
+    @Query("""
+        UPDATE WalletBalanceSlotEntity s SET s.balance = s.balance - :amount
+        WHERE s.wallet.id = :walletId AND s.slotIndex = :slot AND s.balance >= :amount
+    """)
+    int debitIfCovered(@Param("walletId") Long walletId, @Param("slot") int slot, @Param("amount") long amountMinor);
+
+    // 🔒 All slots of a wallet, locked in slot order, for consolidation
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM WalletBalanceSlotEntity s WHERE s.wallet.id = :walletId ORDER BY s.slotIndex")
+    List<WalletBalanceSlotEntity> findAllForUpdate(@Param("walletId") Long walletId);
+
+    @Modifying
+    @Query("DELETE FROM WalletBalanceSlotEntity s WHERE s.wallet.id = :walletId")
+    int deleteByWalletId(@Param("walletId") Long walletId);
+}
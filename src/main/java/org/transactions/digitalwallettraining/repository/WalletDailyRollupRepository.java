@@ -0,0 +1,50 @@
+package org.transactions.digitalwallettraining.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.transactions.digitalwallettraining.dto.DailyActivityDTO;
+import org.transactions.digitalwallettraining.entity.WalletDailyRollupEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WalletDailyRollupRepository extends JpaRepository<WalletDailyRollupEntity, WalletDailyRollupEntity.Key> {
+
+    // ➕ Add one day's activity to its bucket in a single statement (ON DUPLICATE KEY UPDATE on MySQL, MERGE on H2)
+    @Modifying
+    @Query("""
+        INSERT INTO WalletDailyRollupEntity (walletId, day, debits, credits, debitCount, creditCount)
+        VALUES (:walletId, :day, :debits, :credits, :debitCount, :creditCount)
+        ON CONFLICT (walletId, day) DO UPDATE SET
+            debits = debits + excluded.debits,
+            credits = credits + excluded.credits,
+            debitCount = debitCount + excluded.debitCount,
+            creditCount = creditCount + excluded.creditCount
+    """)
+    int upsert(@Param("walletId") Long walletId,
+               @Param("day") LocalDate day,
+               @Param("debits") long debitsMinor,
+               @Param("credits") long creditsMinor,
+               @Param("debitCount") long debitCount,
+               @Param("creditCount") long creditCount);
+
+    @Query("""
+        SELECT new org.transactions.digitalwallettraining.dto.DailyActivityDTO(r.day, r.debits, r.credits, r.debitCount, r.creditCount)
+        FROM WalletDailyRollupEntity r
+        WHERE r.walletId = :walletId AND r.day BETWEEN :from AND :to
+        ORDER BY r.day
+    """)
+    List<DailyActivityDTO> findDays(@Param("walletId") Long walletId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM WalletDailyRollupEntity r WHERE r.walletId = :walletId")
+    int deleteByWalletId(@Param("walletId") Long walletId);
+
+    @Modifying
+    @Query("DELETE FROM WalletDailyRollupEntity r WHERE r.walletId IN (SELECT w.id FROM WalletEntity w WHERE w.user.id = :userId)")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,13 +1,19 @@
 package org.transactions.digitalwallettraining.repository;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.transactions.digitalwallettraining.entity.WalletEntity;
 import org.transactions.digitalwallettraining.entity.WalletStatus;
+import org.transactions.digitalwallettraining.utils.Money;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,7 +24,11 @@ public interface WalletRepository extends JpaRepository<WalletEntity, Long> {
     boolean existsByUserId(Long userId);
 
     // Find wallets with balance greater than a certain amount
-    List<WalletEntity> findByBalanceGreaterThan(Double amount);
+    List<WalletEntity> findByBalanceGreaterThan(long amountMinor);
+
+    default List<WalletEntity> findByBalanceGreaterThan(Double amount) {
+        return findByBalanceGreaterThan(Money.toMinor(amount));
+    }
 
     // Find wallets created before a certain date
     List<WalletEntity> findByCreatedAtBefore(java.time.LocalDateTime date);
@@ -35,6 +45,56 @@ public interface WalletRepository extends JpaRepository<WalletEntity, Long> {
     @Query("SELECT w FROM WalletEntity w WHERE w.id = :id")
     Optional<WalletEntity> findByIdForUpdate(@Param("id") Long id);
 
+    // 🔒 Lock several wallets in one statement, always in ascending id order (deadlock-free between transfers).
+    // Lock timeout in ms; honoured where the dialect supports it (on MySQL innodb_lock_wait_timeout applies).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT w FROM WalletEntity w WHERE w.id IN :ids ORDER BY w.id")
+    List<WalletEntity> findAllByIdForUpdateOrdered(@Param("ids") Collection<Long> ids);
+
+    // ⚡ Guarded debit in one statement: 1 row = applied, 0 rows = not found / frozen / insufficient.
+    // The daily limit is reserved beforehand in SpendWindowTracker, so it is not part of the guard.
+    @Modifying
+    @Query("""
+        UPDATE WalletEntity w SET w.balance = w.balance - :amount, w.version = w.version + 1
+        WHERE w.id = :id AND w.frozen = false AND w.balance >= :amount
+    """)
+    int debitIfFunded(@Param("id") Long id, @Param("amount") long amountMinor);
+
+    // 🧊 Wallets still frozen (rebuilds the freeze expiry wheel on startup)
+    List<WalletEntity> findByFrozenTrue();
+
+    // 🧊 Wallets among ids whose current freeze started at or before the cutoff, locked until the unfreeze commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT w FROM WalletEntity w
+        WHERE w.id IN :ids AND w.frozen = true AND w.frozenAt <= :cutoff
+        ORDER BY w.id
+    """)
+    List<WalletEntity> findExpiredFreezesForUpdate(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    // 🧊 Bulk expiry: only wallets whose current freeze started at or before the cutoff
+    @Modifying
+    @Query("""
+        UPDATE WalletEntity w SET w.frozen = false, w.frozenAt = null, w.version = w.version + 1
+        WHERE w.id IN :ids AND w.frozen = true AND w.frozenAt <= :cutoff
+    """)
+    int unfreezeExpired(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    // ⚡ Commutative credit: concurrent credits just queue on the row lock, they never conflict
+    @Modifying
+    @Query("UPDATE WalletEntity w SET w.balance = w.balance + :amount, w.version = w.version + 1 WHERE w.id = :id AND w.frozen = false")
+    int creditIfActive(@Param("id") Long id, @Param("amount") long amountMinor);
+
+    // 🔥 Which of these wallets spread their balance over slot rows
+    @Query("SELECT w.id FROM WalletEntity w WHERE w.id IN :ids AND w.hotSlots > 0")
+    List<Long> findHotIds(@Param("ids") Collection<Long> ids);
+
+    // 📒 Advance a balance snapshot by the net of newly folded journal rows
+    @Modifying
+    @Query("UPDATE WalletEntity w SET w.balance = w.balance + :delta, w.version = w.version + 1 WHERE w.id = :id")
+    int addToBalance(@Param("id") Long id, @Param("delta") long deltaMinor);
+
 
 
 }
@@ -0,0 +1,52 @@
+package org.transactions.digitalwallettraining.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.transactions.digitalwallettraining.dto.WalletResponseDTO;
+import org.transactions.digitalwallettraining.entity.WalletSummaryEntity;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WalletSummaryRepository extends JpaRepository<WalletSummaryEntity, Long> {
+
+    // 🔒 Projector lock: one projection of a wallet at a time, across instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM WalletSummaryEntity s WHERE s.walletId = :walletId")
+    Optional<WalletSummaryEntity> findByIdForUpdate(@Param("walletId") Long walletId);
+
+    List<WalletSummaryEntity> findAllByOrderByWalletId();
+
+    // 📋 /wallets rows straight from the summary columns: no entity hydration, no user join
+    @Query(value = """
+        SELECT new org.transactions.digitalwallettraining.dto.WalletResponseDTO(s.walletId, s.userId, s.balance)
+        FROM WalletSummaryEntity s ORDER BY s.walletId
+    """, countQuery = "SELECT COUNT(s) FROM WalletSummaryEntity s")
+    Page<WalletResponseDTO> findWalletViews(Pageable pageable);
+
+    @Query("SELECT s FROM WalletSummaryEntity s WHERE s.balance > (SELECT AVG(s2.balance) FROM WalletSummaryEntity s2) ORDER BY s.walletId")
+    List<WalletSummaryEntity> findAboveAverageBalance();
+
+    List<WalletSummaryEntity> findByTransactionCountGreaterThanOrderByWalletId(long count);
+
+    @Query("SELECT DISTINCT s.userId FROM WalletSummaryEntity s WHERE s.balance > :minBalance")
+    List<Long> findUserIdsWithBalanceAbove(@Param("minBalance") long minBalanceMinor);
+
+    @Modifying
+    @Query("DELETE FROM WalletSummaryEntity s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // 🔄 Rebuild seed: one zeroed summary per wallet (base balance; the projector refines it)
+    @Modifying
+    @Query("""
+        INSERT INTO WalletSummaryEntity (walletId, userId, balance, transactionCount, totalDebits, totalCredits, projectedAt)
+        SELECT w.id, w.user.id, w.balance, 0, 0, 0, LOCAL DATETIME FROM WalletEntity w
+    """)
+    int seedFromWallets();
+}
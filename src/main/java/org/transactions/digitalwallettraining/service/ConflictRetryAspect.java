@@ -0,0 +1,32 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link RetryOnConflict}. Ordered ahead of the transaction advisor (which runs at
+ * LOWEST_PRECEDENCE), so the retry wraps the transaction rather than running inside it.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect {
+
+    private final ConflictRetryCoordinator coordinator;
+
+    public ConflictRetryAspect(ConflictRetryCoordinator coordinator) {
+        this.coordinator = coordinator;
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        String operation = retryOnConflict.value().isEmpty()
+                ? joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName()
+                : retryOnConflict.value();
+        return coordinator.execute(operation, retryOnConflict, joinPoint::proceed);
+    }
+}
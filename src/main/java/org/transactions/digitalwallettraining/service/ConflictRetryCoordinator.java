@@ -0,0 +1,112 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.transactions.digitalwallettraining.dto.RetryStatsDTO;
+import org.transactions.digitalwallettraining.exception.MaxRetryExceededException;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs an operation, re-running it after concurrency conflicts with jittered exponential backoff.
+ *
+ * Backoff is contention-aware: the more callers of the same operation are currently backing off,
+ * the wider the window each one sleeps in, so a burst on one hot wallet spreads out instead of
+ * colliding again in lockstep. Per-operation counters are kept for {@link #getStats()}.
+ */
+@Component
+public class ConflictRetryCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(ConflictRetryCoordinator.class);
+
+    // Cap on how much concurrent retriers can stretch the backoff window
+    private static final int MAX_CONTENTION_FACTOR = 8;
+
+    @FunctionalInterface
+    public interface Attempt<T> {
+        T run() throws Throwable;
+    }
+
+    private static final class Stats {
+        final LongAdder calls = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder exhausted = new LongAdder();
+        final AtomicInteger backingOff = new AtomicInteger();
+    }
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public <T> T execute(String operation, RetryOnConflict policy, Attempt<T> attempt) throws Throwable {
+        Stats s = stats.computeIfAbsent(operation, k -> new Stats());
+        s.calls.increment();
+        int maxAttempts = Math.max(1, policy.maxAttempts());
+
+        for (int n = 1; ; n++) {
+            try {
+                return attempt.run();
+            } catch (Throwable ex) {
+                if (!isRetryable(ex, policy)) throw ex;
+                s.conflicts.increment();
+
+                if (n >= maxAttempts) {
+                    s.exhausted.increment();
+                    log.error("🚫 {} gave up after {} conflicting attempts: {}", operation, n, ex.getMessage());
+                    throw new MaxRetryExceededException(operation + " failed after " + n + " attempts", ex);
+                }
+
+                s.retries.increment();
+                log.warn("⚠️ {} conflict (attempt {}/{}). Retrying...", operation, n, maxAttempts);
+                backoff(s, policy, n);
+            }
+        }
+    }
+
+    public List<RetryStatsDTO> getStats() {
+        return stats.entrySet().stream()
+                .map(e -> new RetryStatsDTO(e.getKey(), e.getValue().calls.sum(), e.getValue().conflicts.sum(),
+                        e.getValue().retries.sum(), e.getValue().exhausted.sum()))
+                .sorted(Comparator.comparing(RetryStatsDTO::operation))
+                .toList();
+    }
+
+    public long getConflictCount(String operation) {
+        Stats s = stats.get(operation);
+        return s == null ? 0 : s.conflicts.sum();
+    }
+
+    public long getRetryCount(String operation) {
+        Stats s = stats.get(operation);
+        return s == null ? 0 : s.retries.sum();
+    }
+
+    private static boolean isRetryable(Throwable ex, RetryOnConflict policy) {
+        for (Class<? extends Throwable> type : policy.retryOn()) {
+            if (type.isInstance(ex)) return true;
+        }
+        return false;
+    }
+
+    // Equal jitter: sleep between half and all of the window, widened by concurrent retriers
+    private static void backoff(Stats s, RetryOnConflict policy, int attempt) {
+        int waiting = s.backingOff.incrementAndGet();
+        try {
+            long window = policy.backoffMs() << Math.min(attempt - 1, 20);
+            window = window * (4 + Math.min(waiting - 1, MAX_CONTENTION_FACTOR)) / 4;
+            window = Math.max(1, Math.min(window, policy.maxBackoffMs()));
+            Thread.sleep(window / 2 + ThreadLocalRandom.current().nextLong(window / 2 + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying after a conflict", ex);
+        } finally {
+            s.backingOff.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ticks the {@link FreezeExpiryWheel}: every tick unfreezes all wallets that came due with a single
+ * bulk UPDATE and resets the spend windows of those it actually unfroze, so request threads never open
+ * an unfreeze transaction.
+ * On startup the wheel is rebuilt from wallets.frozen_at.
+ */
+@Component
+public class FreezeExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(FreezeExpiryScheduler.class);
+
+    private final FreezeExpiryWheel expiryWheel;
+    private final WalletFreezeService walletFreezeService;
+    private final WalletRepository walletRepository;
+    private final SpendWindowTracker spendWindowTracker;
+
+    public FreezeExpiryScheduler(FreezeExpiryWheel expiryWheel, WalletFreezeService walletFreezeService,
+                                 WalletRepository walletRepository, SpendWindowTracker spendWindowTracker) {
+        this.expiryWheel = expiryWheel;
+        this.walletFreezeService = walletFreezeService;
+        this.walletRepository = walletRepository;
+        this.spendWindowTracker = spendWindowTracker;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<WalletEntity> frozen = walletRepository.findByFrozenTrue();
+        for (WalletEntity wallet : frozen) {
+            if (wallet.getFrozenAt() != null) walletFreezeService.scheduleExpiry(wallet.getId(), wallet.getFrozenAt());
+        }
+        if (!frozen.isEmpty()) log.info("🧊 Freeze wheel rebuilt with {} frozen wallets", frozen.size());
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.freeze.tick-ms:1000}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        long[] due = expiryWheel.advance(now);
+        if (due.length == 0) return;
+
+        List<Long> walletIds = new ArrayList<>(due.length);
+        for (long id : due) walletIds.add(id);
+        try {
+            // 💥 Reset spent amount, but not for a wallet frozen again meanwhile: its new window stands
+            for (Long id : walletFreezeService.unfreezeExpired(walletIds)) spendWindowTracker.reset(id, now);
+        } catch (RuntimeException ex) {
+            // Put them back for the next tick rather than leaving the wallets frozen until restart
+            for (long id : due) expiryWheel.schedule(id, now);
+            log.warn("🧊 Unfreeze of {} wallets failed, retrying next tick: {}", due.length, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.springframework.stereotype.Component;
+import org.transactions.digitalwallettraining.config.WalletFreezeProperties;
+
+import java.util.Arrays;
+
+/**
+ * Hashed timing wheel of pending freeze expiries.
+ *
+ * An expiry goes into slot (deadlineTick % slots); each tick the cursor visits the slots it passed and
+ * hands back every wallet whose deadline is due, leaving later laps in place. Scheduling and advancing
+ * are O(1) per entry, so the scheduler never scans frozen wallets in the database.
+ */
+@Component
+public class FreezeExpiryWheel {
+
+    private final long tickMillis;
+    private final Slot[] slots;
+    private long cursor;   // last tick already visited
+    private int size;
+
+    public FreezeExpiryWheel(WalletFreezeProperties properties) {
+        this(properties, System.currentTimeMillis());
+    }
+
+    FreezeExpiryWheel(WalletFreezeProperties properties, long startMillis) {
+        if (properties.getTickMs() <= 0 || properties.getWheelSlots() <= 0)
+            throw new IllegalArgumentException("Freeze wheel needs a positive tick and slot count.");
+        this.tickMillis = properties.getTickMs();
+        this.slots = new Slot[properties.getWheelSlots()];
+        for (int i = 0; i < slots.length; i++) slots[i] = new Slot();
+        this.cursor = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    // ✅ Fire walletId once deadlineMillis has passed (an overdue deadline fires on the next tick)
+    public synchronized void schedule(long walletId, long deadlineMillis) {
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), cursor + 1);
+        slots[(int) Math.floorMod(tick, (long) slots.length)].add(walletId, deadlineMillis);
+        size++;
+    }
+
+    // ⏱️ Move the cursor to nowMillis and return the wallets whose freeze has expired
+    public synchronized long[] advance(long nowMillis) {
+        long now = Math.floorDiv(nowMillis, tickMillis);
+        if (now <= cursor) return new long[0];
+
+        Slot due = new Slot();
+        long from = Math.max(cursor + 1, now - slots.length + 1);   // a long pause visits each slot once
+        for (long t = from; t <= now; t++) {
+            slots[(int) Math.floorMod(t, (long) slots.length)].drainDue(nowMillis, due);
+        }
+        cursor = now;
+        size -= due.count;
+        return Arrays.copyOf(due.ids, due.count);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Parallel primitive arrays: wallet id and deadline of each pending expiry
+    private static final class Slot {
+        long[] ids = new long[4];
+        long[] deadlines = new long[4];
+        int count;
+
+        void add(long id, long deadline) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                deadlines = Arrays.copyOf(deadlines, count * 2);
+            }
+            ids[count] = id;
+            deadlines[count] = deadline;
+            count++;
+        }
+
+        // Moves due entries into out and compacts the rest in place
+        void drainDue(long nowMillis, Slot out) {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (deadlines[i] <= nowMillis) {
+                    out.add(ids[i], deadlines[i]);
+                } else {
+                    ids[kept] = ids[i];
+                    deadlines[kept] = deadlines[i];
+                    kept++;
+                }
+            }
+            count = kept;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory set of frozen wallet ids with their freeze expiry, so the controller can turn away requests
+ * for a frozen wallet without opening a transaction or loading the entity.
+ *
+ * Entries are written only after a freeze commits (and on startup from wallets.frozen_at) and are pruned
+ * once the freeze expires, so a hit is always a committed freeze. A miss proves nothing: a wallet frozen
+ * by another instance is simply checked against the database as before. The set is an open-addressing
+ * table of (id, expiresAtMillis) pairs in one long[]; lookups are lock-free optimistic reads.
+ */
+@Component
+public class FrozenWalletRegistry {
+
+    private static final long EMPTY = 0;   // wallet ids start at 1
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final StampedLock lock = new StampedLock();
+    private long[] table = new long[INITIAL_CAPACITY * 2];   // [id, expiresAt, id, expiresAt, ...]
+    private int size;
+
+    // ✅ Record a committed freeze; a later expiry replaces an earlier one
+    public void markFrozen(long walletId, long expiresAtMillis) {
+        if (walletId == EMPTY) throw new IllegalArgumentException("Wallet id must not be 0.");
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 4 > capacity() * 3) resize(capacity() * 2);
+            int slot = find(table, walletId);
+            if (table[slot] == EMPTY) {
+                table[slot] = walletId;
+                size++;
+            }
+            table[slot + 1] = Math.max(table[slot + 1], expiresAtMillis);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // 🧊 Drop entries whose freeze has run out by nowMillis; a wallet frozen again since keeps its entry
+    public void clearExpired(Iterable<Long> walletIds, long nowMillis) {
+        long stamp = lock.writeLock();
+        try {
+            for (Long walletId : walletIds) {
+                int slot = find(table, walletId);
+                if (table[slot] != EMPTY && table[slot + 1] <= nowMillis) remove(slot);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ⏳ Seconds until the wallet's freeze runs out, as far as this instance knows (0 = not known frozen)
+    public long secondsLeft(long walletId, long nowMillis) {
+        long expiresAt = expiresAt(walletId);
+        return expiresAt > nowMillis ? Math.ceilDiv(expiresAt - nowMillis, 1000) : 0;
+    }
+
+    // 🚫 Fast-path rejection for the controller, same message as the service-level check
+    public void rejectIfFrozen(Long walletId) {
+        if (walletId == null) return;
+        long secondsLeft = secondsLeft(walletId, System.currentTimeMillis());
+        if (secondsLeft > 0) {
+            throw new IllegalStateException("🚫 Wallet is frozen. Try again in " + secondsLeft + " seconds.");
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private long expiresAt(long walletId) {
+        long stamp = lock.tryOptimisticRead();
+        long expiresAt = lookup(table, walletId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                expiresAt = lookup(table, walletId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return expiresAt;
+    }
+
+    // May run against a table that is being written; the probe is bounded and the caller validates the stamp
+    private static long lookup(long[] t, long walletId) {
+        int mask = (t.length >> 1) - 1;
+        int i = hash(walletId) & mask;
+        for (int probes = 0; probes <= mask; probes++, i = (i + 1) & mask) {
+            long key = t[i << 1];
+            if (key == walletId) return t[(i << 1) + 1];
+            if (key == EMPTY) return 0;
+        }
+        return 0;
+    }
+
+    // Caller holds the write lock; returns the pair offset of walletId or of the empty slot it would take
+    private static int find(long[] t, long walletId) {
+        int mask = (t.length >> 1) - 1;
+        int i = hash(walletId) & mask;
+        while (t[i << 1] != EMPTY && t[i << 1] != walletId) i = (i + 1) & mask;
+        return i << 1;
+    }
+
+    // Backward-shift deletion keeps every probe chain unbroken without tombstones
+    private void remove(int slot) {
+        int mask = capacity() - 1;
+        int hole = slot >> 1;
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            long key = table[i << 1];
+            if (key == EMPTY) break;
+            int home = hash(key) & mask;
+            // Move the entry back unless its home lies cyclically in (hole, i]
+            boolean stays = hole <= i ? (hole < home && home <= i) : (hole < home || home <= i);
+            if (!stays) {
+                table[hole << 1] = key;
+                table[(hole << 1) + 1] = table[(i << 1) + 1];
+                hole = i;
+            }
+        }
+        table[hole << 1] = EMPTY;
+        table[(hole << 1) + 1] = 0;
+        size--;
+    }
+
+    private void resize(int newCapacity) {
+        long[] old = table;
+        long[] fresh = new long[newCapacity * 2];
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] == EMPTY) continue;
+            int slot = find(fresh, old[i]);
+            fresh[slot] = old[i];
+            fresh[slot + 1] = old[i + 1];
+        }
+        table = fresh;
+    }
+
+    private int capacity() {
+        return table.length >> 1;
+    }
+
+    private static int hash(long walletId) {
+        long h = walletId * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32);
+    }
+}
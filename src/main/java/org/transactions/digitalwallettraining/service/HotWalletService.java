@@ -0,0 +1,113 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.transactions.digitalwallettraining.dto.WalletResponseDTO;
+import org.transactions.digitalwallettraining.entity.WalletBalanceSlotEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.WalletBalanceSlotRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Split-counter balances for wallets that take many concurrent credits.
+ *
+ * A hot wallet's balance = wallets.balance (base share) + the sum of its slot rows. Credits add to a
+ * random slot and never touch the wallet row. Debits draw from the base share (a wallet-row write),
+ * then from any single slot that covers the amount, and otherwise consolidate every slot into the
+ * base share first. A slot debit leaves the wallet row alone: its guarded UPDATE (balance >= amount)
+ * is what keeps concurrent slot debits from overdrawing, not the wallet row's version.
+ */
+@Service
+public class HotWalletService {
+
+    private static final Logger log = LoggerFactory.getLogger(HotWalletService.class);
+
+    public static final int MAX_SLOTS = 64;
+
+    private final WalletRepository walletRepository;
+    private final WalletBalanceSlotRepository slotRepository;
+
+    public HotWalletService(WalletRepository walletRepository, WalletBalanceSlotRepository slotRepository) {
+        this.walletRepository = walletRepository;
+        this.slotRepository = slotRepository;
+    }
+
+    // ✅ Total spendable balance of a wallet in either layout, in minor units
+    public long totalBalanceMinor(WalletEntity wallet) {
+        return wallet.isHot()
+                ? wallet.getBalanceMinor() + slotRepository.sumBalance(wallet.getId())
+                : wallet.getBalanceMinor();
+    }
+
+    public void credit(WalletEntity wallet, long amountMinor) {
+        int slot = ThreadLocalRandom.current().nextInt(wallet.getHotSlots());
+        if (slotRepository.credit(wallet.getId(), slot, amountMinor) == 0) {
+            throw new IllegalStateException("Balance slot " + slot + " missing for wallet " + wallet.getId());
+        }
+    }
+
+    // ✅ Caller has already checked totalBalanceMinor(wallet) >= amountMinor; base-share and consolidating debits write the wallet row
+    public void debit(WalletEntity wallet, long amountMinor) {
+        if (wallet.getBalanceMinor() >= amountMinor) {
+            wallet.setBalanceMinor(wallet.getBalanceMinor() - amountMinor);
+            return;
+        }
+
+        int slots = wallet.getHotSlots();
+        int start = ThreadLocalRandom.current().nextInt(slots);
+        for (int i = 0; i < slots; i++) {
+            if (slotRepository.debitIfCovered(wallet.getId(), (start + i) % slots, amountMinor) == 1) return;
+        }
+
+        // No single share covers it → fold every slot into the base share, then debit there
+        consolidate(wallet);
+        if (wallet.getBalanceMinor() < amountMinor) throw new IllegalArgumentException("Insufficient balance.");
+        wallet.setBalanceMinor(wallet.getBalanceMinor() - amountMinor);
+    }
+
+    // ✅ Move all slot balances into wallets.balance (slots are locked for the rest of the transaction)
+    public void consolidate(WalletEntity wallet) {
+        if (!wallet.isHot()) return;
+        long moved = 0;
+        for (WalletBalanceSlotEntity slot : slotRepository.findAllForUpdate(wallet.getId())) {
+            moved += slot.getBalanceMinor();
+            slot.setBalanceMinor(0);
+        }
+        wallet.setBalanceMinor(wallet.getBalanceMinor() + moved);
+        log.info("🔥 Wallet {}: consolidated ₹{} from {} slots", wallet.getId(), Money.format(moved), wallet.getHotSlots());
+    }
+
+    // ✅ Switch a wallet between layouts at runtime; slots = 0 turns hot mode off
+    @Transactional
+    public WalletResponseDTO configure(Long walletId, int slots) {
+        if (slots < 0 || slots > MAX_SLOTS)
+            throw new IllegalArgumentException("Slots must be between 0 and " + MAX_SLOTS + ".");
+
+        WalletEntity wallet = walletRepository.findByIdForUpdate(walletId)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+
+        if (wallet.isHot()) {
+            consolidate(wallet);
+            slotRepository.flush();
+            slotRepository.deleteByWalletId(walletId);
+        }
+
+        List<WalletBalanceSlotEntity> created = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            created.add(new WalletBalanceSlotEntity(wallet, i));
+        }
+        slotRepository.saveAll(created);
+
+        wallet.setHotSlots(slots);
+        walletRepository.save(wallet);
+        log.info("🔥 Wallet {} now uses {} balance slots", walletId, slots);
+        return new WalletResponseDTO(wallet.getId(), wallet.getUser().getId(), wallet.getBalance());
+    }
+}
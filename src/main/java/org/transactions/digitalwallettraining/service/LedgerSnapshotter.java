@@ -0,0 +1,49 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.transactions.digitalwallettraining.config.WalletLedgerProperties;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+
+import java.util.List;
+
+/**
+ * Background pass that keeps balance snapshots close to the journal head. Each pass folds a bounded
+ * number of wallets, one short transaction per wallet. It keeps running after switching back to
+ * MUTABLE so leftover pending rows still get folded.
+ */
+@Component
+public class LedgerSnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerSnapshotter.class);
+
+    private final WalletSnapshotService snapshotService;
+    private final TransactionRepository transactionRepository;
+    private final WalletLedgerProperties properties;
+
+    public LedgerSnapshotter(WalletSnapshotService snapshotService,
+                             TransactionRepository transactionRepository,
+                             WalletLedgerProperties properties) {
+        this.snapshotService = snapshotService;
+        this.transactionRepository = transactionRepository;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.ledger.snapshot-interval-ms:1000}")
+    public void foldPending() {
+        List<Long> walletIds = transactionRepository.findWalletIdsWithPending(
+                PageRequest.of(0, Math.max(1, properties.getSnapshotWalletsPerPass())));
+        int folded = 0;
+        for (Long walletId : walletIds) {
+            try {
+                folded += snapshotService.fold(walletId);
+            } catch (RuntimeException ex) {
+                log.warn("📒 Snapshot of wallet {} skipped this pass: {}", walletId, ex.getMessage());
+            }
+        }
+        if (folded > 0) log.info("📒 Snapshot pass folded {} journal rows across {} wallets", folded, walletIds.size());
+    }
+}
@@ -0,0 +1,33 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.lang.annotation.*;
+
+/**
+ * Re-runs the annotated method when it fails with a concurrency conflict (optimistic version
+ * mismatch, lock timeout, deadlock victim). The retry advice is ordered outside
+ * {@code @Transactional}, so every attempt gets a fresh transaction and persistence context and
+ * no connection is held while backing off.
+ *
+ * Only put this on methods that start their own transaction (REQUIRED from a non-transactional
+ * caller, or REQUIRES_NEW); retrying inside an outer transaction would replay stale state.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+
+    // Name the counters are reported under; defaults to ClassName.methodName
+    String value() default "";
+
+    // Total attempts, including the first one
+    int maxAttempts() default 5;
+
+    // Backoff before the first retry; doubles per attempt and grows with concurrent retriers
+    long backoffMs() default 50;
+
+    long maxBackoffMs() default 2000;
+
+    Class<? extends Throwable>[] retryOn() default ConcurrencyFailureException.class;
+}
@@ -0,0 +1,226 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.transactions.digitalwallettraining.config.WalletSpendWindowProperties;
+import org.transactions.digitalwallettraining.repository.JournalPostingRepository;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Per-wallet sliding-window debit totals, kept in memory so a limit check is O(1) and needs no write.
+ *
+ * Each wallet has a ring of time buckets (long minor units) plus a running total; advancing the clock
+ * clears the buckets that fell out of the window. Wallets live in a lock-striped map, so different
+ * wallets never contend. A wallet that is not tracked (first use after startup, or evicted) is seeded
+ * from the committed debits in the window; the seed lands in the current bucket, which can only
+ * over-hold spend, never under-count it. Totals are per instance: with several app instances each
+ * one sees its own reservations plus whatever was committed when it seeded the wallet.
+ */
+@Component
+public class SpendWindowTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(SpendWindowTracker.class);
+
+    // tryReserve result when the amount would take the window over the limit
+    public static final long REJECTED = -1;
+
+    private final TransactionRepository transactionRepository;
+    private final JournalPostingRepository journalPostingRepository;
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final int maxPerStripe;
+    private final Stripe[] stripes;
+
+    public SpendWindowTracker(WalletSpendWindowProperties properties,
+                              TransactionRepository transactionRepository,
+                              JournalPostingRepository journalPostingRepository) {
+        if (properties.getBucketSeconds() <= 0 || properties.getWindowSeconds() < properties.getBucketSeconds())
+            throw new IllegalArgumentException("Spend window must be at least one bucket long.");
+        this.transactionRepository = transactionRepository;
+        this.journalPostingRepository = journalPostingRepository;
+        this.bucketMillis = properties.getBucketSeconds() * 1000;
+        this.bucketCount = (int) Math.ceilDiv(properties.getWindowSeconds(), properties.getBucketSeconds());
+
+        int requested = Math.max(1, properties.getStripes());
+        int stripeCount = requested == 1 ? 1 : Integer.highestOneBit(requested - 1) << 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) stripes[i] = new Stripe();
+        this.maxPerStripe = Math.max(1, properties.getMaxWallets() / stripeCount);
+    }
+
+    // ✅ Debits of this wallet inside the window ending at nowMillis
+    public long spent(Long walletId, long nowMillis) {
+        Stripe stripe = stripeOf(walletId);
+        long epoch = epochOf(nowMillis);
+        synchronized (stripe) {
+            Window window = stripe.windows.get(walletId);
+            if (window != null) return touch(window, epoch, nowMillis).total;
+        }
+        long seed = committedDebits(walletId, nowMillis);
+        synchronized (stripe) {
+            return touch(seeded(stripe, walletId, epoch, nowMillis, seed), epoch, nowMillis).total;
+        }
+    }
+
+    /**
+     * ✅ Adds amount to the window if the total stays within limit.
+     * Returns the new window total, or {@link #REJECTED} (nothing recorded).
+     */
+    public long tryReserve(Long walletId, long amountMinor, long limitMinor, long nowMillis) {
+        Stripe stripe = stripeOf(walletId);
+        long epoch = epochOf(nowMillis);
+        synchronized (stripe) {
+            Window window = stripe.windows.get(walletId);
+            if (window != null) return reserve(touch(window, epoch, nowMillis), amountMinor, limitMinor);
+        }
+        // Miss → seed from committed debits, outside the stripe lock (it is a DB round trip)
+        long seed = committedDebits(walletId, nowMillis);
+        synchronized (stripe) {
+            return reserve(touch(seeded(stripe, walletId, epoch, nowMillis, seed), epoch, nowMillis),
+                    amountMinor, limitMinor);
+        }
+    }
+
+    // ↩️ Undo a reservation made at reservedAtMillis (rolled-back transaction); a no-op once it left the window
+    public void release(Long walletId, long amountMinor, long reservedAtMillis) {
+        Stripe stripe = stripeOf(walletId);
+        synchronized (stripe) {
+            Window window = stripe.windows.get(walletId);
+            if (window == null) return;   // evicted; the next seed reads committed rows only
+            long epoch = epochOf(reservedAtMillis);
+            if (epoch > window.head - bucketCount) window.add(Math.min(epoch, window.head), -amountMinor);
+        }
+    }
+
+    // 🧊 Start the wallet over with an empty window (unfreeze resets the daily spend)
+    public void reset(Long walletId, long nowMillis) {
+        Stripe stripe = stripeOf(walletId);
+        synchronized (stripe) {
+            put(stripe, walletId, new Window(bucketCount, epochOf(nowMillis), nowMillis));
+        }
+    }
+
+    public int trackedWallets() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.windows.size();
+            }
+        }
+        return total;
+    }
+
+    // Caller holds the stripe lock
+    private Window touch(Window window, long epoch, long nowMillis) {
+        window.advance(epoch);
+        window.lastUsed = nowMillis;
+        return window;
+    }
+
+    private static long reserve(Window window, long amountMinor, long limitMinor) {
+        if (window.total + amountMinor > limitMinor) return REJECTED;
+        window.add(window.head, amountMinor);
+        return window.total;
+    }
+
+    // Caller holds the stripe lock; another thread may have seeded the wallet while we were reading
+    private Window seeded(Stripe stripe, Long walletId, long epoch, long nowMillis, long seed) {
+        Window window = stripe.windows.get(walletId);
+        if (window != null) return window;
+        window = new Window(bucketCount, epoch, nowMillis);
+        window.add(epoch, seed);
+        put(stripe, walletId, window);
+        return window;
+    }
+
+    private long committedDebits(Long walletId, long nowMillis) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDateTime end = LocalDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), zone);
+        LocalDateTime start = end.minusNanos(bucketCount * bucketMillis * 1_000_000);
+        long seed = transactionRepository.sumDebitsByWalletAndDate(walletId, start, end)
+                + journalPostingRepository.sumDebitsByWalletAndDate(walletId, start, end);
+        if (seed > 0) log.debug("📊 Wallet {}: spend window seeded with ₹{}", walletId, Money.format(seed));
+        return seed;
+    }
+
+    // Caller holds the stripe lock
+    private void put(Stripe stripe, Long walletId, Window window) {
+        if (stripe.windows.size() >= maxPerStripe && !stripe.windows.containsKey(walletId)) evict(stripe, window.head);
+        stripe.windows.put(walletId, window);
+    }
+
+    // Drop every wallet with nothing left in its window; if none is idle, drop the least recently used
+    private void evict(Stripe stripe, long nowEpoch) {
+        Long lru = null;
+        long lruUsed = Long.MAX_VALUE;
+        Iterator<Map.Entry<Long, Window>> it = stripe.windows.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Window> e = it.next();
+            Window w = e.getValue();
+            w.advance(nowEpoch);
+            if (w.total == 0) {
+                it.remove();
+            } else if (w.lastUsed < lruUsed) {
+                lru = e.getKey();
+                lruUsed = w.lastUsed;
+            }
+        }
+        if (stripe.windows.size() >= maxPerStripe && lru != null) stripe.windows.remove(lru);
+    }
+
+    private long epochOf(long millis) {
+        return Math.floorDiv(millis, bucketMillis);
+    }
+
+    private Stripe stripeOf(Long walletId) {
+        long h = walletId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & (stripes.length - 1)];
+    }
+
+    private static final class Stripe {
+        final Map<Long, Window> windows = new HashMap<>();
+    }
+
+    // Ring of per-bucket totals; slot (epoch % size) holds epoch's spend for epochs in (head - size, head]
+    private static final class Window {
+        final long[] amounts;
+        long head;
+        long total;
+        long lastUsed;
+
+        Window(int size, long head, long lastUsed) {
+            this.amounts = new long[size];
+            this.head = head;
+            this.lastUsed = lastUsed;
+        }
+
+        // Move head forward, clearing the buckets that slid out of the window (at most one lap)
+        void advance(long epoch) {
+            if (epoch <= head) return;
+            long from = Math.max(head + 1, epoch - amounts.length + 1);
+            for (long e = from; e <= epoch; e++) {
+                int slot = (int) Math.floorMod(e, (long) amounts.length);
+                total -= amounts[slot];
+                amounts[slot] = 0;
+            }
+            head = epoch;
+        }
+
+        void add(long epoch, long amount) {
+            int slot = (int) Math.floorMod(epoch, (long) amounts.length);
+            long applied = Math.max(amount, -amounts[slot]);   // a release never drives a bucket negative
+            amounts[slot] += applied;
+            total += applied;
+        }
+    }
+}
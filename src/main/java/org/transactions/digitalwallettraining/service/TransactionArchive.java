@@ -0,0 +1,194 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.springframework.stereotype.Service;
+import org.transactions.digitalwallettraining.config.WalletArchiveProperties;
+import org.transactions.digitalwallettraining.dto.ArchivedTransactionDTO;
+import org.transactions.digitalwallettraining.dto.LedgerLineDTO;
+import org.transactions.digitalwallettraining.entity.ArchivedWalletMonthEntity;
+import org.transactions.digitalwallettraining.entity.TransactionArchiveSegmentEntity;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.repository.ArchivedWalletMonthRepository;
+import org.transactions.digitalwallettraining.repository.TransactionArchiveSegmentRepository;
+import org.transactions.digitalwallettraining.utils.TransactionSegment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 🗄️ Read side of the transaction archive: a wallet's archived lines, oldest first.
+ *
+ * The manifest (transaction_archive_segments) is the source of truth; only segments whose wallet
+ * range covers the wallet are opened, one month at a time, so memory is bounded by one wallet-month.
+ * History pages and totals go through archived_wallet_months instead, which says which months hold
+ * the wallet's rows and how many: a page opens only the months it returns rows from, and a total
+ * opens at most the two months the range cuts in half.
+ */
+@Service
+public class TransactionArchive {
+
+    private static final Comparator<ArchivedTransactionDTO> BY_TIME =
+            Comparator.comparing(ArchivedTransactionDTO::transactionDate).thenComparingLong(ArchivedTransactionDTO::id);
+
+    private final TransactionArchiveSegmentRepository segmentRepository;
+    private final ArchivedWalletMonthRepository monthRepository;
+    private final WalletArchiveProperties properties;
+
+    public TransactionArchive(TransactionArchiveSegmentRepository segmentRepository,
+                              ArchivedWalletMonthRepository monthRepository,
+                              WalletArchiveProperties properties) {
+        this.segmentRepository = segmentRepository;
+        this.monthRepository = monthRepository;
+        this.properties = properties;
+    }
+
+    public Path directory() {
+        return Path.of(properties.getDirectory());
+    }
+
+    // ✅ Lazy: a month's segments are only read when the caller gets to that month
+    public Iterator<LedgerLineDTO> lines(Long walletId) {
+        Iterator<ArchivedTransactionDTO> rows = rows(walletId);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public LedgerLineDTO next() {
+                return rows.next().toLedgerLine();
+            }
+        };
+    }
+
+    private Iterator<ArchivedTransactionDTO> rows(Long walletId) {
+        List<TransactionArchiveSegmentEntity> segments = segmentRepository.findCovering(walletId);
+        if (segments.isEmpty()) return Collections.emptyIterator();
+
+        return new Iterator<>() {
+            private int next = 0;
+            private Iterator<ArchivedTransactionDTO> month = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!month.hasNext() && next < segments.size()) {
+                    month = nextMonth();
+                }
+                return month.hasNext();
+            }
+
+            @Override
+            public ArchivedTransactionDTO next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return month.next();
+            }
+
+            // A month archived over several passes can hold the wallet in more than one segment
+            private Iterator<ArchivedTransactionDTO> nextMonth() {
+                String period = segments.get(next).getPeriod();
+                List<ArchivedTransactionDTO> rows = new ArrayList<>();
+                while (next < segments.size() && segments.get(next).getPeriod().equals(period)) {
+                    rows.addAll(read(segments.get(next++), walletId));
+                }
+                rows.sort(BY_TIME);
+                return rows.iterator();
+            }
+        };
+    }
+
+    // ✅ One archived line, read from the wallet's segments of that month only (idempotent replays)
+    public Optional<LedgerLineDTO> find(Long walletId, String period, String transactionId) {
+        return readMonth(walletId, period).stream()
+                .filter(row -> row.transactionId().equals(transactionId))
+                .map(ArchivedTransactionDTO::toLedgerLine)
+                .findFirst();
+    }
+
+    /**
+     * ✅ Cursor history: up to limit rows in [from, (beforeDate, beforeId)), newest first by
+     * (transactionDate, id). Months are opened newest first and the walk stops as soon as the page is full.
+     */
+    public List<ArchivedTransactionDTO> history(Long walletId, TransactionType type, LocalDateTime from,
+                                                LocalDateTime beforeDate, long beforeId, int limit) {
+        List<ArchivedTransactionDTO> page = new ArrayList<>();
+        for (ArchivedWalletMonthEntity month : monthRepository.findMonths(walletId, period(from), period(beforeDate))) {
+            if (month.count(type) == 0) continue;
+            for (ArchivedTransactionDTO row : readMonth(walletId, month.getPeriod()).reversed()) {
+                if (row.transactionDate().isBefore(from) || page.size() == limit) return page;
+                boolean beforeEdge = row.transactionDate().isBefore(beforeDate)
+                        || (row.transactionDate().isEqual(beforeDate) && row.id() < beforeId);
+                if (beforeEdge && (type == null || row.type() == type)) page.add(row);
+            }
+        }
+        return page;
+    }
+
+    // ✅ Archived rows in [from, to]: months wholly inside the range are counted from the index, not opened
+    public long count(Long walletId, TransactionType type, LocalDateTime from, LocalDateTime to) {
+        long total = 0;
+        for (ArchivedWalletMonthEntity month : monthRepository.findMonths(walletId, period(from), period(to))) {
+            YearMonth ym = YearMonth.parse(month.getPeriod());
+            LocalDateTime start = ym.atDay(1).atStartOfDay();
+            LocalDateTime end = ym.plusMonths(1).atDay(1).atStartOfDay();
+            if (!start.isBefore(from) && !end.isAfter(to)) {
+                total += month.count(type);
+            } else if (month.count(type) > 0) {
+                total += readMonth(walletId, month.getPeriod()).stream()
+                        .filter(row -> !row.transactionDate().isBefore(from) && !row.transactionDate().isAfter(to))
+                        .filter(row -> type == null || row.type() == type)
+                        .count();
+            }
+        }
+        return total;
+    }
+
+    // ✅ Every archived row, one whole segment at a time, oldest month first (read-model rebuilds)
+    public void forEachSegment(Consumer<List<ArchivedTransactionDTO>> consumer) {
+        for (TransactionArchiveSegmentEntity segment : segmentRepository.findAllByOrderByPeriodAscSequenceAsc()) {
+            try {
+                consumer.accept(TransactionSegment.readAll(directory().resolve(segment.getFileName())));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    public List<LedgerLineDTO> listLines(Long walletId) {
+        List<LedgerLineDTO> lines = new ArrayList<>();
+        lines(walletId).forEachRemaining(lines::add);
+        return lines;
+    }
+
+    // A month archived over several passes can hold the wallet in more than one segment
+    private List<ArchivedTransactionDTO> readMonth(long walletId, String period) {
+        List<ArchivedTransactionDTO> rows = new ArrayList<>();
+        for (TransactionArchiveSegmentEntity segment : segmentRepository.findCoveringInPeriod(walletId, period)) {
+            rows.addAll(read(segment, walletId));
+        }
+        rows.sort(BY_TIME);
+        return rows;
+    }
+
+    private static String period(LocalDateTime date) {
+        return YearMonth.from(date).toString();
+    }
+
+    private List<ArchivedTransactionDTO> read(TransactionArchiveSegmentEntity segment, long walletId) {
+        try {
+            return TransactionSegment.readWallet(directory().resolve(segment.getFileName()), walletId);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
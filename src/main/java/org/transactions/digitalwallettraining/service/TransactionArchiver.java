@@ -0,0 +1,238 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.transactions.digitalwallettraining.config.DataSourceRouting;
+import org.transactions.digitalwallettraining.config.WalletArchiveProperties;
+import org.transactions.digitalwallettraining.dto.ArchivedTransactionDTO;
+import org.transactions.digitalwallettraining.entity.JobLockEntity;
+import org.transactions.digitalwallettraining.entity.TransactionArchiveSegmentEntity;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.repository.ArchivedTransactionIdRepository;
+import org.transactions.digitalwallettraining.repository.ArchivedWalletMonthRepository;
+import org.transactions.digitalwallettraining.repository.JobLockRepository;
+import org.transactions.digitalwallettraining.repository.TransactionArchiveSegmentRepository;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.utils.TransactionSegment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * 🗄️ Moves closed months of transaction rows out of the hot table into compressed segment files.
+ *
+ * A month is the unit: everything older than the configured hot months is eligible, but only rows
+ * already folded into wallets.balance, wallet_summaries and wallet_daily_rollups (pendingSnapshot
+ * false, projected true), so no read model ever has to look at an archived row again. Rows go out
+ * wallet by wallet; each segment is written, registered in transaction_archive_segments, counted in
+ * archived_wallet_months and deleted from the hot table in one transaction. A crash before commit leaves at most a file with no manifest
+ * row, which is never read and is swept on a later run once older than the grace period.
+ *
+ * A pass holds the "transaction-archiver" lease in job_locks, so two instances sharing the database
+ * and the directory never archive or sweep at the same time.
+ */
+@Component
+public class TransactionArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchiver.class);
+
+    private static final String LOCK_NAME = "transaction-archiver";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveSegmentRepository segmentRepository;
+    private final ArchivedTransactionIdRepository archivedIdRepository;
+    private final ArchivedWalletMonthRepository monthRepository;
+    private final JobLockRepository jobLockRepository;
+    private final TransactionArchive archive;
+    private final WalletArchiveProperties properties;
+    private final TransactionTemplate tx;
+
+    public TransactionArchiver(TransactionRepository transactionRepository,
+                               TransactionArchiveSegmentRepository segmentRepository,
+                               ArchivedTransactionIdRepository archivedIdRepository,
+                               ArchivedWalletMonthRepository monthRepository,
+                               JobLockRepository jobLockRepository,
+                               TransactionArchive archive,
+                               WalletArchiveProperties properties,
+                               PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.segmentRepository = segmentRepository;
+        this.archivedIdRepository = archivedIdRepository;
+        this.monthRepository = monthRepository;
+        this.jobLockRepository = jobLockRepository;
+        this.archive = archive;
+        this.properties = properties;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${wallet.archive.cron:0 30 2 * * *}")
+    public void archiveClosedMonths() {
+        if (!properties.isEnabled()) return;
+        YearMonth firstHotMonth = YearMonth.now().minusMonths(Math.max(1, properties.getHotMonths()) - 1L);
+        try {
+            DataSourceRouting.onPrimary(() -> archiveBefore(firstHotMonth));
+        } catch (RuntimeException ex) {
+            log.warn("🗄️ Archive pass stopped: {}", ex.getMessage());
+        }
+    }
+
+    // ✅ Archives every eligible row dated before firstHotMonth; returns the number of rows moved (0 if another pass runs)
+    public long archiveBefore(YearMonth firstHotMonth) {
+        String owner = UUID.randomUUID().toString();
+        if (!acquireLease(owner)) {
+            log.info("🗄️ Archive pass skipped: another instance holds the lease");
+            return 0;
+        }
+        try {
+            sweepOrphans();
+            LocalDateTime before = firstHotMonth.atDay(1).atStartOfDay();
+            long archived = 0;
+            LocalDateTime oldest = transactionRepository.findOldestArchivableDate(before);
+            while (oldest != null) {
+                archived += archiveMonth(YearMonth.from(oldest), owner);
+                oldest = transactionRepository.findOldestArchivableDate(before);
+            }
+            if (archived > 0) log.info("🗄️ Archived {} transaction rows older than {}", archived, firstHotMonth);
+            return archived;
+        } finally {
+            tx.executeWithoutResult(status -> jobLockRepository.release(LOCK_NAME, owner));
+        }
+    }
+
+    // The lease row is created on first use; losing that insert race to another instance is fine
+    private boolean acquireLease(String owner) {
+        if (renewLease(owner)) return true;
+        if (jobLockRepository.existsById(LOCK_NAME)) return false;
+        try {
+            tx.executeWithoutResult(status -> jobLockRepository.save(new JobLockEntity(LOCK_NAME)));
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("🗄️ Lease row created concurrently: {}", ex.getMessage());
+        }
+        return renewLease(owner);
+    }
+
+    // Joins the caller's transaction when there is one, so a segment commits only under a live lease
+    private boolean renewLease(String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plusMinutes(Math.max(1, properties.getLockLeaseMinutes()));
+        return Boolean.TRUE.equals(tx.execute(status -> jobLockRepository.acquire(LOCK_NAME, owner, now, until) == 1));
+    }
+
+    private long archiveMonth(YearMonth month, String owner) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+        int limit = Math.max(1, properties.getRowsPerSegment());
+
+        // A wallet's month never straddles two segments of one pass, so a reader opens at most one per month
+        List<ArchivedTransactionDTO> buffer = new ArrayList<>();
+        long archived = 0;
+        for (Long walletId : transactionRepository.findArchivableWalletIds(start, end)) {
+            List<ArchivedTransactionDTO> rows = transactionRepository.findArchivableRows(walletId, start, end);
+            if (!buffer.isEmpty() && buffer.size() + rows.size() > limit) {
+                archived += flush(month, buffer, owner);
+                buffer = new ArrayList<>();
+            }
+            buffer.addAll(rows);
+        }
+        if (!buffer.isEmpty()) archived += flush(month, buffer, owner);
+        return archived;
+    }
+
+    private int flush(YearMonth month, List<ArchivedTransactionDTO> rows, String owner) {
+        Path directory = archive.directory();
+        String period = month.toString();
+        Set<Path> written = new HashSet<>();
+        try {
+            Integer count = tx.execute(status -> {
+                // A pass that outlived its lease may overlap another one: stop before writing anything
+                if (!renewLease(owner)) {
+                    throw new IllegalStateException("Archive lease lost to another instance");
+                }
+                int sequence = segmentRepository.findLastSequence(period) + 1;
+                String fileName = String.format("transactions-%s-%05d.wseg", period, sequence);
+                Path file = directory.resolve(fileName);
+                TransactionSegment.Header header;
+                try {
+                    Files.createDirectories(directory);
+                    written.add(file);
+                    header = TransactionSegment.write(file, month, rows);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                segmentRepository.save(new TransactionArchiveSegmentEntity(period, sequence, fileName,
+                        header.rowCount(), header.minWalletId(), header.maxWalletId()));
+
+                // Per wallet DEBIT / CREDIT counts: history seeks and totals read these, not the files
+                Map<Long, long[]> counts = new TreeMap<>();
+                for (ArchivedTransactionDTO row : rows) {
+                    counts.computeIfAbsent(row.walletId(), id -> new long[2])[row.type() == TransactionType.DEBIT ? 0 : 1]++;
+                }
+                counts.forEach((walletId, c) -> monthRepository.upsert(walletId, period, c[0], c[1]));
+
+                List<Long> ids = rows.stream().map(ArchivedTransactionDTO::id).toList();
+                int batch = Math.max(1, properties.getDeleteBatchSize());
+                for (int from = 0; from < ids.size(); from += batch) {
+                    List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + batch));
+                    archivedIdRepository.retain(chunk, period);   // the client id stays taken once the row is gone
+                    if (transactionRepository.deleteArchived(chunk) != chunk.size()) {
+                        throw new IllegalStateException("Rows of " + period + " changed while being archived");
+                    }
+                }
+                return header.rowCount();
+            });
+            log.info("🗄️ Segment of {} rows written for {}", count, period);
+            return count == null ? 0 : count;
+        } catch (RuntimeException ex) {
+            // Rolled back: the rows are still in the table, so the file must not survive either
+            written.forEach(TransactionArchiver::deleteQuietly);
+            throw ex;
+        }
+    }
+
+    // Files without a manifest row are leftovers of a pass that never committed, once past the grace period
+    private void sweepOrphans() {
+        Path directory = archive.directory();
+        if (!Files.isDirectory(directory)) return;
+        FileTime cutoff = FileTime.from(Instant.now().minus(Duration.ofMinutes(Math.max(0, properties.getOrphanGraceMinutes()))));
+        Set<String> known = new HashSet<>(segmentRepository.findAllFileNames());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "transactions-*")) {
+            for (Path file : files) {
+                if (!known.contains(file.getFileName().toString()) && Files.getLastModifiedTime(file).compareTo(cutoff) < 0) {
+                    log.warn("🗄️ Removing orphan archive file {}", file.getFileName());
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".tmp"));
+        } catch (IOException ex) {
+            log.warn("🗄️ Could not delete {}: {}", file, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.transactions.digitalwallettraining.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.transactions.digitalwallettraining.dto.LedgerLineDTO;
+import org.transactions.digitalwallettraining.repository.TransactionExportRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 📤 Full-history export of a wallet, written straight to the response as NDJSON or CSV.
+ *
+ * Transaction rows and journal postings are read as two forward-only streams on the export pool
+ * (see {@link TransactionExportRepository}: fetch-size chunks, flat DTO rows) and merged by
+ * timestamp on the fly with the archived months, which are read one month at a time, so memory stays flat however
+ * long the history is. Same lines and order as listTransactions.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionExportService.class);
+
+    private static final Comparator<LocalDateTime> BY_TIME = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final String CSV_HEADER = "transactionId,type,amount,timestamp,description";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+
+        public String getExtension() { return extension; }
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("❌ Unsupported export format: " + value + " (use ndjson or csv)");
+            }
+        }
+    }
+
+    private final TransactionExportRepository exportRepository;
+    private final WalletRepository walletRepository;
+    private final TransactionArchive archive;
+    private final ObjectWriter jsonWriter;
+
+    public TransactionExportService(TransactionExportRepository exportRepository,
+                                    WalletRepository walletRepository,
+                                    TransactionArchive archive,
+                                    ObjectMapper objectMapper) {
+        this.exportRepository = exportRepository;
+        this.walletRepository = walletRepository;
+        this.archive = archive;
+        this.jsonWriter = objectMapper.writer();
+    }
+
+    // ✅ Checked before the response is committed, so a bad id is still a clean 400
+    public void requireWallet(Long walletId) {
+        if (!walletRepository.existsById(walletId)) {
+            throw new IllegalArgumentException("Wallet not found");
+        }
+    }
+
+    // ✅ Streams every line of the wallet's history to out; returns the number of lines written
+    public long export(Long walletId, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long lines = exportRepository.read(walletId, (transactions, postings) -> {
+            if (format == Format.CSV) writer.write(CSV_HEADER + "\n");
+
+            List<Iterator<LedgerLineDTO>> sources = List.of(archive.lines(walletId), transactions, postings);
+            LedgerLineDTO[] heads = new LedgerLineDTO[sources.size()];
+            for (int i = 0; i < heads.length; i++) heads[i] = next(sources.get(i));
+            long written = 0;
+            while (true) {
+                // Three sources: a linear scan for the earliest head beats a heap; ties keep source order
+                int pick = -1;
+                for (int i = 0; i < heads.length; i++) {
+                    if (heads[i] != null && (pick < 0 || BY_TIME.compare(heads[i].timestamp(), heads[pick].timestamp()) < 0)) {
+                        pick = i;
+                    }
+                }
+                if (pick < 0) break;
+                LedgerLineDTO line = heads[pick];
+                heads[pick] = next(sources.get(pick));
+                write(writer, format, line);
+                written++;
+            }
+            return written;
+        });
+        writer.flush();
+        log.info("📤 Exported {} lines of wallet {} as {}", lines, walletId, format);
+        return lines;
+    }
+
+    private void write(Writer writer, Format format, LedgerLineDTO line) throws IOException {
+        if (format == Format.NDJSON) {
+            writer.write(jsonWriter.writeValueAsString(line.toResponse()));
+        } else {
+            writer.write(csv(line.transactionId()));
+            writer.write(',');
+            writer.write(line.type().name());
+            writer.write(',');
+            writer.write(Money.format(line.amountMinor()));
+            writer.write(',');
+            writer.write(line.timestamp() == null ? "" : line.timestamp().toString());
+            writer.write(',');
+            writer.write(csv(line.description()));
+        }
+        writer.write('\n');
+    }
+
+    private static LedgerLineDTO next(Iterator<LedgerLineDTO> it) {
+        return it.hasNext() ? it.next() : null;
+    }
+
+    // RFC 4180 quoting: only when the value holds a separator, quote or line break
+    static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
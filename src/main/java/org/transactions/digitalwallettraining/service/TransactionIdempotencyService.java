@@ -0,0 +1,150 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.transactions.digitalwallettraining.config.WalletIdempotencyProperties;
+import org.transactions.digitalwallettraining.dto.LedgerLineDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionResponseDTO;
+import org.transactions.digitalwallettraining.entity.ArchivedTransactionIdEntity;
+import org.transactions.digitalwallettraining.entity.TransactionEntity;
+import org.transactions.digitalwallettraining.repository.ArchivedTransactionIdRepository;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.utils.BloomFilter;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Answers "have we already processed this transactionId?" before a request touches its wallet.
+ *
+ * A Bloom filter gives the fast "definitely new" answer for almost every request. Ids it might
+ * contain are looked up in a bounded LRU of recent responses and, failing that, in the database.
+ * Until the filter has been warmed from the transactions table every lookup falls through to the LRU/DB.
+ * Ids of archived rows stay taken: archived_transaction_ids keeps them, and the original response
+ * is read back from the archive segment.
+ */
+@Service
+public class TransactionIdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIdempotencyService.class);
+
+    private record Processed(Long walletId, WalletTransactionResponseDTO response) {}
+
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionIdRepository archivedIdRepository;
+    private final TransactionArchive transactionArchive;
+    private final WalletIdempotencyProperties properties;
+    private final BloomFilter seenIds;
+    private final Map<String, Processed> recent;
+    private volatile boolean warmedUp = false;
+
+    public TransactionIdempotencyService(TransactionRepository transactionRepository,
+                                         ArchivedTransactionIdRepository archivedIdRepository,
+                                         TransactionArchive transactionArchive,
+                                         WalletIdempotencyProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.archivedIdRepository = archivedIdRepository;
+        this.transactionArchive = transactionArchive;
+        this.properties = properties;
+        this.seenIds = new BloomFilter(properties.getExpectedIds(), properties.getFalsePositiveRate());
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Processed> eldest) {
+                return size() > properties.getRecentCapacity();
+            }
+        };
+    }
+
+    // ✅ Load every existing transaction id into the filter once the app is up
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        if (!properties.isEnabled()) return;
+        long count;
+        try (Stream<String> ids = transactionRepository.streamAllTransactionIds()) {
+            count = ids.peek(seenIds::put).count();
+        }
+        try (Stream<String> ids = archivedIdRepository.streamAllIds()) {
+            count += ids.peek(seenIds::put).count();
+        }
+        warmedUp = true;
+        log.info("🧮 Idempotency filter warmed with {} transaction ids", count);
+    }
+
+    // ✅ Original response for a replayed transactionId, or empty when the id is new
+    public Optional<WalletTransactionResponseDTO> findPrevious(Long walletId, String transactionId) {
+        if (!properties.isEnabled() || transactionId == null) return Optional.empty();
+        if (warmedUp && !seenIds.mightContain(transactionId)) return Optional.empty();
+
+        Processed processed;
+        synchronized (recent) {
+            processed = recent.get(transactionId);
+        }
+        if (processed == null) {
+            processed = transactionRepository.findByTransactionId(transactionId)
+                    .map(this::toProcessed)
+                    .or(() -> archivedIdRepository.findById(transactionId).map(this::toProcessed))
+                    .orElse(null);
+            if (processed == null) return Optional.empty();
+            cache(transactionId, processed);
+        }
+
+        if (!processed.walletId().equals(walletId)) {
+            throw new IllegalArgumentException("Transaction id " + transactionId + " was already used for another wallet.");
+        }
+        return Optional.of(processed.response());
+    }
+
+    // ✅ Which of these ids belong to archived rows (the hot table's unique key no longer sees them)
+    public List<String> findArchivedIds(Collection<String> transactionIds) {
+        return transactionIds.isEmpty() ? List.of() : archivedIdRepository.findExistingIds(transactionIds);
+    }
+
+    // ✅ Remember a processed transaction once (and only if) its unit of work commits
+    public void remember(Long walletId, WalletTransactionResponseDTO response) {
+        if (!properties.isEnabled()) return;
+        Processed processed = new Processed(walletId, response);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(response.transactionId(), processed);
+                }
+            });
+        } else {
+            cache(response.transactionId(), processed);
+        }
+    }
+
+    private void cache(String transactionId, Processed processed) {
+        seenIds.put(transactionId);
+        synchronized (recent) {
+            recent.put(transactionId, processed);
+        }
+    }
+
+    private Processed toProcessed(ArchivedTransactionIdEntity archived) {
+        WalletTransactionResponseDTO response = transactionArchive
+                .find(archived.getWalletId(), archived.getPeriod(), archived.getTransactionId())
+                .map(LedgerLineDTO::toResponse)
+                .orElseThrow(() -> new IllegalStateException("Archived transaction " + archived.getTransactionId()
+                        + " is missing from its segment."));
+        return new Processed(archived.getWalletId(), response);
+    }
+
+    private Processed toProcessed(TransactionEntity txn) {
+        return new Processed(txn.getWallet().getId(), new WalletTransactionResponseDTO(
+                txn.getTransactionId(), txn.getAmount(), txn.getType().name(),
+                txn.getTransactionDate(), txn.getDescription()));
+    }
+}
@@ -1,47 +1,254 @@
 package org.transactions.digitalwallettraining.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.transactions.digitalwallettraining.config.WalletBatchProperties;
+import org.transactions.digitalwallettraining.config.WalletIngestionProperties;
+import org.transactions.digitalwallettraining.dto.IngestionResultDTO;
+import org.transactions.digitalwallettraining.dto.WalletBatchResponseDTO;
+import org.transactions.digitalwallettraining.dto.WalletBulkTransactionDTO;
 import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
-import org.transactions.digitalwallettraining.utils.TransactionUtils;
+import org.transactions.digitalwallettraining.exception.WalletBusyException;
+import org.transactions.digitalwallettraining.utils.Money;
 import org.transactions.digitalwallettraining.validation.TransactionValidator;
 
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
+/**
+ * Bulk ingestion engine for large transaction files.
+ *
+ * Rows are read once, validated and summed on the reader thread, then routed by wallet id to a
+ * fixed partition. Each partition is drained by one virtual thread that hands per-wallet chunks to
+ * {@link WalletService#processBatch} through the wallet's command lane, so a wallet's rows are applied
+ * in file order, never race its API writes, and partitions run concurrently. A chunk that fails for a
+ * transient reason is retried in place; only a refusal of the wallet itself rejects its rows. Partition queues are bounded, so the reader blocks instead of buffering the file;
+ * if a worker dies (an Error out of a batch), the reader stops waiting on its queue and the import fails.
+ */
 @Service
 public class TransactionProcessor {
 
-    public void processTransactions(List<WalletTransactionRequestDTO> transactions) {
+    private static final Logger log = LoggerFactory.getLogger(TransactionProcessor.class);
 
-        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Tells a partition worker that the input is exhausted
+    private static final WalletBulkTransactionDTO END_OF_INPUT = new WalletBulkTransactionDTO(null, null);
 
-        transactions.forEach(t -> {
-            if (TransactionValidator.isValid(t)) {
-                executor.submit(() ->
-                        System.out.println("Processing transaction: " + t.transactionId() + " on " + Thread.currentThread())
-                );
+    // How often a reader blocked on a full partition queue checks that the partition's worker is still alive
+    private static final long ENQUEUE_POLL_MS = 100;
+
+    private final WalletService walletService;
+    private final WalletIngestionProperties properties;
+    private final WalletWriteAheadLog writeAheadLog;
+    private final WalletCommandQueue walletCommandQueue;
+
+    public TransactionProcessor(WalletService walletService, WalletIngestionProperties properties,
+                                WalletWriteAheadLog writeAheadLog, WalletCommandQueue walletCommandQueue) {
+        this.walletService = walletService;
+        this.properties = properties;
+        this.writeAheadLog = writeAheadLog;
+        this.walletCommandQueue = walletCommandQueue;
+    }
+
+    public IngestionResultDTO ingest(Stream<WalletBulkTransactionDTO> rows) {
+        try (rows) {
+            return ingest(rows.iterator());
+        }
+    }
+
+    // ✅ Apply every valid row through the wallet service and wait until all partitions are done
+    public IngestionResultDTO ingest(Iterator<WalletBulkTransactionDTO> rows) {
+        long started = System.nanoTime();
+        int partitionCount = Math.max(1, properties.getPartitions());
+        int capacity = Math.max(1, properties.getMaxInFlight() / partitionCount);
+
+        List<BlockingQueue<WalletBulkTransactionDTO>> queues = new ArrayList<>(partitionCount);
+        List<Thread> workers = new ArrayList<>(partitionCount);
+        LongAdder applied = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for (int p = 0; p < partitionCount; p++) {
+            BlockingQueue<WalletBulkTransactionDTO> queue = new ArrayBlockingQueue<>(capacity);
+            queues.add(queue);
+            workers.add(Thread.ofVirtual().name("ingest-partition-" + p).start(() -> {
+                try {
+                    drainPartition(queue, applied, rejected);
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                    log.error("📥 Partition worker {} died: {}", Thread.currentThread().getName(), ex.toString(), ex);
+                }
+            }));
+        }
+
+        long received = 0;
+        long invalid = 0;
+        long totalCredits = 0;   // minor units
+        long totalDebits = 0;
+
+        try {
+            while (rows.hasNext()) {
+                WalletBulkTransactionDTO row = rows.next();
+                received++;
+
+                WalletTransactionRequestDTO tx = row == null ? null : row.transaction();
+                if (row == null || row.walletId() == null || tx == null || tx.type() == null
+                        || !TransactionValidator.isValid(tx)) {
+                    invalid++;
+                    continue;
+                }
+
+                if (tx.type().equalsIgnoreCase("CREDIT")) totalCredits += Money.roundToMinor(tx.amount());
+                else totalDebits += Money.roundToMinor(tx.amount());
+
+                int partition = partitionOf(row.walletId(), partitionCount);
+                if (!enqueue(queues.get(partition), workers.get(partition), row)) {
+                    throw new IllegalStateException("Ingestion aborted after " + received + " rows: partition "
+                            + partition + " stopped", failure.get());
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ingestion interrupted after " + received + " rows", ex);
+        } finally {
+            finish(queues, workers);
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Ingestion aborted: a partition worker stopped after " + received + " rows", failure.get());
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        IngestionResultDTO result = new IngestionResultDTO(received, applied.sum(), rejected.sum(), invalid,
+                Money.toMajor(totalCredits), Money.toMajor(totalDebits), elapsedMillis, received * 1000.0 / elapsedMillis);
+
+        log.info("📥 Ingestion finished: {} rows in {} ms ({} rows/s) → applied={}, rejected={}, invalid={}",
+                received, elapsedMillis, String.format("%.0f", result.throughputPerSecond()),
+                result.applied(), result.rejected(), invalid);
+        return result;
+    }
+
+    // ✅ Summary-only pass for rows without a wallet id (nothing is persisted)
+    public IngestionResultDTO processTransactions(List<WalletTransactionRequestDTO> transactions) {
+        long started = System.nanoTime();
+        long invalid = 0;
+        long totalCredits = 0;   // minor units
+        long totalDebits = 0;
+
+        for (WalletTransactionRequestDTO t : transactions) {
+            if (t == null || t.type() == null || !TransactionValidator.isValid(t)) {
+                log.warn("Invalid transaction skipped: {}", t);
+                invalid++;
+            } else if (t.type().equalsIgnoreCase("CREDIT")) {
+                totalCredits += Money.roundToMinor(t.amount());
             } else {
-                System.out.println("Invalid transaction skipped: " + t);
+                totalDebits += Money.roundToMinor(t.amount());
+            }
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("--- Transaction Summary --- CREDIT total: {}, DEBIT total: {}, invalid: {}",
+                Money.format(totalCredits), Money.format(totalDebits), invalid);
+        return new IngestionResultDTO(transactions.size(), 0, 0, invalid,
+                Money.toMajor(totalCredits), Money.toMajor(totalDebits),
+                elapsedMillis, transactions.size() * 1000.0 / elapsedMillis);
+    }
+
+    private void drainPartition(BlockingQueue<WalletBulkTransactionDTO> queue, LongAdder applied, LongAdder rejected) {
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        List<WalletBulkTransactionDTO> chunk = new ArrayList<>(chunkSize);
+        boolean done = false;
+
+        while (!done) {
+            try {
+                chunk.add(queue.take());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(chunk, chunkSize - 1);
+
+            // Group the chunk by wallet, keeping each wallet's rows in arrival order
+            Map<Long, List<WalletTransactionRequestDTO>> byWallet = new LinkedHashMap<>();
+            for (WalletBulkTransactionDTO row : chunk) {
+                if (row == END_OF_INPUT) {
+                    done = true;
+                    continue;
+                }
+                byWallet.computeIfAbsent(row.walletId(), id -> new ArrayList<>()).add(row.transaction());
+            }
+            chunk.clear();
+
+            byWallet.forEach((walletId, items) -> applyChunk(walletId, items, applied, rejected));
+        }
+    }
+
+    // ✅ One wallet's rows, the way the batch endpoint applies them; an exhausted retry fails the import
+    private void applyChunk(Long walletId, List<WalletTransactionRequestDTO> items, LongAdder applied, LongAdder rejected) {
+        int maxAttempts = Math.max(1, properties.getRetryAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                WalletBatchResponseDTO result = walletCommandQueue.execute(walletId, () -> writeAheadLog.exclusive(
+                        () -> walletService.processBatch(walletId, items, WalletBatchProperties.FailurePolicy.SKIP_FAILED)));
+                applied.add(result.applied());
+                rejected.add(result.rejected());
+                return;
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                if (!(ex instanceof WalletBusyException)) {
+                    // Whole chunk refused (wallet missing or frozen) — count it and keep going
+                    log.warn("📥 {} rows for wallet {} rejected: {}", items.size(), walletId, ex.getMessage());
+                    rejected.add(items.size());
+                    return;
+                }
+                retryOrFail(walletId, attempt, maxAttempts, ex);
+            } catch (RuntimeException ex) {
+                // Conflicts left after retries, a busy write-ahead log: the batch rolled back, so it can run again
+                retryOrFail(walletId, attempt, maxAttempts, ex);
             }
-        });
+        }
+    }
 
-        executor.shutdown();
+    private void retryOrFail(Long walletId, int attempt, int maxAttempts, RuntimeException ex) {
+        if (attempt >= maxAttempts) {
+            throw new IllegalStateException("Rows for wallet " + walletId + " still failing after " + attempt + " attempts", ex);
+        }
+        log.warn("📥 Chunk for wallet {} failed (attempt {}/{}), retrying: {}", walletId, attempt, maxAttempts, ex.getMessage());
+        try {
+            Thread.sleep(Math.max(1, properties.getRetryBackoffMs()) << Math.min(attempt - 1, 10));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying rows for wallet " + walletId, ie);
+        }
+    }
 
-        double totalCredits = TransactionUtils.totalAmountByType(transactions, "CREDIT");
-        double totalDebits = TransactionUtils.totalAmountByType(transactions, "DEBIT");
-        Map<String, List<WalletTransactionRequestDTO>> grouped = TransactionUtils.groupByType(transactions);
+    // ✅ put() that gives up once the queue's worker is gone, instead of blocking forever on a full queue
+    private static boolean enqueue(BlockingQueue<WalletBulkTransactionDTO> queue, Thread worker,
+                                   WalletBulkTransactionDTO row) throws InterruptedException {
+        while (!queue.offer(row, ENQUEUE_POLL_MS, TimeUnit.MILLISECONDS)) {
+            if (!worker.isAlive()) return false;
+        }
+        return true;
+    }
 
-        System.out.println("\n--- Transaction Summary ---");
-        System.out.println("Total CREDIT amount: " + totalCredits);
-        System.out.println("Total DEBIT amount: " + totalDebits);
+    private void finish(List<BlockingQueue<WalletBulkTransactionDTO>> queues, List<Thread> workers) {
+        try {
+            for (int p = 0; p < queues.size(); p++) {
+                enqueue(queues.get(p), workers.get(p), END_OF_INPUT);   // a dead worker needs no end marker
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            workers.forEach(Thread::interrupt);
+        }
+    }
 
-        System.out.println("\nTransactions grouped by type:");
-        grouped.forEach((type, txns) -> {
-            System.out.print(type + " -> ");
-            txns.forEach(tr -> System.out.print(tr.transactionId() + "(" + tr.amount() + ") "));
-            System.out.println();
-        });
+    private static int partitionOf(Long walletId, int partitions) {
+        return Math.floorMod(Long.hashCode(walletId * 0x9E3779B97F4A7C15L), partitions);
     }
 }
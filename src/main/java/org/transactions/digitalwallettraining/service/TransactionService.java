@@ -1,26 +1,48 @@
 package org.transactions.digitalwallettraining.service;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.transactions.digitalwallettraining.dto.ArchivedTransactionDTO;
+import org.transactions.digitalwallettraining.dto.LedgerLineDTO;
+import org.transactions.digitalwallettraining.dto.TransactionHistorySliceDTO;
 import org.transactions.digitalwallettraining.dto.WalletTransactionResponseDTO;
 import org.transactions.digitalwallettraining.entity.TransactionEntity;
 import org.transactions.digitalwallettraining.entity.TransactionType;
 import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.utils.HistoryCursor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 @Service
 public class TransactionService {
 
+    public static final int MAX_HISTORY_PAGE_SIZE = 500;
+
+    // Open date filters become these bounds, so every request keeps the same sargable range predicate
+    static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    // History order, newest first; the id breaks ties like the keyset queries do
+    private static final Comparator<HistoryRow> NEWEST_FIRST =
+            Comparator.comparing(HistoryRow::transactionDate).thenComparingLong(HistoryRow::id).reversed();
+
     private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
 
-    public TransactionService(TransactionRepository transactionRepository) {
+    public TransactionService(TransactionRepository transactionRepository, TransactionArchive transactionArchive) {
         this.transactionRepository = transactionRepository;
+        this.transactionArchive = transactionArchive;
     }
 
-    @Transactional
+    // Hot rows only: an OFFSET position across the archive would mean reading every archived month before
+    // it; the cursor endpoint below is the one that walks into archived months
+    @Transactional(readOnly = true)
     public Page<WalletTransactionResponseDTO> getFilteredTransactions(
             Long walletId,
             TransactionType type,
@@ -28,19 +50,82 @@ public class TransactionService {
             LocalDateTime endDate,
             Pageable pageable
     ) {
-        Page<TransactionEntity> transactions = transactionRepository.findFilteredTransactions(
-                walletId, type, startDate, endDate, pageable
-        );
+        return transactionRepository.findFilteredLines(walletId, type, startDate, endDate, pageable)
+                .map(LedgerLineDTO::toResponse);
+    }
+
+    /**
+     * ✅ Cursor paging: seeks past the client's last row instead of counting OFFSET rows, so page 1000
+     * costs the same as page 1. One extra row is fetched to tell whether a next page exists, and
+     * COUNT(*) runs only when the client asks for totalElements.
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistorySliceDTO getTransactionHistoryAfter(
+            Long walletId,
+            TransactionType type,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String cursor,
+            int size,
+            boolean includeTotal
+    ) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("❌ Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        LocalDateTime from = startDate != null ? startDate : EARLIEST;
+        LocalDateTime to = endDate != null ? endDate : LATEST;
 
-        // Convert TransactionEntity → WalletTransactionResponseDTO
-        return transactions.map(txn -> new WalletTransactionResponseDTO(
+        // Start strictly after the cursor, or at the inclusive upper edge of the range
+        HistoryCursor after = cursor != null ? HistoryCursor.decode(cursor) : null;
+        LocalDateTime beforeDate = to;
+        long beforeId = Long.MAX_VALUE;
+        if (after != null && !after.transactionDate().isAfter(to)) {
+            beforeDate = after.transactionDate();
+            beforeId = after.id();
+        }
+
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<TransactionEntity> hot = type == null
+                ? transactionRepository.findHistoryPage(walletId, from, beforeDate, beforeId, limit)
+                : transactionRepository.findHistoryPageByType(walletId, type, from, beforeDate, beforeId, limit);
+
+        // 🗄️ Archived rows keep their original ids, so one (transactionDate, id) order spans both stores;
+        // the archive seeks the same edge and stops after size + 1 rows, like the hot query
+        List<ArchivedTransactionDTO> archived = transactionArchive.history(walletId, type, from, beforeDate, beforeId, size + 1);
+        List<HistoryRow> rows = new ArrayList<>(hot.size() + archived.size());
+        for (TransactionEntity txn : hot) rows.add(new HistoryRow(txn.getTransactionDate(), txn.getId(), toDto(txn)));
+        for (ArchivedTransactionDTO row : archived) {
+            rows.add(new HistoryRow(row.transactionDate(), row.id(), row.toLedgerLine().toResponse()));
+        }
+        rows.sort(NEWEST_FIRST);
+
+        boolean hasMore = rows.size() > size;
+        List<HistoryRow> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            HistoryRow last = page.get(page.size() - 1);
+            nextCursor = new HistoryCursor(last.transactionDate(), last.id()).encode();
+        }
+
+        Long total = null;
+        if (includeTotal) {
+            total = transactionArchive.count(walletId, type, from, to) + (type == null
+                    ? transactionRepository.countHistory(walletId, from, to)
+                    : transactionRepository.countHistoryByType(walletId, type, from, to));
+        }
+        return new TransactionHistorySliceDTO(page.stream().map(HistoryRow::response).toList(), nextCursor, total);
+    }
+
+    private record HistoryRow(LocalDateTime transactionDate, long id, WalletTransactionResponseDTO response) {
+    }
+
+    private static WalletTransactionResponseDTO toDto(TransactionEntity txn) {
+        return new WalletTransactionResponseDTO(
                 txn.getTransactionId(),
                 txn.getAmount(),
                 txn.getType().name(),
                 txn.getTransactionDate(),
                 txn.getDescription()
-
-        ));
-
+        );
     }
 }
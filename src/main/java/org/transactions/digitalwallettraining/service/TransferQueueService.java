@@ -0,0 +1,131 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.transactions.digitalwallettraining.dto.TransferStatusDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransferRequestDTO;
+import org.transactions.digitalwallettraining.entity.TransferRequestEntity;
+import org.transactions.digitalwallettraining.entity.TransferStatus;
+import org.transactions.digitalwallettraining.repository.ArchivedTransactionIdRepository;
+import org.transactions.digitalwallettraining.repository.JournalEntryRepository;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.repository.TransferRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Durable in-DB queue of transfer requests. Submitting only inserts a PENDING row, so the caller
+ * gets its 202 after one short insert; {@link TransferWorker} applies the transfers later.
+ */
+@Service
+public class TransferQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferQueueService.class);
+
+    private final TransferRequestRepository transferRequestRepository;
+    private final TransactionRepository transactionRepository;
+    private final JournalEntryRepository journalEntryRepository;
+    private final ArchivedTransactionIdRepository archivedIdRepository;
+
+    public TransferQueueService(TransferRequestRepository transferRequestRepository,
+                                TransactionRepository transactionRepository,
+                                JournalEntryRepository journalEntryRepository,
+                                ArchivedTransactionIdRepository archivedIdRepository) {
+        this.transferRequestRepository = transferRequestRepository;
+        this.transactionRepository = transactionRepository;
+        this.journalEntryRepository = journalEntryRepository;
+        this.archivedIdRepository = archivedIdRepository;
+    }
+
+    // ✅ Validate the request shape and enqueue it; wallet state is checked when the transfer runs
+    @Transactional
+    public TransferStatusDTO submit(WalletTransferRequestDTO request) {
+        if (request.fromWalletId() == null || request.toWalletId() == null)
+            throw new IllegalArgumentException("Source and destination wallets are required.");
+        if (Objects.equals(request.fromWalletId(), request.toWalletId()))
+            throw new IllegalArgumentException("Cannot transfer to the same wallet.");
+        if (request.amount() == null || request.amount() <= 0)
+            throw new IllegalArgumentException("Transfer amount must be positive.");
+
+        TransferRequestEntity entity = transferRequestRepository.save(new TransferRequestEntity(
+                UUID.randomUUID().toString(), request.fromWalletId(), request.toWalletId(), request.amount()));
+        log.info("📨 Transfer {} queued: ₹{} from wallet {} → wallet {}",
+                entity.getTransferId(), entity.getAmount(), entity.getFromWalletId(), entity.getToWalletId());
+        return toDto(entity);
+    }
+
+    @Transactional(readOnly = true)
+    public TransferStatusDTO getStatus(String transferId) {
+        return transferRequestRepository.findByTransferId(transferId)
+                .map(this::toDto)
+                .orElseThrow(() -> new IllegalArgumentException("Transfer not found"));
+    }
+
+    // ✅ Claim the oldest PENDING rows; rows held by another worker are skipped, not waited on
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<TransferRequestEntity> claim(int batchSize) {
+        List<TransferRequestEntity> claimed = transferRequestRepository
+                .findByStatusOrderByIdAsc(TransferStatus.PENDING, PageRequest.of(0, batchSize));
+        claimed.forEach(t -> t.setStatus(TransferStatus.PROCESSING));
+        return claimed;
+    }
+
+    // ✅ True when the transfer's ledger rows already exist, i.e. it committed before we could record it
+    @Transactional(readOnly = true)
+    public boolean isApplied(String transferId) {
+        return journalEntryRepository.existsByEntryId(transferId)
+                || transactionRepository.findByTransactionId(transferId + "-D").isPresent()
+                || archivedIdRepository.existsById(transferId + "-D");
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markCompleted(Long id) {
+        finish(id, TransferStatus.COMPLETED, null);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markRejected(Long id, String reason) {
+        finish(id, TransferStatus.REJECTED, reason);
+    }
+
+    // ✅ Put a claimed row back so the next poll retries it
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(Long id) {
+        transferRequestRepository.findById(id).ifPresent(t -> t.setStatus(TransferStatus.PENDING));
+    }
+
+    // ✅ Rows left PROCESSING by a crash: finish the ones that committed, requeue the rest
+    @Transactional
+    public int recoverInterrupted() {
+        List<TransferRequestEntity> stuck = transferRequestRepository.findByStatus(TransferStatus.PROCESSING);
+        for (TransferRequestEntity t : stuck) {
+            if (isApplied(t.getTransferId())) {
+                t.setStatus(TransferStatus.COMPLETED);
+                t.setProcessedAt(LocalDateTime.now());
+            } else {
+                t.setStatus(TransferStatus.PENDING);
+            }
+        }
+        return stuck.size();
+    }
+
+    private void finish(Long id, TransferStatus status, String reason) {
+        transferRequestRepository.findById(id).ifPresent(t -> {
+            t.setStatus(status);
+            t.setFailureReason(reason == null ? null : reason.substring(0, Math.min(reason.length(), 500)));
+            t.setProcessedAt(LocalDateTime.now());
+        });
+    }
+
+    private TransferStatusDTO toDto(TransferRequestEntity t) {
+        return new TransferStatusDTO(t.getTransferId(), t.getStatus().name(), t.getFromWalletId(),
+                t.getToWalletId(), t.getAmount(), t.getFailureReason(), t.getCreatedAt(), t.getProcessedAt());
+    }
+}
@@ -0,0 +1,89 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.transactions.digitalwallettraining.config.WalletTransferProperties;
+import org.transactions.digitalwallettraining.entity.TransferRequestEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Drains the transfer_requests queue. Every poll starts a few virtual-thread workers; each claims
+ * its own batch (SKIP LOCKED, so several app instances can poll the same table) and applies the
+ * transfers one by one through {@link WalletTransferService}.
+ */
+@Component
+public class TransferWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferWorker.class);
+
+    private final TransferQueueService queueService;
+    private final WalletTransferService walletTransferService;
+    private final WalletTransferProperties properties;
+
+    public TransferWorker(TransferQueueService queueService, WalletTransferService walletTransferService,
+                          WalletTransferProperties properties) {
+        this.queueService = queueService;
+        this.walletTransferService = walletTransferService;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int recovered = queueService.recoverInterrupted();
+        if (recovered > 0) log.warn("📨 Recovered {} transfers left in PROCESSING", recovered);
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.transfer.async.poll-interval-ms:200}")
+    public void drain() {
+        if (!properties.getAsync().isEnabled()) return;
+        List<Future<?>> batches = new ArrayList<>();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < Math.max(1, properties.getAsync().getWorkers()); w++) {
+                batches.add(workers.submit(this::drainBatch));
+            }
+        }
+        // close() waited for every worker; a failed claim would otherwise vanish with its Future
+        for (Future<?> batch : batches) {
+            try {
+                batch.get();
+            } catch (ExecutionException ex) {
+                log.error("📨 Transfer worker failed: {}", ex.getCause().getMessage(), ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void drainBatch() {
+        List<TransferRequestEntity> claimed = queueService.claim(Math.max(1, properties.getAsync().getBatchSize()));
+        claimed.forEach(this::process);
+    }
+
+    private void process(TransferRequestEntity t) {
+        try {
+            if (!queueService.isApplied(t.getTransferId())) {
+                walletTransferService.transfer(t.getFromWalletId(), t.getToWalletId(), t.getAmount(), t.getTransferId());
+            }
+            queueService.markCompleted(t.getId());
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            // Business rejection (balance, limit, frozen, missing wallet) — final
+            log.warn("📨 Transfer {} rejected: {}", t.getTransferId(), ex.getMessage());
+            queueService.markRejected(t.getId(), ex.getMessage());
+        } catch (RuntimeException ex) {
+            // Conflicts still unresolved after retries, or an infrastructure error — requeue for the next poll
+            log.error("📨 Transfer {} failed, requeueing: {}", t.getTransferId(), ex.getMessage());
+            queueService.release(t.getId());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.transactions.digitalwallettraining.service;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.transactions.digitalwallettraining.dto.UserRequestDTO;
@@ -8,26 +10,37 @@ import org.transactions.digitalwallettraining.entity.UserEntity;
 import org.transactions.digitalwallettraining.entity.WalletEntity;
 import org.transactions.digitalwallettraining.mapper.UserMapper;
 import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletDailyRollupRepository;
 import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.repository.WalletSummaryRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class UserService {
 
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
+    public static final int MAX_LIST_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
     private final WalletRepository walletRepository;
+    private final WalletSummaryService walletSummaryService;
+    private final WalletSummaryRepository walletSummaryRepository;
+    private final WalletDailyRollupRepository walletDailyRollupRepository;
     private final UserMapper mapper = UserMapper.INSTANCE;
 
     // ✅ Constructor injection for both repositories
-    public UserService(UserRepository userRepository, WalletRepository walletRepository) {
+    public UserService(UserRepository userRepository, WalletRepository walletRepository,
+                       WalletSummaryService walletSummaryService, WalletSummaryRepository walletSummaryRepository,
+                       WalletDailyRollupRepository walletDailyRollupRepository) {
         this.userRepository = userRepository;
         this.walletRepository = walletRepository;
+        this.walletSummaryService = walletSummaryService;
+        this.walletSummaryRepository = walletSummaryRepository;
+        this.walletDailyRollupRepository = walletDailyRollupRepository;
     }
 
     /**
@@ -44,6 +57,7 @@ public class UserService {
         // 🪙 Automatically create a default wallet with balance = 0.0
         WalletEntity wallet = new WalletEntity(user, 0.0);
         walletRepository.save(wallet);
+        walletSummaryService.track(wallet);
 
         log.info("✅ User created successfully (userId={}), default wallet created (walletId={}, balance={})",
                 user.getId(), wallet.getId(), wallet.getBalance());
@@ -53,13 +67,14 @@ public class UserService {
     }
 
     // ✅ Get all users
-    public List<UserResponseDTO> getAllUsers() {
-        log.info("Fetching all users from database");
-        List<UserResponseDTO> users = userRepository.findAll()
-                .stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
-        log.debug("Total users found: {}", users.size());
+    @Transactional(readOnly = true)
+    public Page<UserResponseDTO> getAllUsers(Pageable pageable) {
+        if (pageable.getPageSize() > MAX_LIST_PAGE_SIZE) {
+            throw new IllegalArgumentException("❌ Page size must be between 1 and " + MAX_LIST_PAGE_SIZE);
+        }
+        log.info("Fetching users page {} (size {})", pageable.getPageNumber(), pageable.getPageSize());
+        Page<UserResponseDTO> users = userRepository.findUserViews(pageable);
+        log.debug("Total users found: {}", users.getTotalElements());
         return users;
     }
 
@@ -92,13 +107,23 @@ public class UserService {
         return mapper.toDTO(updated);
     }
 
-    // ✅ Delete user
+    // 📊 Users owning at least one wallet above minBalance, from the wallet_summaries read model
+    public List<UserResponseDTO> getUsersWithHighBalanceWallets(double minBalance) {
+        List<Long> userIds = walletSummaryService.getUserIdsWithBalanceAbove(minBalance);
+        if (userIds.isEmpty()) return List.of();
+        return userRepository.findUserViewsByIdIn(userIds);
+    }
+
+    // ✅ Delete user (and the summaries and daily rollups of the wallets that go with it)
+    @Transactional
     public void deleteUser(Long userId) {
         log.info("Attempting to delete user with ID: {}", userId);
         if (!userRepository.existsById(userId)) {
             log.error("User not found for deletion: {}", userId);
             throw new RuntimeException("User not found: " + userId);
         }
+        walletSummaryRepository.deleteByUserId(userId);
+        walletDailyRollupRepository.deleteByUserId(userId);
         userRepository.deleteById(userId);
         log.info("User deleted successfully: {}", userId);
     }
@@ -0,0 +1,148 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.transactions.digitalwallettraining.config.WalletBalanceCacheProperties;
+import org.transactions.digitalwallettraining.dto.BalanceCacheStatsDTO;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of wallet balances for the polling endpoints (GET /wallets/{id}, /balance).
+ *
+ * Writers never put values in; they drop the wallet's entry from an afterCommit hook, so a cached
+ * balance is always one that was committed, and the caller who just transacted misses on their next
+ * read and sees their own write. The drop leaves a tombstone stamped with a sequence number: a reader
+ * that started loading before the commit carries an older number and its result is discarded instead
+ * of resurrecting the old balance. Entries are bounded by count (LRU) and age; the age bound is what
+ * limits staleness from writes made by other instances. Wallets are spread over lock stripes, each its
+ * own LRU map with its own sequence, so reads of different wallets do not queue on one lock.
+ */
+@Component
+public class WalletBalanceCache {
+
+    public record Balance(Long userId, long balanceMinor, long frozenUntilMillis) {}
+
+    // balance == null marks a tombstone left by a committed write
+    private record Entry(long seq, Balance balance, long loadedAtMillis) {}
+
+    private final WalletBalanceCacheProperties properties;
+    private final Stripe[] stripes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public WalletBalanceCache(WalletBalanceCacheProperties properties) {
+        this.properties = properties;
+        int requested = Math.max(1, properties.getStripes());
+        int stripeCount = requested == 1 ? 1 : Integer.highestOneBit(requested - 1) << 1;
+        int maxPerStripe = Math.max(1, properties.getMaxEntries() / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) stripes[i] = new Stripe(maxPerStripe);
+    }
+
+    // ✅ Cached balance, or loader's result (cached unless a write committed while it was loading)
+    public Balance get(Long walletId, Function<Long, Balance> loader) {
+        if (!properties.isEnabled()) return loader.apply(walletId);
+
+        Stripe stripe = stripeOf(walletId);
+        long now = System.currentTimeMillis();
+        long loadSeq;
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(walletId);
+            if (entry != null && entry.balance() != null) {
+                if (now - entry.loadedAtMillis() < properties.getTtlMs()) {
+                    hits.increment();
+                    return entry.balance();
+                }
+                stripe.entries.remove(walletId);
+                stripe.dropped(entry);
+            }
+            loadSeq = stripe.seq;
+        }
+
+        misses.increment();
+        Balance loaded = loader.apply(walletId);
+
+        synchronized (stripe) {
+            Entry current = stripe.entries.get(walletId);
+            long floor = current != null ? current.seq() : stripe.evictedSeq;
+            if (loadSeq >= floor) stripe.entries.put(walletId, new Entry(loadSeq, loaded, now));
+        }
+        return loaded;
+    }
+
+    // 🧭 Drop the wallets' entries once (and only if) the current transaction commits
+    public void invalidateAfterCommit(Long... walletIds) {
+        invalidateAfterCommit(List.of(walletIds));
+    }
+
+    public void invalidateAfterCommit(Iterable<Long> walletIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(walletIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(walletIds);
+            }
+        });
+    }
+
+    public void invalidate(Iterable<Long> walletIds) {
+        for (Long walletId : walletIds) {
+            Stripe stripe = stripeOf(walletId);
+            synchronized (stripe) {
+                Entry previous = stripe.entries.put(walletId, new Entry(++stripe.seq, null, 0));
+                if (previous != null && previous.balance() != null) invalidations.increment();
+            }
+        }
+    }
+
+    public BalanceCacheStatsDTO getStats() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return new BalanceCacheStatsDTO(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), size);
+    }
+
+    private Stripe stripeOf(Long walletId) {
+        long h = walletId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & (stripes.length - 1)];
+    }
+
+    // One LRU map; seq is bumped by every invalidation in it, evictedSeq is the highest seq among dropped entries
+    private final class Stripe {
+        final Map<Long, Entry> entries;
+        long seq;
+        long evictedSeq;
+
+        Stripe(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    if (size() <= maxEntries) return false;
+                    dropped(eldest.getValue());
+                    return true;
+                }
+            };
+        }
+
+        // Caller holds this stripe's lock
+        void dropped(Entry entry) {
+            evictedSeq = Math.max(evictedSeq, entry.seq());
+            if (entry.balance() != null) evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.transactions.digitalwallettraining.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.transactions.digitalwallettraining.config.WalletExecutionProperties;
+import org.transactions.digitalwallettraining.exception.WalletBusyException;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Sharded single-writer queue for wallet commands.
+ *
+ * Every wallet id hashes to one lane, and each lane is a one-thread executor running on a
+ * virtual thread. Commands for the same wallet therefore reach the database one after the
+ * other and never fight over {@code WalletEntity.version}, while different wallets spread
+ * across lanes and run in parallel.
+ *
+ * In {@link WalletExecutionProperties.Mode#DIRECT} mode commands simply run on the caller's thread.
+ */
+@Component
+public class WalletCommandQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletCommandQueue.class);
+
+    // Index of the lane whose command this thread is running (-1 outside lanes), so a nested call for a
+    // wallet of the same lane runs inline instead of waiting on its own lane
+    private static final ThreadLocal<Integer> IN_LANE = ThreadLocal.withInitial(() -> -1);
+
+    private final WalletExecutionProperties properties;
+    private final ExecutorService[] lanes;
+
+    public WalletCommandQueue(WalletExecutionProperties properties) {
+        this.properties = properties;
+        this.lanes = new ExecutorService[Math.max(1, properties.getLanes())];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(properties.getLaneCapacity()),
+                    Thread.ofVirtual().name("wallet-lane-" + i + "-", 0).factory());
+        }
+    }
+
+    // ✅ Run a command for the given wallet, serialized with every other command for that wallet
+    public <T> T execute(Long walletId, Supplier<T> command) {
+        if (properties.getMode() != WalletExecutionProperties.Mode.QUEUED || walletId == null) {
+            return command.get();
+        }
+        // A nested call for a wallet on another lane still goes through that lane, so it is serialized
+        // with that wallet's other commands
+        int lane = laneIndex(walletId);
+        if (IN_LANE.get() == lane) {
+            return command.get();
+        }
+
+        Future<T> future;
+        try {
+            future = lanes[lane].submit(() -> {
+                IN_LANE.set(lane);
+                try {
+                    return command.get();
+                } finally {
+                    IN_LANE.remove();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            log.warn("🚦 Lane for wallet {} is full. Rejecting command.", walletId);
+            throw new WalletBusyException("Please try again later. Wallet is busy processing another transaction.");
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for wallet " + walletId, ex);
+        }
+    }
+
+    // Spread sequential wallet ids evenly over the lanes (Fibonacci hashing)
+    int laneIndex(Long walletId) {
+        return Math.floorMod(Long.hashCode(walletId * 0x9E3779B97F4A7C15L), lanes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
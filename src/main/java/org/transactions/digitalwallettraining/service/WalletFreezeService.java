@@ -2,77 +2,114 @@ package org.transactions.digitalwallettraining.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.transactions.digitalwallettraining.config.WalletFreezeProperties;
 import org.transactions.digitalwallettraining.entity.WalletEntity;
 import org.transactions.digitalwallettraining.repository.WalletRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
 
 @Service
 public class WalletFreezeService {
 
     private static final Logger log = LoggerFactory.getLogger(WalletFreezeService.class);
     private final WalletRepository walletRepository;
+    private final FreezeExpiryWheel expiryWheel;
+    private final FrozenWalletRegistry frozenWalletRegistry;
+    private final WalletBalanceCache balanceCache;
+    private final WalletFreezeProperties properties;
 
-    public WalletFreezeService(WalletRepository walletRepository) {
+    public WalletFreezeService(WalletRepository walletRepository, FreezeExpiryWheel expiryWheel,
+                               FrozenWalletRegistry frozenWalletRegistry, WalletBalanceCache balanceCache,
+                               WalletFreezeProperties properties) {
         this.walletRepository = walletRepository;
+        this.expiryWheel = expiryWheel;
+        this.frozenWalletRegistry = frozenWalletRegistry;
+        this.balanceCache = balanceCache;
+        this.properties = properties;
     }
 
-    // 🔒 Freeze wallet immediately in a new transaction
-    @Transactional(propagation = Propagation.REQUIRES_NEW, noRollbackFor = Exception.class)
+    // 🔒 Freeze wallet immediately in a new transaction (version conflicts retried by the coordinator)
+    @RetryOnConflict(value = "freezeWallet", maxAttempts = 3, backoffMs = 10)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void freezeWallet(WalletEntity wallet) {
-        try {
-            WalletEntity fresh = walletRepository.findById(wallet.getId())
-                    .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        WalletEntity fresh = walletRepository.findById(wallet.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
 
-            fresh.setFrozen(true);
-            fresh.setFrozenAt(LocalDateTime.now());
-            walletRepository.saveAndFlush(fresh);
+        fresh.setFrozen(true);
+        fresh.setFrozenAt(LocalDateTime.now());
+        walletRepository.saveAndFlush(fresh);
 
-            log.warn("🚨 Wallet {} frozen at {}", fresh.getId(), fresh.getFrozenAt());
-        }
-        catch (OptimisticLockingFailureException e) {
-            log.warn("⚠️ Optimistic lock detected while freezing wallet {}. Retrying once...", wallet.getId());
+        // Only a committed freeze reaches the wheel and the registry
+        Long walletId = fresh.getId();
+        LocalDateTime frozenAt = fresh.getFrozenAt();
+        afterCommit(() -> scheduleExpiry(walletId, frozenAt));
+        balanceCache.invalidateAfterCommit(walletId);
+        log.warn("🚨 Wallet {} frozen at {}", fresh.getId(), fresh.getFrozenAt());
+    }
 
-            try {
-                // Retry once safely
-                WalletEntity retry = walletRepository.findById(wallet.getId())
-                        .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
-                retry.setFrozen(true);
-                retry.setFrozenAt(LocalDateTime.now());
-                walletRepository.saveAndFlush(retry);
-                log.info("✅ Wallet {} frozen successfully after retry.", wallet.getId());
-            } catch (Exception ex) {
-                log.error("❌ Could not freeze wallet {} even after retry: {}", wallet.getId(), ex.getMessage());
-            }
-        }
-        catch (Exception ex) {
-            log.error("❌ Unexpected error freezing wallet {}: {}", wallet.getId(), ex.getMessage());
-        }
+    // 🧊 Unfreeze every listed wallet whose freeze has run out (called by the wheel's tick); returns the ids it cleared
+    @RetryOnConflict(value = "unfreezeExpired", maxAttempts = 3, backoffMs = 10)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> unfreezeExpired(Collection<Long> walletIds) {
+        if (walletIds.isEmpty()) return List.of();
+        // Cutoff guard: a wallet frozen again since it was scheduled, or already unfrozen, is left alone
+        LocalDateTime cutoff = LocalDateTime.now().minus(duration());
+        List<Long> expired = walletRepository.findExpiredFreezesForUpdate(walletIds, cutoff).stream()
+                .map(WalletEntity::getId)
+                .toList();
+        if (!expired.isEmpty()) walletRepository.unfreezeExpired(expired, cutoff);
+        afterCommit(() -> frozenWalletRegistry.clearExpired(walletIds, System.currentTimeMillis()));
+        balanceCache.invalidateAfterCommit(walletIds);
+        log.info("🧊 {} wallets unfrozen ({} expiries due)", expired.size(), walletIds.size());
+        return expired;
     }
 
-    // 🧊 Unfreeze wallet in a new transaction
-    @Transactional(propagation = Propagation.REQUIRES_NEW, noRollbackFor = Exception.class)
-    public void unfreezeWallet(WalletEntity wallet) {
-        try {
-            WalletEntity fresh = walletRepository.findById(wallet.getId())
-                    .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+    // ⏳ Seconds until the wallet's freeze runs out (0 = not frozen, or expired and waiting for the next tick)
+    public long secondsLeft(WalletEntity wallet) {
+        long millisLeft = expiresAtMillis(wallet) - System.currentTimeMillis();
+        return millisLeft <= 0 ? 0 : Math.ceilDiv(millisLeft, 1000);
+    }
 
-            fresh.setFrozen(false);
-            fresh.setFrozenAt(null);
-            fresh.setDailySpent(0.0);
-            walletRepository.saveAndFlush(fresh);
+    // ⏳ Epoch millis at which the wallet's freeze runs out (0 = not frozen)
+    public long expiresAtMillis(WalletEntity wallet) {
+        if (!Boolean.TRUE.equals(wallet.getFrozen()) || wallet.getFrozenAt() == null) return 0;
+        return toMillis(wallet.getFrozenAt()) + duration().toMillis();
+    }
 
-            log.info("🧊 Wallet {} unfrozen successfully.", wallet.getId());
-        }
-        catch (OptimisticLockingFailureException e) {
-            log.warn("⚠️ Optimistic lock conflict while unfreezing wallet {} — ignoring.", wallet.getId());
-        }
-        catch (Exception e) {
-            log.error("❌ Unexpected error unfreezing wallet {}: {}", wallet.getId(), e.getMessage());
+    // ✅ Track a committed freeze: expiry on the wheel, fast-path rejection in the registry
+    public void scheduleExpiry(Long walletId, LocalDateTime frozenAt) {
+        long expiresAt = toMillis(frozenAt) + duration().toMillis();
+        expiryWheel.schedule(walletId, expiresAt);
+        frozenWalletRegistry.markFrozen(walletId, expiresAt);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private Duration duration() {
+        return Duration.ofSeconds(properties.getDurationSeconds());
     }
 }
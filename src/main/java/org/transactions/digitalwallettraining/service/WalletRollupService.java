@@ -0,0 +1,119 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.transactions.digitalwallettraining.dto.DailyActivityDTO;
+import org.transactions.digitalwallettraining.dto.DailyTotalsDTO;
+import org.transactions.digitalwallettraining.dto.WalletStatementDTO;
+import org.transactions.digitalwallettraining.repository.JournalPostingRepository;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.repository.WalletDailyRollupRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 📅 Per-wallet daily debit / credit buckets (wallet_daily_rollups).
+ *
+ * Buckets are written by {@link WalletSummaryService#project} in the same transaction that flips
+ * the lines' projected flag, so each ledger line lands in exactly one bucket exactly once. A range
+ * query reads one row per active day, plus the few lines the projector has not reached yet; both
+ * reads run in one read-only transaction, so they see the same snapshot and nothing is counted twice.
+ */
+@Service
+public class WalletRollupService {
+
+    // Statements are for humans; a multi-year range is an export job, not a request
+    public static final long MAX_RANGE_DAYS = 366;
+
+    private final WalletDailyRollupRepository rollupRepository;
+    private final TransactionRepository transactionRepository;
+    private final JournalPostingRepository journalPostingRepository;
+    private final WalletRepository walletRepository;
+
+    public WalletRollupService(WalletDailyRollupRepository rollupRepository,
+                               TransactionRepository transactionRepository,
+                               JournalPostingRepository journalPostingRepository,
+                               WalletRepository walletRepository) {
+        this.rollupRepository = rollupRepository;
+        this.transactionRepository = transactionRepository;
+        this.journalPostingRepository = journalPostingRepository;
+        this.walletRepository = walletRepository;
+    }
+
+    // ✅ Called inside the projector's transaction: one upsert per (wallet, day) touched by these lines
+    public void fold(Long walletId, Collection<Long> transactionIds, Collection<Long> postingIds) {
+        if (!transactionIds.isEmpty()) upsert(walletId, transactionRepository.summarizeByDay(transactionIds));
+        if (!postingIds.isEmpty()) upsert(walletId, journalPostingRepository.summarizeByDay(postingIds));
+    }
+
+    // ✅ Archived lines coming back during a rebuild: added to the buckets like freshly projected ones
+    public void restore(Long walletId, List<DailyActivityDTO> days) {
+        upsert(walletId, days);
+    }
+
+    public void forget(Long walletId) {
+        rollupRepository.deleteByWalletId(walletId);
+    }
+
+    public void clear() {
+        rollupRepository.deleteAllInBatch();
+    }
+
+    @Transactional(readOnly = true)
+    public WalletStatementDTO getActivity(Long walletId, LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("❌ 'from' must be on or before 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("❌ Range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+        if (!walletRepository.existsById(walletId)) {
+            throw new IllegalArgumentException("Wallet not found");
+        }
+
+        Map<LocalDate, DailyActivityDTO> days = new TreeMap<>();
+        merge(days, rollupRepository.findDays(walletId, from, to));
+        merge(days, transactionRepository.findUnprojectedDays(walletId, from.atStartOfDay(), to.plusDays(1).atStartOfDay()));
+        merge(days, journalPostingRepository.findUnprojectedDays(walletId, from.atStartOfDay(), to.plusDays(1).atStartOfDay()));
+
+        long debits = 0, credits = 0, debitCount = 0, creditCount = 0;
+        for (DailyActivityDTO day : days.values()) {
+            debits += day.debitsMinor();
+            credits += day.creditsMinor();
+            debitCount += day.debitCount();
+            creditCount += day.creditCount();
+        }
+        List<DailyTotalsDTO> totals = days.values().stream()
+                .map(d -> new DailyTotalsDTO(d.day(), Money.toMajor(d.debitsMinor()), Money.toMajor(d.creditsMinor()),
+                        d.debitCount(), d.creditCount()))
+                .toList();
+        return new WalletStatementDTO(walletId, from, to, Money.toMajor(debits), Money.toMajor(credits),
+                debitCount, creditCount, totals);
+    }
+
+    // ✅ Monthly statement: at most 31 bucket rows however busy the wallet was
+    @Transactional(readOnly = true)
+    public WalletStatementDTO getMonthlyStatement(Long walletId, YearMonth month) {
+        return getActivity(walletId, month.atDay(1), month.atEndOfMonth());
+    }
+
+    private void upsert(Long walletId, List<DailyActivityDTO> days) {
+        for (DailyActivityDTO day : days) {
+            rollupRepository.upsert(walletId, day.day(), day.debitsMinor(), day.creditsMinor(), day.debitCount(), day.creditCount());
+        }
+    }
+
+    private static void merge(Map<LocalDate, DailyActivityDTO> days, List<DailyActivityDTO> rows) {
+        for (DailyActivityDTO row : rows) {
+            days.merge(row.day(), row, DailyActivityDTO::plus);
+        }
+    }
+}
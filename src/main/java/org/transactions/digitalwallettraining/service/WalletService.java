@@ -2,21 +2,28 @@ package org.transactions.digitalwallettraining.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.CannotAcquireLockException;
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
+import org.transactions.digitalwallettraining.config.DataSourceRouting;
+import org.transactions.digitalwallettraining.config.WalletBatchProperties;
+import org.transactions.digitalwallettraining.config.WalletExecutionProperties;
+import org.transactions.digitalwallettraining.config.WalletLedgerProperties;
+import org.transactions.digitalwallettraining.config.WalletTransferProperties;
 import org.transactions.digitalwallettraining.dto.*;
 import org.transactions.digitalwallettraining.entity.*;
 import org.transactions.digitalwallettraining.repository.*;
+import org.transactions.digitalwallettraining.utils.Money;
 
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -29,20 +36,63 @@ public class WalletService {
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final WalletFreezeService walletFreezeService;
-
-    private static final int MAX_RETRIES = 5;
-    private static final long BASE_BACKOFF_MS = 100L;
-    private static final double DAILY_LIMIT = 50000.0;
-    private static final long FREEZE_DURATION_MINUTES = 2;
+    private final WalletExecutionProperties executionProperties;
+    private final WalletBatchProperties batchProperties;
+    private final TransactionIdempotencyService idempotencyService;
+    private final WalletTransferProperties transferProperties;
+    private final HotWalletService hotWalletService;
+    private final WalletLedgerProperties ledgerProperties;
+    private final JournalEntryRepository journalEntryRepository;
+    private final JournalPostingRepository journalPostingRepository;
+    private final SpendWindowTracker spendWindowTracker;
+    private final WalletBalanceCache balanceCache;
+    private final WalletSummaryService walletSummaryService;
+    private final WalletSnapshotService snapshotService;
+    private final TransactionArchive transactionArchive;
+    private final TransactionTemplate readOnlyTx;
+
+    // All arithmetic below is in long minor units (see utils.Money); DTOs convert at the edges
+    private static final long DAILY_LIMIT = Money.toMinor(50000.0);
+
+    public static final int MAX_LIST_PAGE_SIZE = 500;
 
     public WalletService(WalletRepository walletRepository,
                          TransactionRepository transactionRepository,
                          UserRepository userRepository,
-                         WalletFreezeService walletFreezeService) {
+                         WalletFreezeService walletFreezeService,
+                         WalletExecutionProperties executionProperties,
+                         WalletBatchProperties batchProperties,
+                         TransactionIdempotencyService idempotencyService,
+                         WalletTransferProperties transferProperties,
+                         HotWalletService hotWalletService,
+                         WalletLedgerProperties ledgerProperties,
+                         JournalEntryRepository journalEntryRepository,
+                         JournalPostingRepository journalPostingRepository,
+                         SpendWindowTracker spendWindowTracker,
+                         WalletBalanceCache balanceCache,
+                         WalletSummaryService walletSummaryService,
+                         WalletSnapshotService snapshotService,
+                         TransactionArchive transactionArchive,
+                         PlatformTransactionManager transactionManager) {
         this.walletRepository = walletRepository;
         this.transactionRepository = transactionRepository;
         this.userRepository = userRepository;
         this.walletFreezeService = walletFreezeService;
+        this.executionProperties = executionProperties;
+        this.batchProperties = batchProperties;
+        this.idempotencyService = idempotencyService;
+        this.transferProperties = transferProperties;
+        this.hotWalletService = hotWalletService;
+        this.ledgerProperties = ledgerProperties;
+        this.journalEntryRepository = journalEntryRepository;
+        this.journalPostingRepository = journalPostingRepository;
+        this.spendWindowTracker = spendWindowTracker;
+        this.balanceCache = balanceCache;
+        this.walletSummaryService = walletSummaryService;
+        this.snapshotService = snapshotService;
+        this.transactionArchive = transactionArchive;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
     // ✅ Create wallet
@@ -52,170 +102,518 @@ public class WalletService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         WalletEntity wallet = new WalletEntity(user, request.getBalance());
         walletRepository.save(wallet);
+        walletSummaryService.track(wallet);
         log.info("✅ Wallet created for userId={} with initial balance ₹{}", user.getId(), wallet.getBalance());
         return new WalletResponseDTO(wallet.getId(), user.getId(), wallet.getBalance());
     }
 
-    // ✅ Get balance
-    @Transactional(readOnly = true)
+    // ✅ Get balance (served from the balance cache; a miss opens one read-only transaction)
     public Double getBalance(Long walletId) {
-        WalletEntity wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
-        return wallet.getBalance();
+        return Money.toMajor(cachedBalance(walletId).balanceMinor());
     }
 
-    // ✅ Validate wallet state (check freeze/unfreeze)
-    private void validateWalletState(WalletEntity wallet) {
-        wallet.resetDailyIfNewDay();
+    // Loads go to the primary even when replica routing is on: a lagging value would be served to every caller
+    private WalletBalanceCache.Balance cachedBalance(Long walletId) {
+        return balanceCache.get(walletId, id -> DataSourceRouting.onPrimary(() -> readOnlyTx.execute(status -> {
+            WalletEntity wallet = walletRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+            return new WalletBalanceCache.Balance(wallet.getUser().getId(), availableBalance(wallet),
+                    walletFreezeService.expiresAtMillis(wallet));
+        })));
+    }
 
-        if (Boolean.TRUE.equals(wallet.getFrozen()) && wallet.getFrozenAt() != null) {
-            long elapsed = Duration.between(wallet.getFrozenAt(), LocalDateTime.now()).toMinutes();
+    // ✅ Validate wallet state; expired freezes are cleared by FreezeExpiryScheduler, not by request threads
+    private void validateWalletState(WalletEntity wallet) {
+        validateNotFrozen(wallet.getId(), walletFreezeService.expiresAtMillis(wallet));
+    }
 
-            if (elapsed >= FREEZE_DURATION_MINUTES) {
-                walletFreezeService.unfreezeWallet(wallet); // ✅ correct
-                log.info("🧊 Wallet {} unfrozen after {} minutes", wallet.getId(), FREEZE_DURATION_MINUTES);
-            }
-            else {
-                long secondsLeft = FREEZE_DURATION_MINUTES * 60 -
-                        Duration.between(wallet.getFrozenAt(), LocalDateTime.now()).toSeconds();
-                log.warn("⏳ Wallet {} still frozen. {} seconds remaining.", wallet.getId(), secondsLeft);
-                throw new IllegalStateException("🚫 Wallet is frozen. Try again in " + secondsLeft + " seconds.");
-            }
+    private void validateNotFrozen(Long walletId, long frozenUntilMillis) {
+        long millisLeft = frozenUntilMillis - System.currentTimeMillis();
+        if (millisLeft > 0) {
+            long secondsLeft = Math.ceilDiv(millisLeft, 1000);
+            log.warn("⏳ Wallet {} still frozen. {} seconds remaining.", walletId, secondsLeft);
+            throw new IllegalStateException("🚫 Wallet is frozen. Try again in " + secondsLeft + " seconds.");
         }
     }
 
-    private void validateBalance(WalletEntity wallet, double amount) {
-        if (wallet.getBalance() < amount) {
+    private void validateBalance(WalletEntity wallet, long amount) {
+        long available = availableBalance(wallet);
+        if (available < amount) {
             log.error("❌ Insufficient balance in wallet {}. Available: ₹{}, Required: ₹{}",
-                    wallet.getId(), wallet.getBalance(), amount);
+                    wallet.getId(), Money.format(available), Money.format(amount));
             throw new IllegalArgumentException("Insufficient balance.");
         }
     }
 
-    // ✅ Track daily spent and freeze only when limit reached exactly
-    private void validateAndTrackDailyLimit(WalletEntity wallet, double amount) {
-        double newTotal = wallet.getDailySpent() + amount;
+    // ✅ Reserve the debit in the sliding spend window and freeze only when limit reached exactly
+    private void validateAndTrackDailyLimit(WalletEntity wallet, long amount) {
+        long newTotal = reserveDailySpend(wallet.getId(), amount);
+
+        // ✅ Post-commit freeze trigger
+        if (newTotal >= DAILY_LIMIT) {
+            freezeAfterCommit(wallet);
+        }
+    }
+
+    // 📊 O(1) in-memory limit check, no row write; the reservation is handed back if the transaction rolls back
+    private long reserveDailySpend(Long walletId, long amount) {
+        long now = System.currentTimeMillis();
+        long newTotal = spendWindowTracker.tryReserve(walletId, amount, DAILY_LIMIT, now);
 
-        if (newTotal > DAILY_LIMIT) {
-            double available = DAILY_LIMIT - wallet.getDailySpent();
+        if (newTotal == SpendWindowTracker.REJECTED) {
+            long available = Math.max(0, DAILY_LIMIT - spendWindowTracker.spent(walletId, now));
             log.warn("🚫 Wallet {}: Daily limit exceeded. Attempted ₹{}, Available ₹{}",
-                    wallet.getId(), amount, available);
-            throw new IllegalStateException("🚫 Daily limit exceeded. Available limit: ₹" + available);
+                    walletId, Money.format(amount), Money.format(available));
+            throw new IllegalStateException("🚫 Daily limit exceeded. Available limit: ₹" + Money.format(available));
         }
 
-        wallet.setDailySpent(newTotal);
-        walletRepository.saveAndFlush(wallet);
-        log.info("💸 Wallet {} daily spent updated: ₹{}/₹{}", wallet.getId(), newTotal, DAILY_LIMIT);
+        releaseOnRollback(walletId, amount, now);
+        log.info("💸 Wallet {} daily spent updated: ₹{}/₹{}", walletId, Money.format(newTotal), Money.format(DAILY_LIMIT));
+        return newTotal;
+    }
 
-        // ✅ Post-commit freeze trigger
-        if (wallet.getDailySpent() >= DAILY_LIMIT) {
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    log.info("🧭 Transaction committed. Freezing wallet {} post-commit.", wallet.getId());
+    private void releaseOnRollback(Long walletId, long amount, long reservedAtMillis) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) spendWindowTracker.release(walletId, amount, reservedAtMillis);
+            }
+        });
+    }
+
+    private void freezeAfterCommit(WalletEntity wallet) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                log.info("🧭 Transaction committed. Freezing wallet {} post-commit.", wallet.getId());
+                try {
                     walletFreezeService.freezeWallet(wallet);
+                } catch (RuntimeException ex) {
+                    // The spend already committed; a failed freeze must not turn it into an error
+                    log.error("❌ Could not freeze wallet {}: {}", wallet.getId(), ex.getMessage());
                 }
-            });
-        }
+            }
+        });
     }
 
-    // ✅ Process transaction
+    // ✅ Process transaction — conflicts are retried by the coordinator, each attempt in a fresh transaction
+    @RetryOnConflict("processTransaction")
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public WalletTransactionResponseDTO processTransaction(Long walletId, WalletTransactionRequestDTO request) {
-        int attempt = 0;
+        // 🔁 Client retry of a transaction we already applied → original response, wallet untouched
+        Optional<WalletTransactionResponseDTO> previous =
+                idempotencyService.findPrevious(walletId, request.transactionId());
+        if (previous.isPresent()) {
+            log.info("🔁 Transaction {} already processed for wallet {}. Returning original result.",
+                    request.transactionId(), walletId);
+            return previous.get();
+        }
+        balanceCache.invalidateAfterCommit(walletId);
 
-        while (attempt < MAX_RETRIES) {
-            try {
-                attempt++;
+        try {
+            if (ledgerProperties.getMode() == WalletLedgerProperties.Mode.EVENT_SOURCED) {
+                return processEventSourced(walletId, request);
+            }
 
-                WalletEntity wallet = walletRepository.findById(walletId)
-                        .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+            if (executionProperties.isAtomicUpdates()) {
+                return processAtomically(walletId, request);
+            }
 
-                validateWalletState(wallet);
+            WalletEntity wallet = walletRepository.findById(walletId)
+                    .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
 
-                TransactionType type = TransactionType.valueOf(request.type().toUpperCase());
-                double amount = request.amount();
-                if (amount <= 0) throw new IllegalArgumentException("Amount must be positive.");
+            validateWalletState(wallet);
 
-                if (type == TransactionType.DEBIT) {
-                    validateBalance(wallet, amount);
-                    validateAndTrackDailyLimit(wallet, amount);
-                    wallet.setBalance(wallet.getBalance() - amount);
-                } else {
-                    wallet.setBalance(wallet.getBalance() + amount);
-                }
+            TransactionType type = TransactionType.valueOf(request.type().toUpperCase());
+            long amount = toMinor(request.amount());
+
+            return applyTransaction(wallet, type, amount, request);
+
+        } catch (IllegalStateException | IllegalArgumentException ex) {
+            log.error("🚫 Transaction rejected for wallet {}: {}", walletId, ex.getMessage());
+            throw ex;
+        }
+    }
+
+    // ✅ Read-modify-write on a loaded wallet (balance, daily limit, transaction row)
+    private WalletTransactionResponseDTO applyTransaction(WalletEntity wallet, TransactionType type, long amount,
+                                                         WalletTransactionRequestDTO request) {
+        if (type == TransactionType.DEBIT) {
+            validateBalance(wallet, amount);
+            validateAndTrackDailyLimit(wallet, amount);
+            withdraw(wallet, amount);
+        } else if (wallet.isHot()) {
+            hotWalletService.credit(wallet, amount);   // 🔥 lands on a slot row, wallet row untouched
+        } else {
+            wallet.setBalanceMinor(wallet.getBalanceMinor() + amount);
+        }
 
-                walletRepository.save(wallet);
+        walletRepository.save(wallet);
 
-                TransactionEntity txn = new TransactionEntity(wallet, type, amount, request.description());
-                txn.setTransactionId(
-                        request.transactionId() != null ? request.transactionId() : UUID.randomUUID().toString()
-                );
-                transactionRepository.save(txn);
+        return recordTransaction(wallet, type, amount, request);
+    }
 
-                log.info("✅ Transaction {} completed successfully for wallet {} (amount ₹{})",
-                        txn.getTransactionId(), walletId, amount);
+    /**
+     * 📒 Event-sourced path: the operation is only appended to the journal (pending snapshot).
+     * Credits take no lock at all. Debits lock the wallet row so concurrent debits see each other's
+     * rows, but never update it; daily spend comes from the in-memory spend window.
+     */
+    private WalletTransactionResponseDTO processEventSourced(Long walletId, WalletTransactionRequestDTO request) {
+        TransactionType type = TransactionType.valueOf(request.type().toUpperCase());
+        long amount = toMinor(request.amount());
+
+        if (type == TransactionType.CREDIT) {
+            WalletEntity wallet = walletRepository.findById(walletId)
+                    .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+            validateWalletState(wallet);
+            return recordTransaction(wallet, type, amount, request, true);
+        }
 
-                return new WalletTransactionResponseDTO(
-                        txn.getTransactionId(),
-                        txn.getAmount(),
-                        type.name(),
-                        txn.getTransactionDate(),
-                        txn.getDescription()
-                );
+        WalletEntity wallet = walletRepository.findByIdForUpdate(walletId)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        validateWalletState(wallet);
+        validateBalance(wallet, amount);
 
-            } catch (ObjectOptimisticLockingFailureException | CannotAcquireLockException ex) {
-                log.warn("⚠️ Wallet {} busy (attempt {}/{}). Retrying...", walletId, attempt, MAX_RETRIES);
-                try {
-                    Thread.sleep(BASE_BACKOFF_MS * (1L << (attempt - 1)));
-                } catch (InterruptedException ignored) { }
-            } catch (IllegalStateException | IllegalArgumentException ex) {
-                log.error("🚫 Transaction rejected for wallet {}: {}", walletId, ex.getMessage());
-                throw ex;
-            } catch (Exception ex) {
-                log.error("❌ Unexpected error processing wallet {}: {}", walletId, ex.getMessage());
-                throw ex;
+        long newTotal = reserveDailySpend(walletId, amount);
+
+        WalletTransactionResponseDTO response = recordTransaction(wallet, type, amount, request, true);
+        if (newTotal >= DAILY_LIMIT) {
+            freezeAfterCommit(wallet);
+        }
+        return response;
+    }
+
+    // ✅ Wallet balance: snapshot (plus slot shares for hot wallets) plus journal rows not yet folded
+    private long availableBalance(WalletEntity wallet) {
+        long snapshot = wallet.isHot() ? hotWalletService.totalBalanceMinor(wallet) : wallet.getBalanceMinor();
+        return snapshot + pendingDelta(wallet.getId());
+    }
+
+    // 📒 Only the event-sourced ledger leaves rows outside the snapshot; in MUTABLE mode the snapshot is the balance
+    private long pendingDelta(Long walletId) {
+        if (ledgerProperties.getMode() != WalletLedgerProperties.Mode.EVENT_SOURCED) return 0;
+        return transactionRepository.sumPendingDelta(walletId);
+    }
+
+    // 📒 Event-sourced paths that write the snapshot (row lock held) fold the pending tail into it first
+    private void foldPending(WalletEntity wallet) {
+        if (ledgerProperties.getMode() != WalletLedgerProperties.Mode.EVENT_SOURCED) return;
+        if (wallet.isHot()) hotWalletService.consolidate(wallet);   // a net-debit tail may exceed the base share
+        snapshotService.foldLocked(wallet);
+    }
+
+    private void withdraw(WalletEntity wallet, long amount) {
+        if (wallet.isHot()) {
+            hotWalletService.debit(wallet, amount);
+        } else {
+            wallet.setBalanceMinor(wallet.getBalanceMinor() - amount);
+        }
+    }
+
+    // ✅ Request amount (major units) → minor units, validated once at the service edge
+    private static long toMinor(Double amount) {
+        if (amount == null || amount <= 0) throw new IllegalArgumentException("Amount must be positive.");
+        return Money.toMinor(amount);
+    }
+
+    /**
+     * ⚡ Fast path: a single guarded UPDATE applies the debit/credit and its affected-row count
+     * decides the outcome. Debits reserve their daily spend in memory first. The wallet is only
+     * read when something was rejected, to explain why.
+     */
+    private WalletTransactionResponseDTO processAtomically(Long walletId, WalletTransactionRequestDTO request) {
+        TransactionType type = TransactionType.valueOf(request.type().toUpperCase());
+        long amount = toMinor(request.amount());
+
+        if (type == TransactionType.CREDIT) {
+            if (walletRepository.creditIfActive(walletId, amount) == 0) {
+                return handleAtomicRejection(walletId, type, amount, request);
             }
+            return recordTransaction(walletRepository.getReferenceById(walletId), type, amount, request);
         }
 
-        // ⚠️ After MAX_RETRIES
-        log.error("🚫 Could not process wallet {} after {} retries. Please try again later.", walletId, MAX_RETRIES);
+        long now = System.currentTimeMillis();
+        long newTotal = spendWindowTracker.tryReserve(walletId, amount, DAILY_LIMIT, now);
+        if (newTotal == SpendWindowTracker.REJECTED) {
+            return handleAtomicRejection(walletId, type, amount, request);
+        }
+        if (walletRepository.debitIfFunded(walletId, amount) == 0) {
+            spendWindowTracker.release(walletId, amount, now);
+            return handleAtomicRejection(walletId, type, amount, request);
+        }
+        releaseOnRollback(walletId, amount, now);
 
-        // Instead of throwing an error → return user-friendly message
-        throw new IllegalStateException("Please try again later. Wallet is busy processing another transaction.");
+        WalletEntity wallet = walletRepository.getReferenceById(walletId);
+        if (newTotal >= DAILY_LIMIT) freezeAfterCommit(wallet);
+        return recordTransaction(wallet, type, amount, request);
+    }
+
+    // 🔍 Fallback read: throws the same errors as the entity path, or finishes the rare cases it must handle
+    private WalletTransactionResponseDTO handleAtomicRejection(Long walletId, TransactionType type, long amount,
+                                                               WalletTransactionRequestDTO request) {
+        WalletEntity wallet = walletRepository.findById(walletId)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+
+        validateWalletState(wallet);
+        if (type == TransactionType.DEBIT) {
+            validateBalance(wallet, amount);
+        }
+
+        // A freeze that ran out but FreezeExpiryScheduler has not cleared yet, or a daily-limit rejection:
+        // the entity path applies it or raises the error
+        log.info("↩️ Wallet {}: guarded update declined, finishing on the entity path", walletId);
+        return applyTransaction(wallet, type, amount, request);
+    }
+
+    /**
+     * 📝 Write-ahead-log admission: the checks of the direct path (wallet exists, not frozen, funds,
+     * daily limit) made against the committed balance plus what the WAL has acknowledged but not yet
+     * applied. Nothing is written. Returns true when this debit reaches the daily limit.
+     */
+    public boolean admitLogged(Long walletId, TransactionType type, long amount, long unappliedDeltaMinor) {
+        WalletBalanceCache.Balance balance = cachedBalance(walletId);
+        validateNotFrozen(walletId, balance.frozenUntilMillis());
+        if (type != TransactionType.DEBIT) return false;
+
+        long available = balance.balanceMinor() + unappliedDeltaMinor;
+        if (available < amount) {
+            log.error("❌ Insufficient balance in wallet {}. Available: ₹{}, Required: ₹{}",
+                    walletId, Money.format(available), Money.format(amount));
+            throw new IllegalArgumentException("Insufficient balance.");
+        }
+        return reserveDailySpend(walletId, amount) >= DAILY_LIMIT;
+    }
+
+    private WalletTransactionResponseDTO recordTransaction(WalletEntity wallet, TransactionType type, long amount,
+                                                          WalletTransactionRequestDTO request) {
+        return recordTransaction(wallet, type, amount, request, false);
+    }
+
+    private WalletTransactionResponseDTO recordTransaction(WalletEntity wallet, TransactionType type, long amount,
+                                                          WalletTransactionRequestDTO request, boolean pendingSnapshot) {
+        TransactionEntity txn = new TransactionEntity(wallet, type, amount, request.description());
+        txn.setPendingSnapshot(pendingSnapshot);
+        txn.setTransactionId(
+                request.transactionId() != null ? request.transactionId() : UUID.randomUUID().toString()
+        );
+        transactionRepository.save(txn);
+
+        log.info("✅ Transaction {} completed successfully for wallet {} (amount ₹{})",
+                txn.getTransactionId(), wallet.getId(), Money.format(amount));
+
+        WalletTransactionResponseDTO response = new WalletTransactionResponseDTO(
+                txn.getTransactionId(),
+                txn.getAmount(),
+                type.name(),
+                txn.getTransactionDate(),
+                txn.getDescription()
+        );
+        idempotencyService.remember(wallet.getId(), response);
+        return response;
+    }
+
+    /**
+     * 📦 Apply a list of CREDIT/DEBIT items to one wallet in a single transaction.
+     * The wallet is loaded once, every item is checked against the running in-memory balance and
+     * daily spend, and all transaction rows go out in one JDBC batch.
+     */
+    @RetryOnConflict("processBatch")
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public WalletBatchResponseDTO processBatch(Long walletId, List<WalletTransactionRequestDTO> requests,
+                                               WalletBatchProperties.FailurePolicy policy) {
+        if (requests == null || requests.isEmpty())
+            throw new IllegalArgumentException("Batch must contain at least one transaction.");
+        if (requests.size() > batchProperties.getMaxItems())
+            throw new IllegalArgumentException("Batch cannot exceed " + batchProperties.getMaxItems() + " transactions.");
+        if (policy == null) policy = batchProperties.getFailurePolicy();
+
+        // Event-sourced debits serialize on the row lock rather than the version, so take it here too
+        boolean eventSourced = ledgerProperties.getMode() == WalletLedgerProperties.Mode.EVENT_SOURCED;
+        WalletEntity wallet = (eventSourced ? walletRepository.findByIdForUpdate(walletId) : walletRepository.findById(walletId))
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        validateWalletState(wallet);
+        balanceCache.invalidateAfterCommit(walletId);
+        // The batch tracks one running balance, so fold a hot wallet's slots into its base share first
+        if (wallet.isHot()) hotWalletService.consolidate(wallet);
+        foldPending(wallet);
+
+        // One query for all client-supplied ids instead of hitting the unique constraint at flush
+        List<String> clientIds = requests.stream().filter(Objects::nonNull)
+                .map(WalletTransactionRequestDTO::transactionId).filter(Objects::nonNull).toList();
+        Set<String> usedIds = clientIds.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(transactionRepository.findExistingTransactionIds(clientIds));
+        usedIds.addAll(idempotencyService.findArchivedIds(clientIds));   // archived rows keep their ids
+
+        long balance = wallet.getBalanceMinor();
+        long pending = pendingDelta(walletId);   // journal rows not yet in the snapshot
+        long windowStart = System.currentTimeMillis();
+        long spentBefore = spendWindowTracker.spent(walletId, windowStart);
+        long dailySpent = spentBefore;
+        boolean limitReached = false;
+
+        List<TransactionEntity> rows = new ArrayList<>(requests.size());
+        List<WalletBatchItemResultDTO> results = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            WalletTransactionRequestDTO item = requests.get(i);
+            TransactionType type = parseType(item);
+            String reason = rejectionReason(item, type, usedIds, balance + pending, dailySpent, limitReached);
+
+            if (reason != null) {
+                if (policy == WalletBatchProperties.FailurePolicy.ALL_OR_NOTHING) {
+                    log.warn("📦 Batch for wallet {} rejected at item {}: {}", walletId, i, reason);
+                    throw new IllegalArgumentException("Batch rejected at item " + i + ": " + reason);
+                }
+                results.add(WalletBatchItemResultDTO.rejected(i, reason));
+                continue;
+            }
+
+            long amount = Money.toMinor(item.amount());
+            if (type == TransactionType.DEBIT) {
+                balance -= amount;
+                dailySpent += amount;
+                limitReached = dailySpent >= DAILY_LIMIT;
+            } else {
+                balance += amount;
+            }
+
+            TransactionEntity txn = new TransactionEntity(wallet, type, amount, item.description());
+            txn.setTransactionId(item.transactionId() != null ? item.transactionId() : UUID.randomUUID().toString());
+            usedIds.add(txn.getTransactionId());
+            rows.add(txn);
+            WalletTransactionResponseDTO response = new WalletTransactionResponseDTO(
+                    txn.getTransactionId(), txn.getAmount(), type.name(), txn.getTransactionDate(), txn.getDescription());
+            idempotencyService.remember(walletId, response);
+            results.add(WalletBatchItemResultDTO.applied(i, response));
+        }
+
+        if (!rows.isEmpty()) {
+            wallet.setBalanceMinor(balance);
+            // Check-and-add as one step: a debit that slipped in since spentBefore makes this attempt retry
+            long debits = dailySpent - spentBefore;
+            if (debits > 0) {
+                long reserved = spendWindowTracker.tryReserve(walletId, debits, DAILY_LIMIT, windowStart);
+                if (reserved == SpendWindowTracker.REJECTED)
+                    throw new ConcurrencyFailureException("Spend window of wallet " + walletId + " changed during batch");
+                releaseOnRollback(walletId, debits, windowStart);
+            }
+            walletRepository.save(wallet);
+            transactionRepository.saveAll(rows);
+            if (limitReached) freezeAfterCommit(wallet);
+        }
+
+        log.info("📦 Batch for wallet {} done: {} applied, {} rejected, balance ₹{}",
+                walletId, rows.size(), results.size() - rows.size(), Money.format(balance + pending));
+
+        return new WalletBatchResponseDTO(walletId, rows.size(), results.size() - rows.size(),
+                Money.toMajor(balance + pending), results);
+    }
+
+    private TransactionType parseType(WalletTransactionRequestDTO item) {
+        if (item == null || item.type() == null) return null;
+        try {
+            return TransactionType.valueOf(item.type().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    // Returns why a batch item cannot be applied, or null when it can
+    private String rejectionReason(WalletTransactionRequestDTO item, TransactionType type, Set<String> usedIds,
+                                   long balance, long dailySpent, boolean limitReached) {
+        if (item == null) return "Transaction is empty.";
+        if (type == null) return "Invalid transaction type: " + item.type();
+        if (item.amount() == null || item.amount() <= 0) return "Amount must be positive.";
+        long amount;
+        try {
+            amount = Money.toMinor(item.amount());
+        } catch (IllegalArgumentException ex) {
+            return ex.getMessage();
+        }
+        if (item.description() == null || item.description().isBlank()) return "Description is required.";
+        if (item.transactionId() != null && usedIds.contains(item.transactionId()))
+            return "Duplicate transactionId: " + item.transactionId();
+        if (limitReached) return "Wallet is frozen. Daily limit reached earlier in this batch.";
+        if (type == TransactionType.DEBIT) {
+            if (balance < amount) return "Insufficient balance.";
+            if (dailySpent + amount > DAILY_LIMIT)
+                return "Daily limit exceeded. Available limit: ₹" + Money.format(DAILY_LIMIT - dailySpent);
+        }
+        return null;
     }
 
     // Transfer money
+    @RetryOnConflict(value = "transferMoney", maxAttempts = 4, backoffMs = 20)
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public WalletTransactionResponseDTO transferMoney(Long fromWalletId, Long toWalletId, Double amount) {
+        return transferMoney(fromWalletId, toWalletId, amount, null);
+    }
+
+    // ✅ Transfer whose ledger ids derive from transferId ("<id>-D" / "<id>-C"), so a replay can be detected
+    @RetryOnConflict(value = "transferMoney", maxAttempts = 4, backoffMs = 20)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public WalletTransactionResponseDTO transferMoney(Long fromWalletId, Long toWalletId, Double amount, String transferId) {
         if (Objects.equals(fromWalletId, toWalletId))
             throw new IllegalArgumentException("Cannot transfer to the same wallet.");
         if (amount == null || amount <= 0)
             throw new IllegalArgumentException("Transfer amount must be positive.");
-
-        WalletEntity from = walletRepository.findById(fromWalletId)
-                .orElseThrow(() -> new IllegalArgumentException("Source wallet not found"));
-        WalletEntity to = walletRepository.findById(toWalletId)
-                .orElseThrow(() -> new IllegalArgumentException("Destination wallet not found"));
+        long minor = Money.toMinor(amount);
+
+        boolean pessimistic = transferProperties.getLocking() == WalletTransferProperties.Locking.PESSIMISTIC
+                || ledgerProperties.getMode() == WalletLedgerProperties.Mode.EVENT_SOURCED;
+        WalletEntity from;
+        WalletEntity to;
+        if (pessimistic) {
+            // 🔒 Both rows locked by one query in id order → opposite transfers queue, never deadlock
+            List<WalletEntity> locked = walletRepository.findAllByIdForUpdateOrdered(List.of(fromWalletId, toWalletId));
+            from = locked.stream().filter(w -> w.getId().equals(fromWalletId)).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Source wallet not found"));
+            to = locked.stream().filter(w -> w.getId().equals(toWalletId)).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Destination wallet not found"));
+        } else {
+            from = walletRepository.findById(fromWalletId)
+                    .orElseThrow(() -> new IllegalArgumentException("Source wallet not found"));
+            to = walletRepository.findById(toWalletId)
+                    .orElseThrow(() -> new IllegalArgumentException("Destination wallet not found"));
+        }
 
         validateWalletState(from);
         validateWalletState(to);
-        validateBalance(from, amount);
-        validateAndTrackDailyLimit(from, amount);
+        foldPending(from);
+        validateBalance(from, minor);
+        balanceCache.invalidateAfterCommit(fromWalletId, toWalletId);
+        validateAndTrackDailyLimit(from, minor);
 
-        from.setBalance(from.getBalance() - amount);
-        to.setBalance(to.getBalance() + amount);
+        withdraw(from, minor);
+        to.setBalanceMinor(to.getBalanceMinor() + minor);
 
         walletRepository.save(from);
         walletRepository.save(to);
 
-        String txnId = UUID.randomUUID().toString();
-        TransactionEntity debit = new TransactionEntity(from, TransactionType.DEBIT, amount,
+        String txnId = transferId != null ? transferId : UUID.randomUUID().toString();
+
+        if (transferProperties.getJournal() == WalletTransferProperties.Journal.DOUBLE_ENTRY) {
+            // 📗 One entry, two narrow postings — inserted together in one JDBC batch
+            JournalEntryEntity entry = new JournalEntryEntity(txnId, JournalEntryKind.TRANSFER,
+                    "Transfer from wallet " + fromWalletId + " to wallet " + toWalletId);
+            entry.addPosting(fromWalletId, -minor);
+            entry.addPosting(toWalletId, minor);
+            journalEntryRepository.save(entry);
+
+            log.info("🔁 Transfer {} completed: ₹{} from wallet {} → wallet {}",
+                    txnId, amount, fromWalletId, toWalletId);
+            return new WalletTransactionResponseDTO(entry.getEntryId(), amount,
+                    TransactionType.DEBIT.name(), entry.getCreatedAt(), entry.getDescription());
+        }
+
+        TransactionEntity debit = new TransactionEntity(from, TransactionType.DEBIT, minor,
                 "Transfer to wallet " + toWalletId);
         debit.setTransactionId(txnId + "-D");
         transactionRepository.save(debit);
 
-        TransactionEntity credit = new TransactionEntity(to, TransactionType.CREDIT, amount,
+        TransactionEntity credit = new TransactionEntity(to, TransactionType.CREDIT, minor,
                 "Transfer from wallet " + fromWalletId);
         credit.setTransactionId(txnId + "-C");
         transactionRepository.save(credit);
@@ -228,28 +626,104 @@ public class WalletService {
                 debit.getType().name(), debit.getTransactionDate(), debit.getDescription());
     }
 
-    // ✅ View transactions
+    // 📗 A journal entry and its postings, by entry (transfer) id
+    @Transactional(readOnly = true)
+    public JournalEntryDTO getJournalEntry(String entryId) {
+        return journalEntryRepository.findByEntryId(entryId)
+                .map(this::toJournalDto)
+                .orElseThrow(() -> new IllegalArgumentException("Journal entry not found"));
+    }
+
+    // 📗 Undo a journal transfer with a REVERSAL entry whose postings mirror the original
+    @RetryOnConflict(value = "reverseTransfer", maxAttempts = 4, backoffMs = 20)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public JournalEntryDTO reverseTransfer(String entryId) {
+        JournalEntryEntity original = journalEntryRepository.findByEntryId(entryId)
+                .orElseThrow(() -> new IllegalArgumentException("Journal entry not found"));
+        if (original.getKind() != JournalEntryKind.TRANSFER)
+            throw new IllegalArgumentException("Only transfers can be reversed.");
+        if (journalEntryRepository.existsByReversesEntryId(entryId))
+            throw new IllegalArgumentException("Transfer " + entryId + " was already reversed.");
+
+        List<Long> walletIds = original.getPostings().stream().map(JournalPostingEntity::getWalletId).toList();
+        Map<Long, WalletEntity> wallets = walletRepository.findAllByIdForUpdateOrdered(walletIds).stream()
+                .collect(Collectors.toMap(WalletEntity::getId, w -> w));
+        wallets.values().forEach(this::foldPending);
+        balanceCache.invalidateAfterCommit(walletIds);
+
+        JournalEntryEntity reversal = new JournalEntryEntity(UUID.randomUUID().toString(), JournalEntryKind.REVERSAL,
+                "Reversal of " + original.getDescription());
+        reversal.setReversesEntryId(entryId);
+
+        // Take money back from the credited wallets first, so a spent credit fails before anything moves
+        List<JournalPostingEntity> legs = new ArrayList<>(original.getPostings());
+        legs.sort(Comparator.comparingLong(JournalPostingEntity::getAmountMinor).reversed());
+        for (JournalPostingEntity leg : legs) {
+            WalletEntity wallet = wallets.get(leg.getWalletId());
+            if (wallet == null) throw new IllegalArgumentException("Wallet " + leg.getWalletId() + " not found");
+            long legAmount = leg.getAmountMinor();
+            if (legAmount > 0) {
+                validateBalance(wallet, legAmount);
+                withdraw(wallet, legAmount);
+            } else {
+                wallet.setBalanceMinor(wallet.getBalanceMinor() - legAmount);
+            }
+            reversal.addPosting(leg.getWalletId(), -legAmount);
+        }
+
+        walletRepository.saveAll(wallets.values());
+        journalEntryRepository.save(reversal);
+        log.info("↩️ Transfer {} reversed by entry {}", entryId, reversal.getEntryId());
+        return toJournalDto(reversal);
+    }
+
+    private JournalEntryDTO toJournalDto(JournalEntryEntity entry) {
+        return new JournalEntryDTO(entry.getEntryId(), entry.getKind().name(), entry.getDescription(),
+                entry.getCreatedAt(), entry.getReversesEntryId(),
+                entry.getPostings().stream()
+                        .map(p -> new JournalPostingDTO(p.getWalletId(), p.getAmount()))
+                        .toList());
+    }
+
+    // ✅ View transactions (journal postings included as DEBIT / CREDIT lines)
     @Transactional(readOnly = true)
     public List<WalletTransactionResponseDTO> listTransactions(Long walletId) {
-        return transactionRepository.findByWalletId(walletId).stream()
+        List<WalletTransactionResponseDTO> list = transactionRepository.findByWalletId(walletId).stream()
                 .map(tx -> new WalletTransactionResponseDTO(
                         tx.getTransactionId(), tx.getAmount(), tx.getType().name(),
                         tx.getTransactionDate(), tx.getDescription()))
                 .collect(Collectors.toList());
+
+        // 🗄️ Closed months moved to the archive come back in front of the hot rows
+        List<WalletTransactionResponseDTO> archived = transactionArchive.listLines(walletId).stream()
+                .map(LedgerLineDTO::toResponse)
+                .toList();
+        if (!archived.isEmpty()) list.addAll(0, archived);
+
+        List<JournalPostingEntity> postings = journalPostingRepository.findByWalletIdWithEntry(walletId);
+        postings.forEach(p -> list.add(new WalletTransactionResponseDTO(
+                p.getEntry().getEntryId(), Money.toMajor(Math.abs(p.getAmountMinor())),
+                (p.getAmountMinor() < 0 ? TransactionType.DEBIT : TransactionType.CREDIT).name(),
+                p.getEntry().getCreatedAt(), p.getEntry().getDescription())));
+        if (!postings.isEmpty() || !archived.isEmpty()) {
+            list.sort(Comparator.comparing(WalletTransactionResponseDTO::timestamp,
+                    Comparator.nullsFirst(Comparator.naturalOrder())));
+        }
+        return list;
     }
 
-    @Transactional(readOnly = true)
-    public List<WalletResponseDTO> getAllWallets() {
-        return walletRepository.findAll().stream()
-                .map(w -> new WalletResponseDTO(w.getId(), w.getUser().getId(), w.getBalance()))
-                .collect(Collectors.toList());
+    // 📊 Served from the wallet_summaries read model (balances trail commits by about one projector pass)
+    public Page<WalletResponseDTO> getAllWallets(Pageable pageable) {
+        if (pageable.getPageSize() > MAX_LIST_PAGE_SIZE) {
+            throw new IllegalArgumentException("❌ Page size must be between 1 and " + MAX_LIST_PAGE_SIZE);
+        }
+        return walletSummaryService.getAllWallets(pageable);
     }
 
-    @Transactional
+    // ✅ Nothing here writes any more (freeze expiry is the scheduler's job), so it is a plain cached read
     public WalletResponseDTO getWalletDetails(Long walletId) {
-        WalletEntity w = walletRepository.findById(walletId)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
-        validateWalletState(w);
-        return new WalletResponseDTO(w.getId(), w.getUser().getId(), w.getBalance());
+        WalletBalanceCache.Balance balance = cachedBalance(walletId);
+        validateNotFrozen(walletId, balance.frozenUntilMillis());
+        return new WalletResponseDTO(walletId, balance.userId(), Money.toMajor(balance.balanceMinor()));
     }
 }
@@ -0,0 +1,77 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.transactions.digitalwallettraining.config.WalletLedgerProperties;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import java.util.List;
+
+/**
+ * 📒 Folds event-sourced journal rows into a wallet's balance snapshot. The net amount is added to
+ * wallets.balance and the rows are marked folded in the same transaction, so snapshot + pending
+ * tail never counts a row twice or misses one.
+ */
+@Service
+public class WalletSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletSnapshotService.class);
+
+    private final TransactionRepository transactionRepository;
+    private final WalletRepository walletRepository;
+    private final WalletLedgerProperties properties;
+
+    public WalletSnapshotService(TransactionRepository transactionRepository,
+                                 WalletRepository walletRepository,
+                                 WalletLedgerProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.walletRepository = walletRepository;
+        this.properties = properties;
+    }
+
+    // ✅ Fold up to snapshotRowsPerWallet pending rows of one wallet; returns how many were folded
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int fold(Long walletId) {
+        // Same lock order as an event-sourced debit (wallet row, then journal), so the two never deadlock
+        if (walletRepository.findByIdForUpdate(walletId).isEmpty()) return 0;
+
+        List<Long> ids = transactionRepository.findPendingIds(walletId,
+                PageRequest.of(0, Math.max(1, properties.getSnapshotRowsPerWallet())));
+        if (ids.isEmpty()) return 0;
+
+        long delta = transactionRepository.sumSignedAmounts(ids);
+        transactionRepository.markSnapshotted(ids);
+        walletRepository.addToBalance(walletId, delta);
+
+        log.debug("📒 Wallet {}: folded {} journal rows (net ₹{}) into snapshot", walletId, ids.size(), Money.format(delta));
+        return ids.size();
+    }
+
+    /**
+     * ✅ Fold every pending row of a wallet whose row lock the caller already holds, straight into the
+     * loaded entity. Transfers, batches and reversals write the snapshot itself, so they call this
+     * first: money still sitting in unfolded credits becomes spendable without the snapshot going negative.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long foldLocked(WalletEntity wallet) {
+        int pageSize = Math.max(1, properties.getSnapshotRowsPerWallet());
+        long folded = 0;
+        List<Long> ids;
+        while (!(ids = transactionRepository.findPendingIds(wallet.getId(), PageRequest.of(0, pageSize))).isEmpty()) {
+            folded += transactionRepository.sumSignedAmounts(ids);
+            transactionRepository.markSnapshotted(ids);
+        }
+        if (folded != 0) {
+            wallet.setBalanceMinor(wallet.getBalanceMinor() + folded);
+            log.debug("📒 Wallet {}: folded pending tail (net ₹{}) before a snapshot write", wallet.getId(), Money.format(folded));
+        }
+        return folded;
+    }
+}
@@ -0,0 +1,97 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.transactions.digitalwallettraining.config.WalletSummaryProperties;
+import org.transactions.digitalwallettraining.dto.ProjectionStatsDTO;
+import org.transactions.digitalwallettraining.repository.JournalPostingRepository;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.repository.WalletSummaryRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background pass that folds committed ledger lines into wallet_summaries, a bounded number of
+ * wallets per pass with one short transaction per wallet (same shape as {@link LedgerSnapshotter}).
+ */
+@Component
+public class WalletSummaryProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletSummaryProjector.class);
+
+    private final WalletSummaryService summaryService;
+    private final WalletSummaryRepository summaryRepository;
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final JournalPostingRepository journalPostingRepository;
+    private final WalletSummaryProperties properties;
+
+    private final AtomicLong linesProjected = new AtomicLong();
+    private volatile LocalDateTime lastPassAt;
+
+    public WalletSummaryProjector(WalletSummaryService summaryService,
+                                  WalletSummaryRepository summaryRepository,
+                                  WalletRepository walletRepository,
+                                  TransactionRepository transactionRepository,
+                                  JournalPostingRepository journalPostingRepository,
+                                  WalletSummaryProperties properties) {
+        this.summaryService = summaryService;
+        this.summaryRepository = summaryRepository;
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.journalPostingRepository = journalPostingRepository;
+        this.properties = properties;
+    }
+
+    // ✅ First start with this read model: seed it so existing wallets show up before they transact again
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        if (properties.isRebuildIfEmpty() && summaryRepository.count() == 0 && walletRepository.count() > 0) {
+            summaryService.rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.summary.project-interval-ms:1000}")
+    public void projectPending() {
+        PageRequest page = PageRequest.of(0, Math.max(1, properties.getWalletsPerPass()));
+        Set<Long> walletIds = new LinkedHashSet<>(transactionRepository.findWalletIdsToProject(page));
+        walletIds.addAll(journalPostingRepository.findWalletIdsToProject(page));
+
+        int projected = 0;
+        for (Long walletId : walletIds) {
+            try {
+                projected += summaryService.project(walletId);
+            } catch (RuntimeException ex) {
+                log.warn("📊 Summary of wallet {} skipped this pass: {}", walletId, ex.getMessage());
+            }
+        }
+        linesProjected.addAndGet(projected);
+        lastPassAt = LocalDateTime.now();
+        if (projected > 0) log.info("📊 Projection pass folded {} ledger lines across {} wallets", projected, walletIds.size());
+    }
+
+    // 📊 How far wallet_summaries is behind the committed ledger
+    public ProjectionStatsDTO getStats() {
+        long pending = transactionRepository.countUnprojected() + journalPostingRepository.countUnprojected();
+        LocalDateTime oldest = earliest(transactionRepository.findOldestUnprojectedDate(),
+                journalPostingRepository.findOldestUnprojectedDate());
+        long lagMs = oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis());
+        return new ProjectionStatsDTO(pending, lagMs, linesProjected.get(), lastPassAt);
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isBefore(b) ? a : b;
+    }
+}
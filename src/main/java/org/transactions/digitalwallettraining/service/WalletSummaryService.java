@@ -0,0 +1,199 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.transactions.digitalwallettraining.config.WalletSummaryProperties;
+import org.transactions.digitalwallettraining.dto.ArchivedTransactionDTO;
+import org.transactions.digitalwallettraining.dto.DailyActivityDTO;
+import org.transactions.digitalwallettraining.dto.LedgerActivityDTO;
+import org.transactions.digitalwallettraining.dto.WalletResponseDTO;
+import org.transactions.digitalwallettraining.dto.WalletSummaryDTO;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.entity.WalletSummaryEntity;
+import org.transactions.digitalwallettraining.repository.JournalPostingRepository;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.repository.WalletSummaryRepository;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 📊 Read side of the wallet dashboards: wallet_summaries holds balance, line count, debit/credit
+ * totals and last activity per wallet, so dashboard queries never scan wallets or join transactions.
+ *
+ * Ledger lines (transaction rows and journal postings) carry a projected flag. {@link #project}
+ * folds a wallet's unprojected lines into its summary and flips the flag in the same transaction,
+ * so a line is counted exactly once however often the projector runs or crashes. The same pass adds
+ * the lines to the wallet's daily buckets ({@link WalletRollupService}). The summary row is
+ * locked first, so projectors on several instances never fold the same wallet at once.
+ */
+@Service
+public class WalletSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletSummaryService.class);
+
+    private final WalletSummaryRepository summaryRepository;
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final JournalPostingRepository journalPostingRepository;
+    private final HotWalletService hotWalletService;
+    private final WalletRollupService rollupService;
+    private final TransactionArchive transactionArchive;
+    private final WalletSummaryProperties properties;
+
+    public WalletSummaryService(WalletSummaryRepository summaryRepository,
+                                WalletRepository walletRepository,
+                                TransactionRepository transactionRepository,
+                                JournalPostingRepository journalPostingRepository,
+                                HotWalletService hotWalletService,
+                                WalletRollupService rollupService,
+                                TransactionArchive transactionArchive,
+                                WalletSummaryProperties properties) {
+        this.summaryRepository = summaryRepository;
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.journalPostingRepository = journalPostingRepository;
+        this.hotWalletService = hotWalletService;
+        this.rollupService = rollupService;
+        this.transactionArchive = transactionArchive;
+        this.properties = properties;
+    }
+
+    // ✅ New wallet → its summary row, in the creating transaction (it has no ledger lines to project yet)
+    public void track(WalletEntity wallet) {
+        summaryRepository.save(new WalletSummaryEntity(wallet.getId(), wallet.getUser().getId(), wallet.getBalanceMinor()));
+    }
+
+    // ✅ Fold up to rowsPerWallet unprojected lines of each kind into one wallet's summary; returns lines folded
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int project(Long walletId) {
+        WalletSummaryEntity summary = summaryRepository.findByIdForUpdate(walletId).orElse(null);
+        WalletEntity wallet = walletRepository.findById(walletId).orElse(null);
+
+        PageRequest page = PageRequest.of(0, Math.max(1, properties.getRowsPerWallet()));
+        List<Long> txnIds = transactionRepository.findUnprojectedIds(walletId, page);
+        List<Long> postingIds = journalPostingRepository.findUnprojectedIds(walletId, page);
+
+        if (wallet == null) {
+            // Wallet deleted: drop its summary and retire the lines left behind so the lag metric settles
+            if (summary != null) summaryRepository.delete(summary);
+            rollupService.forget(walletId);
+            if (!txnIds.isEmpty()) transactionRepository.markProjected(txnIds);
+            if (!postingIds.isEmpty()) journalPostingRepository.markProjected(postingIds);
+            return txnIds.size() + postingIds.size();
+        }
+        if (summary == null) {
+            summary = summaryRepository.save(new WalletSummaryEntity(walletId, wallet.getUser().getId(), 0));
+        }
+
+        rollupService.fold(walletId, txnIds, postingIds);
+        if (!txnIds.isEmpty()) {
+            apply(summary, transactionRepository.summarize(txnIds));
+            transactionRepository.markProjected(txnIds);
+        }
+        if (!postingIds.isEmpty()) {
+            apply(summary, journalPostingRepository.summarize(postingIds));
+            journalPostingRepository.markProjected(postingIds);
+        }
+        summary.setBalanceMinor(hotWalletService.totalBalanceMinor(wallet) + transactionRepository.sumPendingDelta(walletId));
+
+        log.debug("📊 Wallet {}: projected {} lines, balance ₹{}", walletId,
+                txnIds.size() + postingIds.size(), Money.format(summary.getBalanceMinor()));
+        return txnIds.size() + postingIds.size();
+    }
+
+    /**
+     * 🔄 Full rebuild: empty the read model, mark every ledger line unprojected and seed one zeroed
+     * row per wallet. Archived rows left the hot table already projected, so they are folded back in
+     * here from their segments; the projector then recomputes the rest through the incremental path.
+     */
+    @Transactional
+    public int rebuild() {
+        summaryRepository.deleteAllInBatch();
+        rollupService.clear();
+        int lines = transactionRepository.resetProjected() + journalPostingRepository.resetProjected();
+        int wallets = summaryRepository.seedFromWallets();
+        long archived = foldArchive();
+        log.info("🔄 Wallet summaries reset: {} wallets seeded, {} archived lines restored, {} ledger lines queued for projection",
+                wallets, archived, lines);
+        return wallets;
+    }
+
+    // 🗄️ One segment at a time: per-wallet daily buckets into the rollups, their totals into the summaries
+    private long foldArchive() {
+        long[] restored = {0};
+        transactionArchive.forEachSegment(rows -> {
+            Map<Long, Map<LocalDate, DailyActivityDTO>> days = new HashMap<>();
+            Map<Long, LocalDateTime> lastActivity = new HashMap<>();
+            for (ArchivedTransactionDTO row : rows) {
+                boolean debit = row.type() == TransactionType.DEBIT;
+                DailyActivityDTO line = new DailyActivityDTO(row.transactionDate().toLocalDate(),
+                        debit ? row.amountMinor() : 0, debit ? 0 : row.amountMinor(), debit ? 1 : 0, debit ? 0 : 1);
+                days.computeIfAbsent(row.walletId(), id -> new TreeMap<>()).merge(line.day(), line, DailyActivityDTO::plus);
+                lastActivity.merge(row.walletId(), row.transactionDate(), (a, b) -> a.isAfter(b) ? a : b);
+            }
+            days.forEach((walletId, byDay) -> summaryRepository.findById(walletId).ifPresent(summary -> {
+                // Deleted wallets have no summary row, and the projector forgets their buckets too
+                long debits = 0, credits = 0, count = 0;
+                for (DailyActivityDTO day : byDay.values()) {
+                    debits += day.debitsMinor();
+                    credits += day.creditsMinor();
+                    count += day.debitCount() + day.creditCount();
+                }
+                rollupService.restore(walletId, new ArrayList<>(byDay.values()));
+                summary.apply(count, debits, credits, lastActivity.get(walletId));
+                restored[0] += count;
+            }));
+        });
+        return restored[0];
+    }
+
+    @Transactional(readOnly = true)
+    public Page<WalletResponseDTO> getAllWallets(Pageable pageable) {
+        return summaryRepository.findWalletViews(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WalletSummaryDTO> getSummaries() {
+        return summaryRepository.findAllByOrderByWalletId().stream().map(this::toDto).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<WalletSummaryDTO> getAboveAverageBalance() {
+        return summaryRepository.findAboveAverageBalance().stream().map(this::toDto).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<WalletSummaryDTO> getWithMoreThanTransactions(long count) {
+        return summaryRepository.findByTransactionCountGreaterThanOrderByWalletId(count).stream().map(this::toDto).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> getUserIdsWithBalanceAbove(double minBalance) {
+        return summaryRepository.findUserIdsWithBalanceAbove(Money.toMinor(minBalance));
+    }
+
+    private static void apply(WalletSummaryEntity summary, LedgerActivityDTO activity) {
+        summary.apply(activity.lines(), activity.debitsMinor(), activity.creditsMinor(), activity.lastActivity());
+    }
+
+    private WalletSummaryDTO toDto(WalletSummaryEntity s) {
+        return new WalletSummaryDTO(s.getWalletId(), s.getUserId(), s.getBalance(), s.getTransactionCount(),
+                Money.toMajor(s.getTotalDebitsMinor()), Money.toMajor(s.getTotalCreditsMinor()),
+                s.getLastActivityAt(), s.getProjectedAt());
+    }
+}
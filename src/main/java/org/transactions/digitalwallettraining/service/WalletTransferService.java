@@ -0,0 +1,37 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.springframework.stereotype.Service;
+import org.transactions.digitalwallettraining.dto.WalletTransactionResponseDTO;
+
+/**
+ * Entry point for transfers. Lock timeouts, deadlock victims and version conflicts are retried by
+ * the {@link RetryOnConflict} advice on {@link WalletService#transferMoney}, one fresh transaction
+ * per attempt, so no connection or lock is held while backing off. With the write-ahead log on,
+ * transfers that do not go through it (queued ones) run in its {@link WalletWriteAheadLog#exclusive} slot.
+ */
+@Service
+public class WalletTransferService {
+
+    private final WalletService walletService;
+    private final ConflictRetryCoordinator retryCoordinator;
+    private final WalletWriteAheadLog writeAheadLog;
+
+    public WalletTransferService(WalletService walletService, ConflictRetryCoordinator retryCoordinator,
+                                 WalletWriteAheadLog writeAheadLog) {
+        this.walletService = walletService;
+        this.retryCoordinator = retryCoordinator;
+        this.writeAheadLog = writeAheadLog;
+    }
+
+    public WalletTransactionResponseDTO transfer(Long fromWalletId, Long toWalletId, Double amount) {
+        return transfer(fromWalletId, toWalletId, amount, null);
+    }
+
+    public WalletTransactionResponseDTO transfer(Long fromWalletId, Long toWalletId, Double amount, String transferId) {
+        return writeAheadLog.exclusive(() -> walletService.transferMoney(fromWalletId, toWalletId, amount, transferId));
+    }
+
+    public long getLockConflictCount() {
+        return retryCoordinator.getConflictCount("transferMoney");
+    }
+}
@@ -0,0 +1,187 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.transactions.digitalwallettraining.entity.JournalEntryEntity;
+import org.transactions.digitalwallettraining.entity.JournalEntryKind;
+import org.transactions.digitalwallettraining.entity.TransactionEntity;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.ArchivedTransactionIdRepository;
+import org.transactions.digitalwallettraining.repository.JournalEntryRepository;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.utils.WriteAheadLogFile;
+import org.transactions.digitalwallettraining.utils.WriteAheadLogFile.LogRecord;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 📝 Applies acknowledged write-ahead-log records to the database, a whole group per transaction.
+ *
+ * Every record in a group was already checked by {@link WalletWriteAheadLog} before it was logged,
+ * so nothing is re-validated here: the group becomes one balance UPDATE per wallet (ascending ids,
+ * so two groups never deadlock) plus one JDBC batch of transaction rows and journal entries. A hot
+ * wallet's net debit goes through {@link HotWalletService}, since its money may sit in slot rows.
+ */
+@Service
+public class WalletWalApplier {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletWalApplier.class);
+
+    // Keeps IN lists well under every database's parameter limit
+    private static final int ID_CHUNK = 1000;
+
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final JournalEntryRepository journalEntryRepository;
+    private final ArchivedTransactionIdRepository archivedIdRepository;
+    private final WalletFreezeService walletFreezeService;
+    private final WalletBalanceCache balanceCache;
+    private final HotWalletService hotWalletService;
+
+    public WalletWalApplier(WalletRepository walletRepository,
+                            TransactionRepository transactionRepository,
+                            JournalEntryRepository journalEntryRepository,
+                            ArchivedTransactionIdRepository archivedIdRepository,
+                            WalletFreezeService walletFreezeService,
+                            WalletBalanceCache balanceCache,
+                            HotWalletService hotWalletService) {
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.journalEntryRepository = journalEntryRepository;
+        this.archivedIdRepository = archivedIdRepository;
+        this.walletFreezeService = walletFreezeService;
+        this.balanceCache = balanceCache;
+        this.hotWalletService = hotWalletService;
+    }
+
+    // ✅ One transaction for the group; wallets in freeze reached their daily limit and are frozen once it commits
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void apply(List<LogRecord> records, Collection<Long> freeze) {
+        Map<Long, Long> deltas = new TreeMap<>();
+        List<TransactionEntity> rows = new ArrayList<>();
+        List<JournalEntryEntity> entries = new ArrayList<>();
+
+        for (LogRecord record : records) {
+            deltas.merge(record.walletId(), record.deltaFor(record.walletId()), Long::sum);
+            switch (record.kind()) {
+                case TRANSACTION -> rows.add(row(record.walletId(), record.type(), record, record.id(), record.description()));
+                case TRANSFER_PAIRED -> {
+                    deltas.merge(record.counterpartyId(), record.deltaFor(record.counterpartyId()), Long::sum);
+                    rows.add(row(record.walletId(), TransactionType.DEBIT, record, record.id() + "-D",
+                            "Transfer to wallet " + record.counterpartyId()));
+                    rows.add(row(record.counterpartyId(), TransactionType.CREDIT, record, record.id() + "-C",
+                            "Transfer from wallet " + record.walletId()));
+                }
+                case TRANSFER_JOURNAL -> {
+                    deltas.merge(record.counterpartyId(), record.deltaFor(record.counterpartyId()), Long::sum);
+                    JournalEntryEntity entry = new JournalEntryEntity(record.id(), JournalEntryKind.TRANSFER, record.description());
+                    entry.setCreatedAt(record.timestamp());
+                    entry.addPosting(record.walletId(), -record.amountMinor());
+                    entry.addPosting(record.counterpartyId(), record.amountMinor());
+                    entries.add(entry);
+                }
+            }
+        }
+
+        List<Long> debited = deltas.entrySet().stream().filter(d -> d.getValue() < 0).map(Map.Entry::getKey).toList();
+        Set<Long> hot = debited.isEmpty() ? Set.of() : new HashSet<>(walletRepository.findHotIds(debited));
+        for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+            if (hot.contains(delta.getKey())) {
+                // 🔥 Base share, a covering slot, or every slot consolidated, like a direct debit
+                WalletEntity wallet = walletRepository.findByIdForUpdate(delta.getKey())
+                        .orElseThrow(() -> new IllegalArgumentException("Wallet " + delta.getKey() + " not found"));
+                hotWalletService.debit(wallet, -delta.getValue());
+            } else if (walletRepository.addToBalance(delta.getKey(), delta.getValue()) == 0) {
+                throw new IllegalArgumentException("Wallet " + delta.getKey() + " not found");
+            }
+        }
+        transactionRepository.saveAll(rows);
+        journalEntryRepository.saveAll(entries);
+
+        balanceCache.invalidateAfterCommit(deltas.keySet());
+        if (!freeze.isEmpty()) freezeAfterCommit(List.copyOf(freeze));
+        log.debug("📝 Applied {} WAL records across {} wallets", records.size(), deltas.size());
+    }
+
+    /**
+     * ✅ Recovery: applies the records whose rows are not in the database yet. A record's balance
+     * change and its rows commit together, so "row exists" means "record applied", and replaying a
+     * record twice is harmless.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int replay(List<LogRecord> records) {
+        return replay(records, List.of());
+    }
+
+    // ✅ Same, freezing the given wallets once the missing records commit
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int replay(List<LogRecord> records, Collection<Long> freeze) {
+        Set<String> transactionIds = new HashSet<>();
+        Set<String> entryIds = new HashSet<>();
+        for (LogRecord record : records) {
+            switch (record.kind()) {
+                case TRANSACTION -> transactionIds.add(record.id());
+                case TRANSFER_PAIRED -> transactionIds.add(record.id() + "-D");
+                case TRANSFER_JOURNAL -> entryIds.add(record.id());
+            }
+        }
+        Set<String> applied = new HashSet<>();
+        for (List<String> chunk : chunks(transactionIds)) {
+            applied.addAll(transactionRepository.findExistingTransactionIds(chunk));
+            applied.addAll(archivedIdRepository.findExistingIds(chunk));   // applied long ago and archived since
+        }
+        for (List<String> chunk : chunks(entryIds)) applied.addAll(journalEntryRepository.findExistingEntryIds(chunk));
+
+        List<LogRecord> missing = records.stream()
+                .filter(r -> !applied.contains(r.kind() == WriteAheadLogFile.Kind.TRANSFER_PAIRED ? r.id() + "-D" : r.id()))
+                .toList();
+        if (!missing.isEmpty()) apply(missing, freeze);   // same transaction (self-call, no proxy)
+        return missing.size();
+    }
+
+    private TransactionEntity row(long walletId, TransactionType type, LogRecord record, String transactionId, String description) {
+        WalletEntity wallet = walletRepository.getReferenceById(walletId);
+        TransactionEntity txn = new TransactionEntity(wallet, type, record.amountMinor(), description);
+        txn.setTransactionId(transactionId);
+        txn.setTransactionDate(record.timestamp());
+        return txn;
+    }
+
+    private void freezeAfterCommit(List<Long> walletIds) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (Long walletId : walletIds) {
+                    log.info("🧭 WAL group committed. Freezing wallet {} post-commit.", walletId);
+                    try {
+                        walletFreezeService.freezeWallet(walletRepository.getReferenceById(walletId));
+                    } catch (RuntimeException ex) {
+                        log.error("❌ Could not freeze wallet {}: {}", walletId, ex.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    private static List<List<String>> chunks(Collection<String> ids) {
+        List<String> all = new ArrayList<>(ids);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += ID_CHUNK) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + ID_CHUNK)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,446 @@
+package org.transactions.digitalwallettraining.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.transactions.digitalwallettraining.config.WalletTransferProperties;
+import org.transactions.digitalwallettraining.config.WalletWalProperties;
+import org.transactions.digitalwallettraining.dto.WalStatsDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionResponseDTO;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.exception.WriteAheadLogUnavailableException;
+import org.transactions.digitalwallettraining.utils.Money;
+import org.transactions.digitalwallettraining.utils.WriteAheadLogFile;
+import org.transactions.digitalwallettraining.utils.WriteAheadLogFile.Kind;
+import org.transactions.digitalwallettraining.utils.WriteAheadLogFile.LogRecord;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 📝 Optional write-ahead log in front of CREDIT / DEBIT and transfers (wallet.wal.enabled).
+ *
+ * Callers hand their operation to one writer thread and wait. The writer takes everything queued
+ * (up to maxBatch), checks each operation the way the direct path would, against the committed
+ * balance plus whatever it has logged but not applied yet, appends the accepted ones to the
+ * memory-mapped {@link WriteAheadLogFile} and makes the whole group durable with a single force().
+ * Only then are the callers acknowledged. The group is applied to the database right after, in one
+ * transaction, and the checkpoint moves past it.
+ *
+ * If the database is unavailable, acknowledged records stay in the log (and in memory) and are
+ * retried; on startup, records past the checkpoint are replayed before anything new is accepted.
+ * Writes that do not fit a log record (batches, imports, queued transfers, reversals) go through
+ * {@link #exclusive}: they run on the writer thread between groups, once everything logged is in
+ * the database, so admission never decides against a balance another path is about to change.
+ */
+@Component
+public class WalletWriteAheadLog {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletWriteAheadLog.class);
+
+    private static final long RETRY_MS = 100;
+    private static final int REPLAY_CHUNK = 1000;
+
+    private sealed interface Operation permits TransactionOp, TransferOp, DirectOp {}
+    private record TransactionOp(Long walletId, WalletTransactionRequestDTO request) implements Operation {}
+    private record TransferOp(Long fromWalletId, Long toWalletId, Double amount) implements Operation {}
+    private record DirectOp(Supplier<?> work) implements Operation {}
+
+    private record Pending(Operation operation, CompletableFuture<Object> ack) {}
+    private record Logged(Pending pending, LogRecord record, WalletTransactionResponseDTO response) {}
+
+    private final WalletWalProperties properties;
+    private final WalletTransferProperties transferProperties;
+    private final WalletService walletService;
+    private final WalletWalApplier applier;
+    private final TransactionIdempotencyService idempotencyService;
+
+    private BlockingQueue<Pending> queue;
+    private WriteAheadLogFile file;
+    private Thread writer;
+    private volatile boolean running;
+
+    // Writer-thread state: logged and acknowledged, not yet in the database
+    private final List<LogRecord> unapplied = new ArrayList<>();
+    private final Map<Long, Long> unappliedDelta = new HashMap<>();
+    private final Set<Long> freezePending = new HashSet<>();
+
+    private final AtomicLong recordsLogged = new AtomicLong();
+    private final AtomicLong groupsForced = new AtomicLong();
+    private final AtomicLong recordsApplied = new AtomicLong();
+    private volatile int unappliedCount;
+
+    public WalletWriteAheadLog(WalletWalProperties properties,
+                               WalletTransferProperties transferProperties,
+                               WalletService walletService,
+                               WalletWalApplier applier,
+                               TransactionIdempotencyService idempotencyService) {
+        this.properties = properties;
+        this.transferProperties = transferProperties;
+        this.walletService = walletService;
+        this.applier = applier;
+        this.idempotencyService = idempotencyService;
+    }
+
+    // ✅ Open the log and replay what the last run acknowledged but never applied, before taking new work
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) return;
+        try {
+            file = WriteAheadLogFile.open(Path.of(properties.getPath()), properties.getFileSizeBytes());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        List<LogRecord> pending = file.recover();
+        int replayed = 0;
+        for (int from = 0; from < pending.size(); from += REPLAY_CHUNK) {
+            List<LogRecord> chunk = pending.subList(from, Math.min(pending.size(), from + REPLAY_CHUNK));
+            try {
+                replayed += applier.replay(chunk);
+            } catch (IllegalArgumentException | DataIntegrityViolationException ex) {
+                // One record that can never apply must not block startup: same policy as the writer
+                for (LogRecord record : chunk) replayed += replayOrDrop(record, List.of());
+            }
+            // Any other failure (database down) stops startup: new work on top of an unknown state is worse
+            file.checkpoint(chunk.get(chunk.size() - 1).seq());
+        }
+        file.rewind();
+        log.info("📝 WAL {} opened: {} records past the checkpoint, {} replayed", properties.getPath(), pending.size(), replayed);
+
+        queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        running = true;
+        writer = Thread.ofPlatform().name("wallet-wal-writer").daemon().start(this::runWriter);
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    public WalletTransactionResponseDTO processTransaction(Long walletId, WalletTransactionRequestDTO request) {
+        return submit(new TransactionOp(walletId, request));
+    }
+
+    // Transfers carry no client id, so a timed-out transfer is not safe to resend blindly (see unknownOutcome)
+    public WalletTransactionResponseDTO transfer(Long fromWalletId, Long toWalletId, Double amount) {
+        return submit(new TransferOp(fromWalletId, toWalletId, amount));
+    }
+
+    /**
+     * ✅ Runs a write that bypasses the log on the writer thread, after every acknowledged record is
+     * in the database; admission afterwards sees what it committed. With the log off it just runs.
+     * Waits as long as the work takes (no ack timeout): giving up early could not stop it anyway.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T exclusive(Supplier<T> work) {
+        if (!running) return work.get();
+        Pending pending = new Pending(new DirectOp(work), new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            log.warn("🚦 WAL queue is full. Rejecting direct write.");
+            throw new WriteAheadLogUnavailableException("Write-ahead log is busy. Please try again later.");
+        }
+        try {
+            return (T) pending.ack().get();
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new WriteAheadLogUnavailableException("Interrupted while waiting for the write-ahead log.", ex);
+        }
+    }
+
+    public WalStatsDTO getStats() {
+        WriteAheadLogFile current = file;
+        return new WalStatsDTO(running, recordsLogged.get(), groupsForced.get(), recordsApplied.get(), unappliedCount,
+                current == null ? 0 : current.lastSeq(), current == null ? 0 : current.appliedSeq());
+    }
+
+    // ✅ Returns once the operation is durable in the log (or throws the error the direct path would)
+    private WalletTransactionResponseDTO submit(Operation operation) {
+        if (!running) throw new WriteAheadLogUnavailableException("Write-ahead log is not running.");
+        Pending pending = new Pending(operation, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            log.warn("🚦 WAL queue is full. Rejecting operation.");
+            throw new WriteAheadLogUnavailableException("Please try again later. Write-ahead log is busy.");
+        }
+
+        try {
+            return (WalletTransactionResponseDTO) pending.ack().get(properties.getAckTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (TimeoutException ex) {
+            // It may still be logged and applied later: the outcome is unknown to this caller
+            throw new WriteAheadLogUnavailableException("Write-ahead log did not acknowledge in time. " + unknownOutcome(operation));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new WriteAheadLogUnavailableException("Interrupted while waiting for the write-ahead log. " + unknownOutcome(operation), ex);
+        }
+    }
+
+    /**
+     * What a caller may do when it cannot tell whether its operation was logged. Only a transaction
+     * with a client transactionId is deduplicated on retry; a transfer, or a transaction without an
+     * id, gets a fresh id at admission, so retrying it blindly could apply it twice.
+     */
+    private static String unknownOutcome(Operation operation) {
+        if (operation instanceof TransactionOp op && op.request().transactionId() != null) {
+            return "Retry with the same transactionId.";
+        }
+        return "It may still be applied: check the wallet's history before retrying.";
+    }
+
+    private static RuntimeException unwrap(ExecutionException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof RuntimeException re) return re;
+        if (cause instanceof Error err) throw err;
+        return new IllegalStateException(cause);
+    }
+
+    private void runWriter() {
+        List<Pending> group = new ArrayList<>(Math.max(1, properties.getMaxBatch()));
+        while (running) {
+            try {
+                Pending first = queue.poll(RETRY_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    group.add(first);
+                    queue.drainTo(group, Math.max(1, properties.getMaxBatch()) - 1);
+                    process(group);
+                }
+                if (!unapplied.isEmpty()) applyUnapplied();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("❌ WAL writer stopped: {}", ex.getMessage(), ex);
+                running = false;
+                // Queued operations were never admitted; the group's may have been logged before the failure
+                group.forEach(p -> p.ack().completeExceptionally(
+                        new WriteAheadLogUnavailableException("Write-ahead log failed. " + unknownOutcome(p.operation()))));
+                WriteAheadLogUnavailableException notLogged = new WriteAheadLogUnavailableException("Write-ahead log failed before this operation was logged.");
+                for (Pending pending; (pending = queue.poll()) != null; ) pending.ack().completeExceptionally(notLogged);
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    // ✅ Logged operations between two direct writes form one group; each direct write waits for the group before it
+    private void process(List<Pending> drained) {
+        List<Pending> group = new ArrayList<>(drained.size());
+        for (Pending pending : drained) {
+            if (pending.operation() instanceof DirectOp op) {
+                logGroup(group);
+                group.clear();
+                runDirect(pending, op);
+            } else {
+                group.add(pending);
+            }
+        }
+        logGroup(group);
+    }
+
+    private void runDirect(Pending pending, DirectOp op) {
+        if (!unapplied.isEmpty()) applyUnapplied();
+        if (!unapplied.isEmpty()) {
+            pending.ack().completeExceptionally(
+                    new WriteAheadLogUnavailableException("Write-ahead log has records not applied yet. Please try again later."));
+            return;
+        }
+        try {
+            pending.ack().complete(op.work().get());   // commits (and invalidates cached balances) before the next admission
+        } catch (RuntimeException ex) {
+            pending.ack().completeExceptionally(ex);
+        }
+    }
+
+    // ✅ Check, append, one force() for the whole group, then acknowledge
+    private void logGroup(List<Pending> group) {
+        Set<String> groupIds = new HashSet<>();
+        Set<Long> limitReached = new HashSet<>();
+        List<Logged> logged = new ArrayList<>(group.size());
+
+        for (Pending pending : group) {
+            Logged entry;
+            try {
+                entry = admit(pending, groupIds, limitReached);
+            } catch (RuntimeException ex) {
+                // Rejections and read failures stay with their caller; only a failing log stops the writer
+                log.error("🚫 WAL operation rejected: {}", ex.getMessage());
+                pending.ack().completeExceptionally(ex);
+                continue;
+            }
+            if (entry.record() == null) {
+                pending.ack().complete(entry.response());   // 🔁 replay of a processed transactionId
+                continue;
+            }
+            LogRecord record = file.append(entry.record());   // room was checked during admission
+            track(record, 1);
+            logged.add(new Logged(pending, record, entry.response()));
+        }
+        if (logged.isEmpty()) return;
+
+        file.force();
+        groupsForced.incrementAndGet();
+        recordsLogged.addAndGet(logged.size());
+
+        for (Logged entry : logged) {
+            unapplied.add(entry.record());
+            if (entry.record().kind() == Kind.TRANSACTION) idempotencyService.remember(entry.record().walletId(), entry.response());
+            entry.pending().ack().complete(entry.response());
+        }
+        unappliedCount = unapplied.size();
+    }
+
+    private Logged admit(Pending pending, Set<String> groupIds, Set<Long> limitReached) {
+        LocalDateTime now = LocalDateTime.now();
+        if (pending.operation() instanceof TransactionOp op) {
+            WalletTransactionRequestDTO request = op.request();
+            Optional<WalletTransactionResponseDTO> previous = idempotencyService.findPrevious(op.walletId(), request.transactionId());
+            if (previous.isPresent()) return new Logged(pending, null, previous.get());
+            if (request.transactionId() != null && !groupIds.add(request.transactionId()))
+                throw new IllegalArgumentException("Duplicate transactionId: " + request.transactionId());
+            if (request.description() == null || request.description().isBlank())
+                throw new IllegalArgumentException("Description is required.");
+
+            TransactionType type = TransactionType.valueOf(request.type().toUpperCase());
+            long amount = toMinor(request.amount(), "Amount must be positive.");
+            String id = request.transactionId() != null ? request.transactionId() : UUID.randomUUID().toString();
+            LogRecord draft = new LogRecord(0, Kind.TRANSACTION, op.walletId(), 0, type, amount, now, id, request.description());
+            requireRoom(draft);
+            rejectIfLimitReached(limitReached, op.walletId());
+            if (walletService.admitLogged(op.walletId(), type, amount, unappliedDelta(op.walletId()))) {
+                limitReached.add(op.walletId());
+                freezePending.add(op.walletId());
+            }
+            return new Logged(pending, draft, new WalletTransactionResponseDTO(id, Money.toMajor(amount), type.name(), now, request.description()));
+        }
+
+        TransferOp op = (TransferOp) pending.operation();
+        if (Objects.equals(op.fromWalletId(), op.toWalletId()))
+            throw new IllegalArgumentException("Cannot transfer to the same wallet.");
+        long amount = toMinor(op.amount(), "Transfer amount must be positive.");
+        String id = UUID.randomUUID().toString();
+        boolean journal = transferProperties.getJournal() == WalletTransferProperties.Journal.DOUBLE_ENTRY;
+        String description = journal
+                ? "Transfer from wallet " + op.fromWalletId() + " to wallet " + op.toWalletId()
+                : "Transfer to wallet " + op.toWalletId();
+        LogRecord draft = new LogRecord(0, journal ? Kind.TRANSFER_JOURNAL : Kind.TRANSFER_PAIRED,
+                op.fromWalletId(), op.toWalletId(), TransactionType.DEBIT, amount, now, id, description);
+        requireRoom(draft);
+        rejectIfLimitReached(limitReached, op.fromWalletId());
+        rejectIfLimitReached(limitReached, op.toWalletId());
+        walletService.admitLogged(op.toWalletId(), TransactionType.CREDIT, amount, unappliedDelta(op.toWalletId()));
+        if (walletService.admitLogged(op.fromWalletId(), TransactionType.DEBIT, amount, unappliedDelta(op.fromWalletId()))) {
+            limitReached.add(op.fromWalletId());
+            freezePending.add(op.fromWalletId());
+        }
+        return new Logged(pending, draft, new WalletTransactionResponseDTO(journal ? id : id + "-D",
+                Money.toMajor(amount), TransactionType.DEBIT.name(), now, description));
+    }
+
+    // ✅ Apply everything acknowledged so far as one group; on failure, one by one to find what is stuck
+    private void applyUnapplied() {
+        List<LogRecord> records = List.copyOf(unapplied);
+        try {
+            applier.apply(records, Set.copyOf(freezePending));
+            freezePending.clear();
+            applied(records);
+        } catch (RuntimeException ex) {
+            log.warn("📝 WAL group of {} records not applied yet: {}", records.size(), ex.getMessage());
+            for (LogRecord record : records) {
+                List<Long> freeze = freezePending.contains(record.walletId()) ? List.of(record.walletId()) : List.of();
+                try {
+                    replayOrDrop(record, freeze);   // the group may have committed before the failure was reported
+                } catch (RuntimeException transientFailure) {
+                    return;   // database still unavailable: keep the rest, retry on the next pass
+                }
+                freeze.forEach(freezePending::remove);
+                applied(List.of(record));
+            }
+        }
+    }
+
+    /**
+     * ✅ One policy for startup and runtime: a record already in the database counts as applied; one
+     * whose wallet is gone, or whose id now belongs to an unrelated row, can never apply and is dropped
+     * with an error. Anything else (database unavailable) is thrown to the caller.
+     */
+    private int replayOrDrop(LogRecord record, Collection<Long> freeze) {
+        try {
+            return applier.replay(List.of(record), freeze);
+        } catch (IllegalArgumentException | DataIntegrityViolationException permanent) {
+            log.error("❌ WAL record {} can never be applied and is dropped: {}", record.seq(), permanent.getMessage());
+            return 0;
+        }
+    }
+
+    private void applied(List<LogRecord> records) {
+        for (LogRecord record : records) track(record, -1);
+        unapplied.subList(0, records.size()).clear();
+        unappliedCount = unapplied.size();
+        recordsApplied.addAndGet(records.size());
+        file.checkpoint(records.get(records.size() - 1).seq());
+        if (unapplied.isEmpty() && file.position() > file.capacity() / 2) file.rewind();
+    }
+
+    // Keeps unappliedDelta in step with the records logged (+1) or applied (-1)
+    private void track(LogRecord record, int sign) {
+        adjust(record.walletId(), sign * record.deltaFor(record.walletId()));
+        if (record.kind() != Kind.TRANSACTION) adjust(record.counterpartyId(), sign * record.deltaFor(record.counterpartyId()));
+    }
+
+    private void adjust(long walletId, long delta) {
+        if (unappliedDelta.merge(walletId, delta, Long::sum) == 0L) unappliedDelta.remove(walletId);
+    }
+
+    private long unappliedDelta(Long walletId) {
+        return unappliedDelta.getOrDefault(walletId, 0L);
+    }
+
+    private void requireRoom(LogRecord draft) {
+        if (!file.fits(draft)) {
+            log.warn("🚦 WAL file is full ({} unapplied records).", unapplied.size());
+            throw new WriteAheadLogUnavailableException("Please try again later. Write-ahead log is full.");
+        }
+    }
+
+    private static void rejectIfLimitReached(Set<Long> limitReached, Long walletId) {
+        if (limitReached.contains(walletId))
+            throw new IllegalStateException("🚫 Wallet is frozen. Daily limit reached.");
+    }
+
+    private static long toMinor(Double amount, String message) {
+        if (amount == null || amount <= 0) throw new IllegalArgumentException(message);
+        return Money.toMinor(amount);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        if (file == null) return;
+        running = false;
+        if (writer != null) writer.join(RETRY_MS * 20);
+        if (queue != null) {
+            for (Pending pending; (pending = queue.poll()) != null; ) {
+                pending.ack().completeExceptionally(new WriteAheadLogUnavailableException("Write-ahead log is shutting down."));
+            }
+        }
+        if (writer != null && writer.isAlive()) {
+            // Still mid-group or mid-apply: its state is not ours to touch; the records are replayed on the next start
+            log.warn("📝 WAL writer still busy at shutdown; {} unapplied records left for replay", unappliedCount);
+            return;
+        }
+        if (!unapplied.isEmpty()) applyUnapplied();   // anything left is replayed on the next start
+        file.close();
+    }
+}
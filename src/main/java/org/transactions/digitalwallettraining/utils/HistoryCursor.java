@@ -0,0 +1,35 @@
+package org.transactions.digitalwallettraining.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a wallet's transaction history, newest first: the last row a client has seen.
+ *
+ * Clients get it as an opaque token (base64url of "date|id") and hand it back unchanged; the next
+ * page starts strictly after it in (transactionDate DESC, id DESC) order. The id breaks ties between
+ * rows sharing a timestamp, so a page boundary never skips or repeats a row.
+ */
+public record HistoryCursor(LocalDateTime transactionDate, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = transactionDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ✅ Token → cursor; anything a client did not get from us is a 400, never a 500
+    public static HistoryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split <= 0) throw new IllegalArgumentException("missing separator");
+            return new HistoryCursor(LocalDateTime.parse(raw.substring(0, split)), Long.parseLong(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("❌ Invalid history cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.transactions.digitalwallettraining.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money: amounts are held as {@code long} minor units (paise), 1 major unit = 100 minor.
+ *
+ * Entities and service arithmetic work in minor units only, so the debit/credit path adds and
+ * compares primitives — no boxing, no floating-point drift against limits. DTOs keep major-unit
+ * {@code Double} values; conversion happens once at the service boundary via these helpers.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final long MINOR_PER_MAJOR = 100L;
+
+    private Money() {}
+
+    // ✅ Major → minor; rejects values that don't fit in whole minor units (e.g. 10.005)
+    public static long toMinor(double major) {
+        double scaled = major * MINOR_PER_MAJOR;
+        long minor = Math.round(scaled);
+        if (Double.isNaN(major) || Double.isInfinite(major) || Math.abs(scaled - minor) > 1e-6 * Math.max(1.0, Math.abs(scaled))) {
+            throw new IllegalArgumentException("Amount must have at most " + SCALE + " decimal places: " + major);
+        }
+        return minor;
+    }
+
+    // ✅ Major → minor, rounding to the nearest minor unit (summaries / reports, never balances)
+    public static long roundToMinor(double major) {
+        return Math.round(major * MINOR_PER_MAJOR);
+    }
+
+    public static double toMajor(long minor) {
+        return minor / (double) MINOR_PER_MAJOR;
+    }
+
+    // ✅ Exact parse of a decimal string (CSV input) without going through double
+    public static long parseMinor(String major) {
+        try {
+            return new BigDecimal(major.trim()).setScale(SCALE, RoundingMode.UNNECESSARY).movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount must have at most " + SCALE + " decimal places: " + major, ex);
+        }
+    }
+
+    public static String format(long minor) {
+        return BigDecimal.valueOf(minor, SCALE).toPlainString();
+    }
+}
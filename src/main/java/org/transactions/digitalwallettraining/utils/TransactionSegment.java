@@ -0,0 +1,323 @@
+package org.transactions.digitalwallettraining.utils;
+
+import org.transactions.digitalwallettraining.dto.ArchivedTransactionDTO;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Columnar, compressed file holding one month's worth of archived transaction rows.
+ *
+ * Rows are sorted by (walletId, transactionDate, id). Each column is encoded on its own and then
+ * deflated, so similar values sit next to each other: wallet ids and dates become small deltas,
+ * the type becomes one byte, and text columns compress against their own kind. A reader looking
+ * for one wallet inflates the wallet column, finds the wallet's contiguous run and only builds
+ * rows for that run.
+ *
+ * Layout: magic, version, year, month, row count, min/max wallet id, then (raw, compressed)
+ * lengths of the seven columns, then the compressed columns in the same order.
+ */
+public final class TransactionSegment {
+
+    private static final int MAGIC = 0x5753_4547;   // "WSEG"
+    private static final short VERSION = 1;
+    private static final int COLUMNS = 7;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    public record Header(YearMonth month, int rowCount, long minWalletId, long maxWalletId) {}
+
+    private TransactionSegment() {
+    }
+
+    // ✅ Writes to a temp file, forces it to disk, then renames it into place: a reader sees the whole file or none
+    public static Header write(Path file, YearMonth month, List<ArchivedTransactionDTO> rows) throws IOException {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("❌ A segment needs at least one row");
+        }
+        Column walletIds = new Column();
+        Column ids = new Column();
+        Column dates = new Column();
+        Column types = new Column();
+        Column amounts = new Column();
+        Column transactionIds = new Column();
+        Column descriptions = new Column();
+
+        long prevWallet = 0, prevId = 0, prevMicros = 0;
+        ArchivedTransactionDTO previous = null;
+        for (ArchivedTransactionDTO row : rows) {
+            if (previous != null && compare(previous, row) > 0) {
+                throw new IllegalArgumentException("❌ Segment rows must be sorted by wallet, date and id");
+            }
+            if (row.transactionDate() == null || !YearMonth.from(row.transactionDate()).equals(month)) {
+                throw new IllegalArgumentException("❌ Row " + row.id() + " does not belong to " + month);
+            }
+            long micros = toMicros(row.transactionDate());
+            walletIds.writeVarLong(row.walletId() - prevWallet);   // sorted: never negative
+            ids.writeZigZag(row.id() - prevId);
+            dates.writeZigZag(micros - prevMicros);
+            types.write(row.type().ordinal());
+            amounts.writeZigZag(row.amountMinor());
+            transactionIds.writeString(row.transactionId());
+            descriptions.writeString(row.description());
+            prevWallet = row.walletId();
+            prevId = row.id();
+            prevMicros = micros;
+            previous = row;
+        }
+
+        Header header = new Header(month, rows.size(), rows.get(0).walletId(), rows.get(rows.size() - 1).walletId());
+        Column[] columns = {walletIds, ids, dates, types, amounts, transactionIds, descriptions};
+        byte[][] compressed = new byte[COLUMNS][];
+        for (int i = 0; i < COLUMNS; i++) {
+            compressed[i] = deflate(columns[i].toByteArray());
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(month.getYear());
+            out.writeByte(month.getMonthValue());
+            out.writeInt(header.rowCount());
+            out.writeLong(header.minWalletId());
+            out.writeLong(header.maxWalletId());
+            for (int i = 0; i < COLUMNS; i++) {
+                out.writeInt(columns[i].size());
+                out.writeInt(compressed[i].length);
+            }
+            for (byte[] column : compressed) {
+                out.write(column);
+            }
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return header;
+    }
+
+    public static Header readHeader(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return readHeader(in, file);
+        }
+    }
+
+    // ✅ All rows of every wallet, in file order
+    public static List<ArchivedTransactionDTO> readAll(Path file) throws IOException {
+        return read(file, null);
+    }
+
+    // ✅ One wallet's rows, oldest first; empty when the wallet has nothing in this segment
+    public static List<ArchivedTransactionDTO> readWallet(Path file, long walletId) throws IOException {
+        return read(file, walletId);
+    }
+
+    private static List<ArchivedTransactionDTO> read(Path file, Long walletId) throws IOException {
+        byte[][] columns = new byte[COLUMNS][];
+        Header header;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            header = readHeader(in, file);
+            if (walletId != null && (walletId < header.minWalletId() || walletId > header.maxWalletId())) {
+                return List.of();
+            }
+            int[] raw = new int[COLUMNS];
+            int[] packed = new int[COLUMNS];
+            for (int i = 0; i < COLUMNS; i++) {
+                raw[i] = in.readInt();
+                packed[i] = in.readInt();
+            }
+            // The wallet column decides whether anything else is worth inflating
+            for (int i = 0; i < COLUMNS; i++) {
+                byte[] compressed = in.readNBytes(packed[i]);
+                if (compressed.length != packed[i]) throw corrupt(file, "truncated column " + i);
+                columns[i] = inflate(compressed, raw[i], file);
+                if (i == 0 && walletId != null && !contains(columns[0], header.rowCount(), walletId)) {
+                    return List.of();
+                }
+            }
+        }
+
+        Reader wallets = new Reader(columns[0]);
+        Reader ids = new Reader(columns[1]);
+        Reader dates = new Reader(columns[2]);
+        Reader types = new Reader(columns[3]);
+        Reader amounts = new Reader(columns[4]);
+        Reader transactionIds = new Reader(columns[5]);
+        Reader descriptions = new Reader(columns[6]);
+
+        List<ArchivedTransactionDTO> rows = new ArrayList<>();
+        long wallet = 0, id = 0, micros = 0;
+        for (int i = 0; i < header.rowCount(); i++) {
+            wallet += wallets.readVarLong();
+            if (walletId != null && wallet > walletId) break;   // past the wallet's run
+            id += ids.readZigZag();
+            micros += dates.readZigZag();
+            int type = types.read();
+            long amount = amounts.readZigZag();
+            String transactionId = transactionIds.readString();
+            String description = descriptions.readString();
+            if (walletId == null || wallet == walletId) {
+                if (type >= TYPES.length) throw corrupt(file, "unknown type " + type);
+                rows.add(new ArchivedTransactionDTO(id, wallet, TYPES[type], amount, fromMicros(micros),
+                        transactionId, description));
+            }
+        }
+        return rows;
+    }
+
+    private static Header readHeader(DataInputStream in, Path file) throws IOException {
+        if (in.readInt() != MAGIC) throw corrupt(file, "not a transaction segment");
+        short version = in.readShort();
+        if (version != VERSION) throw corrupt(file, "unsupported version " + version);
+        YearMonth month = YearMonth.of(in.readInt(), in.readUnsignedByte());
+        return new Header(month, in.readInt(), in.readLong(), in.readLong());
+    }
+
+    private static boolean contains(byte[] walletColumn, int rowCount, long walletId) {
+        Reader reader = new Reader(walletColumn);
+        long wallet = 0;
+        for (int i = 0; i < rowCount; i++) {
+            wallet += reader.readVarLong();
+            if (wallet >= walletId) return wallet == walletId;
+        }
+        return false;
+    }
+
+    static int compare(ArchivedTransactionDTO a, ArchivedTransactionDTO b) {
+        int byWallet = Long.compare(a.walletId(), b.walletId());
+        if (byWallet != 0) return byWallet;
+        int byDate = a.transactionDate().compareTo(b.transactionDate());
+        return byDate != 0 ? byDate : Long.compare(a.id(), b.id());
+    }
+
+    private static long toMicros(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + date.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength, Path file) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                read += n;
+            }
+            if (read != rawLength) throw corrupt(file, "column shorter than declared");
+            return raw;
+        } catch (DataFormatException ex) {
+            throw corrupt(file, ex.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static IOException corrupt(Path file, String reason) {
+        return new IOException("❌ Corrupt archive segment " + file.getFileName() + ": " + reason);
+    }
+
+    // Growable byte column with LEB128 varints
+    private static final class Column extends ByteArrayOutputStream {
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length);
+            write(utf8, 0, utf8.length);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int read() {
+            return data[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            while (true) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+                shift += 7;
+            }
+        }
+
+        long readZigZag() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
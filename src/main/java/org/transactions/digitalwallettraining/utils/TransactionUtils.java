@@ -1,5 +1,6 @@
 package org.transactions.digitalwallettraining.utils;
 
+import org.transactions.digitalwallettraining.dto.WalletBulkTransactionDTO;
 import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
 
 import java.util.List;
@@ -10,10 +11,16 @@ public class TransactionUtils {
 
     // Calculate total amount for a given type (CREDIT or DEBIT)
     public static double totalAmountByType(List<WalletTransactionRequestDTO> transactions, String type) {
-        return transactions.stream()
-                .filter(t -> t.type().equalsIgnoreCase(type))
-                .mapToDouble(WalletTransactionRequestDTO::amount)
-                .sum();
+        return Money.toMajor(totalMinorByType(transactions, type));
+    }
+
+    // Same total in minor units — summed as longs, so no drift however many items
+    public static long totalMinorByType(List<WalletTransactionRequestDTO> transactions, String type) {
+        long total = 0;
+        for (WalletTransactionRequestDTO t : transactions) {
+            if (t.type().equalsIgnoreCase(type)) total += Money.roundToMinor(t.amount());
+        }
+        return total;
     }
 
     // Group transactions by type
@@ -21,4 +28,17 @@ public class TransactionUtils {
         return transactions.stream()
                 .collect(Collectors.groupingBy(t -> t.type().toUpperCase()));
     }
+
+    // Parse one "walletId,transactionId,type,amount,description" line; malformed lines yield a row without wallet id
+    public static WalletBulkTransactionDTO fromCsvLine(String line) {
+        String[] cols = line.split(",", 5);
+        if (cols.length < 5) return new WalletBulkTransactionDTO(null, null);
+        try {
+            String transactionId = cols[1].isBlank() ? null : cols[1].trim();
+            return new WalletBulkTransactionDTO(Long.valueOf(cols[0].trim()), new WalletTransactionRequestDTO(
+                    transactionId, Money.toMajor(Money.parseMinor(cols[3])), cols[2].trim(), cols[4].trim()));
+        } catch (IllegalArgumentException ex) {   // also NumberFormatException and amounts finer than 0.01
+            return new WalletBulkTransactionDTO(null, null);
+        }
+    }
 }
@@ -0,0 +1,256 @@
+package org.transactions.digitalwallettraining.utils;
+
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.exception.WriteAheadLogUnavailableException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped log of wallet operations.
+ *
+ * A 4 KiB header holds the magic, the version and the sequence number of the last record applied
+ * to the database (the checkpoint). Records follow back to back as [body length][CRC32C][body] and
+ * carry consecutive sequence numbers. Appends are plain stores into the mapping; nothing is durable
+ * until {@link #force()}, which msyncs every record appended since the previous call in one go.
+ *
+ * Recovery walks the records from the start and stops at the first zero length, bad checksum or
+ * break in the sequence. That one rule covers a torn last write and the stale tail left behind
+ * when the log is rewound: records written after a rewind always continue the sequence, and what
+ * lies beyond them belongs to an older pass, so it has lower numbers.
+ */
+public final class WriteAheadLogFile implements Closeable {
+
+    private static final int MAGIC = 0x5757_414C;   // "WWAL"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 4096;
+    private static final int APPLIED_SEQ_OFFSET = 8;
+    private static final int RECORD_OVERHEAD = 8;   // length + checksum
+    private static final int FIXED_BODY = 8 + 1 + 8 + 8 + 1 + 8 + 8 + 4 + 4;
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final Kind[] KINDS = Kind.values();
+
+    public enum Kind {
+        TRANSACTION,        // one CREDIT / DEBIT row
+        TRANSFER_PAIRED,    // transfer as a "-D" / "-C" pair of transaction rows
+        TRANSFER_JOURNAL    // transfer as one journal entry with two postings
+    }
+
+    /**
+     * One logged operation. For transfers walletId is the source, counterpartyId the destination and
+     * type is DEBIT; amounts are positive minor units.
+     */
+    public record LogRecord(long seq, Kind kind, long walletId, long counterpartyId, TransactionType type,
+                         long amountMinor, LocalDateTime timestamp, String id, String description) {
+
+        public LogRecord withSeq(long seq) {
+            return new LogRecord(seq, kind, walletId, counterpartyId, type, amountMinor, timestamp, id, description);
+        }
+
+        // Net effect on one wallet's balance
+        public long deltaFor(long wallet) {
+            if (kind == Kind.TRANSACTION) return type == TransactionType.CREDIT ? amountMinor : -amountMinor;
+            if (wallet == walletId) return -amountMinor;
+            return wallet == counterpartyId ? amountMinor : 0;
+        }
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final int capacity;
+
+    private int position = HEADER_SIZE;
+    private int dirtyFrom = HEADER_SIZE;
+    private volatile long lastSeq;
+    private volatile long appliedSeq;
+
+    private WriteAheadLogFile(FileChannel channel, MappedByteBuffer mapped, int capacity) {
+        this.channel = channel;
+        this.mapped = mapped;
+        this.capacity = capacity;
+    }
+
+    // ✅ Maps the file (created and zero-filled at the given size if missing) and validates its header
+    public static WriteAheadLogFile open(Path file, int sizeBytes) throws IOException {
+        if (sizeBytes < HEADER_SIZE * 2) throw new IllegalArgumentException("❌ WAL file must be at least 8 KiB");
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            int capacity = (int) Math.max(channel.size(), sizeBytes);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            WriteAheadLogFile log = new WriteAheadLogFile(channel, mapped, capacity);
+            int magic = mapped.getInt(0);
+            if (magic == 0) {
+                mapped.putInt(0, MAGIC);
+                mapped.putShort(4, VERSION);
+                mapped.putLong(APPLIED_SEQ_OFFSET, 0L);
+                mapped.force(0, HEADER_SIZE);
+            } else if (magic != MAGIC || mapped.getShort(4) != VERSION) {
+                throw new IOException("❌ " + file + " is not a wallet WAL (or an unsupported version)");
+            }
+            log.appliedSeq = mapped.getLong(APPLIED_SEQ_OFFSET);
+            log.lastSeq = log.appliedSeq;
+            return log;
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * ✅ Scans the log and returns the records past the checkpoint, oldest first. The write position
+     * is left after the last intact record, so new appends continue the sequence.
+     */
+    public List<LogRecord> recover() {
+        List<LogRecord> unapplied = new ArrayList<>();
+        int at = HEADER_SIZE;
+        long expected = -1;
+        while (at + RECORD_OVERHEAD <= capacity) {
+            int length = mapped.getInt(at);
+            if (length < FIXED_BODY || at + RECORD_OVERHEAD + length > capacity) break;
+            byte[] body = new byte[length];
+            mapped.get(at + RECORD_OVERHEAD, body);
+            CRC32C crc = new CRC32C();
+            crc.update(body);
+            if ((int) crc.getValue() != mapped.getInt(at + 4)) break;
+
+            LogRecord record = decode(ByteBuffer.wrap(body));
+            if (record == null || (expected >= 0 && record.seq() != expected)) break;
+            if (record.seq() > appliedSeq) unapplied.add(record);
+            expected = record.seq() + 1;
+            lastSeq = Math.max(lastSeq, record.seq());
+            at += RECORD_OVERHEAD + length;
+        }
+        position = at;
+        dirtyFrom = at;
+        return unapplied;
+    }
+
+    public boolean fits(LogRecord record) {
+        return position + RECORD_OVERHEAD + bodySize(record) <= capacity;
+    }
+
+    // ✅ Stores the record with the next sequence number; durable only after the next force()
+    public LogRecord append(LogRecord draft) {
+        if (!fits(draft)) throw new WriteAheadLogUnavailableException("Write-ahead log is full. Please try again later.");
+        LogRecord record = draft.withSeq(lastSeq + 1);
+
+        ByteBuffer body = ByteBuffer.allocate(bodySize(record));
+        encode(record, body);
+        CRC32C crc = new CRC32C();
+        crc.update(body.array());
+
+        mapped.putInt(position + 4, (int) crc.getValue());
+        mapped.put(position + RECORD_OVERHEAD, body.array());
+        mapped.putInt(position, body.capacity());   // length last: a zero length still ends the scan
+        position += RECORD_OVERHEAD + body.capacity();
+        lastSeq = record.seq();
+        return record;
+    }
+
+    // ✅ One msync for everything appended since the previous force
+    public void force() {
+        if (position > dirtyFrom) {
+            mapped.force(dirtyFrom, position - dirtyFrom);
+            dirtyFrom = position;
+        }
+    }
+
+    /**
+     * Records up to seq are in the database. Not forced on its own: replay is idempotent, so a lost
+     * checkpoint only means re-checking a few records after a crash. {@link #rewind()} forces it.
+     */
+    public void checkpoint(long seq) {
+        appliedSeq = seq;
+        mapped.putLong(APPLIED_SEQ_OFFSET, seq);
+    }
+
+    // ✅ Start writing at the top again; only once every record has been applied
+    public void rewind() {
+        if (appliedSeq != lastSeq) throw new IllegalStateException("WAL still holds unapplied records");
+        force();
+        mapped.force(0, HEADER_SIZE);
+        position = HEADER_SIZE;
+        dirtyFrom = HEADER_SIZE;
+    }
+
+    public int position() { return position; }
+    public int capacity() { return capacity; }
+    public long lastSeq() { return lastSeq; }
+    public long appliedSeq() { return appliedSeq; }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        mapped.force(0, HEADER_SIZE);
+        channel.close();
+    }
+
+    private static int bodySize(LogRecord record) {
+        return FIXED_BODY + utf8Length(record.id()) + utf8Length(record.description());
+    }
+
+    private static void encode(LogRecord record, ByteBuffer out) {
+        out.putLong(record.seq());
+        out.put((byte) record.kind().ordinal());
+        out.putLong(record.walletId());
+        out.putLong(record.counterpartyId());
+        out.put((byte) record.type().ordinal());
+        out.putLong(record.amountMinor());
+        LocalDateTime at = record.timestamp();
+        out.putLong(at.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + at.getNano() / 1_000);
+        putString(out, record.id());
+        putString(out, record.description());
+    }
+
+    private static LogRecord decode(ByteBuffer in) {
+        long seq = in.getLong();
+        int kind = in.get();
+        long walletId = in.getLong();
+        long counterpartyId = in.getLong();
+        int type = in.get();
+        long amount = in.getLong();
+        long micros = in.getLong();
+        if (kind < 0 || kind >= KINDS.length || type < 0 || type >= TYPES.length) return null;
+        String id = getString(in);
+        String description = id == null ? null : getString(in);
+        if (description == null) return null;
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+        return new LogRecord(seq, KINDS[kind], walletId, counterpartyId, TYPES[type], amount, timestamp, id, description);
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(utf8.length);
+        out.put(utf8);
+    }
+
+    // null when the declared length runs past the body (never happens for a record with a valid checksum)
+    private static String getString(ByteBuffer in) {
+        if (in.remaining() < 4) return null;
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) return null;
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,12 @@
+-- One-off MySQL migration: DOUBLE money columns → BIGINT minor units (1 major = 100 minor).
+-- ddl-auto=update only adds the new columns; run this once per existing database, before starting the new build.
+-- Only wallets and transactions predate minor units; every later table is created by ddl-auto with BIGINT columns.
+-- The daily spend now lives in SpendWindowTracker, so wallets.daily_spent is dropped rather than converted.
+
+ALTER TABLE wallets ADD COLUMN balance_minor BIGINT NOT NULL DEFAULT 0;
+UPDATE wallets SET balance_minor = ROUND(balance * 100);
+ALTER TABLE wallets DROP COLUMN balance, DROP COLUMN daily_spent;
+
+ALTER TABLE transactions ADD COLUMN amount_minor BIGINT NOT NULL DEFAULT 0;
+UPDATE transactions SET amount_minor = ROUND(amount * 100);
+ALTER TABLE transactions DROP COLUMN amount;
@@ -0,0 +1,124 @@
+package org.transactions.digitalwallettraining.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.dto.TransactionHistorySliceDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionResponseDTO;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.service.TransactionService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Page-1000 latency of /transactions/history: OFFSET paging (+ COUNT) vs keyset cursor paging.
+ * Rows are bulk-loaded with H2's SYSTEM_RANGE, spread evenly over a few wallets; the cursor for
+ * page 1000 is obtained by walking the earlier pages once, outside the timed section.
+ *
+ * Run with: ./gradlew benchmark  (-Dbenchmark.history.rows=1000000 for a quicker run; 10M needs ~4 GB heap)
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "wallet.summary.project-interval-ms=3600000"})
+class HistoryPagingBenchmark {
+
+    private static final long ROWS = Long.getLong("benchmark.history.rows", 10_000_000L);
+    private static final int WALLETS = 10;
+    private static final int PAGE = 1000;
+    private static final int SIZE = 10;
+    private static final int ROUNDS = 20;
+    private static final long CHUNK = 1_000_000L;
+    private static final long FIRST_ID = 1_000_000_000L;   // clear of the transaction_seq range
+
+    @Autowired private TransactionService transactionService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareOffsetAndCursorAtPage1000() {
+        UserEntity user = userRepository.save(new UserEntity("Bench", "history_" + System.nanoTime() + "@example.com", 30));
+        long[] walletIds = new long[WALLETS];
+        for (int i = 0; i < WALLETS; i++) {
+            walletIds[i] = walletRepository.save(new WalletEntity(user, 0.0)).getId();
+        }
+        load(walletIds);
+        Long walletId = walletIds[0];
+
+        System.out.println("\n--- History paging benchmark (" + ROWS + " rows, " + ROWS / WALLETS + " per wallet, page " + PAGE + " x " + SIZE + ") ---");
+        System.out.printf("%-22s %12s %12s%n", "mode", "median ms", "p95 ms");
+
+        for (TransactionType type : Arrays.asList(null, TransactionType.CREDIT)) {
+            String label = type == null ? "" : " type=" + type;
+            String cursor = cursorBefore(walletId, type);
+
+            List<WalletTransactionResponseDTO> offsetRows = report("offset" + label, () -> {
+                Page<WalletTransactionResponseDTO> page = transactionService.getFilteredTransactions(
+                        walletId, type, null, null, PageRequest.of(PAGE - 1, SIZE));
+                return page.getContent();
+            });
+            List<WalletTransactionResponseDTO> cursorRows = report("cursor" + label, () -> transactionService
+                    .getTransactionHistoryAfter(walletId, type, null, null, cursor, SIZE, false).content());
+
+            assertEquals(SIZE, offsetRows.size());
+            assertEquals(SIZE, cursorRows.size());
+        }
+    }
+
+    // Rows alternate CREDIT/DEBIT and get distinct, increasing timestamps, so both modes see the same order
+    private void load(long[] walletIds) {
+        long perWallet = ROWS / walletIds.length;
+        for (int w = 0; w < walletIds.length; w++) {
+            long first = w * perWallet + 1;
+            long last = first + perWallet - 1;
+            for (long start = first; start <= last; start += CHUNK) {
+                jdbcTemplate.update("""
+                    INSERT INTO transactions (id, wallet_id, type, amount_minor, description, transaction_date,
+                                              transaction_id, pending_snapshot, projected)
+                    SELECT ? + x, ?, CASEWHEN(MOD(x, 2) = 0, 'CREDIT', 'DEBIT'), 100, 'Bench',
+                           DATEADD('SECOND', x, TIMESTAMP '2020-01-01 00:00:00'), CONCAT('hist-', x), FALSE, TRUE
+                    FROM SYSTEM_RANGE(?, ?)
+                """, FIRST_ID, walletIds[w], start, Math.min(last, start + CHUNK - 1));
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private String cursorBefore(Long walletId, TransactionType type) {
+        String cursor = null;
+        for (int page = 1; page < PAGE; page++) {
+            TransactionHistorySliceDTO slice = transactionService.getTransactionHistoryAfter(walletId, type, null, null, cursor, SIZE, false);
+            cursor = slice.nextCursor();
+            assertNotNull(cursor, "Not enough rows for page " + PAGE);
+        }
+        return cursor;
+    }
+
+    private static <T> T report(String mode, Supplier<T> call) {
+        T result = call.get();   // warm-up
+        List<Long> nanos = new ArrayList<>();
+        for (int i = 0; i < ROUNDS; i++) {
+            long began = System.nanoTime();
+            result = call.get();
+            nanos.add(System.nanoTime() - began);
+        }
+        nanos.sort(null);
+        System.out.printf("%-22s %12.2f %12.2f%n", mode,
+                nanos.get(ROUNDS / 2) / 1_000_000.0, nanos.get((int) (ROUNDS * 0.95) - 1) / 1_000_000.0);
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package org.transactions.digitalwallettraining.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.service.ConflictRetryCoordinator;
+import org.transactions.digitalwallettraining.service.HotWalletService;
+import org.transactions.digitalwallettraining.service.WalletService;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many concurrent credits into one merchant wallet: single-row balance vs N balance slots.
+ *
+ * Run with: ./gradlew benchmark
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class HotWalletBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int CREDITS_PER_THREAD = 50;
+    private static final double AMOUNT = 10.0;
+
+    @Autowired private WalletService walletService;
+    @Autowired private HotWalletService hotWalletService;
+    @Autowired private ConflictRetryCoordinator retryCoordinator;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+
+    @Test
+    void compareSingleRowAndSlottedBalances() throws Exception {
+        System.out.println("\n--- Hot wallet credit benchmark (" + THREADS + " threads x " + CREDITS_PER_THREAD + " credits) ---");
+        System.out.printf("%-10s %10s %10s %10s %10s%n", "slots", "ops/s", "completed", "retries", "failed");
+
+        run(0);
+        run(4);
+        run(16);
+    }
+
+    private void run(int slots) throws Exception {
+        UserEntity user = userRepository.save(new UserEntity("Bench", "hot_" + System.nanoTime() + "@example.com", 30));
+        Long walletId = walletRepository.save(new WalletEntity(user, 0.0)).getId();
+        hotWalletService.configure(walletId, slots);
+
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long retriesBefore = retryCoordinator.getRetryCount("processTransaction");
+        CountDownLatch start = new CountDownLatch(1);
+
+        long began;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < THREADS; t++) {
+                clients.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < CREDITS_PER_THREAD; i++) {
+                        try {
+                            walletService.processTransaction(walletId,
+                                    new WalletTransactionRequestDTO(null, AMOUNT, "CREDIT", "Benchmark sale"));
+                            completed.incrementAndGet();
+                        } catch (RuntimeException ex) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            began = System.nanoTime();
+            start.countDown();
+        }
+        double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+
+        System.out.printf("%-10d %10.1f %10d %10d %10d%n", slots, (completed.get() + failed.get()) / seconds,
+                completed.get(), retryCoordinator.getRetryCount("processTransaction") - retriesBefore, failed.get());
+
+        assertEquals(completed.get() * AMOUNT, walletService.getBalance(walletId), 0.0001);
+    }
+}
@@ -0,0 +1,99 @@
+package org.transactions.digitalwallettraining.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bytes allocated per debit/credit on the wallet's balance arithmetic: boxed Double fields (old layout)
+ * vs long minor units. Uses the HotSpot per-thread allocation counter, so no profiler is needed.
+ *
+ * Run with: ./gradlew benchmark
+ */
+@Tag("benchmark")
+class MoneyAllocationBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int OPS = 1_000_000;
+    private static final long DAILY_LIMIT = Money.toMinor(50000.0);
+
+    // Stand-in for the previous entity shape: every get/set boxes or unboxes a Double
+    private static final class BoxedWallet {
+        Double balance = 1_000_000.0;
+        Double dailySpent = 0.0;
+    }
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compareBoxedAndMinorUnitArithmetic() {
+        assertTrue(threads.isThreadAllocatedMemorySupported(), "JVM does not expose thread allocation counters");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        BoxedWallet boxed = new BoxedWallet();
+        WalletEntity wallet = new WalletEntity();
+        wallet.setBalanceMinor(Money.toMinor(1_000_000.0));
+
+        boxedOps(boxed, WARMUP);
+        minorOps(wallet, WARMUP);
+
+        long before = allocated();
+        long boxedChecksum = boxedOps(boxed, OPS);
+        long boxedBytes = allocated() - before;
+
+        before = allocated();
+        long minorChecksum = minorOps(wallet, OPS);
+        long minorBytes = allocated() - before;
+
+        System.out.println("\n--- Money arithmetic allocation (" + OPS + " debit/credit ops) ---");
+        System.out.printf("%-14s %14s %12s %12s%n", "layout", "bytes", "bytes/op", "checksum");
+        System.out.printf("%-14s %14d %12.2f %12d%n", "boxed Double", boxedBytes, (double) boxedBytes / OPS, boxedChecksum);
+        System.out.printf("%-14s %14d %12.2f %12d%n", "long minor", minorBytes, (double) minorBytes / OPS, minorChecksum);
+
+        // A handful of bytes may come from the counter itself or a safepoint; nothing proportional to OPS
+        assertTrue(minorBytes < OPS / 100, "Minor-unit path allocated " + minorBytes + " bytes");
+    }
+
+    // Same shape as WalletService: balance check, daily-limit check, debit or credit
+    private static long boxedOps(BoxedWallet w, int ops) {
+        for (int i = 0; i < ops; i++) {
+            double amount = (i % 100) + 0.25;
+            if ((i & 1) == 0 && w.balance >= amount && w.dailySpent + amount <= 50000.0) {
+                w.balance = w.balance - amount;
+                w.dailySpent = w.dailySpent + amount;
+            } else {
+                w.balance = w.balance + amount;
+            }
+            if (w.dailySpent >= 40000.0) w.dailySpent = 0.0;
+        }
+        return Math.round(w.balance);
+    }
+
+    private static long minorOps(WalletEntity w, int ops) {
+        long dailySpent = 0;   // the service keeps this in SpendWindowTracker, not on the entity
+        for (int i = 0; i < ops; i++) {
+            long amount = (i % 100) * Money.MINOR_PER_MAJOR + 25;
+            TransactionType type = (i & 1) == 0 ? TransactionType.DEBIT : TransactionType.CREDIT;
+            if (type == TransactionType.DEBIT && w.getBalanceMinor() >= amount
+                    && dailySpent + amount <= DAILY_LIMIT) {
+                w.setBalanceMinor(w.getBalanceMinor() - amount);
+                dailySpent += amount;
+            } else {
+                w.setBalanceMinor(w.getBalanceMinor() + amount);
+            }
+            if (dailySpent >= Money.toMinor(40000.0)) dailySpent = 0;
+        }
+        return w.getBalanceMinor() / Money.MINOR_PER_MAJOR;
+    }
+
+    private long allocated() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
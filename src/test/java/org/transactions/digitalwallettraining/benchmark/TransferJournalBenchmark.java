@@ -0,0 +1,94 @@
+package org.transactions.digitalwallettraining.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.config.WalletTransferProperties;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.service.WalletService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transfer insert throughput: paired "-D"/"-C" transaction rows vs one journal entry with two postings.
+ * Wallet pairs are disjoint, so the numbers measure write cost rather than lock contention.
+ *
+ * Run with: ./gradlew benchmark
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.generate_statistics=true"})
+class TransferJournalBenchmark {
+
+    private static final int PAIRS = 16;
+    private static final int TRANSFERS_PER_PAIR = 100;
+
+    @Autowired private WalletService walletService;
+    @Autowired private WalletTransferProperties transferProperties;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void comparePairedRowsAndDoubleEntry() throws Exception {
+        WalletTransferProperties.Journal original = transferProperties.getJournal();
+        try {
+            System.out.println("\n--- Transfer journal benchmark (" + PAIRS + " pairs x " + TRANSFERS_PER_PAIR + " transfers) ---");
+            System.out.printf("%-14s %12s %16s %14s%n", "journal", "transfers/s", "rows/transfer", "stmts/transfer");
+
+            run(WalletTransferProperties.Journal.PAIRED_ROWS);
+            run(WalletTransferProperties.Journal.DOUBLE_ENTRY);
+        } finally {
+            transferProperties.setJournal(original);
+        }
+    }
+
+    private void run(WalletTransferProperties.Journal journal) throws Exception {
+        transferProperties.setJournal(journal);
+        UserEntity user = userRepository.save(new UserEntity("Bench", "journal_" + System.nanoTime() + "@example.com", 30));
+        List<Long[]> pairs = new ArrayList<>();
+        for (int i = 0; i < PAIRS; i++) {
+            pairs.add(new Long[]{
+                    walletRepository.save(new WalletEntity(user, 1_000_000.0)).getId(),
+                    walletRepository.save(new WalletEntity(user, 0.0)).getId()});
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long began = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long[] pair : pairs) {
+                clients.submit(() -> {
+                    for (int i = 0; i < TRANSFERS_PER_PAIR; i++) {
+                        walletService.transferMoney(pair[0], pair[1], 1.0);
+                    }
+                    return null;
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+        int transfers = PAIRS * TRANSFERS_PER_PAIR;
+
+        System.out.printf("%-14s %12.1f %16.2f %14.2f%n", journal, transfers / seconds,
+                (double) statistics.getEntityInsertCount() / transfers,
+                (double) statistics.getPrepareStatementCount() / transfers);
+
+        for (Long[] pair : pairs) {
+            assertEquals(TRANSFERS_PER_PAIR, walletService.getBalance(pair[1]), 0.0001);
+        }
+    }
+}
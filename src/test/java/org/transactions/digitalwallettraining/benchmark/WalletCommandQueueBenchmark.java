@@ -0,0 +1,128 @@
+package org.transactions.digitalwallettraining.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.config.WalletExecutionProperties;
+import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.service.ConflictRetryCoordinator;
+import org.transactions.digitalwallettraining.service.WalletCommandQueue;
+import org.transactions.digitalwallettraining.service.WalletService;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hot-wallet benchmark: many concurrent CREDITs on one wallet, first through the optimistic
+ * retry loop (DIRECT) and then through the per-wallet single-writer lanes (QUEUED).
+ *
+ * Run with: ./gradlew benchmark
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class WalletCommandQueueBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int OPS_PER_THREAD = 20;
+    private static final double AMOUNT = 1.0;
+
+    @Autowired private WalletService walletService;
+    @Autowired private WalletCommandQueue walletCommandQueue;
+    @Autowired private ConflictRetryCoordinator retryCoordinator;
+    @Autowired private WalletExecutionProperties executionProperties;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+
+    @Test
+    void compareRetryLoopWithSingleWriterLanes() throws Exception {
+        WalletExecutionProperties.Mode original = executionProperties.getMode();
+        try {
+            Result direct = run(WalletExecutionProperties.Mode.DIRECT);
+            Result queued = run(WalletExecutionProperties.Mode.QUEUED);
+
+            System.out.println("\n--- Hot wallet benchmark (" + THREADS + " threads x " + OPS_PER_THREAD + " credits) ---");
+            System.out.printf("%-8s %10s %10s %10s %10s %8s %8s%n",
+                    "mode", "p50(ms)", "p99(ms)", "max(ms)", "ops/s", "retries", "failed");
+            direct.print();
+            queued.print();
+
+            assertEquals(0, queued.failed, "Queued lanes should never exhaust retries");
+            assertEquals(0, queued.retries, "Queued lanes should never hit an optimistic conflict");
+        } finally {
+            executionProperties.setMode(original);
+        }
+    }
+
+    private Result run(WalletExecutionProperties.Mode mode) throws Exception {
+        executionProperties.setMode(mode);
+
+        UserEntity user = userRepository.save(
+                new UserEntity("Bench", "bench_" + System.nanoTime() + "@example.com", 30));
+        Long walletId = walletRepository.save(new WalletEntity(user, 0.0)).getId();
+
+        long[] latencies = new long[THREADS * OPS_PER_THREAD];
+        AtomicInteger index = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        long retriesBefore = retryCoordinator.getRetryCount("processTransaction");
+
+        long began;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < THREADS; t++) {
+                clients.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        WalletTransactionRequestDTO request =
+                                new WalletTransactionRequestDTO(null, AMOUNT, "CREDIT", "Benchmark credit");
+                        long t0 = System.nanoTime();
+                        try {
+                            walletCommandQueue.execute(walletId,
+                                    () -> walletService.processTransaction(walletId, request));
+                        } catch (RuntimeException ex) {
+                            failed.incrementAndGet();
+                        }
+                        latencies[index.getAndIncrement()] = System.nanoTime() - t0;
+                    }
+                    return null;
+                });
+            }
+            began = System.nanoTime();
+            start.countDown();
+        }
+        long elapsed = System.nanoTime() - began;
+
+        int succeeded = latencies.length - failed.get();
+        assertEquals(succeeded * AMOUNT, walletService.getBalance(walletId), 0.0001);
+
+        Arrays.sort(latencies);
+        return new Result(mode, latencies, elapsed, retryCoordinator.getRetryCount("processTransaction") - retriesBefore, failed.get());
+    }
+
+    private record Result(WalletExecutionProperties.Mode mode, long[] sortedLatencies, long elapsedNanos,
+                          long retries, int failed) {
+
+        double percentileMillis(double p) {
+            int i = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, i)] / 1_000_000.0;
+        }
+
+        void print() {
+            double opsPerSecond = sortedLatencies.length / (elapsedNanos / 1_000_000_000.0);
+            System.out.printf("%-8s %10.2f %10.2f %10.2f %10.1f %8d %8d%n",
+                    mode, percentileMillis(0.50), percentileMillis(0.99), percentileMillis(1.0),
+                    opsPerSecond, retries, failed);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.transactions.digitalwallettraining.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.config.WalletTransferProperties;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.service.WalletService;
+import org.transactions.digitalwallettraining.service.WalletTransferService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Random cross-transfers between a small set of wallets, so A→B and B→A collide constantly.
+ * Compares optimistic loading with ordered pessimistic locking and checks money is conserved.
+ *
+ * Run with: ./gradlew benchmark
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class WalletTransferBenchmark {
+
+    private static final int WALLETS = 8;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 25;
+    private static final double INITIAL_BALANCE = 10_000.0;
+
+    @Autowired private WalletService walletService;
+    @Autowired private WalletTransferService walletTransferService;
+    @Autowired private WalletTransferProperties transferProperties;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+
+    @Test
+    void compareOptimisticAndOrderedPessimisticTransfers() throws Exception {
+        WalletTransferProperties.Locking original = transferProperties.getLocking();
+        try {
+            System.out.println("\n--- Cross-transfer benchmark (" + THREADS + " threads x "
+                    + TRANSFERS_PER_THREAD + " transfers over " + WALLETS + " wallets) ---");
+            System.out.printf("%-12s %10s %10s %10s %10s %12s%n",
+                    "locking", "ops/s", "completed", "conflicts", "failed", "conserved");
+
+            run(WalletTransferProperties.Locking.OPTIMISTIC);
+            int pessimisticFailures = run(WalletTransferProperties.Locking.PESSIMISTIC);
+
+            assertEquals(0, pessimisticFailures, "Ordered locking should never surface a conflict to the caller");
+        } finally {
+            transferProperties.setLocking(original);
+        }
+    }
+
+    private int run(WalletTransferProperties.Locking locking) throws Exception {
+        transferProperties.setLocking(locking);
+
+        UserEntity user = userRepository.save(new UserEntity("Bench", "xfer_" + System.nanoTime() + "@example.com", 30));
+        List<Long> walletIds = new ArrayList<>();
+        for (int i = 0; i < WALLETS; i++) {
+            walletIds.add(walletRepository.save(new WalletEntity(user, INITIAL_BALANCE)).getId());
+        }
+
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long lockConflictsBefore = walletTransferService.getLockConflictCount();
+        CountDownLatch start = new CountDownLatch(1);
+
+        long began;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < THREADS; t++) {
+                clients.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                        int a = random.nextInt(WALLETS);
+                        int b = (a + 1 + random.nextInt(WALLETS - 1)) % WALLETS;
+                        try {
+                            walletTransferService.transfer(walletIds.get(a), walletIds.get(b), 1.0 + random.nextInt(10));
+                            completed.incrementAndGet();
+                        } catch (RuntimeException ex) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            began = System.nanoTime();
+            start.countDown();
+        }
+        double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+
+        double total = walletIds.stream().mapToDouble(walletService::getBalance).sum();
+        boolean conserved = Math.abs(total - WALLETS * INITIAL_BALANCE) < 0.0001;
+        long conflicts = failed.get() + walletTransferService.getLockConflictCount() - lockConflictsBefore;
+
+        System.out.printf("%-12s %10.1f %10d %10d %10d %12s%n",
+                locking, (completed.get() + failed.get()) / seconds, completed.get(), conflicts, failed.get(), conserved);
+
+        assertTrue(conserved, "Money must be conserved, total was " + total);
+        return failed.get();
+    }
+}
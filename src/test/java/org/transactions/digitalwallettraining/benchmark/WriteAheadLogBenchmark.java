@@ -0,0 +1,142 @@
+package org.transactions.digitalwallettraining.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.dto.WalStatsDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.service.WalletCommandQueue;
+import org.transactions.digitalwallettraining.service.WalletService;
+import org.transactions.digitalwallettraining.service.WalletWriteAheadLog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sustained CREDIT throughput: one wallet per client, every client writing back to back, first
+ * through the direct JPA path (one database commit per operation) and then through the
+ * write-ahead log (one force() and one database transaction per group).
+ *
+ * The WAL file goes to java.io.tmpdir; point it at the disk you care about with
+ * -Dwallet.wal.path=/mnt/ssd/bench.wal. Run with: ./gradlew benchmark
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.transactions=WARN",
+        "wallet.wal.enabled=true",
+        "wallet.wal.path=${java.io.tmpdir}/wallet-wal-bench-${random.uuid}.wal",
+        "wallet.summary.project-interval-ms=3600000"})
+class WriteAheadLogBenchmark {
+
+    private static final int CLIENTS = 64;
+    private static final int OPS_PER_CLIENT = 200;
+    private static final double AMOUNT = 1.0;
+
+    @Autowired private WalletService walletService;
+    @Autowired private WalletCommandQueue walletCommandQueue;
+    @Autowired private WalletWriteAheadLog writeAheadLog;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+
+    @Test
+    void compareDirectCommitsWithGroupCommit() throws Exception {
+        Result direct = run("direct", (walletId, request) ->
+                walletCommandQueue.execute(walletId, () -> walletService.processTransaction(walletId, request)));
+
+        WalStatsDTO before = writeAheadLog.getStats();
+        Result logged = run("wal", writeAheadLog::processTransaction);
+        WalStatsDTO after = writeAheadLog.getStats();
+        long records = after.recordsLogged() - before.recordsLogged();
+        long groups = after.groupsForced() - before.groupsForced();
+
+        System.out.println("\n--- Write-ahead log benchmark (" + CLIENTS + " clients x " + OPS_PER_CLIENT + " credits) ---");
+        System.out.printf("%-8s %10s %10s %10s %10s %8s%n", "path", "p50(ms)", "p99(ms)", "max(ms)", "ops/s", "failed");
+        direct.print();
+        logged.print();
+        System.out.printf("WAL: %d records in %d forced groups (%.1f per fsync)%n",
+                records, groups, groups == 0 ? 0.0 : (double) records / groups);
+
+        assertEquals(0, direct.failed);
+        assertEquals(0, logged.failed);
+    }
+
+    private Result run(String path, BiConsumer<Long, WalletTransactionRequestDTO> operation) throws Exception {
+        UserEntity user = userRepository.save(new UserEntity("Bench", "bench_" + System.nanoTime() + "@example.com", 30));
+        List<Long> walletIds = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            walletIds.add(walletRepository.save(new WalletEntity(user, 0.0)).getId());
+        }
+
+        long[] latencies = new long[CLIENTS * OPS_PER_CLIENT];
+        AtomicInteger index = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        long began;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long walletId : walletIds) {
+                clients.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPS_PER_CLIENT; i++) {
+                        WalletTransactionRequestDTO request =
+                                new WalletTransactionRequestDTO(null, AMOUNT, "CREDIT", "Benchmark credit");
+                        long t0 = System.nanoTime();
+                        try {
+                            operation.accept(walletId, request);
+                        } catch (RuntimeException ex) {
+                            failed.incrementAndGet();
+                        }
+                        latencies[index.getAndIncrement()] = System.nanoTime() - t0;
+                    }
+                    return null;
+                });
+            }
+            began = System.nanoTime();
+            start.countDown();
+        }
+        long elapsed = System.nanoTime() - began;
+
+        // ✅ Acknowledged means durable; wait for the database to catch up before checking balances
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (writeAheadLog.getStats().unappliedRecords() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        for (Long walletId : walletIds) {
+            assertEquals(OPS_PER_CLIENT * AMOUNT, walletService.getBalance(walletId), 0.0001);
+        }
+
+        Arrays.sort(latencies);
+        return new Result(path, latencies, elapsed, failed.get());
+    }
+
+    private record Result(String path, long[] sortedLatencies, long elapsedNanos, int failed) {
+
+        double percentileMillis(double p) {
+            int i = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, i)] / 1_000_000.0;
+        }
+
+        void print() {
+            double opsPerSecond = sortedLatencies.length / (elapsedNanos / 1_000_000_000.0);
+            System.out.printf("%-8s %10.2f %10.2f %10.2f %10.1f %8d%n",
+                    path, percentileMillis(0.50), percentileMillis(0.99), percentileMillis(1.0),
+                    opsPerSecond, failed);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.transactions.digitalwallettraining.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two independent in-memory H2 databases stand in for primary and replica; each knows its own name
+class ReadWriteRoutingDataSourceTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaLagMonitor lagMonitor;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate routedJdbc;
+    private TransactionTemplate readTx;
+    private TransactionTemplate writeTx;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = h2("primary");
+        DriverManagerDataSource replica = h2("replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+
+        WalletReplicaProperties properties = new WalletReplicaProperties();
+        properties.setMaxLagMs(1_000);
+        properties.setStickyPrimaryMs(3_000);
+
+        lagMonitor = new ReplicaLagMonitor(primary, replica, properties, clock::get);
+        routing = new ReadWriteRoutingDataSource(primary, replica, lagMonitor, properties, clock::get);
+        LazyConnectionDataSourceProxy routed = new LazyConnectionDataSourceProxy(routing);
+        routedJdbc = new JdbcTemplate(routed);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routed);
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(transactionManager);
+
+        replicate();   // replica starts fully caught up
+    }
+
+    @AfterEach
+    void tearDown() {
+        DataSourceRouting.clearCaller();
+    }
+
+    @Test
+    void testReadOnlyGoesToReplicaAndWritesToPrimary() {
+        assertEquals("replica", readTx.execute(status -> whoAmI()));
+        assertEquals("primary", writeTx.execute(status -> whoAmI()));
+        assertEquals("primary", routedJdbc.queryForObject("SELECT name FROM node", String.class));   // no transaction
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() {
+        clock.addAndGet(5_000);
+        lagMonitor.beat();   // replica's newest heartbeat is 5 s old
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals("primary", readTx.execute(status -> whoAmI()));
+
+        replicate();
+        assertEquals("replica", readTx.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void testCallerStaysOnPrimaryAfterWrite() {
+        DataSourceRouting.setCaller("alice");
+        writeTx.execute(status -> whoAmI());
+        assertEquals("primary", readTx.execute(status -> whoAmI()));
+
+        DataSourceRouting.setCaller("bob");
+        assertEquals("replica", readTx.execute(status -> whoAmI()));
+
+        DataSourceRouting.setCaller("alice");
+        clock.addAndGet(3_000);
+        replicate();
+        assertEquals("replica", readTx.execute(status -> whoAmI()));   // sticky window over
+    }
+
+    // The write runs on another thread (a command lane, the WAL writer), where no caller is set
+    @Test
+    void testWriteRequestMakesCallerStickyWhereverItsWriteRuns() throws Exception {
+        CallerRoutingFilter filter = new CallerRoutingFilter("X-Caller", routing);
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/wallets/1/transactions");
+        post.addHeader("X-Caller", "carol");
+        filter.doFilter(post, new MockHttpServletResponse(), (request, response) -> {
+            Thread lane = Thread.ofVirtual().start(() -> writeTx.execute(status -> whoAmI()));
+            try {
+                lane.join();
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/wallets/1/balance");
+        get.addHeader("X-Caller", "dave");
+        filter.doFilter(get, new MockHttpServletResponse(), (request, response) -> { });
+
+        DataSourceRouting.setCaller("carol");
+        assertEquals("primary", readTx.execute(status -> whoAmI()));
+        DataSourceRouting.setCaller("dave");
+        assertEquals("replica", readTx.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void testOnPrimaryOverridesReadOnly() {
+        assertEquals("primary", DataSourceRouting.onPrimary(() -> readTx.execute(status -> whoAmI())));
+        assertEquals("replica", readTx.execute(status -> whoAmI()));
+    }
+
+    private String whoAmI() {
+        return routedJdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    // Stand-in for replication: copy the primary's heartbeat row to the replica, then take a reading
+    private void replicate() {
+        lagMonitor.beat();
+        Long beat = primaryJdbc.queryForObject("SELECT beat_at FROM " + ReplicaLagMonitor.TABLE + " WHERE id = 1", Long.class);
+        replicaJdbc.update("MERGE INTO " + ReplicaLagMonitor.TABLE + " (id, beat_at) KEY (id) VALUES (1, ?)", beat);
+        lagMonitor.beat();
+        assertTrue(lagMonitor.isReplicaUsable(), "Lag: " + lagMonitor.getLagMs());
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        jdbc.execute("CREATE TABLE " + ReplicaLagMonitor.TABLE + " (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        return dataSource;
+    }
+}
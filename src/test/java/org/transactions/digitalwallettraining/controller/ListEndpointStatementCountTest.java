@@ -0,0 +1,125 @@
+package org.transactions.digitalwallettraining.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.transactions.digitalwallettraining.entity.TransactionEntity;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.service.WalletSummaryService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Regression guard for the list endpoints: a full page costs one SELECT for the rows plus one
+ * COUNT, whatever the page size, and no entity is hydrated. A lazy user or wallet load per row
+ * (N+1) would show up here as PAGE_SIZE extra statements.
+ *
+ * Background schedulers are pushed out so only the request's own statements are counted.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "wallet.summary.project-interval-ms=3600000",
+        "wallet.ledger.snapshot-interval-ms=3600000",
+        "wallet.transfer.async.poll-interval-ms=3600000",
+        "wallet.freeze.tick-ms=3600000"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListEndpointStatementCountTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int ROWS = 30;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private WalletSummaryService walletSummaryService;
+
+    private Statistics statistics;
+    private Long walletId;
+
+    @BeforeEach
+    void setup() {
+        WalletEntity wallet = null;
+        for (int i = 0; i < ROWS; i++) {
+            UserEntity user = userRepository.save(new UserEntity("List " + i, "list_" + System.nanoTime() + "_" + i + "@example.com", 30));
+            wallet = walletRepository.save(new WalletEntity(user, 100.0 + i));
+            walletSummaryService.track(wallet);
+        }
+        walletId = wallet.getId();
+
+        List<TransactionEntity> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            TransactionEntity txn = new TransactionEntity(wallet, TransactionType.CREDIT, 1.0 + i, "List " + i);
+            txn.setTransactionId("LIST-" + System.nanoTime() + "-" + i);
+            rows.add(txn);
+        }
+        transactionRepository.saveAll(rows);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testWalletsPageIsOneSelectPlusCount() throws Exception {
+        mockMvc.perform(get("/wallets").param("page", "0").param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(PAGE_SIZE))
+                .andExpect(jsonPath("$.content[0].userId").exists());
+
+        assertStatements(2);
+    }
+
+    @Test
+    void testUsersPageIsOneSelectPlusCount() throws Exception {
+        mockMvc.perform(get("/users").param("page", "0").param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(PAGE_SIZE))
+                .andExpect(jsonPath("$.content[0].email").exists());
+
+        assertStatements(2);
+    }
+
+    @Test
+    void testOversizedPagesAreRejectedBeforeAnyQuery() throws Exception {
+        mockMvc.perform(get("/wallets").param("size", "501")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users").param("size", "501")).andExpect(status().isBadRequest());
+
+        assertStatements(0);
+    }
+
+    @Test
+    void testHistoryPageIsOneSelectPlusCount() throws Exception {
+        mockMvc.perform(get("/transactions/history").param("walletId", walletId.toString())
+                        .param("page", "0").param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(PAGE_SIZE))
+                .andExpect(jsonPath("$.totalElements").value(ROWS));
+
+        assertStatements(2);
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(),
+                "Statements: " + statistics.getPrepareStatementCount() + " " + List.of(statistics.getQueries()));
+        assertEquals(0, statistics.getEntityLoadCount(), "List endpoints should not hydrate entities");
+    }
+}
@@ -0,0 +1,56 @@
+package org.transactions.digitalwallettraining.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.transactions.digitalwallettraining.entity.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Proves Hibernate JDBC batching is active: with IDENTITY ids every row would be its own
+ * prepared INSERT, with pooled sequence ids the rows share one batched statement.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class TransactionBatchInsertTest {
+
+    private static final int ROWS = 40;
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    @Test
+    void testTransactionInsertsAreBatched() {
+        UserEntity user = userRepository.save(new UserEntity("Batch", "batch_" + System.nanoTime() + "@example.com", 30));
+        WalletEntity wallet = walletRepository.saveAndFlush(new WalletEntity(user, 100.0));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<TransactionEntity> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            TransactionEntity txn = new TransactionEntity(wallet, TransactionType.CREDIT, 1.0 + i, "Bulk " + i);
+            txn.setTransactionId("BATCH-" + System.nanoTime() + "-" + i);
+            rows.add(txn);
+        }
+        transactionRepository.saveAll(rows);
+        transactionRepository.flush();
+
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        // One batched INSERT plus at most one sequence fetch — not one statement per row
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Expected batched inserts but saw " + statistics.getPrepareStatementCount() + " statements");
+    }
+}
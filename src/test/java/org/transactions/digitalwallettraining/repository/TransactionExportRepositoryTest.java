@@ -0,0 +1,28 @@
+package org.transactions.digitalwallettraining.repository;
+
+import org.junit.jupiter.api.Test;
+import org.transactions.digitalwallettraining.config.WalletExportProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionExportRepositoryTest {
+
+    private final WalletExportProperties properties = new WalletExportProperties();
+
+    @Test
+    void testCursorFetchIsAddedToMysqlExportUrlOnly() {
+        assertThat(TransactionExportRepository.exportUrl("jdbc:mysql://db:3306/wallet?rewriteBatchedStatements=true", properties))
+                .isEqualTo("jdbc:mysql://db:3306/wallet?rewriteBatchedStatements=true&useCursorFetch=true");
+        assertThat(TransactionExportRepository.exportUrl("jdbc:mysql://db:3306/wallet", properties))
+                .isEqualTo("jdbc:mysql://db:3306/wallet?useCursorFetch=true");
+        assertThat(TransactionExportRepository.exportUrl("jdbc:h2:mem:testdb", properties)).isEqualTo("jdbc:h2:mem:testdb");
+    }
+
+    @Test
+    void testExplicitSettingInUrlOrPropertyWins() {
+        assertThat(TransactionExportRepository.exportUrl("jdbc:mysql://db/wallet?useCursorFetch=false", properties))
+                .isEqualTo("jdbc:mysql://db/wallet?useCursorFetch=false");
+        properties.setUseCursorFetch(false);
+        assertThat(TransactionExportRepository.exportUrl("jdbc:mysql://db/wallet", properties)).isEqualTo("jdbc:mysql://db/wallet");
+    }
+}
@@ -0,0 +1,72 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.config.WalletExecutionProperties;
+import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AtomicWalletUpdateIntegrationTest {
+
+    @Autowired private WalletService walletService;
+    @Autowired private WalletExecutionProperties executionProperties;
+    @Autowired private SpendWindowTracker spendWindowTracker;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+
+    private Long walletId;
+
+    @BeforeEach
+    void setup() {
+        executionProperties.setAtomicUpdates(true);
+        UserEntity user = userRepository.save(
+                new UserEntity("Atomic", "atomic_" + System.nanoTime() + "@example.com", 30));
+        walletId = walletRepository.save(new WalletEntity(user, 1000.0)).getId();
+    }
+
+    @AfterEach
+    void reset() {
+        executionProperties.setAtomicUpdates(false);
+    }
+
+    @Test
+    void testCreditAndDebitApplyInPlace() {
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 500.0, "CREDIT", "Deposit"));
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 200.0, "DEBIT", "Purchase"));
+
+        WalletEntity wallet = walletRepository.findById(walletId).orElseThrow();
+        assertThat(wallet.getBalance()).isEqualTo(1300.0);
+        assertThat(spendWindowTracker.spent(walletId, System.currentTimeMillis())).isEqualTo(Money.toMinor(200.0));
+    }
+
+    @Test
+    void testInsufficientBalanceIsRejected() {
+        assertThatThrownBy(() -> walletService.processTransaction(walletId,
+                new WalletTransactionRequestDTO(null, 5000.0, "DEBIT", "Rent")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Insufficient balance");
+
+        assertThat(walletService.getBalance(walletId)).isEqualTo(1000.0);
+        assertThat(spendWindowTracker.spent(walletId, System.currentTimeMillis())).isZero();   // reservation handed back
+    }
+
+    @Test
+    void testUnknownWalletIsRejected() {
+        assertThatThrownBy(() -> walletService.processTransaction(Long.MAX_VALUE,
+                new WalletTransactionRequestDTO(null, 10.0, "CREDIT", "Ghost")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Wallet not found");
+    }
+}
@@ -0,0 +1,68 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.exception.MaxRetryExceededException;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictRetryCoordinatorTest {
+
+    private final ConflictRetryCoordinator coordinator = new ConflictRetryCoordinator();
+
+    @RetryOnConflict(maxAttempts = 3, backoffMs = 1)
+    void policy() {}
+
+    private final RetryOnConflict policy;
+
+    ConflictRetryCoordinatorTest() throws NoSuchMethodException {
+        Method m = getClass().getDeclaredMethod("policy");
+        policy = m.getAnnotation(RetryOnConflict.class);
+    }
+
+    @Test
+    void testConflictIsRetriedUntilSuccess() throws Throwable {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = coordinator.execute("op", policy, () -> {
+            if (calls.incrementAndGet() < 3) throw new ObjectOptimisticLockingFailureException(WalletEntity.class, 1L);
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, coordinator.getConflictCount("op"));
+        assertEquals(2, coordinator.getRetryCount("op"));
+    }
+
+    @Test
+    void testExhaustedRetriesRaiseMaxRetryExceeded() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(MaxRetryExceededException.class, () -> coordinator.execute("op", policy, () -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("lock");
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(1, coordinator.getStats().get(0).exhausted());
+    }
+
+    @Test
+    void testBusinessErrorsAreNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> coordinator.execute("op", policy, () -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("Insufficient balance.");
+        }));
+
+        assertEquals(1, calls.get());
+        assertEquals(0, coordinator.getConflictCount("op"));
+    }
+}
@@ -0,0 +1,115 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.config.WalletBatchProperties;
+import org.transactions.digitalwallettraining.config.WalletLedgerProperties;
+import org.transactions.digitalwallettraining.dto.WalletBatchResponseDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Snapshotter interval pushed out so the test decides when folding happens
+@SpringBootTest(properties = "wallet.ledger.snapshot-interval-ms=3600000")
+@ActiveProfiles("test")
+class EventSourcedLedgerIntegrationTest {
+
+    @Autowired private WalletService walletService;
+    @Autowired private WalletSnapshotService snapshotService;
+    @Autowired private WalletLedgerProperties ledgerProperties;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    private Long walletId;
+    private Long otherId;
+    private Long initialVersion;
+
+    @BeforeEach
+    void setup() {
+        ledgerProperties.setMode(WalletLedgerProperties.Mode.EVENT_SOURCED);
+        UserEntity user = userRepository.save(new UserEntity("Ledger", "ledger_" + System.nanoTime() + "@example.com", 30));
+        WalletEntity wallet = walletRepository.save(new WalletEntity(user, 1000.0));
+        walletId = wallet.getId();
+        initialVersion = wallet.getVersion();
+        otherId = walletRepository.save(new WalletEntity(user, 0.0)).getId();
+    }
+
+    @AfterEach
+    void reset() {
+        ledgerProperties.setMode(WalletLedgerProperties.Mode.MUTABLE);
+    }
+
+    @Test
+    void testOperationsOnlyAppendAndBalanceIsSnapshotPlusTail() {
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 500.0, "CREDIT", "Deposit"));
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 200.0, "DEBIT", "Purchase"));
+
+        WalletEntity wallet = walletRepository.findById(walletId).orElseThrow();
+        assertThat(wallet.getBalance()).isEqualTo(1000.0);
+        assertThat(wallet.getVersion()).isEqualTo(initialVersion);
+        assertThat(transactionRepository.sumPendingDelta(walletId)).isEqualTo(Money.toMinor(300.0));
+        assertThat(walletService.getBalance(walletId)).isEqualTo(1300.0);
+    }
+
+    @Test
+    void testSnapshotFoldsTheTail() {
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 250.0, "CREDIT", "Deposit"));
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 100.0, "DEBIT", "Purchase"));
+
+        assertThat(snapshotService.fold(walletId)).isEqualTo(2);
+
+        assertThat(walletRepository.findById(walletId).orElseThrow().getBalance()).isEqualTo(1150.0);
+        assertThat(transactionRepository.sumPendingDelta(walletId)).isZero();
+        assertThat(walletService.getBalance(walletId)).isEqualTo(1150.0);
+        assertThat(snapshotService.fold(walletId)).isZero();
+    }
+
+    @Test
+    void testDebitChecksSnapshotPlusTail() {
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 900.0, "DEBIT", "Rent"));
+
+        assertThatThrownBy(() -> walletService.processTransaction(walletId,
+                new WalletTransactionRequestDTO(null, 200.0, "DEBIT", "Groceries")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Insufficient balance");
+        assertThat(walletService.getBalance(walletId)).isEqualTo(100.0);
+    }
+
+    @Test
+    void testTransferSpendsCreditsNotYetFolded() {
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 500.0, "CREDIT", "Deposit"));
+
+        walletService.transferMoney(walletId, otherId, 1200.0);
+
+        assertThat(walletService.getBalance(walletId)).isEqualTo(300.0);
+        assertThat(walletService.getBalance(otherId)).isEqualTo(1200.0);
+        assertThat(transactionRepository.sumPendingDelta(walletId)).isZero();
+        assertThat(walletRepository.findById(walletId).orElseThrow().getBalance()).isEqualTo(300.0);
+    }
+
+    @Test
+    void testBatchDebitSpendsCreditsNotYetFolded() {
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 500.0, "CREDIT", "Deposit"));
+
+        WalletBatchResponseDTO result = walletService.processBatch(walletId, List.of(
+                        new WalletTransactionRequestDTO(null, 1400.0, "DEBIT", "Laptop")),
+                WalletBatchProperties.FailurePolicy.SKIP_FAILED);
+
+        assertThat(result.applied()).isEqualTo(1);
+        assertThat(walletService.getBalance(walletId)).isEqualTo(100.0);
+        assertThat(transactionRepository.sumPendingDelta(walletId)).isZero();
+    }
+}
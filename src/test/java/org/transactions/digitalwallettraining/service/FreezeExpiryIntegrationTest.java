@@ -0,0 +1,54 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FreezeExpiryIntegrationTest {
+
+    @Autowired private WalletFreezeService walletFreezeService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setup() {
+        user = userRepository.save(new UserEntity("Freeze", "freeze_" + System.nanoTime() + "@example.com", 30));
+    }
+
+    // Only the wallet the UPDATE cleared is reported, so only its spend window gets reset
+    @Test
+    void testUnfreezeReturnsOnlyTheWalletsItCleared() {
+        Long expired = frozenWallet(LocalDateTime.now().minusDays(2));
+        Long refrozen = frozenWallet(LocalDateTime.now());   // frozen again after its expiry was scheduled
+        Long active = walletRepository.save(new WalletEntity(user, 100.0)).getId();
+
+        assertThat(walletFreezeService.unfreezeExpired(List.of(expired, refrozen, active))).containsExactly(expired);
+        assertThat(walletRepository.findById(expired).orElseThrow().getFrozen()).isFalse();
+        assertThat(walletRepository.findById(refrozen).orElseThrow().getFrozen()).isTrue();
+
+        // Already unfrozen: a second tick for the same id clears nothing
+        assertThat(walletFreezeService.unfreezeExpired(List.of(expired))).isEmpty();
+    }
+
+    private Long frozenWallet(LocalDateTime frozenAt) {
+        WalletEntity wallet = new WalletEntity(user, 100.0);
+        wallet.setFrozen(true);
+        wallet.setFrozenAt(frozenAt);
+        return walletRepository.save(wallet).getId();
+    }
+}
@@ -0,0 +1,57 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.transactions.digitalwallettraining.config.WalletFreezeProperties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FreezeExpiryWheelTest {
+
+    private static final long T0 = 1_000_000_000L;   // tick-aligned for 1 s ticks
+
+    private WalletFreezeProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WalletFreezeProperties();
+        properties.setTickMs(1000);
+        properties.setWheelSlots(8);
+    }
+
+    @Test
+    void testExpiryFiresOnceDeadlinePasses() {
+        FreezeExpiryWheel wheel = new FreezeExpiryWheel(properties, T0);
+        wheel.schedule(1L, T0 + 2_500);
+        wheel.schedule(2L, T0 + 5_000);
+
+        assertArrayEquals(new long[0], wheel.advance(T0 + 2_000));
+        assertArrayEquals(new long[]{1L}, wheel.advance(T0 + 3_000));
+        assertArrayEquals(new long[]{2L}, wheel.advance(T0 + 5_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testLaterLapsStayInSlot() {
+        FreezeExpiryWheel wheel = new FreezeExpiryWheel(properties, T0);
+        wheel.schedule(1L, T0 + 3_000);
+        wheel.schedule(2L, T0 + 11_000);   // same slot, one lap later
+
+        assertArrayEquals(new long[]{1L}, wheel.advance(T0 + 3_000));
+        assertEquals(1, wheel.size());
+        assertArrayEquals(new long[0], wheel.advance(T0 + 10_000));
+        assertArrayEquals(new long[]{2L}, wheel.advance(T0 + 11_000));
+    }
+
+    @Test
+    void testOverdueAndLongPause() {
+        FreezeExpiryWheel wheel = new FreezeExpiryWheel(properties, T0);
+        wheel.schedule(1L, T0 - 60_000);   // already overdue → next tick
+        assertArrayEquals(new long[]{1L}, wheel.advance(T0 + 1_000));
+
+        for (long id = 10; id < 20; id++) wheel.schedule(id, T0 + id * 1_000);
+        long[] due = wheel.advance(T0 + 600_000);   // paused for many laps
+        assertEquals(10, due.length);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,61 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrozenWalletRegistryTest {
+
+    private static final long NOW = 1_000_000_000L;
+
+    @Test
+    void testFrozenUntilExpiry() {
+        FrozenWalletRegistry registry = new FrozenWalletRegistry();
+        registry.markFrozen(1L, NOW + 90_500);
+
+        assertEquals(91, registry.secondsLeft(1L, NOW));
+        assertEquals(0, registry.secondsLeft(1L, NOW + 90_500));   // expired even before it is cleared
+        assertEquals(0, registry.secondsLeft(2L, NOW));
+    }
+
+    @Test
+    void testClearExpiredKeepsNewerFreeze() {
+        FrozenWalletRegistry registry = new FrozenWalletRegistry();
+        registry.markFrozen(1L, NOW);
+        registry.markFrozen(2L, NOW);
+        registry.markFrozen(2L, NOW + 120_000);   // frozen again before the first expiry was cleared
+
+        registry.clearExpired(List.of(1L, 2L, 3L), NOW);
+
+        assertEquals(1, registry.size());
+        assertEquals(120, registry.secondsLeft(2L, NOW));
+    }
+
+    @Test
+    void testGrowthAndRemovalKeepLookupsIntact() {
+        FrozenWalletRegistry registry = new FrozenWalletRegistry();
+        LongStream.rangeClosed(1, 1_000).forEach(id -> registry.markFrozen(id, NOW + id * 1_000));
+
+        List<Long> evens = LongStream.rangeClosed(1, 1_000).filter(id -> id % 2 == 0).boxed().toList();
+        registry.clearExpired(evens, NOW + 1_000_000);
+
+        assertEquals(500, registry.size());
+        for (long id = 1; id <= 1_000; id++) {
+            long expected = id % 2 == 0 ? 0 : id;
+            assertEquals(expected, registry.secondsLeft(id, NOW), "Wallet " + id);
+        }
+    }
+
+    @Test
+    void testRejectIfFrozen() {
+        FrozenWalletRegistry registry = new FrozenWalletRegistry();
+        registry.markFrozen(5L, System.currentTimeMillis() + 60_000);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> registry.rejectIfFrozen(5L));
+        assertTrue(ex.getMessage().contains("Wallet is frozen"));
+        assertDoesNotThrow(() -> registry.rejectIfFrozen(6L));
+    }
+}
@@ -0,0 +1,82 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletBalanceSlotRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.utils.Money;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HotWalletIntegrationTest {
+
+    @Autowired private WalletService walletService;
+    @Autowired private HotWalletService hotWalletService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private WalletBalanceSlotRepository slotRepository;
+
+    private Long walletId;
+
+    @BeforeEach
+    void setup() {
+        UserEntity user = userRepository.save(new UserEntity("Hot", "hot_" + System.nanoTime() + "@example.com", 30));
+        walletId = walletRepository.save(new WalletEntity(user, 100.0)).getId();
+        hotWalletService.configure(walletId, 4);
+    }
+
+    @Test
+    void testCreditsLandOnSlotsAndBalanceSumsThem() {
+        for (int i = 0; i < 8; i++) {
+            walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 50.0, "CREDIT", "Sale"));
+        }
+
+        assertThat(walletRepository.findById(walletId).orElseThrow().getBalance()).isEqualTo(100.0);
+        assertThat(slotRepository.sumBalance(walletId)).isEqualTo(Money.toMinor(400.0));
+        assertThat(walletService.getBalance(walletId)).isEqualTo(500.0);
+    }
+
+    @Test
+    void testDebitLargerThanAnyShareConsolidates() {
+        for (int i = 0; i < 4; i++) {
+            walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 100.0, "CREDIT", "Sale"));
+        }
+
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 450.0, "DEBIT", "Payout"));
+
+        assertThat(walletService.getBalance(walletId)).isEqualTo(50.0);
+        assertThat(slotRepository.sumBalance(walletId)).isZero();
+    }
+
+    @Test
+    void testOverdraftIsRejectedAcrossSlots() {
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 100.0, "CREDIT", "Sale"));
+
+        assertThatThrownBy(() -> walletService.processTransaction(walletId,
+                new WalletTransactionRequestDTO(null, 250.0, "DEBIT", "Payout")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Insufficient balance");
+        assertThat(walletService.getBalance(walletId)).isEqualTo(200.0);
+    }
+
+    @Test
+    void testSwitchingOffFoldsSlotsBack() {
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 75.0, "CREDIT", "Sale"));
+
+        hotWalletService.configure(walletId, 0);
+
+        WalletEntity wallet = walletRepository.findById(walletId).orElseThrow();
+        assertThat(wallet.isHot()).isFalse();
+        assertThat(wallet.getBalance()).isEqualTo(175.0);
+        assertThat(slotRepository.sumBalance(walletId)).isZero();
+    }
+}
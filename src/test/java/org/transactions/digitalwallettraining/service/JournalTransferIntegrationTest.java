@@ -0,0 +1,74 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.config.WalletTransferProperties;
+import org.transactions.digitalwallettraining.dto.JournalEntryDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionResponseDTO;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JournalTransferIntegrationTest {
+
+    @Autowired private WalletService walletService;
+    @Autowired private WalletTransferProperties transferProperties;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+
+    private Long fromId;
+    private Long toId;
+
+    @BeforeEach
+    void setup() {
+        transferProperties.setJournal(WalletTransferProperties.Journal.DOUBLE_ENTRY);
+        UserEntity user = userRepository.save(new UserEntity("Journal", "journal_" + System.nanoTime() + "@example.com", 30));
+        fromId = walletRepository.save(new WalletEntity(user, 1000.0)).getId();
+        toId = walletRepository.save(new WalletEntity(user, 0.0)).getId();
+    }
+
+    @AfterEach
+    void reset() {
+        transferProperties.setJournal(WalletTransferProperties.Journal.PAIRED_ROWS);
+    }
+
+    @Test
+    void testTransferIsOneEntryWithTwoPostings() {
+        WalletTransactionResponseDTO response = walletService.transferMoney(fromId, toId, 300.0);
+
+        JournalEntryDTO entry = walletService.getJournalEntry(response.transactionId());
+        assertThat(entry.kind()).isEqualTo("TRANSFER");
+        assertThat(entry.postings()).extracting("walletId", "amount")
+                .containsExactlyInAnyOrder(tuple(fromId, -300.0), tuple(toId, 300.0));
+
+        assertThat(walletService.listTransactions(toId))
+                .singleElement()
+                .satisfies(t -> {
+                    assertThat(t.type()).isEqualTo("CREDIT");
+                    assertThat(t.amount()).isEqualTo(300.0);
+                });
+    }
+
+    @Test
+    void testReversalRestoresBalancesOnce() {
+        String entryId = walletService.transferMoney(fromId, toId, 300.0).transactionId();
+
+        JournalEntryDTO reversal = walletService.reverseTransfer(entryId);
+
+        assertThat(reversal.reversesEntryId()).isEqualTo(entryId);
+        assertThat(walletService.getBalance(fromId)).isEqualTo(1000.0);
+        assertThat(walletService.getBalance(toId)).isEqualTo(0.0);
+        assertThatThrownBy(() -> walletService.reverseTransfer(entryId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already reversed");
+    }
+}
@@ -0,0 +1,93 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.transactions.digitalwallettraining.config.WalletSpendWindowProperties;
+import org.transactions.digitalwallettraining.repository.JournalPostingRepository;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SpendWindowTrackerTest {
+
+    private static final long LIMIT = 10_000;
+    private static final long T0 = 1_000_000_000L;   // bucket-aligned for 5 s buckets
+
+    private TransactionRepository transactionRepository;
+    private JournalPostingRepository journalPostingRepository;
+    private WalletSpendWindowProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        journalPostingRepository = mock(JournalPostingRepository.class);
+        properties = new WalletSpendWindowProperties();
+        properties.setWindowSeconds(60);
+        properties.setBucketSeconds(5);
+    }
+
+    @Test
+    void testReservationsRespectLimit() {
+        SpendWindowTracker tracker = new SpendWindowTracker(properties, transactionRepository, journalPostingRepository);
+
+        assertEquals(6_000, tracker.tryReserve(1L, 6_000, LIMIT, T0));
+        assertEquals(SpendWindowTracker.REJECTED, tracker.tryReserve(1L, 5_000, LIMIT, T0 + 1_000));
+        assertEquals(LIMIT, tracker.tryReserve(1L, 4_000, LIMIT, T0 + 2_000));
+        assertEquals(LIMIT, tracker.spent(1L, T0 + 3_000));
+        assertEquals(0, tracker.spent(2L, T0));   // wallets are independent
+    }
+
+    @Test
+    void testSpendSlidesOutBucketByBucket() {
+        SpendWindowTracker tracker = new SpendWindowTracker(properties, transactionRepository, journalPostingRepository);
+        tracker.tryReserve(1L, 3_000, LIMIT, T0);
+        tracker.tryReserve(1L, 2_000, LIMIT, T0 + 30_000);
+
+        assertEquals(5_000, tracker.spent(1L, T0 + 59_999));
+        assertEquals(2_000, tracker.spent(1L, T0 + 60_000));   // first bucket left the window
+        assertEquals(0, tracker.spent(1L, T0 + 90_000));
+        assertEquals(0, tracker.spent(1L, T0 + 3_600_000));    // long idle gap clears at most one lap
+    }
+
+    @Test
+    void testReleaseAndReset() {
+        SpendWindowTracker tracker = new SpendWindowTracker(properties, transactionRepository, journalPostingRepository);
+        tracker.tryReserve(1L, 4_000, LIMIT, T0);
+        tracker.tryReserve(1L, 1_000, LIMIT, T0 + 10_000);
+
+        tracker.release(1L, 4_000, T0);
+        assertEquals(1_000, tracker.spent(1L, T0 + 10_000));
+
+        tracker.release(1L, 1_000, T0 - 120_000);   // already outside the window → ignored
+        assertEquals(1_000, tracker.spent(1L, T0 + 10_000));
+
+        tracker.reset(1L, T0 + 11_000);
+        assertEquals(0, tracker.spent(1L, T0 + 11_000));
+    }
+
+    @Test
+    void testUntrackedWalletIsSeededFromCommittedDebits() {
+        when(transactionRepository.sumDebitsByWalletAndDate(eq(7L), any(), any())).thenReturn(7_000L);
+        when(journalPostingRepository.sumDebitsByWalletAndDate(eq(7L), any(), any())).thenReturn(1_000L);
+        SpendWindowTracker tracker = new SpendWindowTracker(properties, transactionRepository, journalPostingRepository);
+
+        assertEquals(SpendWindowTracker.REJECTED, tracker.tryReserve(7L, 3_000, LIMIT, T0));
+        assertEquals(LIMIT, tracker.tryReserve(7L, 2_000, LIMIT, T0));
+        verify(transactionRepository, times(1)).sumDebitsByWalletAndDate(eq(7L), any(), any());
+    }
+
+    @Test
+    void testTrackedWalletsAreBounded() {
+        properties.setMaxWallets(8);
+        properties.setStripes(1);
+        SpendWindowTracker tracker = new SpendWindowTracker(properties, transactionRepository, journalPostingRepository);
+
+        for (long id = 1; id <= 100; id++) tracker.tryReserve(id, 100, LIMIT, T0 + id);
+
+        assertTrue(tracker.trackedWallets() <= 8, "Tracked: " + tracker.trackedWallets());
+        assertEquals(100, tracker.spent(100L, T0 + 200));   // most recent wallet survived eviction
+    }
+}
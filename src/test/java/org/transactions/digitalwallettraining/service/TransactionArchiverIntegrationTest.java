@@ -0,0 +1,255 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.transactions.digitalwallettraining.config.WalletArchiveProperties;
+import org.transactions.digitalwallettraining.config.WalletBatchProperties;
+import org.transactions.digitalwallettraining.dto.WalletBatchResponseDTO;
+import org.transactions.digitalwallettraining.dto.WalletStatementDTO;
+import org.transactions.digitalwallettraining.dto.WalletSummaryDTO;
+import org.transactions.digitalwallettraining.dto.TransactionHistorySliceDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionResponseDTO;
+import org.transactions.digitalwallettraining.entity.ArchivedWalletMonthEntity;
+import org.transactions.digitalwallettraining.entity.TransactionEntity;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.ArchivedWalletMonthRepository;
+import org.transactions.digitalwallettraining.repository.JobLockRepository;
+import org.transactions.digitalwallettraining.repository.TransactionArchiveSegmentRepository;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Rows live in 2001 so no other test's data is old enough to be archived alongside them
+@SpringBootTest(properties = "wallet.summary.project-interval-ms=3600000")
+@ActiveProfiles("test")
+class TransactionArchiverIntegrationTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2001, 1);
+
+    @Autowired private TransactionArchiver archiver;
+    @Autowired private WalletArchiveProperties archiveProperties;
+    @Autowired private WalletService walletService;
+    @Autowired private WalletSummaryService summaryService;
+    @Autowired private WalletRollupService rollupService;
+    @Autowired private WalletSummaryProjector projector;
+    @Autowired private TransactionExportService exportService;
+    @Autowired private TransactionService transactionService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TransactionArchiveSegmentRepository segmentRepository;
+    @Autowired private ArchivedWalletMonthRepository monthRepository;
+    @Autowired private JobLockRepository jobLockRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path archiveDir;
+
+    private WalletEntity wallet;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setup() {
+        tx = new TransactionTemplate(transactionManager);
+        archiveProperties.setDirectory(archiveDir.toString());
+        archiveProperties.setRowsPerSegment(2);
+        UserEntity user = userRepository.save(new UserEntity("Archive", "archive_" + System.nanoTime() + "@example.com", 30));
+        wallet = walletRepository.save(new WalletEntity(user, 1000.0));
+    }
+
+    // The segment files go with the temp directory, so their manifest and index rows must too
+    @AfterEach
+    void dropManifest() {
+        segmentRepository.deleteAllInBatch();
+        monthRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testClosedMonthMovesToSegmentsAndStaysReadable() throws Exception {
+        WalletEntity other = walletRepository.save(new WalletEntity(wallet.getUser(), 0.0));
+        line(wallet, TransactionType.CREDIT, 300.0, JANUARY.atDay(3).atTime(9, 0));
+        line(wallet, TransactionType.DEBIT, 20.0, JANUARY.atDay(3).atTime(12, 0));
+        line(wallet, TransactionType.DEBIT, 30.0, JANUARY.atDay(20).atTime(18, 0));
+        line(other, TransactionType.CREDIT, 5.0, JANUARY.atDay(4).atTime(8, 0));
+        line(wallet, TransactionType.CREDIT, 7.0, JANUARY.plusMonths(2).atDay(1).atTime(10, 0));   // hot month
+        summaryService.project(wallet.getId());
+        summaryService.project(other.getId());
+        line(wallet, TransactionType.DEBIT, 1.0, JANUARY.atDay(25).atTime(7, 0));                  // not projected yet
+        WalletStatementDTO before = rollupService.getMonthlyStatement(wallet.getId(), JANUARY);
+        // Hot-only history comes back in id order; once archived lines join in, it is sorted by time
+        List<WalletTransactionResponseDTO> historyBefore = walletService.listTransactions(wallet.getId()).stream()
+                .sorted(Comparator.comparing(WalletTransactionResponseDTO::timestamp))
+                .toList();
+
+        assertThat(archiver.archiveBefore(JANUARY.plusMonths(1))).isEqualTo(4);
+
+        // Rows per segment is 2, but a wallet's month is never split: one file per wallet here
+        assertThat(Files.list(archiveDir)).hasSize(2);
+        ArchivedWalletMonthEntity month = monthRepository.findById(
+                new ArchivedWalletMonthEntity.Key(wallet.getId(), JANUARY.toString())).orElseThrow();
+        assertThat(month.getDebitCount()).isEqualTo(2);
+        assertThat(month.getCreditCount()).isEqualTo(1);
+        assertThat(transactionRepository.findByWalletId(wallet.getId())).hasSize(2);
+        assertThat(walletService.listTransactions(wallet.getId())).isEqualTo(historyBefore);
+        assertThat(rollupService.getMonthlyStatement(wallet.getId(), JANUARY)).isEqualTo(before);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(exportService.export(wallet.getId(), TransactionExportService.Format.NDJSON, out)).isEqualTo(5);
+
+        // The straggler follows once projected, into a second segment of the same month
+        summaryService.project(wallet.getId());
+        assertThat(archiver.archiveBefore(JANUARY.plusMonths(1))).isEqualTo(1);
+        assertThat(transactionRepository.findByWalletId(wallet.getId())).hasSize(1);
+        assertThat(walletService.listTransactions(wallet.getId())).isEqualTo(historyBefore);
+    }
+
+    @Test
+    void testRebuildKeepsArchivedMonths() {
+        line(wallet, TransactionType.CREDIT, 300.0, JANUARY.atDay(3).atTime(9, 0));
+        line(wallet, TransactionType.DEBIT, 20.0, JANUARY.atDay(20).atTime(18, 0));
+        line(wallet, TransactionType.CREDIT, 7.0, JANUARY.plusMonths(2).atDay(1).atTime(10, 0));   // hot month
+        summaryService.project(wallet.getId());
+        WalletStatementDTO before = rollupService.getMonthlyStatement(wallet.getId(), JANUARY);
+        WalletSummaryDTO summaryBefore = summaryOf(wallet.getId());
+
+        assertThat(archiver.archiveBefore(JANUARY.plusMonths(1))).isEqualTo(2);
+        summaryService.rebuild();
+        while (projector.getStats().pendingLines() > 0) projector.projectPending();
+
+        assertThat(rollupService.getMonthlyStatement(wallet.getId(), JANUARY)).isEqualTo(before);
+        WalletSummaryDTO summary = summaryOf(wallet.getId());
+        assertThat(summary.transactionCount()).isEqualTo(summaryBefore.transactionCount());
+        assertThat(summary.totalCredits()).isEqualTo(summaryBefore.totalCredits());
+        assertThat(summary.totalDebits()).isEqualTo(summaryBefore.totalDebits());
+        assertThat(summary.lastActivityAt()).isEqualTo(summaryBefore.lastActivityAt());
+    }
+
+    @Test
+    void testCursorHistoryWalksIntoArchivedMonths() {
+        line(wallet, TransactionType.CREDIT, 300.0, JANUARY.atDay(3).atTime(9, 0));
+        line(wallet, TransactionType.DEBIT, 20.0, JANUARY.atDay(20).atTime(18, 0));
+        line(wallet, TransactionType.CREDIT, 7.0, JANUARY.plusMonths(2).atDay(1).atTime(10, 0));   // hot month
+        line(wallet, TransactionType.DEBIT, 2.0, JANUARY.plusMonths(2).atDay(5).atTime(10, 0));
+        summaryService.project(wallet.getId());
+        List<WalletTransactionResponseDTO> newestFirst = transactionService.getFilteredTransactions(
+                wallet.getId(), null, null, null, PageRequest.of(0, 10)).getContent();
+
+        assertThat(archiver.archiveBefore(JANUARY.plusMonths(1))).isEqualTo(2);
+
+        // Offset pages stay on the hot table; the archive is reached through the cursor endpoint
+        Page<WalletTransactionResponseDTO> offset = transactionService.getFilteredTransactions(
+                wallet.getId(), null, null, null, PageRequest.of(0, 10));
+        assertThat(offset.getTotalElements()).isEqualTo(2);
+        assertThat(offset.getContent()).isEqualTo(newestFirst.subList(0, 2));
+
+        // Filters apply to archived rows too; a range cutting January in half is counted row by row
+        TransactionHistorySliceDTO debits = transactionService.getTransactionHistoryAfter(wallet.getId(),
+                TransactionType.DEBIT, null, JANUARY.atEndOfMonth().atTime(23, 59), null, 10, true);
+        assertThat(debits.content()).extracting(WalletTransactionResponseDTO::amount).containsExactly(20.0);
+        assertThat(debits.totalElements()).isEqualTo(1);
+        assertThat(transactionService.getTransactionHistoryAfter(wallet.getId(), null,
+                JANUARY.atDay(10).atStartOfDay(), null, null, 10, true).totalElements()).isEqualTo(3);
+
+        // Cursor pages walk from the hot rows into the archive without skipping or repeating
+        List<WalletTransactionResponseDTO> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionHistorySliceDTO slice = transactionService.getTransactionHistoryAfter(
+                    wallet.getId(), null, null, null, cursor, 1, true);
+            assertThat(slice.totalElements()).isEqualTo(4);
+            walked.addAll(slice.content());
+            cursor = slice.nextCursor();
+        } while (cursor != null);
+        assertThat(walked).isEqualTo(newestFirst);
+    }
+
+    @Test
+    void testArchivedTransactionIdsStayTaken() {
+        String id = "ARCHIVED-" + System.nanoTime();
+        walletService.processTransaction(wallet.getId(), new WalletTransactionRequestDTO(id, 300.0, "CREDIT", "Deposit"));
+        TransactionEntity row = transactionRepository.findByTransactionId(id).orElseThrow();
+        row.setTransactionDate(JANUARY.atDay(3).atTime(9, 0));
+        transactionRepository.save(row);
+        summaryService.project(wallet.getId());
+        assertThat(archiver.archiveBefore(JANUARY.plusMonths(1))).isEqualTo(1);
+
+        // Client retry long after the row left the hot table: original result, no second credit
+        assertThat(walletService.processTransaction(wallet.getId(),
+                new WalletTransactionRequestDTO(id, 300.0, "CREDIT", "Deposit")).transactionId()).isEqualTo(id);
+        WalletBatchResponseDTO batch = walletService.processBatch(wallet.getId(),
+                List.of(new WalletTransactionRequestDTO(id, 300.0, "CREDIT", "Deposit")),
+                WalletBatchProperties.FailurePolicy.SKIP_FAILED);
+
+        assertThat(batch.rejected()).isEqualTo(1);
+        assertThat(walletService.getBalance(wallet.getId())).isEqualTo(1300.0);
+    }
+
+    @Test
+    void testFilesWithoutManifestRowAreSwept() throws Exception {
+        Path orphan = Files.writeString(archiveDir.resolve("transactions-2001-01-99999.wseg"), "half written");
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+        // Too young: may still be another pass's segment on its way to the manifest
+        Path inFlight = Files.writeString(archiveDir.resolve("transactions-2001-01-99998.wseg"), "being written");
+
+        assertThat(archiver.archiveBefore(JANUARY)).isZero();
+        assertThat(orphan).doesNotExist();
+        assertThat(inFlight).exists();
+    }
+
+    @Test
+    void testPassIsSkippedWhileAnotherInstanceHoldsTheLease() throws Exception {
+        archiver.archiveBefore(JANUARY);   // creates the lease row
+        tx.executeWithoutResult(status -> jobLockRepository.acquire("transaction-archiver", "other-instance",
+                LocalDateTime.now(), LocalDateTime.now().plusMinutes(5)));
+        line(wallet, TransactionType.CREDIT, 300.0, JANUARY.atDay(3).atTime(9, 0));
+        summaryService.project(wallet.getId());
+        Path orphan = Files.writeString(archiveDir.resolve("transactions-2001-01-99999.wseg"), "half written");
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+
+        try {
+            assertThat(archiver.archiveBefore(JANUARY.plusMonths(1))).isZero();
+            assertThat(orphan).exists();
+        } finally {
+            tx.executeWithoutResult(status -> jobLockRepository.release("transaction-archiver", "other-instance"));
+        }
+        assertThat(archiver.archiveBefore(JANUARY.plusMonths(1))).isEqualTo(1);
+        assertThat(orphan).doesNotExist();
+    }
+
+    private WalletSummaryDTO summaryOf(Long id) {
+        return summaryService.getSummaries().stream().filter(s -> s.walletId().equals(id)).findFirst().orElseThrow();
+    }
+
+    private void line(WalletEntity target, TransactionType type, double amount, LocalDateTime at) {
+        TransactionEntity txn = new TransactionEntity(target, type, amount, "Archive " + type);
+        txn.setTransactionId("ARCHIVE-" + System.nanoTime());
+        txn.setTransactionDate(at);
+        transactionRepository.save(txn);
+    }
+}
@@ -0,0 +1,87 @@
+package org.transactions.digitalwallettraining.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.config.WalletTransferProperties;
+import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionResponseDTO;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionExportIntegrationTest {
+
+    @Autowired private WalletService walletService;
+    @Autowired private TransactionExportService exportService;
+    @Autowired private WalletTransferProperties transferProperties;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private ObjectMapper objectMapper;
+
+    private Long walletId;
+
+    @BeforeEach
+    void setup() {
+        transferProperties.setJournal(WalletTransferProperties.Journal.DOUBLE_ENTRY);
+        UserEntity user = userRepository.save(new UserEntity("Export", "export_" + System.nanoTime() + "@example.com", 30));
+        walletId = walletRepository.save(new WalletEntity(user, 1000.0)).getId();
+        Long otherId = walletRepository.save(new WalletEntity(user, 0.0)).getId();
+
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 250.0, "CREDIT", "Salary, March"));
+        walletService.transferMoney(walletId, otherId, 100.0);   // journal posting, not a transaction row
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 40.5, "DEBIT", "Coffee \"large\""));
+    }
+
+    @AfterEach
+    void reset() {
+        transferProperties.setJournal(WalletTransferProperties.Journal.PAIRED_ROWS);
+    }
+
+    @Test
+    void testNdjsonMatchesListTransactions() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long lines = exportService.export(walletId, TransactionExportService.Format.NDJSON, out);
+
+        List<WalletTransactionResponseDTO> exported = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            exported.add(objectMapper.readValue(line, WalletTransactionResponseDTO.class));
+        }
+        assertThat(lines).isEqualTo(3);
+        assertThat(exported).isEqualTo(walletService.listTransactions(walletId));
+    }
+
+    @Test
+    void testCsvQuotesDescriptions() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(walletId, TransactionExportService.Format.CSV, out);
+
+        List<String> rows = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(rows).hasSize(4);
+        assertThat(rows.get(0)).isEqualTo("transactionId,type,amount,timestamp,description");
+        assertThat(rows.get(1)).contains(",CREDIT,250.00,").endsWith(",\"Salary, March\"");
+        assertThat(rows.get(2)).contains(",DEBIT,100.00,");
+        assertThat(rows.get(3)).contains(",DEBIT,40.50,").endsWith(",\"Coffee \"\"large\"\"\"");
+    }
+
+    @Test
+    void testUnknownFormatAndWalletAreRejected() {
+        assertThatThrownBy(() -> TransactionExportService.Format.parse("xml")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(TransactionExportService.Format.parse(" csv ")).isEqualTo(TransactionExportService.Format.CSV);
+        assertThatThrownBy(() -> exportService.requireWallet(-1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
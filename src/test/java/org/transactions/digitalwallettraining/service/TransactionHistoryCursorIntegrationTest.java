@@ -0,0 +1,109 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.dto.TransactionHistorySliceDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionResponseDTO;
+import org.transactions.digitalwallettraining.entity.TransactionEntity;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionHistoryCursorIntegrationTest {
+
+    private static final int ROWS = 25;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired private TransactionService transactionService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    private Long walletId;
+    private List<String> newestFirst;
+
+    @BeforeEach
+    void setup() {
+        UserEntity user = userRepository.save(new UserEntity("Cursor", "cursor_" + System.nanoTime() + "@example.com", 30));
+        WalletEntity wallet = walletRepository.save(new WalletEntity(user, 0.0));
+        walletId = wallet.getId();
+
+        // Pairs of rows share a timestamp, so page boundaries have to fall back on the id tie-break
+        List<TransactionEntity> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            TransactionEntity txn = new TransactionEntity(wallet, i % 3 == 0 ? TransactionType.DEBIT : TransactionType.CREDIT, 1.0, "Row " + i);
+            txn.setTransactionId("cursor-" + walletId + "-" + i);
+            txn.setTransactionDate(BASE.plusMinutes(i / 2));
+            rows.add(txn);
+        }
+        transactionRepository.saveAll(rows);
+        newestFirst = rows.stream()
+                .sorted((a, b) -> a.getTransactionDate().equals(b.getTransactionDate())
+                        ? Long.compare(b.getId(), a.getId())
+                        : b.getTransactionDate().compareTo(a.getTransactionDate()))
+                .map(TransactionEntity::getTransactionId)
+                .toList();
+    }
+
+    @Test
+    void testCursorWalksEveryRowOnceInOrder() {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionHistorySliceDTO slice = transactionService.getTransactionHistoryAfter(walletId, null, null, null, cursor, 10, false);
+            slice.content().forEach(t -> seen.add(t.transactionId()));
+            assertThat(slice.totalElements()).isNull();
+            cursor = slice.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).isEqualTo(newestFirst);
+    }
+
+    @Test
+    void testTypeAndDateFiltersWithTotal() {
+        LocalDateTime from = BASE.plusMinutes(3);
+        LocalDateTime to = BASE.plusMinutes(9);
+        List<WalletTransactionResponseDTO> all = new ArrayList<>();
+        Long total = null;
+        String cursor = null;
+        do {
+            TransactionHistorySliceDTO slice = transactionService.getTransactionHistoryAfter(walletId, TransactionType.CREDIT, from, to, cursor, 4, true);
+            all.addAll(slice.content());
+            total = slice.totalElements();
+            cursor = slice.nextCursor();
+        } while (cursor != null);
+
+        assertThat(all).allSatisfy(t -> {
+            assertThat(t.type()).isEqualTo("CREDIT");
+            assertThat(t.timestamp()).isBetween(from, to);
+        });
+        assertThat(all).hasSize(9);   // CREDIT rows among i = 6..19
+        assertThat(total).isEqualTo(9L);
+        assertThat(all).extracting(WalletTransactionResponseDTO::transactionId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testInvalidCursorAndSizeAreRejected() {
+        assertThatThrownBy(() -> transactionService.getTransactionHistoryAfter(walletId, null, null, null, "bogus", 10, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> transactionService.getTransactionHistoryAfter(walletId, null, null, null, null, 0, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
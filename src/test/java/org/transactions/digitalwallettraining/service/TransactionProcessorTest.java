@@ -2,21 +2,132 @@ package org.transactions.digitalwallettraining.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.transactions.digitalwallettraining.config.WalletBatchProperties;
+import org.transactions.digitalwallettraining.config.WalletIngestionProperties;
+import org.transactions.digitalwallettraining.dto.IngestionResultDTO;
+import org.transactions.digitalwallettraining.dto.WalletBatchResponseDTO;
+import org.transactions.digitalwallettraining.dto.WalletBulkTransactionDTO;
 import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
+import org.transactions.digitalwallettraining.exception.WriteAheadLogUnavailableException;
 import org.transactions.digitalwallettraining.utils.TransactionUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 class TransactionProcessorTest {
 
     private TransactionProcessor processor;
+    private WalletService walletService;
 
     @BeforeEach
     void setup() {
-        processor = new TransactionProcessor();
+        walletService = mock(WalletService.class);
+        WalletIngestionProperties properties = new WalletIngestionProperties();
+        properties.setPartitions(4);
+        properties.setChunkSize(7);
+        properties.setMaxInFlight(16);
+        properties.setRetryBackoffMs(1);
+        WalletWriteAheadLog writeAheadLog = mock(WalletWriteAheadLog.class);
+        when(writeAheadLog.exclusive(any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());   // log off
+        WalletCommandQueue commandQueue = mock(WalletCommandQueue.class);
+        when(commandQueue.execute(anyLong(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());   // DIRECT
+        processor = new TransactionProcessor(walletService, properties, writeAheadLog, commandQueue);
+    }
+
+    @Test
+    void testIngestAppliesEveryWalletInOrder() {
+        // Record what each wallet received, in the order the service saw it
+        Map<Long, List<String>> seen = new java.util.concurrent.ConcurrentHashMap<>();
+        when(walletService.processBatch(anyLong(), anyList(), eq(WalletBatchProperties.FailurePolicy.SKIP_FAILED)))
+                .thenAnswer(inv -> {
+                    Long walletId = inv.getArgument(0);
+                    List<WalletTransactionRequestDTO> items = inv.getArgument(1);
+                    seen.computeIfAbsent(walletId, id -> Collections.synchronizedList(new ArrayList<>()))
+                            .addAll(items.stream().map(WalletTransactionRequestDTO::transactionId).toList());
+                    return new WalletBatchResponseDTO(walletId, items.size(), 0, 0.0, List.of());
+                });
+
+        List<WalletBulkTransactionDTO> rows = new ArrayList<>();
+        IntStream.range(0, 300).forEach(i -> rows.add(new WalletBulkTransactionDTO((long) (i % 5),
+                new WalletTransactionRequestDTO("T" + i, 10.0, i % 3 == 0 ? "DEBIT" : "CREDIT", "Row " + i))));
+        rows.add(new WalletBulkTransactionDTO(1L, new WalletTransactionRequestDTO("BAD", -1.0, "CREDIT", "Bad")));
+
+        IngestionResultDTO result = processor.ingest(rows.iterator());
+
+        assertEquals(301, result.received());
+        assertEquals(300, result.applied());
+        assertEquals(1, result.invalid());
+        assertEquals(1000.0, result.totalDebits());
+        assertEquals(2000.0, result.totalCredits());
+        for (long w = 0; w < 5; w++) {
+            List<String> ids = seen.get(w);
+            assertEquals(60, ids.size());
+            for (int k = 1; k < ids.size(); k++) {
+                assertTrue(Integer.parseInt(ids.get(k).substring(1)) > Integer.parseInt(ids.get(k - 1).substring(1)));
+            }
+        }
+    }
+
+    @Test
+    void testWorkerErrorFailsTheImportInsteadOfBlockingTheReader() {
+        when(walletService.processBatch(anyLong(), anyList(), eq(WalletBatchProperties.FailurePolicy.SKIP_FAILED)))
+                .thenThrow(new StackOverflowError("deep recursion"));
+
+        // Far more rows than the queues hold (16 in flight), so the reader would block on a dead partition
+        List<WalletBulkTransactionDTO> rows = new ArrayList<>();
+        IntStream.range(0, 500).forEach(i -> rows.add(new WalletBulkTransactionDTO((long) (i % 5),
+                new WalletTransactionRequestDTO("E" + i, 10.0, "CREDIT", "Row " + i))));
+
+        IllegalStateException ex = assertTimeoutPreemptively(java.time.Duration.ofSeconds(10),
+                () -> assertThrows(IllegalStateException.class, () -> processor.ingest(rows.iterator())));
+        assertInstanceOf(StackOverflowError.class, ex.getCause());
+    }
+
+    @Test
+    void testTransientFailuresAreRetriedAndOnlyRefusedWalletsRejected() {
+        AtomicInteger busy = new AtomicInteger(2);
+        when(walletService.processBatch(anyLong(), anyList(), eq(WalletBatchProperties.FailurePolicy.SKIP_FAILED)))
+                .thenAnswer(inv -> {
+                    Long walletId = inv.getArgument(0);
+                    List<WalletTransactionRequestDTO> items = inv.getArgument(1);
+                    if (walletId == 2L) throw new IllegalArgumentException("Wallet not found");
+                    if (walletId == 1L && busy.getAndDecrement() > 0) {
+                        throw new WriteAheadLogUnavailableException("Write-ahead log is busy. Please try again later.");
+                    }
+                    return new WalletBatchResponseDTO(walletId, items.size(), 0, 0.0, List.of());
+                });
+
+        List<WalletBulkTransactionDTO> rows = new ArrayList<>();
+        IntStream.range(0, 6).forEach(i -> rows.add(new WalletBulkTransactionDTO((long) (i % 3),
+                new WalletTransactionRequestDTO("R" + i, 10.0, "CREDIT", "Row " + i))));
+
+        IngestionResultDTO result = processor.ingest(rows.iterator());
+
+        assertEquals(4, result.applied());    // wallet 1 went through on its third attempt
+        assertEquals(2, result.rejected());   // wallet 2 does not exist
+    }
+
+    @Test
+    void testImportFailsOnceRetriesAreExhausted() {
+        when(walletService.processBatch(anyLong(), anyList(), eq(WalletBatchProperties.FailurePolicy.SKIP_FAILED)))
+                .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+
+        List<WalletBulkTransactionDTO> rows = List.of(new WalletBulkTransactionDTO(1L,
+                new WalletTransactionRequestDTO("L1", 10.0, "CREDIT", "Row")));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> processor.ingest(rows.iterator()));
+        assertInstanceOf(CannotAcquireLockException.class, ex.getCause().getCause());
+        verify(walletService, times(5)).processBatch(eq(1L), anyList(), any());
     }
 
     @Test
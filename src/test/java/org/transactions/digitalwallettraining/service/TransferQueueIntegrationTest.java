@@ -0,0 +1,78 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.dto.TransferStatusDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransferRequestDTO;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferQueueIntegrationTest {
+
+    @Autowired private TransferQueueService transferQueueService;
+    @Autowired private TransferWorker transferWorker;
+    @Autowired private WalletService walletService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+
+    private Long fromId;
+    private Long toId;
+
+    @BeforeEach
+    void setup() {
+        UserEntity user = userRepository.save(new UserEntity("Queue", "queue_" + System.nanoTime() + "@example.com", 30));
+        fromId = walletRepository.save(new WalletEntity(user, 1000.0)).getId();
+        toId = walletRepository.save(new WalletEntity(user, 0.0)).getId();
+    }
+
+    @Test
+    void testQueuedTransferCompletes() throws Exception {
+        TransferStatusDTO submitted = transferQueueService.submit(new WalletTransferRequestDTO(fromId, toId, 250.0));
+        assertThat(submitted.status()).isEqualTo("PENDING");
+
+        TransferStatusDTO done = awaitFinal(submitted.transferId());
+
+        assertThat(done.status()).isEqualTo("COMPLETED");
+        assertThat(walletService.getBalance(fromId)).isEqualTo(750.0);
+        assertThat(walletService.getBalance(toId)).isEqualTo(250.0);
+    }
+
+    @Test
+    void testQueuedTransferWithInsufficientBalanceIsRejected() throws Exception {
+        TransferStatusDTO submitted = transferQueueService.submit(new WalletTransferRequestDTO(fromId, toId, 5000.0));
+
+        TransferStatusDTO done = awaitFinal(submitted.transferId());
+
+        assertThat(done.status()).isEqualTo("REJECTED");
+        assertThat(done.failureReason()).contains("Insufficient balance");
+        assertThat(walletService.getBalance(fromId)).isEqualTo(1000.0);
+    }
+
+    @Test
+    void testInvalidSubmissionIsRefusedUpFront() {
+        assertThatThrownBy(() -> transferQueueService.submit(new WalletTransferRequestDTO(fromId, fromId, 10.0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> transferQueueService.getStatus("missing"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Transfer not found");
+    }
+
+    private TransferStatusDTO awaitFinal(String transferId) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            transferWorker.drain();
+            TransferStatusDTO status = transferQueueService.getStatus(transferId);
+            if (status.status().equals("COMPLETED") || status.status().equals("REJECTED")) return status;
+            Thread.sleep(100);
+        }
+        return fail("Transfer " + transferId + " was not processed in time");
+    }
+}
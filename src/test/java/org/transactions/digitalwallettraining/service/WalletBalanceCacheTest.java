@@ -0,0 +1,87 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.transactions.digitalwallettraining.config.WalletBalanceCacheProperties;
+import org.transactions.digitalwallettraining.dto.BalanceCacheStatsDTO;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalletBalanceCacheTest {
+
+    private WalletBalanceCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WalletBalanceCacheProperties();
+        properties.setTtlMs(60_000);
+    }
+
+    @Test
+    void testHitsAfterFirstLoad() {
+        WalletBalanceCache cache = new WalletBalanceCache(properties);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(500, cache.get(1L, id -> balance(500, loads)).balanceMinor());
+        }
+
+        assertEquals(1, loads.get());
+        BalanceCacheStatsDTO stats = cache.getStats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void testCommittedWriteForcesReload() {
+        WalletBalanceCache cache = new WalletBalanceCache(properties);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, id -> balance(500, loads));
+
+        cache.invalidateAfterCommit(1L);   // no transaction active → applied immediately
+
+        assertEquals(700, cache.get(1L, id -> balance(700, loads)).balanceMinor());
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().invalidations());
+    }
+
+    @Test
+    void testLoadRacingACommitIsNotCached() {
+        WalletBalanceCache cache = new WalletBalanceCache(properties);
+        AtomicInteger loads = new AtomicInteger();
+
+        // The write commits while the reader is still loading the old balance
+        WalletBalanceCache.Balance stale = cache.get(1L, id -> {
+            cache.invalidate(List.of(1L));
+            return balance(500, loads);
+        });
+        assertEquals(500, stale.balanceMinor());
+
+        assertEquals(700, cache.get(1L, id -> balance(700, loads)).balanceMinor());
+    }
+
+    @Test
+    void testSizeAndAgeBounds() {
+        properties.setMaxEntries(2);
+        properties.setStripes(1);   // one LRU over every wallet, so the bound is exact
+        WalletBalanceCache cache = new WalletBalanceCache(properties);
+        AtomicInteger loads = new AtomicInteger();
+        for (long id = 1; id <= 3; id++) cache.get(id, w -> balance(100, loads));
+
+        assertEquals(2, cache.getStats().size());
+        assertEquals(1, cache.getStats().evictions());
+
+        properties.setTtlMs(0);   // everything cached is now too old
+        cache.get(3L, w -> balance(100, loads));
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getStats().evictions());
+    }
+
+    private static WalletBalanceCache.Balance balance(long minor, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new WalletBalanceCache.Balance(9L, minor, 0);
+    }
+}
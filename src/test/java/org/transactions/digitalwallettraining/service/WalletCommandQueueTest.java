@@ -0,0 +1,91 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.transactions.digitalwallettraining.config.WalletExecutionProperties;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalletCommandQueueTest {
+
+    private WalletExecutionProperties properties;
+    private WalletCommandQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WalletExecutionProperties();
+        properties.setMode(WalletExecutionProperties.Mode.QUEUED);
+        properties.setLanes(8);
+        queue = new WalletCommandQueue(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+    }
+
+    // ✅ DIRECT mode runs on the caller's thread
+    @Test
+    void testDirectModeRunsInline() {
+        properties.setMode(WalletExecutionProperties.Mode.DIRECT);
+        Thread caller = Thread.currentThread();
+        assertSame(caller, queue.execute(1L, Thread::currentThread));
+    }
+
+    // ✅ Commands for one wallet never overlap
+    @Test
+    void testSameWalletIsSerialized() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                clients.submit(() -> queue.execute(42L, () -> {
+                    int now = inFlight.incrementAndGet();
+                    maxInFlight.accumulateAndGet(now, Math::max);
+                    Thread.onSpinWait();
+                    return inFlight.decrementAndGet();
+                }));
+            }
+        }
+
+        assertEquals(1, maxInFlight.get());
+    }
+
+    // ✅ Business exceptions reach the caller unchanged
+    @Test
+    void testExceptionsArePropagated() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> queue.execute(7L, () -> { throw new IllegalArgumentException("Insufficient balance."); }));
+        assertEquals("Insufficient balance.", ex.getMessage());
+    }
+
+    // ✅ A lane may call back into the queue without deadlocking on itself
+    @Test
+    void testNestedCallRunsInline() {
+        assertEquals("done", queue.execute(3L, () -> queue.execute(3L, () -> "done")));
+    }
+
+    // ✅ A nested call for a wallet on another lane is handed to that lane, not run inline
+    @Test
+    void testNestedCallForOtherLaneRunsOnThatLane() {
+        long other = 4L;
+        while (queue.laneIndex(other) == queue.laneIndex(3L)) {
+            other++;
+        }
+        long otherWallet = other;
+
+        String[] threads = queue.execute(3L, () -> new String[] {
+                Thread.currentThread().getName(),
+                queue.execute(otherWallet, () -> Thread.currentThread().getName())
+        });
+
+        assertNotEquals(threads[0], threads[1]);
+        assertTrue(threads[1].startsWith("wallet-lane-"));
+    }
+}
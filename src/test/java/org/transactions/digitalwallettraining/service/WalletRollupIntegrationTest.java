@@ -0,0 +1,99 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.dto.DailyTotalsDTO;
+import org.transactions.digitalwallettraining.dto.WalletStatementDTO;
+import org.transactions.digitalwallettraining.entity.TransactionEntity;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletDailyRollupEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletDailyRollupRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Projector interval pushed out so the test decides when lines are rolled up
+@SpringBootTest(properties = "wallet.summary.project-interval-ms=3600000")
+@ActiveProfiles("test")
+class WalletRollupIntegrationTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2025, 3, 1);
+
+    @Autowired private WalletRollupService rollupService;
+    @Autowired private WalletSummaryService summaryService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private WalletDailyRollupRepository rollupRepository;
+
+    private WalletEntity wallet;
+
+    @BeforeEach
+    void setup() {
+        UserEntity user = userRepository.save(new UserEntity("Rollup", "rollup_" + System.nanoTime() + "@example.com", 30));
+        wallet = walletRepository.save(new WalletEntity(user, 1000.0));
+    }
+
+    @Test
+    void testProjectionFillsOneBucketPerDay() {
+        line(TransactionType.CREDIT, 500.0, MARCH_1, 9);
+        line(TransactionType.DEBIT, 20.0, MARCH_1, 18);
+        line(TransactionType.DEBIT, 30.0, MARCH_1.plusDays(2), 12);
+
+        summaryService.project(wallet.getId());
+        summaryService.project(wallet.getId());   // nothing new: buckets must not grow
+
+        WalletDailyRollupEntity first = rollupRepository.findById(new WalletDailyRollupEntity.Key(wallet.getId(), MARCH_1)).orElseThrow();
+        assertThat(first.getCreditsMinor()).isEqualTo(50_000);
+        assertThat(first.getDebitsMinor()).isEqualTo(2_000);
+        assertThat(first.getDebitCount()).isEqualTo(1);
+        assertThat(first.getCreditCount()).isEqualTo(1);
+
+        WalletStatementDTO statement = rollupService.getMonthlyStatement(wallet.getId(), YearMonth.of(2025, 3));
+        assertThat(statement.totalCredits()).isEqualTo(500.0);
+        assertThat(statement.totalDebits()).isEqualTo(50.0);
+        assertThat(statement.debitCount()).isEqualTo(2);
+        assertThat(statement.days()).extracting(DailyTotalsDTO::day).containsExactly(MARCH_1, MARCH_1.plusDays(2));
+    }
+
+    @Test
+    void testRangeIncludesLinesNotYetRolledUp() {
+        line(TransactionType.DEBIT, 10.0, MARCH_1, 10);
+        summaryService.project(wallet.getId());
+        line(TransactionType.DEBIT, 15.0, MARCH_1, 11);   // still unprojected
+
+        WalletStatementDTO before = rollupService.getActivity(wallet.getId(), MARCH_1, MARCH_1);
+        assertThat(before.totalDebits()).isEqualTo(25.0);
+        assertThat(before.debitCount()).isEqualTo(2);
+
+        summaryService.project(wallet.getId());
+        assertThat(rollupService.getActivity(wallet.getId(), MARCH_1, MARCH_1)).isEqualTo(before);
+
+        assertThat(rollupService.getActivity(wallet.getId(), MARCH_1.plusDays(1), MARCH_1.plusDays(5)).days()).isEmpty();
+    }
+
+    @Test
+    void testInvalidRangesAreRejected() {
+        assertThatThrownBy(() -> rollupService.getActivity(wallet.getId(), MARCH_1, MARCH_1.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rollupService.getActivity(wallet.getId(), MARCH_1, MARCH_1.plusYears(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void line(TransactionType type, double amount, LocalDate day, int hour) {
+        TransactionEntity txn = new TransactionEntity(wallet, type, amount, "Rollup " + type);
+        txn.setTransactionId("ROLLUP-" + System.nanoTime());
+        txn.setTransactionDate(day.atTime(hour, 0));
+        transactionRepository.save(txn);
+    }
+}
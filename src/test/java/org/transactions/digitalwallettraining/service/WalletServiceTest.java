@@ -3,8 +3,18 @@ package org.transactions.digitalwallettraining.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
 import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.transactions.digitalwallettraining.config.WalletBalanceCacheProperties;
+import org.transactions.digitalwallettraining.config.WalletBatchProperties;
+import org.transactions.digitalwallettraining.config.WalletExecutionProperties;
+import org.transactions.digitalwallettraining.config.WalletLedgerProperties;
+import org.transactions.digitalwallettraining.config.WalletTransferProperties;
 import org.transactions.digitalwallettraining.dto.*;
 import org.transactions.digitalwallettraining.entity.*;
 import org.transactions.digitalwallettraining.exception.MaxRetryExceededException;
@@ -25,6 +35,34 @@ class WalletServiceTest {
     private UserRepository userRepository;
     @Mock
     private WalletFreezeService walletFreezeService;
+    @Mock
+    private TransactionIdempotencyService idempotencyService;
+    @Mock
+    private HotWalletService hotWalletService;
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+    @Mock
+    private JournalPostingRepository journalPostingRepository;
+    @Mock
+    private SpendWindowTracker spendWindowTracker;
+    @Mock
+    private WalletSummaryService walletSummaryService;
+    @Mock
+    private WalletSnapshotService snapshotService;
+    @Mock
+    private TransactionArchive transactionArchive;
+    @Spy
+    private WalletBalanceCache balanceCache = new WalletBalanceCache(new WalletBalanceCacheProperties());
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private WalletExecutionProperties executionProperties = new WalletExecutionProperties();
+    @Spy
+    private WalletBatchProperties batchProperties = new WalletBatchProperties();
+    @Spy
+    private WalletTransferProperties transferProperties = new WalletTransferProperties();
+    @Spy
+    private WalletLedgerProperties ledgerProperties = new WalletLedgerProperties();
 
     @InjectMocks
     private WalletService walletService;
@@ -50,8 +88,11 @@ class WalletServiceTest {
         wallet.setId(10L);
         wallet.setUser(user);
         wallet.setBalance(1000.0);
-        wallet.setDailySpent(0.0);
         wallet.setFrozen(false);
+
+        // Empty spend window: every reservation fits and the new total is just the amount
+        when(spendWindowTracker.tryReserve(anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
     }
 
     // ✅ Create wallet success
@@ -85,6 +126,34 @@ class WalletServiceTest {
         assertEquals(1000.0, balance);
     }
 
+    // ✅ Repeated reads are served from the balance cache until a write commits
+    @Test
+    void testGetBalance_CachedUntilInvalidated() {
+        when(walletRepository.findById(10L)).thenReturn(Optional.of(wallet));
+
+        walletService.getBalance(10L);
+        walletService.getBalance(10L);
+        verify(walletRepository, times(1)).findById(10L);
+
+        balanceCache.invalidate(List.of(10L));
+        walletService.getBalance(10L);
+        verify(walletRepository, times(2)).findById(10L);
+    }
+
+    // ✅ Only the event-sourced ledger has a pending tail on top of the snapshot
+    @Test
+    void testGetBalance_PendingTailOnlyWhenEventSourced() {
+        when(walletRepository.findById(10L)).thenReturn(Optional.of(wallet));
+        when(transactionRepository.sumPendingDelta(10L)).thenReturn(5000L);
+
+        assertEquals(1000.0, walletService.getBalance(10L));
+        verify(transactionRepository, never()).sumPendingDelta(anyLong());
+
+        ledgerProperties.setMode(WalletLedgerProperties.Mode.EVENT_SOURCED);
+        balanceCache.invalidate(List.of(10L));
+        assertEquals(1050.0, walletService.getBalance(10L));
+    }
+
     // ❌ Get balance - wallet not found
     @Test
     void testGetBalance_WalletNotFound() {
@@ -121,6 +190,37 @@ class WalletServiceTest {
         verify(transactionRepository, times(1)).save(any(TransactionEntity.class));
     }
 
+    // ❌ Debit over the sliding daily window is rejected without touching the wallet row
+    @Test
+    void testProcessTransaction_DailyLimitExceeded() {
+        when(walletRepository.findById(10L)).thenReturn(Optional.of(wallet));
+        when(spendWindowTracker.tryReserve(eq(10L), anyLong(), anyLong(), anyLong())).thenReturn(SpendWindowTracker.REJECTED);
+        when(spendWindowTracker.spent(eq(10L), anyLong())).thenReturn(4_995_000L);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> walletService.processTransaction(10L,
+                new WalletTransactionRequestDTO("txn-limit", 100.0, "DEBIT", "Over limit")));
+
+        assertTrue(ex.getMessage().contains("₹50.00"));
+        assertEquals(1000.0, wallet.getBalance());
+        verify(walletRepository, never()).save(any(WalletEntity.class));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    // 🔁 Replayed transactionId returns the original response without loading the wallet
+    @Test
+    void testProcessTransaction_DuplicateReturnsOriginal() {
+        WalletTransactionResponseDTO original =
+                new WalletTransactionResponseDTO("txn1", 500.0, "CREDIT", null, "Deposit");
+        when(idempotencyService.findPrevious(10L, "txn1")).thenReturn(Optional.of(original));
+
+        WalletTransactionResponseDTO response = walletService.processTransaction(10L,
+                new WalletTransactionRequestDTO("txn1", 500.0, "CREDIT", "Deposit"));
+
+        assertSame(original, response);
+        verify(walletRepository, never()).findById(any());
+        verify(transactionRepository, never()).save(any());
+    }
+
     // ❌ Invalid transaction type
     @Test
     void testProcessTransaction_InvalidType() {
@@ -146,8 +246,15 @@ class WalletServiceTest {
                 .thenThrow(new CannotAcquireLockException("lock"))
                 .thenThrow(new ObjectOptimisticLockingFailureException(WalletEntity.class, 1L));
 
+        // Retries live in the @RetryOnConflict advice, so call through a proxy carrying it
+        AspectJProxyFactory factory = new AspectJProxyFactory(walletService);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ConflictRetryAspect(new ConflictRetryCoordinator()));
+        WalletService retrying = factory.getProxy();
+
         assertThrows(MaxRetryExceededException.class,
-                () -> walletService.processTransaction(10L, request));
+                () -> retrying.processTransaction(10L, request));
+        verify(walletRepository, times(5)).findById(10L);
     }
 
     // ✅ Transfer money success
@@ -170,6 +277,48 @@ class WalletServiceTest {
     }
 
 
+    // ✅ Pessimistic mode locks both wallets with one ordered query
+    @Test
+    void testTransferMoney_PessimisticLocksInOneQuery() {
+        transferProperties.setLocking(WalletTransferProperties.Locking.PESSIMISTIC);
+        WalletEntity fromWallet = new WalletEntity(user, 1000.0);
+        fromWallet.setId(2L);
+        WalletEntity toWallet = new WalletEntity(user, 500.0);
+        toWallet.setId(1L);
+
+        when(walletRepository.findAllByIdForUpdateOrdered(List.of(2L, 1L))).thenReturn(List.of(toWallet, fromWallet));
+
+        walletService.transferMoney(2L, 1L, 100.0);
+
+        assertEquals(900.0, fromWallet.getBalance());
+        assertEquals(600.0, toWallet.getBalance());
+        verify(walletRepository, never()).findById(any());
+    }
+
+    // ✅ Double-entry mode writes one journal entry with balanced postings instead of two rows
+    @Test
+    void testTransferMoney_DoubleEntryJournal() {
+        transferProperties.setJournal(WalletTransferProperties.Journal.DOUBLE_ENTRY);
+        WalletEntity fromWallet = new WalletEntity(user, 1000.0);
+        fromWallet.setId(1L);
+        WalletEntity toWallet = new WalletEntity(user, 500.0);
+        toWallet.setId(2L);
+
+        when(walletRepository.findById(1L)).thenReturn(Optional.of(fromWallet));
+        when(walletRepository.findById(2L)).thenReturn(Optional.of(toWallet));
+
+        WalletTransactionResponseDTO response = walletService.transferMoney(1L, 2L, 100.0, "entry-1");
+
+        ArgumentCaptor<JournalEntryEntity> entry = ArgumentCaptor.forClass(JournalEntryEntity.class);
+        verify(journalEntryRepository).save(entry.capture());
+        assertEquals("entry-1", response.transactionId());
+        assertEquals(2, entry.getValue().getPostings().size());
+        assertEquals(0L, entry.getValue().getPostings().stream().mapToLong(JournalPostingEntity::getAmountMinor).sum());
+        verify(transactionRepository, never()).save(any(TransactionEntity.class));
+        assertEquals(900.0, fromWallet.getBalance());
+        assertEquals(600.0, toWallet.getBalance());
+    }
+
     // ❌ Transfer to same wallet
     @Test
     void testTransferMoney_SameWallet() {
@@ -182,6 +331,42 @@ class WalletServiceTest {
         assertThrows(IllegalArgumentException.class, () -> walletService.transferMoney(1L, 2L, -100.0));
     }
 
+    // ✅ Batch with SKIP_FAILED applies the good items and reports the bad ones
+    @Test
+    void testProcessBatch_SkipFailed() {
+        when(walletRepository.findById(10L)).thenReturn(Optional.of(wallet));
+        when(transactionRepository.findExistingTransactionIds(any())).thenReturn(List.of("dup"));
+
+        WalletBatchResponseDTO result = walletService.processBatch(10L, List.of(
+                new WalletTransactionRequestDTO("b1", 200.0, "CREDIT", "Deposit"),
+                new WalletTransactionRequestDTO("b2", 5000.0, "DEBIT", "Too much"),
+                new WalletTransactionRequestDTO("dup", 10.0, "CREDIT", "Replay"),
+                new WalletTransactionRequestDTO("b3", 300.0, "DEBIT", "Purchase")
+        ), WalletBatchProperties.FailurePolicy.SKIP_FAILED);
+
+        assertEquals(2, result.applied());
+        assertEquals(2, result.rejected());
+        assertEquals(900.0, result.balance());
+        assertEquals("REJECTED", result.results().get(1).status());
+        assertEquals("Insufficient balance.", result.results().get(1).message());
+        verify(walletRepository, times(1)).save(wallet);
+        verify(transactionRepository, times(1)).saveAll(anyList());
+    }
+
+    // ❌ Batch with ALL_OR_NOTHING fails on the first rejected item
+    @Test
+    void testProcessBatch_AllOrNothing() {
+        when(walletRepository.findById(10L)).thenReturn(Optional.of(wallet));
+
+        List<WalletTransactionRequestDTO> items = List.of(
+                new WalletTransactionRequestDTO(null, 100.0, "CREDIT", "Deposit"),
+                new WalletTransactionRequestDTO(null, 5000.0, "DEBIT", "Too much"));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                walletService.processBatch(10L, items, WalletBatchProperties.FailurePolicy.ALL_OR_NOTHING));
+        verify(transactionRepository, never()).saveAll(anyList());
+    }
+
     // ✅ List transactions
     @Test
     void testListTransactions_Success() {
@@ -198,15 +383,14 @@ class WalletServiceTest {
     // ✅ Get all wallets
     @Test
     void testGetAllWallets_Success() {
-        WalletEntity wallet2 = new WalletEntity(user, 200.0);
-        wallet2.setId(11L);
-
-        when(walletRepository.findAll()).thenReturn(List.of(wallet, wallet2));
+        PageRequest pageable = PageRequest.of(0, 50);
+        when(walletSummaryService.getAllWallets(pageable)).thenReturn(new PageImpl<>(List.of(
+                new WalletResponseDTO(10L, 1L, 100.0), new WalletResponseDTO(11L, 1L, 200.0)), pageable, 2));
 
-        List<WalletResponseDTO> result = walletService.getAllWallets();
+        Page<WalletResponseDTO> result = walletService.getAllWallets(pageable);
 
-        assertEquals(2, result.size());
-        assertEquals(10L, result.get(0).getWalletId());
+        assertEquals(2, result.getTotalElements());
+        assertEquals(10L, result.getContent().get(0).getWalletId());
     }
 
     // ✅ Get wallet details
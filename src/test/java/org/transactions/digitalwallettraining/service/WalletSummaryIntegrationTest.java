@@ -0,0 +1,76 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.dto.WalletSummaryDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Projector interval pushed out so the test decides when projection happens
+@SpringBootTest(properties = "wallet.summary.project-interval-ms=3600000")
+@ActiveProfiles("test")
+class WalletSummaryIntegrationTest {
+
+    @Autowired private WalletService walletService;
+    @Autowired private WalletSummaryService summaryService;
+    @Autowired private WalletSummaryProjector projector;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+
+    private Long walletId;
+
+    @BeforeEach
+    void setup() {
+        UserEntity user = userRepository.save(new UserEntity("Summary", "summary_" + System.nanoTime() + "@example.com", 30));
+        walletId = walletRepository.save(new WalletEntity(user, 1000.0)).getId();
+    }
+
+    @Test
+    void testProjectionFoldsEachLineOnce() {
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 500.0, "CREDIT", "Deposit"));
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 200.0, "DEBIT", "Purchase"));
+
+        assertThat(summaryService.project(walletId)).isEqualTo(2);
+        assertThat(summaryService.project(walletId)).isZero();
+
+        WalletSummaryDTO summary = summaryOf(walletId);
+        assertThat(summary.balance()).isEqualTo(1300.0);
+        assertThat(summary.transactionCount()).isEqualTo(2);
+        assertThat(summary.totalCredits()).isEqualTo(500.0);
+        assertThat(summary.totalDebits()).isEqualTo(200.0);
+        assertThat(summary.lastActivityAt()).isNotNull();
+    }
+
+    @Test
+    void testRebuildRecomputesFromTheLedger() {
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 300.0, "CREDIT", "Deposit"));
+        summaryService.project(walletId);
+
+        summaryService.rebuild();
+        assertThat(summaryOf(walletId).transactionCount()).isZero();
+        assertThat(projector.getStats().pendingLines()).isPositive();
+
+        while (projector.getStats().pendingLines() > 0) projector.projectPending();
+
+        WalletSummaryDTO summary = summaryOf(walletId);
+        assertThat(summary.transactionCount()).isEqualTo(1);
+        assertThat(summary.totalCredits()).isEqualTo(300.0);
+        assertThat(summary.balance()).isEqualTo(1300.0);
+        assertThat(projector.getStats().lagMs()).isZero();
+    }
+
+    private WalletSummaryDTO summaryOf(Long id) {
+        return summaryService.getSummaries().stream()
+                .filter(s -> s.walletId().equals(id))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,185 @@
+package org.transactions.digitalwallettraining.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.transactions.digitalwallettraining.config.WalletBatchProperties;
+import org.transactions.digitalwallettraining.dto.WalStatsDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionRequestDTO;
+import org.transactions.digitalwallettraining.dto.WalletTransactionResponseDTO;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.entity.UserEntity;
+import org.transactions.digitalwallettraining.entity.WalletEntity;
+import org.transactions.digitalwallettraining.repository.TransactionRepository;
+import org.transactions.digitalwallettraining.repository.UserRepository;
+import org.transactions.digitalwallettraining.repository.WalletRepository;
+import org.transactions.digitalwallettraining.utils.WriteAheadLogFile.Kind;
+import org.transactions.digitalwallettraining.utils.WriteAheadLogFile.LogRecord;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "wallet.wal.enabled=true",
+        "wallet.wal.path=${java.io.tmpdir}/wallet-wal-${random.uuid}.wal",
+        "wallet.summary.project-interval-ms=3600000"})
+@ActiveProfiles("test")
+class WalletWriteAheadLogIntegrationTest {
+
+    @Autowired private WalletWriteAheadLog writeAheadLog;
+    @Autowired private WalletWalApplier applier;
+    @Autowired private WalletService walletService;
+    @Autowired private HotWalletService hotWalletService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    private Long walletId;
+    private Long otherId;
+
+    @BeforeEach
+    void setup() {
+        UserEntity user = userRepository.save(new UserEntity("Wal", "wal_" + System.nanoTime() + "@example.com", 30));
+        walletId = walletRepository.save(new WalletEntity(user, 100.0)).getId();
+        otherId = walletRepository.save(new WalletEntity(user, 0.0)).getId();
+    }
+
+    @Test
+    void testAcknowledgedOperationsReachTheDatabase() throws Exception {
+        writeAheadLog.processTransaction(walletId, new WalletTransactionRequestDTO(null, 50.0, "CREDIT", "Top-up"));
+        WalletTransactionResponseDTO debit = writeAheadLog.processTransaction(walletId,
+                new WalletTransactionRequestDTO("WAL-" + System.nanoTime(), 30.0, "DEBIT", "Lunch"));
+        WalletTransactionResponseDTO transfer = writeAheadLog.transfer(walletId, otherId, 20.0);
+        awaitApplied();
+
+        assertThat(balance(walletId)).isEqualTo(100.0);
+        assertThat(balance(otherId)).isEqualTo(20.0);
+        assertThat(transactionRepository.findByTransactionId(debit.transactionId())).isPresent();
+        assertThat(transfer.transactionId()).endsWith("-D");
+        assertThat(transactionRepository.findByWalletId(otherId)).hasSize(1);
+
+        // 🔁 Same transactionId again: original response, nothing logged
+        long logged = writeAheadLog.getStats().recordsLogged();
+        assertThat(writeAheadLog.processTransaction(walletId,
+                new WalletTransactionRequestDTO(debit.transactionId(), 30.0, "DEBIT", "Lunch"))).isEqualTo(debit);
+        assertThat(writeAheadLog.getStats().recordsLogged()).isEqualTo(logged);
+    }
+
+    @Test
+    void testRejectionsNeverReachTheLog() {
+        long logged = writeAheadLog.getStats().recordsLogged();
+
+        assertThatThrownBy(() -> writeAheadLog.processTransaction(walletId,
+                new WalletTransactionRequestDTO(null, 500.0, "DEBIT", "Too much")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Insufficient balance");
+        assertThatThrownBy(() -> writeAheadLog.transfer(walletId, walletId, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> writeAheadLog.processTransaction(-1L,
+                new WalletTransactionRequestDTO(null, 1.0, "CREDIT", "Nobody")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(writeAheadLog.getStats().recordsLogged()).isEqualTo(logged);
+        assertThat(balance(walletId)).isEqualTo(100.0);
+    }
+
+    @Test
+    void testDebitsAdmittedAgainstUnappliedCreditsInTheSameGroup() throws Exception {
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                clients.submit(() -> writeAheadLog.processTransaction(walletId,
+                        new WalletTransactionRequestDTO(null, 1.0, "CREDIT", "Concurrent credit")));
+            }
+        }
+        awaitApplied();
+        assertThat(balance(walletId)).isEqualTo(300.0);
+
+        WalStatsDTO stats = writeAheadLog.getStats();
+        assertThat(stats.groupsForced()).isLessThanOrEqualTo(stats.recordsLogged());
+        assertThat(stats.appliedSeq()).isEqualTo(stats.lastSeq());
+    }
+
+    @Test
+    void testReplayAppliesEachRecordOnce() {
+        LogRecord credit = new LogRecord(1, Kind.TRANSACTION, walletId, 0, TransactionType.CREDIT, 2_500,
+                LocalDateTime.now(), "REPLAY-" + System.nanoTime(), "Recovered credit");
+        LogRecord transfer = new LogRecord(2, Kind.TRANSFER_JOURNAL, walletId, otherId, TransactionType.DEBIT, 1_000,
+                LocalDateTime.now(), UUID.randomUUID().toString(), "Transfer from wallet " + walletId);
+
+        assertThat(applier.replay(List.of(credit, transfer))).isEqualTo(2);
+        assertThat(applier.replay(List.of(credit, transfer))).isZero();   // crash before the checkpoint moved
+
+        assertThat(balance(walletId)).isEqualTo(115.0);
+        assertThat(balance(otherId)).isEqualTo(10.0);
+    }
+
+    @Test
+    void testHotWalletDebitDrawsOnSlotShares() throws Exception {
+        hotWalletService.configure(walletId, 4);
+        walletService.processTransaction(walletId, new WalletTransactionRequestDTO(null, 500.0, "CREDIT", "Slot credit"));
+        assertThat(balance(walletId)).isEqualTo(100.0);   // base share only; the credit sits in a slot
+
+        writeAheadLog.processTransaction(walletId, new WalletTransactionRequestDTO(null, 550.0, "DEBIT", "Big purchase"));
+        awaitApplied();
+
+        assertThat(walletService.getBalance(walletId)).isEqualTo(50.0);
+        assertThat(transactionRepository.findByWalletId(walletId)).hasSize(2);
+    }
+
+    @Test
+    void testDirectWritesAndLoggedDebitsNeverOverdraw() throws Exception {
+        AtomicInteger debited = new AtomicInteger();
+        List<Future<?>> calls = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                calls.add(clients.submit(() -> {
+                    writeAheadLog.processTransaction(walletId, new WalletTransactionRequestDTO(null, 10.0, "DEBIT", "Logged"));
+                    debited.incrementAndGet();
+                    return null;
+                }));
+                calls.add(clients.submit(() -> {
+                    int applied = writeAheadLog.exclusive(() -> walletService.processBatch(walletId,
+                            List.of(new WalletTransactionRequestDTO(null, 10.0, "DEBIT", "Direct")),
+                            WalletBatchProperties.FailurePolicy.SKIP_FAILED)).applied();
+                    debited.addAndGet(applied);
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> call : calls) {
+            try {
+                call.get();
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause()).hasMessageContaining("Insufficient balance");
+            }
+        }
+        awaitApplied();
+
+        assertThat(debited.get()).isEqualTo(10);
+        assertThat(balance(walletId)).isZero();
+    }
+
+    private double balance(Long id) {
+        return walletRepository.findById(id).orElseThrow().getBalance();
+    }
+
+    // Callers are acknowledged at fsync; the database catches up right after
+    private void awaitApplied() throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            WalStatsDTO stats = writeAheadLog.getStats();
+            if (stats.unappliedRecords() == 0 && stats.appliedSeq() == stats.lastSeq()) return;
+            Thread.sleep(100);
+        }
+        fail("WAL records were not applied in time");
+    }
+}
@@ -0,0 +1,27 @@
+package org.transactions.digitalwallettraining.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void testAddedValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.put("TXN-" + i);
+        for (int i = 0; i < 10_000; i++) assertTrue(filter.mightContain("TXN-" + i));
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.put("TXN-" + i);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("OTHER-" + i)) falsePositives++;
+        }
+        assertTrue(falsePositives < 3_000, "False positives: " + falsePositives);
+    }
+}
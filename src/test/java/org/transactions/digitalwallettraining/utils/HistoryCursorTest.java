@@ -0,0 +1,30 @@
+package org.transactions.digitalwallettraining.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryCursorTest {
+
+    @Test
+    void testRoundTripKeepsNanosAndId() {
+        HistoryCursor cursor = new HistoryCursor(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000), 9_876_543_210L);
+        String token = cursor.encode();
+
+        assertFalse(token.contains("|"));
+        assertFalse(token.contains("="));
+        assertEquals(cursor, HistoryCursor.decode(token));
+    }
+
+    @Test
+    void testGarbageIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode("not base64!"));
+        String noId = Base64.getUrlEncoder().encodeToString("2025-03-01T10:15".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode(noId));
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday|42".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode(badDate));
+    }
+}
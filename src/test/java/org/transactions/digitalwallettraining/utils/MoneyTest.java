@@ -0,0 +1,38 @@
+package org.transactions.digitalwallettraining.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testMajorMinorRoundTrip() {
+        assertEquals(12_345L, Money.toMinor(123.45));
+        assertEquals(123.45, Money.toMajor(12_345L));
+        assertEquals(10L, Money.toMinor(0.1));
+        assertEquals("0.30", Money.format(Money.toMinor(0.1) + Money.toMinor(0.2)));
+    }
+
+    @Test
+    void testMoreThanTwoDecimalsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinor(10.005));
+        assertThrows(IllegalArgumentException.class, () -> Money.parseMinor("10.005"));
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinor(Double.NaN));
+    }
+
+    @Test
+    void testParseMinorIsExact() {
+        assertEquals(1_999L, Money.parseMinor(" 19.99 "));
+        assertEquals(5_000_000L, Money.parseMinor("50000"));
+        assertThrows(NumberFormatException.class, () -> Money.parseMinor("abc"));
+    }
+
+    // 0.1 added 1000 times drifts as a double; as minor units it lands exactly on the limit
+    @Test
+    void testNoDriftAgainstLimit() {
+        long spent = 0;
+        for (int i = 0; i < 1_000; i++) spent += Money.toMinor(0.1);
+        assertEquals(Money.toMinor(100.0), spent);
+    }
+}
@@ -0,0 +1,92 @@
+package org.transactions.digitalwallettraining.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.transactions.digitalwallettraining.dto.ArchivedTransactionDTO;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionSegmentTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2024, 1);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTripKeepsEveryColumn() throws IOException {
+        List<ArchivedTransactionDTO> rows = rows();
+        Path file = dir.resolve("segment.wseg");
+
+        TransactionSegment.Header header = TransactionSegment.write(file, JANUARY, rows);
+
+        assertEquals(new TransactionSegment.Header(JANUARY, rows.size(), 3, 30), header);
+        assertEquals(header, TransactionSegment.readHeader(file));
+        assertEquals(rows, TransactionSegment.readAll(file));
+        assertFalse(Files.exists(dir.resolve("segment.wseg.tmp")));
+    }
+
+    @Test
+    void testReadWalletReturnsOnlyThatWalletsRun() throws IOException {
+        List<ArchivedTransactionDTO> rows = rows();
+        Path file = dir.resolve("segment.wseg");
+        TransactionSegment.write(file, JANUARY, rows);
+
+        assertEquals(rows.stream().filter(r -> r.walletId() == 12).toList(), TransactionSegment.readWallet(file, 12));
+        assertTrue(TransactionSegment.readWallet(file, 13).isEmpty());    // inside the range, not present
+        assertTrue(TransactionSegment.readWallet(file, 99).isEmpty());    // outside the range
+    }
+
+    @Test
+    void testUnsortedOrForeignRowsAreRejected() {
+        List<ArchivedTransactionDTO> rows = new ArrayList<>(rows());
+        rows.add(0, rows.remove(rows.size() - 1));
+        assertThrows(IllegalArgumentException.class, () -> TransactionSegment.write(dir.resolve("a.wseg"), JANUARY, rows));
+
+        List<ArchivedTransactionDTO> february = List.of(row(1, 3, LocalDateTime.of(2024, 2, 1, 0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> TransactionSegment.write(dir.resolve("b.wseg"), JANUARY, february));
+    }
+
+    @Test
+    void testCorruptFilesAreRejected() throws IOException {
+        Path file = dir.resolve("segment.wseg");
+        TransactionSegment.write(file, JANUARY, rows());
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+        assertThrows(IOException.class, () -> TransactionSegment.readAll(file));
+
+        bytes[0] = 0;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> TransactionSegment.readHeader(file));
+    }
+
+    // Three wallets, ids out of order against dates, negative deltas and non-ASCII text
+    private static List<ArchivedTransactionDTO> rows() {
+        List<ArchivedTransactionDTO> rows = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0, 0, 123_456_000);
+        long id = 5_000;
+        for (long walletId : new long[]{3, 12, 30}) {
+            for (int i = 0; i < 50; i++) {
+                rows.add(row(i % 4 == 0 ? id - 4_000 : id, walletId, start.plusMinutes(37L * i)));
+                id++;
+            }
+        }
+        return rows;
+    }
+
+    private static ArchivedTransactionDTO row(long id, long walletId, LocalDateTime date) {
+        return new ArchivedTransactionDTO(id, walletId, id % 2 == 0 ? TransactionType.DEBIT : TransactionType.CREDIT,
+                (id * 7919) % 100_000, date, "TXN-" + walletId + "-" + id, "Chai ☕ #" + id);
+    }
+}
@@ -0,0 +1,100 @@
+package org.transactions.digitalwallettraining.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.transactions.digitalwallettraining.entity.TransactionType;
+import org.transactions.digitalwallettraining.exception.WriteAheadLogUnavailableException;
+import org.transactions.digitalwallettraining.utils.WriteAheadLogFile.Kind;
+import org.transactions.digitalwallettraining.utils.WriteAheadLogFile.LogRecord;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogFileTest {
+
+    private static final int SIZE = 64 * 1024;
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testReopenReturnsRecordsPastTheCheckpoint() throws IOException {
+        Path path = dir.resolve("wallet.wal");
+        WriteAheadLogFile log = WriteAheadLogFile.open(path, SIZE);
+        assertTrue(log.recover().isEmpty());
+        for (int i = 0; i < 5; i++) log.append(credit(7, 100 + i, "TXN-" + i));
+        log.append(new LogRecord(0, Kind.TRANSFER_JOURNAL, 7, 8, TransactionType.DEBIT, 50, AT, "T-1", "Transfer ☕"));
+        log.force();
+        log.checkpoint(2);
+
+        // No close(): what a crash leaves behind
+        WriteAheadLogFile reopened = WriteAheadLogFile.open(path, SIZE);
+        List<LogRecord> pending = reopened.recover();
+
+        assertEquals(List.of(3L, 4L, 5L, 6L), pending.stream().map(LogRecord::seq).toList());
+        assertEquals(credit(7, 102, "TXN-2").withSeq(3), pending.get(0));
+        assertEquals(-50, pending.get(3).deltaFor(7));
+        assertEquals(50, pending.get(3).deltaFor(8));
+        assertEquals(6, reopened.lastSeq());
+    }
+
+    @Test
+    void testTornTailIsDroppedAndTheSequenceContinues() throws IOException {
+        Path path = dir.resolve("wallet.wal");
+        WriteAheadLogFile log = WriteAheadLogFile.open(path, SIZE);
+        log.append(credit(7, 1, "A"));
+        log.append(credit(7, 2, "B"));
+        log.force();
+        try (RandomAccessFile raw = new RandomAccessFile(path.toFile(), "rw")) {
+            raw.seek(log.position() - 3);
+            raw.write(0x55);
+        }
+
+        WriteAheadLogFile reopened = WriteAheadLogFile.open(path, SIZE);
+        assertEquals(List.of("A"), reopened.recover().stream().map(LogRecord::id).toList());
+        assertEquals(2, reopened.append(credit(7, 3, "C")).seq());
+    }
+
+    @Test
+    void testRewindHidesTheStaleTail() throws IOException {
+        Path path = dir.resolve("wallet.wal");
+        WriteAheadLogFile log = WriteAheadLogFile.open(path, SIZE);
+        for (int i = 0; i < 10; i++) log.append(credit(7, i + 1, "OLD-" + i));
+        log.force();
+        assertThrows(IllegalStateException.class, log::rewind);   // nothing applied yet
+
+        log.checkpoint(log.lastSeq());
+        log.rewind();
+        log.append(credit(9, 1, "N"));
+        log.force();
+
+        WriteAheadLogFile reopened = WriteAheadLogFile.open(path, SIZE);
+        List<LogRecord> pending = reopened.recover();
+        assertEquals(1, pending.size());
+        assertEquals(11, pending.get(0).seq());
+        assertEquals(9, pending.get(0).walletId());
+    }
+
+    @Test
+    void testFullLogAndForeignFilesAreRefused() throws IOException {
+        WriteAheadLogFile log = WriteAheadLogFile.open(dir.resolve("small.wal"), 8192);
+        LogRecord big = credit(7, 1, "X".repeat(3000));
+        log.append(big);
+        assertFalse(log.fits(big));
+        assertThrows(WriteAheadLogUnavailableException.class, () -> log.append(big));   // a 503, not a 403
+
+        Path foreign = Files.write(dir.resolve("foreign.wal"), "not a log".getBytes());
+        assertThrows(IOException.class, () -> WriteAheadLogFile.open(foreign, SIZE));
+    }
+
+    private static LogRecord credit(long walletId, long amountMinor, String id) {
+        return new LogRecord(0, Kind.TRANSACTION, walletId, 0, TransactionType.CREDIT, amountMinor, AT, id, "Top-up");
+    }
+}